@@ -0,0 +1,146 @@
+/**
+ * Project: Foops_1
+ * Package: foop.benchmarks
+ * File: AsyncFanOutBenchmark.java
+ * 
+ * @author sidmishraw
+ *         Last modified: Oct 19, 2026 1:31:08 AM
+ */
+package foop.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import foop.core.Record;
+import foop.core.StateManager;
+import foop.core.TLong;
+import foop.core.TransactionExecutor;
+import foop.core.TransactionResult;
+import foop.utils.Transactions;
+
+/**
+ * <p>
+ * A request handler fans out a transaction per variable and gathers their
+ * results. Async, the transactions are submitted to a small pool and the
+ * results are gathered from their futures. With threads, each transaction
+ * is started as a thread of its own and joined.
+ * 
+ * @author sidmishraw
+ *
+ *         Qualified Name: foop.benchmarks.AsyncFanOutBenchmark
+ * 
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AsyncFanOutBenchmark {
+    
+    /**
+     * <p>
+     * true to submit the transactions asynchronously to a pool, false to start
+     * a thread for each of them
+     */
+    @Param({ "true", "false" })
+    public boolean      async;
+    
+    @Param({ "64" })
+    public int          fanOut;
+    
+    StateManager        manager;
+    
+    TLong[]             counters;
+    
+    TransactionExecutor executor;
+    
+    @Setup
+    public void setup() {
+        
+        this.manager = new StateManager();
+        this.counters = new TLong[this.fanOut];
+        
+        for (int i = 0; i < this.fanOut; i++) {
+            
+            this.counters[i] = new TLong(this.manager, "counter-" + i);
+        }
+        
+        this.executor = this.async ? TransactionExecutor.fixedPool(Runtime.getRuntime().availableProcessors())
+                : TransactionExecutor.threadPerTransaction();
+    }
+    
+    @TearDown
+    public void tearDown() {
+        
+        this.executor.shutdown();
+    }
+    
+    @Benchmark
+    public long fanOut() throws Exception {
+        
+        Transactions transactions = new Transactions();
+        
+        long sum = 0;
+        
+        if (this.async) {
+            
+            List<CompletableFuture<TransactionResult<Long>>> results = new ArrayList<>(this.fanOut);
+            
+            for (int i = 0; i < this.fanOut; i++) {
+                
+                TLong counter = this.counters[i];
+                
+                results.add(transactions.newTransaction("fan-out", this.manager)
+                        .addValueOperation(context -> counter.add(1))
+                        .submitAsync(this.executor));
+            }
+            
+            CompletableFuture.allOf(results.toArray(new CompletableFuture<?>[this.fanOut])).join();
+            
+            for (CompletableFuture<TransactionResult<Long>> result : results) {
+                
+                sum += result.join().getValue();
+            }
+            
+            return sum;
+        }
+        
+        List<Future<Record>> handles = new ArrayList<>(this.fanOut);
+        
+        for (int i = 0; i < this.fanOut; i++) {
+            
+            TLong counter = this.counters[i];
+            
+            handles.add(transactions.newTransaction("fan-out", this.manager)
+                    .addTransactionOperation(context -> counter.add(1) > 0)
+                    .submit(this.executor));
+        }
+        
+        for (int i = 0; i < this.fanOut; i++) {
+            
+            handles.get(i).get();
+            
+            // the value has to be read back once the thread is done
+            sum += this.counters[i].get();
+        }
+        
+        return sum;
+    }
+}
@@ -0,0 +1,62 @@
+/**
+ * Project: Foops_1
+ * Package: foop.benchmarks
+ * File: BankTransferBenchmark.java
+ * 
+ * @author sidmishraw
+ *         Last modified: Oct 18, 2026 1:52:09 PM
+ */
+package foop.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import foop.core.Variable;
+
+/**
+ * <p>
+ * The classic bank account workload, each transaction moves one unit between
+ * two accounts. Both accounts are in the writeSet.
+ * 
+ * @author sidmishraw
+ *
+ *         Qualified Name: foop.benchmarks.BankTransferBenchmark
+ * 
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BankTransferBenchmark {
+    
+    @Benchmark
+    public void transfer(Workload workload, TransactionCounters counters) {
+        
+        int from = workload.pick();
+        
+        Variable source = workload.handles[from];
+        Variable target = workload.handles[workload.pickOther(from)];
+        
+        counters.execute(counters.transactions.newTransaction("transfer", workload.manager)
+                .addWriteSetMembers(source, target)
+                .addTransactionOperation(() -> {
+                    
+                    long sourceAmount = workload.valueOf(source);
+                    long targetAmount = workload.valueOf(target);
+                    
+                    workload.manager.write(source, new Value(sourceAmount - 1));
+                    workload.manager.write(target, new Value(targetAmount + 1));
+                    
+                    return true;
+                })
+                .get());
+    }
+}
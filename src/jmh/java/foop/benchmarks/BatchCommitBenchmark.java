@@ -0,0 +1,98 @@
+/**
+ * Project: Foops_1
+ * Package: foop.benchmarks
+ * File: BatchCommitBenchmark.java
+ * 
+ * @author sidmishraw
+ *         Last modified: Oct 18, 2026 5:58:40 PM
+ */
+package foop.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import foop.core.Transaction;
+import foop.core.Variable;
+
+/**
+ * <p>
+ * The ingest workload, <code>batchSize</code> tiny transactions each
+ * incrementing one variable, submitted either one at a time or as a single
+ * batch. The score is in batches, so the two are directly comparable.
+ * 
+ * @author sidmishraw
+ *
+ *         Qualified Name: foop.benchmarks.BatchCommitBenchmark
+ * 
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BatchCommitBenchmark {
+    
+    @Param({ "16", "256" })
+    public int batchSize;
+    
+    @Benchmark
+    public void oneAtATime(Workload workload, TransactionCounters counters) {
+        
+        for (Transaction transaction : this.ingest(workload, counters)) {
+            
+            counters.execute(transaction);
+        }
+    }
+    
+    @Benchmark
+    public void batched(Workload workload, TransactionCounters counters) {
+        
+        counters.executeBatch(this.ingest(workload, counters));
+    }
+    
+    /**
+     * <p>
+     * Makes a batch worth of increments.
+     * 
+     * @param workload
+     *            The workload
+     * @param counters
+     *            The counters of the thread, holding its transaction builder
+     * 
+     * @return The transactions
+     */
+    private List<Transaction> ingest(Workload workload, TransactionCounters counters) {
+        
+        List<Transaction> transactions = new ArrayList<>(this.batchSize);
+        
+        for (int i = 0; i < this.batchSize; i++) {
+            
+            Variable variable = workload.handles[workload.pick()];
+            
+            transactions.add(counters.transactions.newTransaction("ingest", workload.manager)
+                    .addWriteSetMembers(variable)
+                    .addTransactionOperation(() -> {
+                        
+                        workload.manager.write(variable, new Value(workload.valueOf(variable) + 1));
+                        
+                        return true;
+                    })
+                    .get());
+        }
+        
+        return transactions;
+    }
+}
@@ -0,0 +1,154 @@
+/**
+ * Project: Foops_1
+ * Package: foop.benchmarks
+ * File: BlockingQueueBenchmark.java
+ * 
+ * @author sidmishraw
+ *         Last modified: Oct 19, 2026 12:41:53 AM
+ */
+package foop.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import foop.core.StateManager;
+import foop.core.collections.TQueue;
+import foop.utils.Transactions;
+
+/**
+ * <p>
+ * The benchmark thread takes the elements out of a queue fed by a background
+ * producer at a fixed pace, so it mostly waits for the queue to be
+ * non-empty. Blocking, the consumer retries its transaction and sleeps till
+ * the producer commits. Polling, it runs the transaction over and over till
+ * it finds an element, burning the CPU the producer needs.
+ * 
+ * <br>
+ * <br>
+ * 
+ * The commits counter is the number of transactions run per element taken.
+ * 
+ * @author sidmishraw
+ *
+ *         Qualified Name: foop.benchmarks.BlockingQueueBenchmark
+ * 
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BlockingQueueBenchmark {
+    
+    /**
+     * <p>
+     * true to wait with a retry, false to poll
+     */
+    @Param({ "true", "false" })
+    public boolean   blocking;
+    
+    /**
+     * <p>
+     * The pause of the producer between two elements
+     */
+    @Param({ "20" })
+    public long      produceMicros;
+    
+    StateManager     manager;
+    
+    TQueue<Long>     queue;
+    
+    Thread           producer;
+    
+    volatile boolean running;
+    
+    @Setup
+    public void setup() {
+        
+        this.manager = new StateManager();
+        this.queue = new TQueue<>(this.manager, "queue", 1024);
+        this.running = true;
+        
+        this.producer = new Thread(this::produce, "producer");
+        this.producer.setDaemon(true);
+        this.producer.start();
+    }
+    
+    @TearDown
+    public void tearDown() throws InterruptedException {
+        
+        // the benchmark thread has taken its last element by now
+        this.running = false;
+        this.producer.join();
+    }
+    
+    /**
+     * <p>
+     * Offers an element every <i>produceMicros</i>, dropping it if the queue
+     * is full.
+     */
+    private void produce() {
+        
+        Transactions transactions = new Transactions();
+        
+        for (long element = 0; this.running; element++) {
+            
+            long next = element;
+            
+            transactions.newTransaction("produce", this.manager)
+                    .addWriteSetMembers(this.queue.getTail())
+                    .addTransactionOperation(() -> {
+                        
+                        this.queue.offer(next);
+                        
+                        return true;
+                    })
+                    .get()
+                    .run();
+            
+            LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(this.produceMicros));
+        }
+    }
+    
+    @Benchmark
+    public long consume(TransactionCounters counters) {
+        
+        long[] taken = { -1L };
+        
+        while (taken[0] < 0) {
+            
+            counters.execute(counters.transactions.newTransaction("consume", this.manager)
+                    .addWriteSetMembers(this.queue.getHead())
+                    .addTransactionOperation(context -> {
+                        
+                        Long element = this.queue.poll();
+                        
+                        if (null == element) {
+                            
+                            return this.blocking ? context.retry() : true;
+                        }
+                        
+                        taken[0] = element;
+                        
+                        return true;
+                    })
+                    .get());
+        }
+        
+        return taken[0];
+    }
+}
@@ -0,0 +1,114 @@
+/**
+ * Project: Foops_1
+ * Package: foop.benchmarks
+ * File: CheckpointLoadBenchmark.java
+ * 
+ * @author sidmishraw
+ *         Last modified: Oct 18, 2026 7:56:48 PM
+ */
+package foop.benchmarks;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import foop.core.StateManager;
+import foop.core.Variable;
+import foop.core.durability.Checkpoint;
+
+/**
+ * <p>
+ * Measures the startup from a checkpoint of <code>variables</code> variables:
+ * <code>load</code> only loads it, <code>loadAndTouch</code> also reads a
+ * <code>touched</code> fraction of the variables, whose states get decoded.
+ * The difference between the two is the cost of the decoding saved by the
+ * lazy loading for the variables that are not read.
+ * 
+ * @author sidmishraw
+ *
+ *         Qualified Name: foop.benchmarks.CheckpointLoadBenchmark
+ * 
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CheckpointLoadBenchmark {
+    
+    @Param({ "100000" })
+    public int    variables;
+    
+    @Param({ "0.01", "1.0" })
+    public double touched;
+    
+    Checkpoint    checkpoint;
+    
+    Path          file;
+    
+    @Setup
+    public void setup() throws IOException {
+        
+        StateManager manager = new StateManager();
+        
+        for (int i = 0; i < this.variables; i++) {
+            
+            manager.write(manager.make("variable-" + i), new Value(i));
+        }
+        
+        this.file = Files.createTempFile("foop-checkpoint", ".bin");
+        this.checkpoint = new Checkpoint(this.file, new ValueCodec());
+        
+        this.checkpoint.write(manager);
+    }
+    
+    @TearDown
+    public void tearDown() throws IOException {
+        
+        Files.deleteIfExists(this.file);
+    }
+    
+    @Benchmark
+    public StateManager load() throws IOException {
+        
+        StateManager manager = new StateManager();
+        
+        this.checkpoint.load(manager);
+        
+        return manager;
+    }
+    
+    @Benchmark
+    public long loadAndTouch() throws IOException {
+        
+        StateManager manager = this.load();
+        
+        int touched = (int) (this.variables * this.touched);
+        
+        long sum = 0L;
+        
+        for (int i = 0; i < touched; i++) {
+            
+            Variable variable = manager.getVariable("variable-" + i).get();
+            
+            sum += ((Value) manager.readState(variable)).value;
+        }
+        
+        return sum;
+    }
+}
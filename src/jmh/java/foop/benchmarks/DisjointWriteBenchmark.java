@@ -0,0 +1,97 @@
+/**
+ * Project: Foops_1
+ * Package: foop.benchmarks
+ * File: DisjointWriteBenchmark.java
+ * 
+ * @author sidmishraw
+ *         Last modified: Oct 18, 2026 2:20:16 PM
+ */
+package foop.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import foop.core.StateManager;
+import foop.core.Variable;
+
+/**
+ * <p>
+ * Every thread updates a variable of its own, so the transactions never
+ * conflict. Any drop in the per thread throughput as threads are added is the
+ * cost of the shared structures of the <i>StateManager</i>. The
+ * <code>shards</code> compares the un-sharded <i>StateManager</i> against a
+ * sharded one.
+ * 
+ * @author sidmishraw
+ *
+ *         Qualified Name: foop.benchmarks.DisjointWriteBenchmark
+ * 
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DisjointWriteBenchmark {
+    
+    @Param({ "1", "16" })
+    public int    shards;
+    
+    StateManager  manager;
+    
+    AtomicInteger threads;
+    
+    @Setup
+    public void setup() {
+        
+        this.manager = new StateManager(this.shards);
+        this.threads = new AtomicInteger();
+    }
+    
+    /**
+     * <p>
+     * The variable owned by a benchmark thread
+     */
+    @State(Scope.Thread)
+    public static class OwnVariable {
+        
+        Variable variable;
+        
+        @Setup
+        public void setup(DisjointWriteBenchmark benchmark) {
+            
+            this.variable = benchmark.manager.make("own-" + benchmark.threads.getAndIncrement());
+            
+            benchmark.manager.write(this.variable, new Value(0L));
+        }
+    }
+    
+    @Benchmark
+    public void update(OwnVariable own, TransactionCounters counters) {
+        
+        counters.execute(counters.transactions.newTransaction("update", this.manager)
+                .addWriteSetMembers(own.variable)
+                .addTransactionOperation(() -> {
+                    
+                    long value = ((Value) this.manager.read(own.variable).get()).value;
+                    
+                    this.manager.write(own.variable, new Value(value + 1));
+                    
+                    return true;
+                })
+                .get());
+    }
+}
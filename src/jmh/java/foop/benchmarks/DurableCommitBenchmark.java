@@ -0,0 +1,167 @@
+/**
+ * Project: Foops_1
+ * Package: foop.benchmarks
+ * File: DurableCommitBenchmark.java
+ * 
+ * @author sidmishraw
+ *         Last modified: Oct 18, 2026 6:58:03 PM
+ */
+package foop.benchmarks;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import foop.core.StateManager;
+import foop.core.Transaction;
+import foop.core.Variable;
+import foop.core.durability.SyncPolicy;
+import foop.core.durability.WriteAheadLog;
+import foop.utils.Transactions;
+
+/**
+ * <p>
+ * Measures the cost of making the commits durable: each thread re-runs an
+ * increment of a variable of its own, with the commits logged to a
+ * <i>WriteAheadLog</i> as per the <code>policy</code>, or not logged at all.
+ * 
+ * <br>
+ * <br>
+ * 
+ * With <code>everyCommit</code> the latency is bound by the fsync of the
+ * disk, run it with more threads to see the fsyncs shared by the commits
+ * made meanwhile.
+ * 
+ * @author sidmishraw
+ *
+ *         Qualified Name: foop.benchmarks.DurableCommitBenchmark
+ * 
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DurableCommitBenchmark {
+    
+    @Param({ "none", "everyCommit", "every64Commits", "every10Millis" })
+    public String  policy;
+    
+    StateManager   manager;
+    
+    WriteAheadLog  log;
+    
+    Path           directory;
+    
+    AtomicInteger  threads;
+    
+    @Setup
+    public void setup() throws IOException {
+        
+        this.manager = new StateManager();
+        this.threads = new AtomicInteger();
+        
+        if (!"none".equals(this.policy)) {
+            
+            this.directory = Files.createTempDirectory("foop-wal");
+            this.log = new WriteAheadLog(this.directory, new ValueCodec(), this.syncPolicy());
+            this.manager.setWriteAheadLog(this.log);
+        }
+    }
+    
+    @TearDown
+    public void tearDown() throws IOException {
+        
+        if (null != this.log) {
+            
+            this.manager.setWriteAheadLog(null);
+            this.log.close();
+            
+            try (Stream<Path> files = Files.walk(this.directory)) {
+                
+                for (Path file : (Iterable<Path>) files.sorted(Comparator.reverseOrder())::iterator) {
+                    
+                    Files.delete(file);
+                }
+            }
+        }
+    }
+    
+    /**
+     * <p>
+     * Gets the sync policy named by the <code>policy</code>.
+     * 
+     * @return The sync policy
+     */
+    private SyncPolicy syncPolicy() {
+        
+        switch (this.policy) {
+            case "everyCommit":
+                return SyncPolicy.everyCommit();
+            case "every64Commits":
+                return SyncPolicy.everyCommits(64);
+            case "every10Millis":
+                return SyncPolicy.everyMillis(10L);
+            default:
+                throw new IllegalArgumentException("Unknown policy: " + this.policy);
+        }
+    }
+    
+    /**
+     * <p>
+     * The re-usable transaction of a benchmark thread, it increments a
+     * variable of its own.
+     */
+    @State(Scope.Thread)
+    public static class ReusableTransaction {
+        
+        Transaction transaction;
+        
+        @Setup
+        public void setup(DurableCommitBenchmark benchmark) {
+            
+            StateManager manager = benchmark.manager;
+            
+            int thread = benchmark.threads.getAndIncrement();
+            
+            Variable counter = manager.make("counter-" + thread);
+            
+            manager.write(counter, new Value(0L));
+            
+            this.transaction = new Transactions().newTransaction("increment-" + thread, manager)
+                    .addWriteSetMembers(counter)
+                    .addTransactionOperation(() -> {
+                        
+                        manager.write(counter, new Value(((Value) manager.readState(counter)).value + 1));
+                        
+                        return true;
+                    })
+                    .get();
+        }
+    }
+    
+    @Benchmark
+    public void commit(ReusableTransaction reusable) {
+        
+        reusable.transaction.getRecord().reset();
+        reusable.transaction.run();
+    }
+}
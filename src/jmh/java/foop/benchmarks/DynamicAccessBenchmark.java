@@ -0,0 +1,151 @@
+/**
+ * Project: Foops_1
+ * Package: foop.benchmarks
+ * File: DynamicAccessBenchmark.java
+ * 
+ * @author sidmishraw
+ *         Last modified: Oct 18, 2026 11:26:50 PM
+ */
+package foop.benchmarks;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import foop.core.StateManager;
+import foop.core.Variable;
+
+/**
+ * <p>
+ * Every transaction credits the poorest of a few random accounts, so which
+ * account it writes is only known once it has read them. Declaring the sets
+ * up front means owning all the candidates, with a <i>TransactionContext</i>
+ * the transaction reads the candidates and owns only the one it credits. Run
+ * it with more than one thread and compare the aborts.
+ * 
+ * @author sidmishraw
+ *
+ *         Qualified Name: foop.benchmarks.DynamicAccessBenchmark
+ * 
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DynamicAccessBenchmark {
+    
+    /**
+     * <p>
+     * true to declare all the candidates as writeSet members, false to go
+     * through a <i>TransactionContext</i>
+     */
+    @Param({ "true", "false" })
+    public boolean declared;
+    
+    @Param({ "64" })
+    public int     accounts;
+    
+    @Param({ "4" })
+    public int     candidates;
+    
+    StateManager   manager;
+    
+    Variable[]     variables;
+    
+    @Setup
+    public void setup() {
+        
+        this.manager = new StateManager();
+        this.variables = new Variable[this.accounts];
+        
+        for (int i = 0; i < this.accounts; i++) {
+            
+            this.variables[i] = this.manager.make("account-" + i);
+            this.manager.write(this.variables[i], new Value(0L));
+        }
+    }
+    
+    @Benchmark
+    public void credit(TransactionCounters counters) {
+        
+        Variable[] picked = new Variable[this.candidates];
+        
+        for (int i = 0; i < picked.length; i++) {
+            
+            picked[i] = this.variables[ThreadLocalRandom.current().nextInt(this.accounts)];
+        }
+        
+        if (this.declared) {
+            
+            counters.execute(counters.transactions.newTransaction("credit", this.manager)
+                    .addWriteSetMembers(picked)
+                    .addTransactionOperation(() -> {
+                        
+                        Variable poorest = this.poorest(picked);
+                        
+                        long balance = ((Value) this.manager.readState(poorest)).value;
+                        
+                        this.manager.write(poorest, new Value(balance + 1));
+                        
+                        return true;
+                    })
+                    .get());
+        } else {
+            
+            counters.execute(counters.transactions.newTransaction("credit", this.manager)
+                    .addTransactionOperation(context -> {
+                        
+                        Variable poorest = this.poorest(picked);
+                        
+                        long balance = ((Value) context.readState(poorest)).value;
+                        
+                        context.write(poorest, new Value(balance + 1));
+                        
+                        return true;
+                    })
+                    .get());
+        }
+    }
+    
+    /**
+     * <p>
+     * Finds the account with the lowest balance.
+     * 
+     * @param picked
+     *            The candidate accounts
+     * 
+     * @return The poorest of them
+     */
+    private Variable poorest(Variable[] picked) {
+        
+        Variable poorest = picked[0];
+        
+        long lowest = Long.MAX_VALUE;
+        
+        for (Variable variable : picked) {
+            
+            long balance = ((Value) this.manager.readState(variable)).value;
+            
+            if (balance < lowest) {
+                
+                poorest = variable;
+                lowest = balance;
+            }
+        }
+        
+        return poorest;
+    }
+}
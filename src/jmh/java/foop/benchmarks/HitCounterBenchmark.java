@@ -0,0 +1,114 @@
+/**
+ * Project: Foops_1
+ * Package: foop.benchmarks
+ * File: HitCounterBenchmark.java
+ * 
+ * @author sidmishraw
+ *         Last modified: Oct 19, 2026 3:31:09 AM
+ */
+package foop.benchmarks;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import foop.core.Commutative;
+import foop.core.StateManager;
+import foop.core.TLong;
+
+/**
+ * <p>
+ * Every transaction credits a random account and counts itself in a global
+ * hits counter. Owning the counter for the whole transaction serializes all
+ * of them, updating it commutatively owns it only while committing. Run it
+ * with more than one thread and compare the aborts.
+ * 
+ * @author sidmishraw
+ *
+ *         Qualified Name: foop.benchmarks.HitCounterBenchmark
+ * 
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class HitCounterBenchmark {
+    
+    /**
+     * <p>
+     * true to update the counter commutatively, false to declare it as a
+     * writeSet member
+     */
+    @Param({ "true", "false" })
+    public boolean commutative;
+    
+    @Param({ "64" })
+    public int     accounts;
+    
+    StateManager   manager;
+    
+    TLong[]        balances;
+    
+    TLong          hits;
+    
+    @Setup
+    public void setup() {
+        
+        this.manager = new StateManager();
+        this.balances = new TLong[this.accounts];
+        
+        for (int i = 0; i < this.accounts; i++) {
+            
+            this.balances[i] = new TLong(this.manager, "account-" + i);
+        }
+        
+        this.hits = new TLong(this.manager, "hits");
+    }
+    
+    @Benchmark
+    public void credit(TransactionCounters counters) {
+        
+        TLong balance = this.balances[ThreadLocalRandom.current().nextInt(this.accounts)];
+        
+        if (this.commutative) {
+            
+            counters.execute(counters.transactions.newTransaction("credit", this.manager)
+                    .addWriteSetMembers(balance.getVariable())
+                    .addTransactionOperation(() -> {
+                        
+                        balance.add(1L);
+                        
+                        this.hits.commute(Commutative.ADD, 1L);
+                        
+                        return true;
+                    })
+                    .get());
+        } else {
+            
+            counters.execute(counters.transactions.newTransaction("credit", this.manager)
+                    .addWriteSetMembers(balance.getVariable(), this.hits.getVariable())
+                    .addTransactionOperation(() -> {
+                        
+                        balance.add(1L);
+                        
+                        this.hits.add(1L);
+                        
+                        return true;
+                    })
+                    .get());
+        }
+    }
+}
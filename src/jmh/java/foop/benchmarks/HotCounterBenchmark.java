@@ -0,0 +1,76 @@
+/**
+ * Project: Foops_1
+ * Package: foop.benchmarks
+ * File: HotCounterBenchmark.java
+ * 
+ * @author sidmishraw
+ *         Last modified: Oct 18, 2026 1:58:44 PM
+ */
+package foop.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import foop.core.StateManager;
+import foop.core.Variable;
+
+/**
+ * <p>
+ * Every transaction increments the same counter, the worst case for
+ * contention. Run it with more than one thread to see the effect of the
+ * contention manager.
+ * 
+ * @author sidmishraw
+ *
+ *         Qualified Name: foop.benchmarks.HotCounterBenchmark
+ * 
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class HotCounterBenchmark {
+    
+    static final String COUNTER = "counter";
+    
+    StateManager        manager;
+    
+    Variable            counter;
+    
+    @Setup
+    public void setup() {
+        
+        this.manager = new StateManager();
+        
+        this.counter = this.manager.make(COUNTER);
+        this.manager.write(this.counter, new Value(0L));
+    }
+    
+    @Benchmark
+    public void increment(TransactionCounters counters) {
+        
+        counters.execute(counters.transactions.newTransaction("increment", this.manager)
+                .addWriteSetMembers(this.counter)
+                .addTransactionOperation(() -> {
+                    
+                    long count = ((Value) this.manager.read(this.counter).get()).value;
+                    
+                    this.manager.write(this.counter, new Value(count + 1));
+                    
+                    return true;
+                })
+                .get());
+    }
+}
@@ -0,0 +1,81 @@
+/**
+ * Project: Foops_1
+ * Package: foop.benchmarks
+ * File: LargeReadSetBenchmark.java
+ * 
+ * @author sidmishraw
+ *         Last modified: Oct 18, 2026 2:13:58 PM
+ */
+package foop.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import foop.core.Variable;
+
+/**
+ * <p>
+ * Each transaction reads <code>readSetSize</code> consecutive variables and
+ * writes their sum into one more variable, so both the backup and the commit
+ * validation of the readSet dominate.
+ * 
+ * @author sidmishraw
+ *
+ *         Qualified Name: foop.benchmarks.LargeReadSetBenchmark
+ * 
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LargeReadSetBenchmark {
+    
+    @Param({ "8", "128" })
+    public int readSetSize;
+    
+    @Benchmark
+    public void aggregate(Workload workload, TransactionCounters counters) {
+        
+        int size = Math.min(this.readSetSize, workload.variables - 1);
+        int start = workload.pick();
+        
+        Variable[] readSet = new Variable[size];
+        
+        for (int i = 0; i < size; i++) {
+            
+            readSet[i] = workload.handles[(start + 1 + i) % workload.variables];
+        }
+        
+        Variable target = workload.handles[start];
+        
+        counters.execute(counters.transactions.newTransaction("aggregate", workload.manager)
+                .addWriteSetMembers(target)
+                .addReadSetMembers(readSet)
+                .addTransactionOperation(() -> {
+                    
+                    long sum = 0;
+                    
+                    for (Variable variable : readSet) {
+                        
+                        sum += workload.valueOf(variable);
+                    }
+                    
+                    workload.manager.write(target, new Value(sum % Workload.INITIAL_AMOUNT));
+                    
+                    return true;
+                })
+                .get());
+    }
+}
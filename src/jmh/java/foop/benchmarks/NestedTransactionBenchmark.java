@@ -0,0 +1,135 @@
+/**
+ * Project: Foops_1
+ * Package: foop.benchmarks
+ * File: NestedTransactionBenchmark.java
+ * 
+ * @author sidmishraw
+ *         Last modified: Oct 19, 2026 12:08:31 AM
+ */
+package foop.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import foop.core.StateManager;
+import foop.core.TransactionContext;
+import foop.core.Variable;
+
+/**
+ * <p>
+ * Every transaction does a long run of steps over variables of its own
+ * thread, and then increments a shared counter, the only step that
+ * conflicts. Run flat, a conflict on the counter redoes all the steps. Run
+ * as a nested transaction, the increment is retried on its own. Run it with
+ * more than one thread.
+ * 
+ * @author sidmishraw
+ *
+ *         Qualified Name: foop.benchmarks.NestedTransactionBenchmark
+ * 
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class NestedTransactionBenchmark {
+    
+    /**
+     * <p>
+     * true to increment the counter in a nested transaction
+     */
+    @Param({ "true", "false" })
+    public boolean nested;
+    
+    @Param({ "32" })
+    public int     steps;
+    
+    StateManager   manager;
+    
+    Variable       counter;
+    
+    AtomicInteger  threads;
+    
+    @Setup
+    public void setup() {
+        
+        this.manager = new StateManager();
+        this.threads = new AtomicInteger();
+        
+        this.counter = this.manager.make("counter");
+        this.manager.write(this.counter, new Value(0L));
+    }
+    
+    /**
+     * <p>
+     * The variables of a benchmark thread
+     */
+    @State(Scope.Thread)
+    public static class OwnVariables {
+        
+        Variable[] variables;
+        
+        @Setup
+        public void setup(NestedTransactionBenchmark benchmark) {
+            
+            int thread = benchmark.threads.getAndIncrement();
+            
+            this.variables = new Variable[benchmark.steps];
+            
+            for (int i = 0; i < this.variables.length; i++) {
+                
+                this.variables[i] = benchmark.manager.make("own-" + thread + "-" + i);
+                benchmark.manager.write(this.variables[i], new Value(0L));
+            }
+        }
+    }
+    
+    @Benchmark
+    public void steps(OwnVariables own, TransactionCounters counters) {
+        
+        counters.execute(counters.transactions.newTransaction("steps", this.manager)
+                .addTransactionOperation(context -> {
+                    
+                    for (Variable variable : own.variables) {
+                        
+                        increment(context, variable);
+                    }
+                    
+                    return this.nested ? context.nested(nested -> increment(nested, this.counter))
+                            : increment(context, this.counter);
+                })
+                .get());
+    }
+    
+    /**
+     * <p>
+     * Increments the value of the variable.
+     * 
+     * @param context
+     *            The context of the transaction
+     * @param variable
+     *            The variable
+     * 
+     * @return true
+     */
+    private static boolean increment(TransactionContext context, Variable variable) {
+        
+        context.write(variable, new Value(((Value) context.readState(variable)).value + 1));
+        
+        return true;
+    }
+}
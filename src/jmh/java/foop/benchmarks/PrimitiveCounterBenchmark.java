@@ -0,0 +1,130 @@
+/**
+ * Project: Foops_1
+ * Package: foop.benchmarks
+ * File: PrimitiveCounterBenchmark.java
+ * 
+ * @author sidmishraw
+ *         Last modified: Oct 18, 2026 8:58:12 PM
+ */
+package foop.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import foop.core.StateManager;
+import foop.core.TLong;
+import foop.core.Transaction;
+import foop.core.Variable;
+import foop.utils.Transactions;
+
+/**
+ * <p>
+ * Compares incrementing a counter held in a <i>TLong</i> with incrementing
+ * one held in a boxed <i>Value</i>. Each thread re-runs the same transaction
+ * over its own counter, so the difference is the cost of the boxing.
+ * 
+ * <br>
+ * <br>
+ * 
+ * Run with <code>-prof gc</code>, the <code>gc.alloc.rate.norm</code> of the
+ * primitive counter should be close to 0 B/op while the boxed one allocates a
+ * <i>Value</i> per increment.
+ * 
+ * @author sidmishraw
+ *
+ *         Qualified Name: foop.benchmarks.PrimitiveCounterBenchmark
+ * 
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PrimitiveCounterBenchmark {
+    
+    StateManager  manager;
+    
+    AtomicInteger threads;
+    
+    @Setup
+    public void setup() {
+        
+        this.manager = new StateManager();
+        this.threads = new AtomicInteger();
+    }
+    
+    /**
+     * <p>
+     * The re-usable transactions of a benchmark thread, one incrementing a
+     * primitive counter and one incrementing a boxed counter.
+     */
+    @State(Scope.Thread)
+    public static class ReusableTransactions {
+        
+        Transaction primitive;
+        
+        Transaction boxed;
+        
+        @Setup
+        public void setup(PrimitiveCounterBenchmark benchmark) {
+            
+            StateManager manager = benchmark.manager;
+            
+            int thread = benchmark.threads.getAndIncrement();
+            
+            TLong counter = new TLong(manager, "primitive-" + thread);
+            
+            this.primitive = new Transactions().newTransaction("primitive-" + thread, manager)
+                    .addWriteSetMembers(counter.getVariable())
+                    .addTransactionOperation(() -> {
+                        
+                        counter.add(1L);
+                        
+                        return true;
+                    })
+                    .get();
+            
+            Variable value = manager.make("boxed-" + thread);
+            
+            manager.write(value, new Value(0L));
+            
+            this.boxed = new Transactions().newTransaction("boxed-" + thread, manager)
+                    .addWriteSetMembers(value)
+                    .addTransactionOperation(() -> {
+                        
+                        long old = ((Value) manager.readState(value)).value;
+                        
+                        manager.write(value, new Value(old + 1L));
+                        
+                        return true;
+                    })
+                    .get();
+        }
+    }
+    
+    @Benchmark
+    public void primitive(ReusableTransactions reusable) {
+        
+        reusable.primitive.getRecord().reset();
+        reusable.primitive.run();
+    }
+    
+    @Benchmark
+    public void boxed(ReusableTransactions reusable) {
+        
+        reusable.boxed.getRecord().reset();
+        reusable.boxed.run();
+    }
+}
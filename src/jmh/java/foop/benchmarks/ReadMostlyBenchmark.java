@@ -0,0 +1,97 @@
+/**
+ * Project: Foops_1
+ * Package: foop.benchmarks
+ * File: ReadMostlyBenchmark.java
+ * 
+ * @author sidmishraw
+ *         Last modified: Oct 18, 2026 2:06:31 PM
+ */
+package foop.benchmarks;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import foop.core.Variable;
+import foop.utils.Transactions;
+
+/**
+ * <p>
+ * Lookup traffic, <code>readRatio</code> of the transactions only read a
+ * variable and the rest update one. With <code>readOnly</code> the lookups are
+ * declared read-only and skip the ownerships, the backups and the commit.
+ * The plain read is the floor, the same lookup outside of any transaction.
+ * 
+ * @author sidmishraw
+ *
+ *         Qualified Name: foop.benchmarks.ReadMostlyBenchmark
+ * 
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ReadMostlyBenchmark {
+    
+    @Param({ "0.95" })
+    public double  readRatio;
+    
+    @Param({ "false", "true" })
+    public boolean readOnly;
+    
+    @Benchmark
+    public void lookup(Workload workload, TransactionCounters counters, Blackhole blackhole) {
+        
+        Variable variable = workload.handles[workload.pick()];
+        
+        if (ThreadLocalRandom.current().nextDouble() < this.readRatio) {
+            
+            Transactions lookup = counters.transactions.newTransaction("lookup", workload.manager)
+                    .addReadSetMembers(variable);
+            
+            if (this.readOnly) {
+                
+                lookup.readOnly();
+            }
+            
+            counters.execute(lookup
+                    .addTransactionOperation(() -> {
+                        
+                        blackhole.consume(workload.valueOf(variable));
+                        
+                        return true;
+                    })
+                    .get());
+        } else {
+            
+            counters.execute(counters.transactions.newTransaction("update", workload.manager)
+                    .addWriteSetMembers(variable)
+                    .addTransactionOperation(() -> {
+                        
+                        workload.manager.write(variable, new Value(workload.valueOf(variable) + 1));
+                        
+                        return true;
+                    })
+                    .get());
+        }
+    }
+    
+    @Benchmark
+    public long plainRead(Workload workload) {
+        
+        return workload.valueOf(workload.handles[workload.pick()]);
+    }
+}
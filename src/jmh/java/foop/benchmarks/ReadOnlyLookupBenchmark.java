@@ -0,0 +1,128 @@
+/**
+ * Project: Foops_1
+ * Package: foop.benchmarks
+ * File: ReadOnlyLookupBenchmark.java
+ * 
+ * @author sidmishraw
+ *         Last modified: Oct 19, 2026 2:24:45 AM
+ */
+package foop.benchmarks;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import foop.core.StateManager;
+import foop.core.Transaction;
+import foop.core.Variable;
+import foop.utils.Transactions;
+
+/**
+ * <p>
+ * Measures the framework part of a lookup: each thread re-runs the same
+ * transaction reading one random variable, declared either read-only or as a
+ * read-write transaction with an empty writeSet. The plain read is the floor,
+ * the same read outside of any transaction.
+ * 
+ * @author sidmishraw
+ *
+ *         Qualified Name: foop.benchmarks.ReadOnlyLookupBenchmark
+ * 
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ReadOnlyLookupBenchmark {
+    
+    /**
+     * <p>
+     * true to declare the lookups read-only
+     */
+    @Param({ "true", "false" })
+    public boolean readOnly;
+    
+    @Param({ "1024" })
+    public int     variables;
+    
+    StateManager   manager;
+    
+    Variable[]     handles;
+    
+    @Setup
+    public void setup() {
+        
+        this.manager = new StateManager();
+        this.handles = new Variable[this.variables];
+        
+        for (int i = 0; i < this.variables; i++) {
+            
+            this.handles[i] = this.manager.make("var-" + i);
+            this.manager.write(this.handles[i], new Value(i));
+        }
+    }
+    
+    /**
+     * <p>
+     * The re-usable lookup of a benchmark thread, it reads the variable
+     * picked before each run.
+     */
+    @State(Scope.Thread)
+    public static class ReusableLookup {
+        
+        Transaction transaction;
+        
+        Variable    variable;
+        
+        long        value;
+        
+        @Setup
+        public void setup(ReadOnlyLookupBenchmark benchmark) {
+            
+            Transactions lookup = new Transactions().newTransaction("lookup", benchmark.manager);
+            
+            if (benchmark.readOnly) {
+                
+                lookup.readOnly();
+            }
+            
+            this.transaction = lookup.addTransactionOperation(() -> {
+                
+                this.value = ((Value) benchmark.manager.readState(this.variable)).value;
+                
+                return true;
+            }).get();
+        }
+    }
+    
+    @Benchmark
+    public long lookup(ReusableLookup lookup) {
+        
+        lookup.variable = this.handles[ThreadLocalRandom.current().nextInt(this.variables)];
+        
+        lookup.transaction.getRecord().reset();
+        lookup.transaction.run();
+        
+        return lookup.value;
+    }
+    
+    @Benchmark
+    public long plainRead() {
+        
+        return ((Value) this.manager.readState(this.handles[ThreadLocalRandom.current().nextInt(this.variables)]))
+                .value;
+    }
+}
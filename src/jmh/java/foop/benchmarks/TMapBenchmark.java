@@ -0,0 +1,88 @@
+/**
+ * Project: Foops_1
+ * Package: foop.benchmarks
+ * File: TMapBenchmark.java
+ * 
+ * @author sidmishraw
+ *         Last modified: Oct 18, 2026 10:07:44 PM
+ */
+package foop.benchmarks;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import foop.core.StateManager;
+import foop.core.collections.TMap;
+
+/**
+ * <p>
+ * Every transaction increments the value of a random key of a shared
+ * <i>TMap</i>. With a single bucket the map is one `MemCell`, like a map kept
+ * as an immutable copy in a single <i>Variable</i>, and every pair of
+ * concurrent transactions conflicts. With more buckets only the transactions
+ * on keys of the same bucket do. Run it with more than one thread and compare
+ * the aborts.
+ * 
+ * @author sidmishraw
+ *
+ *         Qualified Name: foop.benchmarks.TMapBenchmark
+ * 
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TMapBenchmark {
+    
+    @Param({ "1", "64" })
+    public int          buckets;
+    
+    @Param({ "1024" })
+    public int          keys;
+    
+    StateManager        manager;
+    
+    TMap<Integer, Long> map;
+    
+    @Setup
+    public void setup() {
+        
+        this.manager = new StateManager();
+        this.map = new TMap<>(this.manager, "map", this.buckets);
+        
+        for (int key = 0; key < this.keys; key++) {
+            
+            this.map.put(key, 0L);
+        }
+    }
+    
+    @Benchmark
+    public void increment(TransactionCounters counters) {
+        
+        Integer key = ThreadLocalRandom.current().nextInt(this.keys);
+        
+        counters.execute(counters.transactions.newTransaction("increment", this.manager)
+                .addWriteSetMembers(this.map.variableOf(key))
+                .addTransactionOperation(() -> {
+                    
+                    this.map.put(key, this.map.get(key) + 1);
+                    
+                    return true;
+                })
+                .get());
+    }
+}
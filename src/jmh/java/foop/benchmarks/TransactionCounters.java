@@ -0,0 +1,115 @@
+/**
+ * Project: Foops_1
+ * Package: foop.benchmarks
+ * File: TransactionCounters.java
+ * 
+ * @author sidmishraw
+ *         Last modified: Oct 18, 2026 1:32:14 PM
+ */
+package foop.benchmarks;
+
+import java.util.List;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import foop.core.Record;
+import foop.core.Transaction;
+import foop.core.TransactionBatch;
+import foop.utils.Transactions;
+
+/**
+ * <p>
+ * Per thread counters reported by JMH next to the throughput, the abort rate
+ * of a benchmark is <code>aborts / commits</code>.
+ * 
+ * <br>
+ * <br>
+ * 
+ * Also carries the thread's own <i>Transactions</i> builder, since the
+ * builder is not thread safe.
+ * 
+ * @author sidmishraw
+ *
+ *         Qualified Name: foop.benchmarks.TransactionCounters
+ * 
+ */
+@AuxCounters(AuxCounters.Type.EVENTS)
+@State(Scope.Thread)
+public class TransactionCounters {
+    
+    /**
+     * <p>
+     * The number of committed transactions
+     */
+    public long          commits;
+    
+    /**
+     * <p>
+     * The number of aborted attempts, i.e. retries
+     */
+    public long          aborts;
+    
+    /**
+     * <p>
+     * The transaction builder of this thread
+     */
+    Transactions         transactions = new Transactions();
+    
+    /**
+     * <p>
+     * Resets the counters at the start of each iteration.
+     */
+    @Setup(Level.Iteration)
+    public void reset() {
+        
+        this.commits = 0;
+        this.aborts = 0;
+    }
+    
+    /**
+     * <p>
+     * Runs the transaction on the benchmark thread and accounts its outcome.
+     * 
+     * @param transaction
+     *            The transaction
+     */
+    void execute(Transaction transaction) {
+        
+        transaction.run();
+        
+        this.account(transaction.getRecord());
+    }
+    
+    /**
+     * <p>
+     * Runs the transactions as a batch on the benchmark thread and accounts
+     * their outcomes.
+     * 
+     * @param transactions
+     *            The transactions
+     */
+    void executeBatch(List<Transaction> transactions) {
+        
+        for (Record record : new TransactionBatch(transactions).run()) {
+            
+            this.account(record);
+        }
+    }
+    
+    /**
+     * <p>
+     * Accounts the outcome of a completed transaction.
+     * 
+     * @param record
+     *            The record of the transaction
+     */
+    private void account(Record record) {
+        
+        this.commits++;
+        this.aborts += record.getRetries();
+    }
+}
@@ -0,0 +1,124 @@
+/**
+ * Project: Foops_1
+ * Package: foop.benchmarks
+ * File: UncontendedTransactionBenchmark.java
+ * 
+ * @author sidmishraw
+ *         Last modified: Oct 18, 2026 3:12:40 PM
+ */
+package foop.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import foop.core.StateManager;
+import foop.core.Transaction;
+import foop.core.Variable;
+import foop.utils.Transactions;
+
+/**
+ * <p>
+ * Measures the framework part of an uncontended transaction: each thread
+ * re-runs the same transaction over its own variables, and the operation
+ * swaps the states of the two variables, so the operation itself allocates
+ * nothing.
+ * 
+ * <br>
+ * <br>
+ * 
+ * Run with <code>-prof gc</code>, the <code>gc.alloc.rate.norm</code> is the
+ * allocation of the transaction lifecycle per operation and should be close
+ * to 0 B/op.
+ * 
+ * @author sidmishraw
+ *
+ *         Qualified Name: foop.benchmarks.UncontendedTransactionBenchmark
+ * 
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class UncontendedTransactionBenchmark {
+    
+    /**
+     * <p>
+     * Toggles the metrics registry of the manager, to measure its overhead
+     */
+    @Param({ "true", "false" })
+    public boolean metrics;
+    
+    StateManager   manager;
+    
+    AtomicInteger  threads;
+    
+    @Setup
+    public void setup() {
+        
+        this.manager = new StateManager();
+        this.threads = new AtomicInteger();
+        
+        this.manager.getMetrics().setEnabled(this.metrics);
+    }
+    
+    /**
+     * <p>
+     * The re-usable transaction of a benchmark thread, it swaps the states of
+     * two variables.
+     */
+    @State(Scope.Thread)
+    public static class ReusableTransaction {
+        
+        Transaction transaction;
+        
+        @Setup
+        public void setup(UncontendedTransactionBenchmark benchmark) {
+            
+            StateManager manager = benchmark.manager;
+            
+            int thread = benchmark.threads.getAndIncrement();
+            
+            Variable source = manager.make("source-" + thread);
+            Variable target = manager.make("target-" + thread);
+            
+            manager.write(source, new Value(0L));
+            manager.write(target, new Value(1L));
+            
+            this.transaction = new Transactions().newTransaction("swap-" + thread, manager)
+                    .addWriteSetMembers(source, target)
+                    .addTransactionOperation(() -> {
+                        
+                        // the source decides which of the values goes into the
+                        // target, the two end up swapping on every run
+                        foop.core.State state = manager.readState(source);
+                        
+                        manager.write(source, manager.readState(target));
+                        manager.write(target, state);
+                        
+                        return true;
+                    })
+                    .get();
+        }
+    }
+    
+    @Benchmark
+    public void transaction(ReusableTransaction reusable) {
+        
+        reusable.transaction.getRecord().reset();
+        reusable.transaction.run();
+    }
+}
@@ -0,0 +1,31 @@
+/**
+ * Project: Foops_1
+ * Package: foop.benchmarks
+ * File: Value.java
+ * 
+ * @author sidmishraw
+ *         Last modified: Oct 18, 2026 1:35:47 PM
+ */
+package foop.benchmarks;
+
+import foop.core.State;
+
+/**
+ * <p>
+ * An immutable numeric <i>State</i>, used for account balances, counters and
+ * such in the benchmarks.
+ * 
+ * @author sidmishraw
+ *
+ *         Qualified Name: foop.benchmarks.Value
+ * 
+ */
+final class Value extends State {
+    
+    final long value;
+    
+    Value(long value) {
+        
+        this.value = value;
+    }
+}
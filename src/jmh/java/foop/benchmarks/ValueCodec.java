@@ -0,0 +1,49 @@
+/**
+ * Project: Foops_1
+ * Package: foop.benchmarks
+ * File: ValueCodec.java
+ * 
+ * @author sidmishraw
+ *         Last modified: Oct 18, 2026 7:52:26 PM
+ */
+package foop.benchmarks;
+
+import java.nio.ByteBuffer;
+
+import foop.core.State;
+import foop.core.durability.StateCodec;
+
+/**
+ * <p>
+ * Encodes a <i>Value</i> in 8 bytes, for the benchmarks of the durability
+ * layer.
+ * 
+ * @author sidmishraw
+ *
+ *         Qualified Name: foop.benchmarks.ValueCodec
+ * 
+ */
+final class ValueCodec implements StateCodec {
+    
+    /*
+     * (non-Javadoc)
+     * 
+     * @see foop.core.durability.StateCodec#encode(foop.core.State)
+     */
+    @Override
+    public byte[] encode(State state) {
+        
+        return ByteBuffer.allocate(8).putLong(((Value) state).value).array();
+    }
+    
+    /*
+     * (non-Javadoc)
+     * 
+     * @see foop.core.durability.StateCodec#decode(byte[])
+     */
+    @Override
+    public State decode(byte[] bytes) {
+        
+        return new Value(ByteBuffer.wrap(bytes).getLong());
+    }
+}
@@ -0,0 +1,125 @@
+/**
+ * Project: Foops_1
+ * Package: foop.benchmarks
+ * File: Workload.java
+ * 
+ * @author sidmishraw
+ *         Last modified: Oct 18, 2026 1:41:20 PM
+ */
+package foop.benchmarks;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import foop.core.StateManager;
+import foop.core.Variable;
+
+/**
+ * <p>
+ * The shared world of a benchmark: a <i>StateManager</i> with
+ * <code>variables</code> numeric <i>Variable</i>s.
+ * 
+ * <br>
+ * <br>
+ * 
+ * The <code>contention</code> is the probability of a transaction picking its
+ * variables from the hot spot, i.e. the first <code>HOT_SPOT</code> variables,
+ * instead of picking them uniformly from all of them.
+ * 
+ * @author sidmishraw
+ *
+ *         Qualified Name: foop.benchmarks.Workload
+ * 
+ */
+@State(Scope.Benchmark)
+public class Workload {
+    
+    /**
+     * <p>
+     * The number of variables in the hot spot
+     */
+    static final int    HOT_SPOT       = 2;
+    
+    /**
+     * <p>
+     * The initial value of all the variables
+     */
+    static final long   INITIAL_AMOUNT = 1000L;
+    
+    @Param({ "16", "1024" })
+    public int          variables;
+    
+    @Param({ "0.0", "0.5", "0.9" })
+    public double       contention;
+    
+    StateManager        manager;
+    
+    Variable[]          handles;
+    
+    /**
+     * <p>
+     * Makes the world
+     */
+    @Setup
+    public void setup() {
+        
+        this.manager = new StateManager();
+        this.handles = new Variable[this.variables];
+        
+        for (int i = 0; i < this.variables; i++) {
+            
+            this.handles[i] = this.manager.make("var-" + i);
+            this.manager.write(this.handles[i], new Value(INITIAL_AMOUNT));
+        }
+    }
+    
+    /**
+     * <p>
+     * Picks a variable, honoring the contention level.
+     * 
+     * @return The index of the variable
+     */
+    int pick() {
+        
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        
+        int bound = random.nextDouble() < this.contention ? Math.min(HOT_SPOT, this.variables) : this.variables;
+        
+        return random.nextInt(bound);
+    }
+    
+    /**
+     * <p>
+     * Picks a variable other than the given one, honoring the contention
+     * level.
+     * 
+     * @param other
+     *            The index of the variable to avoid
+     * 
+     * @return The index of the variable
+     */
+    int pickOther(int other) {
+        
+        int index = this.pick();
+        
+        return index != other ? index : (index + 1) % this.variables;
+    }
+    
+    /**
+     * <p>
+     * Reads the numeric value of the variable
+     * 
+     * @param variable
+     *            The variable
+     * 
+     * @return Its value
+     */
+    long valueOf(Variable variable) {
+        
+        return ((Value) this.manager.readState(variable)).value;
+    }
+}
@@ -0,0 +1,50 @@
+/**
+ * Project: Foops_1
+ * Package: foop.core
+ * File: AbortCause.java
+ * 
+ * @author sidmishraw
+ *         Last modified: Oct 18, 2026 12:10:05 PM
+ */
+package foop.core;
+
+/**
+ * <p>
+ * The reasons for which an attempt of a <i>Transaction</i> gets aborted.
+ * 
+ * @author sidmishraw
+ *
+ *         Qualified Name: foop.core.AbortCause
+ * 
+ */
+public enum AbortCause {
+    
+    /**
+     * <p>
+     * The transaction failed to take ownership of one of its writeSet members
+     * since it was owned by some other transaction.
+     */
+    OWNERSHIP,
+    
+    /**
+     * <p>
+     * The readSet of the transaction was found to be stale while committing.
+     */
+    VALIDATION,
+    
+    /**
+     * <p>
+     * The operational logic of the transaction reported a failure. The
+     * transaction is not retried.
+     */
+    OPERATION,
+    
+    /**
+     * <p>
+     * The operational logic of the transaction asked to be retried, see
+     * {@link TransactionContext#retry()}. The transaction blocks till one of
+     * the `MemCell`s it read has a new committed state instead of backing
+     * off.
+     */
+    RETRY
+}
@@ -0,0 +1,70 @@
+/**
+ * Project: Foops_1
+ * Package: foop.core
+ * File: AbortException.java
+ * 
+ * @author sidmishraw
+ *         Last modified: Oct 18, 2026 10:41:19 PM
+ */
+package foop.core;
+
+/**
+ * <p>
+ * An <i>AbortException</i> is thrown out of the operation of a
+ * <i>Transaction</i> to abort its current attempt, e.g. when it fails to take
+ * the ownership of a `MemCell` it writes through its
+ * <i>TransactionContext</i>. The <i>Transaction</i> catches it, rolls back and
+ * retries the attempt.
+ * 
+ * <p>
+ * It carries no stack trace, so there is one shared instance per cause and
+ * throwing it allocates nothing.
+ * 
+ * @author sidmishraw
+ *
+ *         Qualified Name: foop.core.AbortException
+ * 
+ */
+final class AbortException extends RuntimeException {
+    
+    private static final long   serialVersionUID = 1L;
+    
+    /**
+     * <p>
+     * Aborts the attempt for failing to take the ownership of a `MemCell`.
+     */
+    static final AbortException OWNERSHIP        = new AbortException(AbortCause.OWNERSHIP);
+    
+    /**
+     * <p>
+     * Aborts the attempt for having read a `MemCell` that has changed since.
+     */
+    static final AbortException VALIDATION       = new AbortException(AbortCause.VALIDATION);
+    
+    /**
+     * <p>
+     * Aborts the attempt for the operation to be retried once one of the
+     * `MemCell`s it read changes.
+     */
+    static final AbortException RETRY            = new AbortException(AbortCause.RETRY);
+    
+    /**
+     * <p>
+     * The reason of the abort
+     */
+    final transient AbortCause  abortCause;
+    
+    /**
+     * <p>
+     * Makes the exception for the given cause.
+     * 
+     * @param cause
+     *            The reason of the abort
+     */
+    private AbortException(AbortCause cause) {
+        
+        super("The attempt was aborted: " + cause, null, false, false);
+        
+        this.abortCause = cause;
+    }
+}
@@ -0,0 +1,561 @@
+/**
+ * Project: Foops_1
+ * Package: foop.core
+ * File: Cell.java
+ * 
+ * @author sidmishraw
+ *         Last modified: Oct 18, 2026 10:04:12 AM
+ */
+package foop.core;
+
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * <p>
+ * A <i>Cell</i> is an entry of the `stateTable`, it holds the mutable part of
+ * the `MemCell` along with its version stamp.
+ * 
+ * <p>
+ * Contents of the cell are as follows:
+ * <ul>
+ * <li><b> variable </b>: The <i>Variable</i>, i.e. the immutable part of the
+ * `MemCell`.
+ * 
+ * <li><b> state </b>: The live state of the `MemCell`. While a
+ * <i>Transaction</i> owns the `MemCell` this is its tentative state, visible
+ * only to the owner.
+ * 
+ * <li><b> committed </b>: The last committed state of the `MemCell`. This is
+ * what every other <i>Transaction</i> gets to see and what the owner restores
+ * on a rollback.
+ * 
+ * <li><b> version </b>: The version stamp of the committed state, drawn from
+ * the global version clock of the <i>StateManager</i>. It changes every time
+ * a new state is committed.
+ * 
+ * <li><b> owner </b>: The <i>Transaction</i> that owns the `MemCell`, null
+ * if it is not owned. It is only ever changed by a compare-and-set, so the
+ * cell needs no locking and taking the ownership allocates nothing.
+ * 
+ * <li><b> history </b>: The older committed states of the `MemCell`, newest
+ * first. It is only kept while there are read-only transactions reading
+ * snapshots, and only as far back as the oldest of their snapshots needs.
+ * 
+ * <li><b> waiters </b>: The threads waiting for the ownership of the
+ * `MemCell`, or for a new committed state of it. They are woken up when it
+ * is released.
+ * 
+ * <li><b> type </b>: The <i>Type</i> of a primitive `MemCell`, null for the
+ * `MemCell`s holding <i>State</i>s.
+ * 
+ * <li><b> bits </b>, <b> committedBits </b>: The live and the last committed
+ * values of a primitive `MemCell`, they go along with the <b>state</b> and
+ * the <b>committed</b> state. So the primitive values are committed, rolled
+ * back and kept in the history just like the states, without boxing them.
+ * </ul>
+ * 
+ * <p>
+ * The committed state is always written before the version, and read after
+ * it, so a reader that sees a version is guaranteed to see a state at least as
+ * new as that version. While a new state is being committed the version is
+ * {@link #BUSY}, so a reader that reads the same version before and after the
+ * committed state knows the two belong together.
+ * 
+ * @author sidmishraw
+ *
+ *         Qualified Name: foop.core.Cell
+ * 
+ */
+class Cell {
+    
+    private static final AtomicReferenceFieldUpdater<Cell, Transaction> OWNER      = AtomicReferenceFieldUpdater
+            .newUpdater(Cell.class, Transaction.class, "owner");
+    
+    private static final AtomicReferenceFieldUpdater<Cell, Waiter>      WAITERS    = AtomicReferenceFieldUpdater
+            .newUpdater(Cell.class, Waiter.class, "waiters");
+    
+    private static final AtomicReferenceFieldUpdater<Cell, State>       STATE      = AtomicReferenceFieldUpdater
+            .newUpdater(Cell.class, State.class, "state");
+    
+    private static final AtomicReferenceFieldUpdater<Cell, State>       COMMITTED  = AtomicReferenceFieldUpdater
+            .newUpdater(Cell.class, State.class, "committed");
+    
+    /**
+     * <p>
+     * The version of the cell while a new state is being committed
+     */
+    static final long                                                    BUSY       = -1L;
+    
+    /**
+     * <p>
+     * The history horizon meaning that no history needs to be kept, see
+     * {@link #publish(long, long)}
+     */
+    static final long                                                    NO_HISTORY = Long.MAX_VALUE;
+    
+    volatile Variable                                                    variable;
+    
+    volatile State                                                       state;
+    
+    volatile State                                                       committed;
+    
+    volatile long                                                        version;
+    
+    volatile Transaction                                                 owner;
+    
+    volatile Version                                                     history;
+    
+    volatile Waiter                                                      waiters;
+    
+    volatile PrimitiveState.Type                                         type;
+    
+    /**
+     * <p>
+     * The live value of a primitive cell, only ever written by the owner and
+     * published by the owner itself, so it needs no fences of its own.
+     */
+    long                                                                 bits;
+    
+    volatile long                                                        committedBits;
+    
+    /**
+     * <p>
+     * Makes an un-initialized cell, i.e. with no state and version 0.
+     */
+    Cell() {
+        
+        this.version = 0L;
+    }
+    
+    /**
+     * <p>
+     * Takes the ownership of the cell for the transaction, succeeds if the
+     * cell is not owned or already owned by the transaction.
+     * 
+     * @param transaction
+     *            The transaction that wants to own the cell
+     * 
+     * @return true if the transaction owns the cell
+     */
+    boolean acquire(Transaction transaction) {
+        
+        Transaction current = this.owner;
+        
+        if (current == transaction) {
+            
+            return true;
+        }
+        
+        return null == current && OWNER.compareAndSet(this, null, transaction);
+    }
+    
+    /**
+     * <p>
+     * Gives up the ownership of the cell, only if it is owned by the
+     * transaction.
+     * 
+     * @param transaction
+     *            The transaction giving up the ownership
+     * 
+     * @return true if the ownership was released
+     */
+    boolean release(Transaction transaction) {
+        
+        if (this.owner == transaction && OWNER.compareAndSet(this, transaction, null)) {
+            
+            if (null != this.waiters) {
+                
+                this.signal();
+            }
+            
+            return true;
+        }
+        
+        return false;
+    }
+    
+    /**
+     * <p>
+     * Waits till the transaction gets the ownership of the cell, or till the
+     * timeout elapses. The waiting thread is parked and only woken up when
+     * the cell is released.
+     * 
+     * <p>
+     * The waiter is queued before trying to take the ownership, and the
+     * ownership is released before the waiters are woken up, so a release
+     * cannot slip between the two unnoticed.
+     * 
+     * @param transaction
+     *            The transaction that wants to own the cell
+     * @param timeout
+     *            The maximum time to wait in nanoseconds
+     * 
+     * @return true if the transaction owns the cell
+     */
+    boolean await(Transaction transaction, long timeout) {
+        
+        long deadline = System.nanoTime() + timeout;
+        
+        Waiter waiter = new Waiter(Thread.currentThread());
+        
+        boolean queued = false;
+        
+        try {
+            
+            for (;;) {
+                
+                if (!queued || waiter.signalled) {
+                    
+                    // a signalled waiter is no longer queued
+                    waiter.signalled = false;
+                    
+                    this.enqueue(waiter);
+                    
+                    queued = true;
+                }
+                
+                if (this.acquire(transaction)) {
+                    
+                    return true;
+                }
+                
+                long remaining = deadline - System.nanoTime();
+                
+                if (remaining <= 0) {
+                    
+                    return false;
+                }
+                
+                LockSupport.parkNanos(this, remaining);
+            }
+        } finally {
+            
+            waiter.thread = null;
+        }
+    }
+    
+    /**
+     * <p>
+     * Watches the cell for a new committed state, the waiter is woken up
+     * along with the ones waiting for the ownership.
+     * 
+     * <p>
+     * The waiter is queued before the version is checked, and a new state is
+     * committed before the waiters are woken up, so a commit cannot slip
+     * between the two unnoticed.
+     * 
+     * @param waiter
+     *            The waiter
+     * @param version
+     *            The version the watcher has seen
+     * 
+     * @return true if the cell still has the version, false if a new state
+     *         has already been committed
+     */
+    boolean watch(Waiter waiter, long version) {
+        
+        this.enqueue(waiter);
+        
+        return this.version == version;
+    }
+    
+    /**
+     * <p>
+     * Queues the waiter.
+     * 
+     * @param waiter
+     *            The waiter
+     */
+    private void enqueue(Waiter waiter) {
+        
+        for (;;) {
+            
+            Waiter head = this.waiters;
+            
+            if (null != head && null == head.thread) {
+                
+                // a waiter that has given up is never queued again, so it can
+                // be dropped from the top, e.g. a watcher woken up by some
+                // other cell
+                WAITERS.compareAndSet(this, head, head.next);
+                
+                continue;
+            }
+            
+            waiter.next = head;
+            
+            if (WAITERS.compareAndSet(this, head, waiter)) {
+                
+                return;
+            }
+        }
+    }
+    
+    /**
+     * <p>
+     * Wakes up all the waiters of the cell, they race for the ownership once
+     * more and the losers queue themselves again.
+     */
+    void signal() {
+        
+        Waiter waiter = WAITERS.getAndSet(this, null);
+        
+        while (null != waiter) {
+            
+            // the waiter may queue itself again as soon as it is signalled,
+            // so its next must be read before
+            Waiter next = waiter.next;
+            Thread thread = waiter.thread;
+            
+            waiter.signalled = true;
+            
+            if (null != thread) {
+                
+                LockSupport.unpark(thread);
+            }
+            
+            waiter = next;
+        }
+    }
+    
+    /**
+     * <p>
+     * Commits the live state of the cell with the given version stamp.
+     * 
+     * <p>
+     * The state being replaced goes into the history unless the
+     * <i>horizon</i> is {@link #NO_HISTORY}, in which case the history is
+     * dropped. Of the history, only the newest state at or before the
+     * horizon and the ones after it are kept, the older ones are no longer
+     * visible to any snapshot.
+     * 
+     * @param version
+     *            The version stamp drawn from the global version clock
+     * @param horizon
+     *            The version of the oldest snapshot being read, or
+     *            {@link #NO_HISTORY}
+     */
+    void publish(long version, long horizon) {
+        
+        if (NO_HISTORY == horizon) {
+            
+            if (null != this.history) {
+                
+                this.history = null;
+            }
+            
+            // every snapshot is at or after this version, the owner makes
+            // the snapshot readers wait for the commit to complete. The
+            // checked reads still need the version to change before the
+            // state does, or a read of the old version could pair it with
+            // the new state
+            this.version = BUSY;
+            this.committed = this.state;
+            this.committedBits = this.bits;
+            this.version = version;
+            
+            return;
+        }
+        
+        Version history = new Version(this.committed, this.committedBits, this.version, this.history);
+        
+        for (Version node = history; null != node; node = node.prev) {
+            
+            if (node.version <= horizon) {
+                
+                node.prev = null;
+                break;
+            }
+        }
+        
+        this.history = history;
+        
+        this.version = BUSY;
+        this.committed = this.state;
+        this.committedBits = this.bits;
+        this.version = version;
+    }
+    
+    /**
+     * <p>
+     * Reads the newest committed state of the cell at or before the snapshot.
+     * 
+     * <p>
+     * Waits for the owner of the cell if it is committing at or before the
+     * snapshot, since the snapshot must contain either all or none of the
+     * writes of a commit.
+     * 
+     * @param snapshot
+     *            The version of the snapshot
+     * 
+     * @return The state as of the snapshot
+     */
+    State read(long snapshot) {
+        
+        for (;;) {
+            
+            Transaction owner = this.owner;
+            
+            if (null != owner && owner.isCommittingAtOrBefore(snapshot)) {
+                
+                Thread.yield();
+                continue;
+            }
+            
+            long version = this.version;
+            State state = this.committed;
+            Version history = this.history;
+            
+            if (BUSY == version || version != this.version) {
+                
+                // a new state got committed meanwhile
+                continue;
+            }
+            
+            if (version <= snapshot) {
+                
+                return state;
+            }
+            
+            for (Version node = history; null != node; node = node.prev) {
+                
+                if (node.version <= snapshot) {
+                    
+                    return node.state;
+                }
+            }
+            
+            throw new IllegalStateException("The state as of the snapshot " + snapshot + " was not kept");
+        }
+    }
+    
+    /**
+     * <p>
+     * Reads the newest committed value of a primitive cell at or before the
+     * snapshot, just like {@link #read(long)}.
+     * 
+     * @param snapshot
+     *            The version of the snapshot
+     * 
+     * @return The bits of the value as of the snapshot
+     */
+    long readBits(long snapshot) {
+        
+        for (;;) {
+            
+            Transaction owner = this.owner;
+            
+            if (null != owner && owner.isCommittingAtOrBefore(snapshot)) {
+                
+                Thread.yield();
+                continue;
+            }
+            
+            long version = this.version;
+            long bits = this.committedBits;
+            Version history = this.history;
+            
+            if (BUSY == version || version != this.version) {
+                
+                // a new value got committed meanwhile
+                continue;
+            }
+            
+            if (version <= snapshot) {
+                
+                return bits;
+            }
+            
+            for (Version node = history; null != node; node = node.prev) {
+                
+                if (node.version <= snapshot) {
+                    
+                    return node.bits;
+                }
+            }
+            
+            throw new IllegalStateException("The value as of the snapshot " + snapshot + " was not kept");
+        }
+    }
+    
+    /**
+     * <p>
+     * Discards the live state of the cell, restoring the last committed
+     * state.
+     */
+    void restore() {
+        
+        this.state = this.committed;
+        this.bits = this.committedBits;
+    }
+    
+    /**
+     * <p>
+     * Replaces the lazy state with its materialized state, wherever the cell
+     * still holds it. Both stand for the same state, so neither the version
+     * nor the owner matter.
+     * 
+     * @param lazy
+     *            The lazy state
+     * @param materialized
+     *            The materialized state
+     */
+    void materialize(LazyState lazy, State materialized) {
+        
+        COMMITTED.compareAndSet(this, lazy, materialized);
+        STATE.compareAndSet(this, lazy, materialized);
+    }
+    
+    /**
+     * <p>
+     * A thread waiting for the ownership of the cell, or watching it for a
+     * new committed state.
+     * 
+     * @author sidmishraw
+     *
+     *         Qualified Name: foop.core.Cell.Waiter
+     * 
+     */
+    static final class Waiter {
+        
+        volatile Thread  thread;
+        
+        volatile boolean signalled;
+        
+        Waiter           next;
+        
+        Waiter(Thread thread) {
+            
+            this.thread = thread;
+        }
+    }
+    
+    /**
+     * <p>
+     * An older committed state of the cell, along with its version.
+     * 
+     * @author sidmishraw
+     *
+     *         Qualified Name: foop.core.Cell.Version
+     * 
+     */
+    static final class Version {
+        
+        final State      state;
+        
+        final long       bits;
+        
+        final long       version;
+        
+        volatile Version prev;
+        
+        Version(State state, long bits, long version, Version prev) {
+            
+            this.state = state;
+            this.bits = bits;
+            this.version = version;
+            this.prev = prev;
+        }
+    }
+}
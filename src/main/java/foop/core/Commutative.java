@@ -0,0 +1,90 @@
+/**
+ * Project: Foops_1
+ * Package: foop.core
+ * File: Commutative.java
+ * 
+ * @author sidmishraw
+ *         Last modified: Oct 19, 2026 3:04:37 AM
+ */
+package foop.core;
+
+/**
+ * <p>
+ * The commutative updates of a <i>TLong</i>, see
+ * {@link TLong#commute(Commutative, long)}. Any number of them can be applied
+ * to the same value in any order with the same outcome, so a
+ * <i>Transaction</i> doesn't need to read the value to update it.
+ * 
+ * @author sidmishraw
+ *
+ *         Qualified Name: foop.core.Commutative
+ * 
+ */
+public enum Commutative {
+    
+    /**
+     * <p>
+     * Adds the operand to the value.
+     */
+    ADD {
+        
+        @Override
+        public long apply(long value, long operand) {
+            
+            return value + operand;
+        }
+    },
+    
+    /**
+     * <p>
+     * Keeps the greater of the value and the operand.
+     */
+    MAX {
+        
+        @Override
+        public long apply(long value, long operand) {
+            
+            return Math.max(value, operand);
+        }
+    },
+    
+    /**
+     * <p>
+     * Keeps the lesser of the value and the operand.
+     */
+    MIN {
+        
+        @Override
+        public long apply(long value, long operand) {
+            
+            return Math.min(value, operand);
+        }
+    },
+    
+    /**
+     * <p>
+     * Adds the members of the operand to the value, both taken as sets of
+     * up to 64 members, one per bit.
+     */
+    UNION {
+        
+        @Override
+        public long apply(long value, long operand) {
+            
+            return value | operand;
+        }
+    };
+    
+    /**
+     * <p>
+     * Applies the update to the value.
+     * 
+     * @param value
+     *            The value
+     * @param operand
+     *            The operand of the update
+     * 
+     * @return The updated value
+     */
+    public abstract long apply(long value, long operand);
+}
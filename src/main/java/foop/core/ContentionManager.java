@@ -0,0 +1,53 @@
+/**
+ * Project: Foops_1
+ * Package: foop.core
+ * File: ContentionManager.java
+ * 
+ * @author sidmishraw
+ *         Last modified: Oct 18, 2026 12:14:51 PM
+ */
+package foop.core;
+
+/**
+ * <p>
+ * The <i>ContentionManager</i> is consulted by a <i>Transaction</i> every time
+ * one of its attempts is aborted, it decides how long the transaction backs
+ * off before retrying.
+ * 
+ * <br>
+ * <br>
+ * 
+ * A contention manager can be set on the <i>StateManager</i>, which makes it
+ * the default for all the transactions, or on an individual
+ * <i>Transaction</i>. The built-in policies live in
+ * <code>foop.core.contention</code>.
+ * 
+ * @author sidmishraw
+ *
+ *         Qualified Name: foop.core.ContentionManager
+ * 
+ */
+@FunctionalInterface
+public interface ContentionManager {
+    
+    /**
+     * <p>
+     * Decides the backoff of the aborted transaction.
+     * 
+     * @param transaction
+     *            The transaction whose attempt was aborted. Its record holds
+     *            the number of retries so far and the karma it has
+     *            accumulated.
+     * 
+     * @param enemy
+     *            The transaction that caused the abort, i.e. the owner of the
+     *            conflicting `MemCell`. Might be null if it is not known.
+     * 
+     * @param cause
+     *            The reason of the abort
+     * 
+     * @return The time to back off in nanoseconds, 0 or less to retry right
+     *         away
+     */
+    public long backoff(Transaction transaction, Transaction enemy, AbortCause cause);
+}
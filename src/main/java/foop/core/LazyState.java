@@ -0,0 +1,37 @@
+/**
+ * Project: Foops_1
+ * Package: foop.core
+ * File: LazyState.java
+ * 
+ * @author sidmishraw
+ *         Last modified: Oct 18, 2026 7:18:40 PM
+ */
+package foop.core;
+
+/**
+ * <p>
+ * A <i>LazyState</i> stands in for a <i>State</i> that is not materialized
+ * yet, e.g. the <i>State</i>s loaded from a checkpoint are only decoded on
+ * their first read.
+ * 
+ * <p>
+ * The <i>StateManager</i> never hands out a <i>LazyState</i>, it
+ * materializes it on the first read and replaces it in the `MemCell` with the
+ * materialized <i>State</i>. Concurrent first reads may materialize it more
+ * than once, so the materialized <i>State</i>s must be equivalent.
+ * 
+ * @author sidmishraw
+ *
+ *         Qualified Name: foop.core.LazyState
+ * 
+ */
+public abstract class LazyState extends State {
+    
+    /**
+     * <p>
+     * Materializes the state.
+     * 
+     * @return The materialized state, not a <i>LazyState</i>
+     */
+    protected abstract State materialize();
+}
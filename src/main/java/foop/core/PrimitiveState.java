@@ -0,0 +1,116 @@
+/**
+ * Project: Foops_1
+ * Package: foop.core
+ * File: PrimitiveState.java
+ * 
+ * @author sidmishraw
+ *         Last modified: Oct 18, 2026 8:14:05 PM
+ */
+package foop.core;
+
+import lombok.Getter;
+
+/**
+ * <p>
+ * A <i>PrimitiveState</i> is the boxed value of a primitive `MemCell`, see
+ * <i>TLong</i>, <i>TInt</i> and <i>TDouble</i>. The primitive `MemCell`s
+ * keep their values unboxed, the box is only made to carry the value through
+ * the <i>State</i> based APIs: {@link StateManager#readState(Variable)}, the
+ * write-ahead log and the checkpoints.
+ * 
+ * <p>
+ * Writing a <i>PrimitiveState</i> to an un-initialized `MemCell` makes it a
+ * primitive `MemCell` of its <i>Type</i>.
+ * 
+ * @author sidmishraw
+ *
+ *         Qualified Name: foop.core.PrimitiveState
+ * 
+ */
+public final class PrimitiveState extends State {
+    
+    /**
+     * <p>
+     * The types of the primitive `MemCell`s, all of them keep their values as
+     * the bits of a long.
+     * 
+     * @author sidmishraw
+     *
+     *         Qualified Name: foop.core.PrimitiveState.Type
+     * 
+     */
+    public static enum Type {
+        LONG, INT, DOUBLE
+    }
+    
+    /**
+     * <p>
+     * The type of the value.
+     */
+    private final @Getter Type type;
+    
+    /**
+     * <p>
+     * The bits of the value.
+     */
+    private final @Getter long bits;
+    
+    /**
+     * <p>
+     * Boxes the value.
+     * 
+     * @param type
+     *            The type of the value
+     * @param bits
+     *            The bits of the value
+     */
+    public PrimitiveState(Type type, long bits) {
+        
+        this.type = type;
+        this.bits = bits;
+    }
+    
+    /**
+     * <p>
+     * Gets the value of a long `MemCell`.
+     * 
+     * @return The value
+     */
+    public long longValue() {
+        
+        return this.bits;
+    }
+    
+    /**
+     * <p>
+     * Gets the value of an int `MemCell`.
+     * 
+     * @return The value
+     */
+    public int intValue() {
+        
+        return (int) this.bits;
+    }
+    
+    /**
+     * <p>
+     * Gets the value of a double `MemCell`.
+     * 
+     * @return The value
+     */
+    public double doubleValue() {
+        
+        return Double.longBitsToDouble(this.bits);
+    }
+    
+    /*
+     * (non-Javadoc)
+     * 
+     * @see java.lang.Object#toString()
+     */
+    @Override
+    public String toString() {
+        
+        return Type.DOUBLE == this.type ? String.valueOf(this.doubleValue()) : String.valueOf(this.bits);
+    }
+}
@@ -8,9 +8,8 @@
  */
 package foop.core;
 
-import java.util.HashMap;
+import java.util.BitSet;
 import java.util.HashSet;
-import java.util.Map;
 import java.util.Set;
 
 import lombok.Getter;
@@ -25,19 +24,39 @@ import lombok.Setter;
  * <ul>
  * <li><b> status </b>: The status of the transaction.
  * 
+ * <li><b> committed </b>: true if the transaction has committed, false if it
+ * has not completed yet or bailed out because of its faulty operational
+ * logic.
+ * 
  * <li><b> version </b>: The version counter that reflects the starting order of
  * the transaction.
  * 
  * <li><b> description </b>: The description of the transaction.
  * 
  * <li><b>writeSet</b>: The set of MemCells/addresses that the transaction
- * intends to write to.
+ * intends to write to, by the ids of their <i>Variable</i>s.
  * 
  * <li><b> readSet </b>: The set of MemCells/addresses that the transaction
- * intends to read from.
+ * intends to read from, by the ids of their <i>Variable</i>s.
+ * 
+ * <li><b> retries </b>: The number of times the transaction was retried.
+ * 
+ * <li><b> backoffTime </b>: The total time in nanoseconds the transaction
+ * spent backing off before retrying.
+ * 
+ * <li><b> karma </b>: The work done by the transaction across all its
+ * attempts, used as its priority by contention managers.
+ * 
+ * <li><b> startTime </b>: The `System.nanoTime()` at which the transaction
+ * started its first attempt.
  * 
- * <li><b> oldValues </b>: The set of oldValues of the MemCells/addresses
- * that acts as a backup incase the transaction fails to commit.
+ * <li><b> readOnly </b>: true if the transaction only reads, it then reads a
+ * consistent snapshot instead of validating its readSet, and is retried at
+ * most once.
+ * 
+ * <li><b> readVersions </b>: The versions of the readSet MemCells/addresses
+ * at the time the backup was taken, the readSet is validated against them
+ * while committing.
  * 
  * <br>
  * <br>
@@ -56,32 +75,69 @@ public class Record {
      * else its true
      */
     private @Getter @Setter Boolean    status = false;
+    private @Getter @Setter boolean    committed;
     private @Getter @Setter Integer    version;
     private @Getter @Setter String     description;
     
     /**
      * <p>
-     * The <i>writeSet</i> contains all the names of the <i>Variable</i>s or
+     * Bookkeeping of the retries, maintained by the transaction and reported
+     * to the contention manager.
+     */
+    private @Getter @Setter int        retries;
+    private @Getter @Setter long       backoffTime;
+    private @Getter @Setter long       karma;
+    private @Getter @Setter long       startTime;
+    
+    /**
+     * <p>
+     * A read-only transaction reads a consistent snapshot of the `MemCell`s,
+     * it must not write.
+     */
+    private @Getter @Setter boolean    readOnly;
+    
+    /**
+     * <p>
+     * The <i>writeSet</i> contains all the ids of the <i>Variable</i>s or
      * `MemCell`s that the transaction needs to access(take ownership) inorder
      * to modify.
      */
-    private @Getter Set<String>        writeSet;
+    private BitSet                     writeSet;
     
     /**
      * <p>
-     * The <i>readSet</i> contains all the names of the <i>Variable</i>s or
+     * The <i>readSet</i> contains all the ids of the <i>Variable</i>s or
      * `MemCell`s that the transaction needs to access in order to read the
      * values from.
      */
-    private @Getter Set<String>        readSet;
+    private BitSet                     readSet;
+    
+    /**
+     * <p>
+     * Array snapshots of the sets in ascending order of the ids, the
+     * transaction iterates over them on every attempt. They are only rebuilt
+     * when the sets change, so the attempts themselves allocate nothing.
+     */
+    private int[]                      writeSetMembers;
+    private int[]                      readSetMembers;
+    
+    /**
+     * <p>
+     * The <i>readVersions</i> contains the backup of the versions of the
+     * readSet <i>Variable</i>s or `MemCell`s, in the order of
+     * {@link #getReadSetMembers()}. If any of them has changed by the time the
+     * transaction commits, the commit fails. The writeSet members need no
+     * backup since their committed states are kept aside by the
+     * <i>StateManager</i> until the transaction commits.
+     */
+    private long[]                     readVersions;
     
     /**
      * <p>
-     * The <i>oldValues</i> contains the backup of the state of the
-     * <i>Variable</i>s or `MemCell`s so that it can restore them incase it
-     * fails to commit.
+     * The <i>StateManager</i> that handed out the ids of the members, it
+     * resolves their names.
      */
-    private @Getter Map<String, State> oldValues;
+    private StateManager               manager;
     
     /**
      * 
@@ -89,8 +145,235 @@ public class Record {
     public Record() {
         
         this.status = false;
-        this.writeSet = new HashSet<>();
-        this.readSet = new HashSet<>();
-        this.oldValues = new HashMap<>();
+        this.writeSet = new BitSet();
+        this.readSet = new BitSet();
+    }
+    
+    /**
+     * <p>
+     * Gets the writeSet
+     * 
+     * @return A copy of the writeSet, the names of its members
+     */
+    public Set<String> getWriteSet() {
+        
+        return this.namesOf(this.writeSet);
+    }
+    
+    /**
+     * <p>
+     * Gets the readSet
+     * 
+     * @return A copy of the readSet, the names of its members
+     */
+    public Set<String> getReadSet() {
+        
+        return this.namesOf(this.readSet);
+    }
+    
+    /**
+     * <p>
+     * Gets the writeSet
+     * 
+     * @return A copy of the writeSet, the ids of its members
+     */
+    public BitSet getWriteSetIds() {
+        
+        return (BitSet) this.writeSet.clone();
+    }
+    
+    /**
+     * <p>
+     * Gets the readSet
+     * 
+     * @return A copy of the readSet, the ids of its members
+     */
+    public BitSet getReadSetIds() {
+        
+        return (BitSet) this.readSet.clone();
+    }
+    
+    /**
+     * <p>
+     * Resolves the names of the members of a set.
+     * 
+     * @param ids
+     *            The ids of the members
+     * 
+     * @return The names of the members
+     * 
+     * @throws IllegalStateException
+     *             if the members were not added through a <i>Transaction</i>,
+     *             so there is no <i>StateManager</i> to resolve them
+     */
+    private Set<String> namesOf(BitSet ids) {
+        
+        Set<String> names = new HashSet<>();
+        
+        if (ids.isEmpty()) {
+            
+            return names;
+        }
+        
+        if (null == this.manager) {
+            
+            throw new IllegalStateException("The members have no StateManager to resolve their names");
+        }
+        
+        ids.stream().forEach(id -> names.add(this.manager.nameOf(id)));
+        
+        return names;
+    }
+    
+    /**
+     * <p>
+     * Sets the <i>StateManager</i> that hands out the ids of the members.
+     * 
+     * @param manager
+     *            The <i>StateManager</i>
+     */
+    void setManager(StateManager manager) {
+        
+        this.manager = manager;
+    }
+    
+    /**
+     * <p>
+     * Checks if the <i>Variable</i> or `MemCell` is a member of the writeSet.
+     * 
+     * @param id
+     *            The id of the `MemCell`
+     * 
+     * @return true if it is a member
+     */
+    public boolean isWriteSetMember(int id) {
+        
+        return this.writeSet.get(id);
+    }
+    
+    /**
+     * <p>
+     * Checks if the <i>Variable</i> or `MemCell` is a member of the readSet.
+     * 
+     * @param id
+     *            The id of the `MemCell`
+     * 
+     * @return true if it is a member
+     */
+    public boolean isReadSetMember(int id) {
+        
+        return this.readSet.get(id);
+    }
+    
+    /**
+     * <p>
+     * Adds the <i>Variable</i> or `MemCell` to the writeSet.
+     * 
+     * @param id
+     *            The id of the `MemCell`
+     * 
+     * @return true if it was not already a member
+     */
+    public boolean addWriteSetMember(int id) {
+        
+        if (!this.writeSet.get(id)) {
+            
+            this.writeSet.set(id);
+            this.writeSetMembers = null;
+            
+            return true;
+        }
+        
+        return false;
+    }
+    
+    /**
+     * <p>
+     * Adds the <i>Variable</i> or `MemCell` to the readSet.
+     * 
+     * @param id
+     *            The id of the `MemCell`
+     * 
+     * @return true if it was not already a member
+     */
+    public boolean addReadSetMember(int id) {
+        
+        if (!this.readSet.get(id)) {
+            
+            this.readSet.set(id);
+            this.readSetMembers = null;
+            this.readVersions = null;
+            
+            return true;
+        }
+        
+        return false;
+    }
+    
+    /**
+     * <p>
+     * Gets the members of the writeSet as an array in ascending order of the
+     * ids, rebuilt only if the writeSet changed since the last call.
+     * 
+     * @return The writeSet members, must not be modified
+     */
+    int[] getWriteSetMembers() {
+        
+        if (null == this.writeSetMembers) {
+            
+            this.writeSetMembers = this.writeSet.stream().toArray();
+        }
+        
+        return this.writeSetMembers;
+    }
+    
+    /**
+     * <p>
+     * Gets the members of the readSet as an array in ascending order of the
+     * ids, rebuilt only if the readSet changed since the last call.
+     * 
+     * @return The readSet members, must not be modified
+     */
+    int[] getReadSetMembers() {
+        
+        if (null == this.readSetMembers) {
+            
+            this.readSetMembers = this.readSet.stream().toArray();
+        }
+        
+        return this.readSetMembers;
+    }
+    
+    /**
+     * <p>
+     * Gets the backup of the versions of the readSet members, indexed like
+     * {@link #getReadSetMembers()}.
+     * 
+     * @return The read versions
+     */
+    long[] getReadVersions() {
+        
+        if (null == this.readVersions) {
+            
+            this.readVersions = new long[this.getReadSetMembers().length];
+        }
+        
+        return this.readVersions;
+    }
+    
+    /**
+     * <p>
+     * Resets the record so that the transaction can be run once more. The
+     * read and write sets are kept, the bookkeeping of the previous run is
+     * cleared.
+     */
+    public void reset() {
+        
+        this.status = false;
+        this.committed = false;
+        this.retries = 0;
+        this.backoffTime = 0L;
+        this.karma = 0L;
+        this.startTime = 0L;
     }
 }
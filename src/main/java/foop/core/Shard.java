@@ -0,0 +1,154 @@
+/**
+ * Project: Foops_1
+ * Package: foop.core
+ * File: Shard.java
+ * 
+ * @author sidmishraw
+ *         Last modified: Oct 18, 2026 4:41:05 PM
+ */
+package foop.core;
+
+import java.util.Arrays;
+
+/**
+ * <p>
+ * A <i>Shard</i> is a segment of the `stateTable` of a <i>StateManager</i>, it
+ * holds the <i>Cell</i>s of the `MemCell`s whose names hash to it.
+ * 
+ * <br>
+ * <br>
+ * 
+ * The ids of the `MemCell`s of a shard are interleaved with the ones of the
+ * other shards: the local index of the `MemCell` in the shard is the high part
+ * of the id and the index of the shard is the low part. Each shard grows its
+ * table and serializes the making of its `MemCell`s on its own, so making
+ * `MemCell`s in different shards never contends.
+ * 
+ * <br>
+ * <br>
+ * 
+ * The <i>Cell</i>s of a sharded `stateTable` are padded, so the cells of
+ * transactions over disjoint `MemCell`s never share a cache line.
+ * 
+ * @author sidmishraw
+ *
+ *         Qualified Name: foop.core.Shard
+ * 
+ */
+final class Shard {
+    
+    /**
+     * <p>
+     * The index of the shard
+     */
+    final int               index;
+    
+    /**
+     * <p>
+     * true to pad the cells
+     */
+    private final boolean   padded;
+    
+    /**
+     * <p>
+     * The cells of the shard by their local indices, only ever replaced by a
+     * bigger copy of itself.
+     */
+    private volatile Cell[] cells;
+    
+    /**
+     * <p>
+     * The number of cells in the shard, guarded by the shard.
+     */
+    private int             size;
+    
+    /**
+     * <p>
+     * Makes an empty shard.
+     * 
+     * @param index
+     *            The index of the shard
+     * @param capacity
+     *            The initial capacity of the table of the shard, it doubles
+     *            every time it runs out of room
+     * @param padded
+     *            true to pad the cells
+     */
+    Shard(int index, int capacity, boolean padded) {
+        
+        this.index = index;
+        this.padded = padded;
+        this.cells = new Cell[capacity];
+        this.size = 0;
+    }
+    
+    /**
+     * <p>
+     * Gets the cell of the given local index.
+     * 
+     * @param local
+     *            The local index of the cell
+     * 
+     * @return The cell
+     */
+    Cell cell(int local) {
+        
+        return this.cells[local];
+    }
+    
+    /**
+     * <p>
+     * Adds a new un-initialized cell to the shard, must be called while
+     * holding the lock of the shard.
+     * 
+     * <p>
+     * The old table stays valid for the readers still using it, the cells
+     * themselves are shared. The volatile write of the table publishes the new
+     * cell.
+     * 
+     * @return The local index of the new cell
+     */
+    int add() {
+        
+        Cell[] cells = this.cells;
+        
+        if (this.size == cells.length) {
+            
+            cells = Arrays.copyOf(cells, cells.length << 1);
+        }
+        
+        cells[this.size] = this.padded ? new PaddedCell() : new Cell();
+        
+        this.cells = cells;
+        
+        return this.size++;
+    }
+    
+    /**
+     * <p>
+     * Gets the number of cells in the shard, must be called while holding the
+     * lock of the shard.
+     * 
+     * @return The number of cells
+     */
+    int size() {
+        
+        return this.size;
+    }
+    
+    /**
+     * <p>
+     * A cell padded up to more than a cache line, the fields of a subclass
+     * are laid out after the ones of its superclass, so the padding separates
+     * the fields of consecutively allocated cells.
+     * 
+     * @author sidmishraw
+     *
+     *         Qualified Name: foop.core.Shard.PaddedCell
+     * 
+     */
+    static final class PaddedCell extends Cell {
+        
+        long p0, p1, p2, p3, p4, p5, p6, p7;
+    }
+}
@@ -0,0 +1,62 @@
+/**
+ * Project: Foops_1
+ * Package: foop.core
+ * File: Snapshot.java
+ * 
+ * @author sidmishraw
+ *         Last modified: Oct 18, 2026 3:12:47 PM
+ */
+package foop.core;
+
+/**
+ * <p>
+ * A <i>Snapshot</i> is the view of the `MemCell`s that a read-only
+ * <i>Transaction</i> reads, it holds the version of the global version clock
+ * as of the start of the <i>Transaction</i>. All the states committed at or
+ * before that version are visible through it, none of the later ones are.
+ * 
+ * <p>
+ * The <i>StateManager</i> keeps track of the open snapshots to know how far
+ * back the history of the `MemCell`s needs to be kept. Snapshots are ordered
+ * by their versions, the sequence number tells apart the ones opened at the
+ * same version.
+ * 
+ * @author sidmishraw
+ *
+ *         Qualified Name: foop.core.Snapshot
+ * 
+ */
+final class Snapshot implements Comparable<Snapshot> {
+    
+    final long version;
+    
+    final long sequence;
+    
+    /**
+     * <p>
+     * Makes the snapshot as of the given version.
+     * 
+     * @param version
+     *            The version of the global version clock
+     * @param sequence
+     *            The unique sequence number of the snapshot
+     */
+    Snapshot(long version, long sequence) {
+        
+        this.version = version;
+        this.sequence = sequence;
+    }
+    
+    /*
+     * (non-Javadoc)
+     * 
+     * @see java.lang.Comparable#compareTo(java.lang.Object)
+     */
+    @Override
+    public int compareTo(Snapshot other) {
+        
+        int order = Long.compare(this.version, other.version);
+        
+        return 0 != order ? order : Long.compare(this.sequence, other.sequence);
+    }
+}
@@ -8,13 +8,29 @@
  */
 package foop.core;
 
-import java.util.HashMap;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import foop.core.contention.ExponentialBackoff;
+import foop.core.durability.WriteAheadLog;
+import foop.core.metrics.ContentionProfiler;
+import foop.core.metrics.TransactionMetrics;
+import lombok.Getter;
+import lombok.Setter;
+
 /**
  * <p>
  * The manager is responsible for maintaing the object-state mappings, uses STM
@@ -60,45 +76,83 @@ import org.slf4j.LoggerFactory;
  * <br>
  * <br>
  * 
- * <code><b>Map&lt;String, State&gt; stateTable</b></code>
+ * <code><b>Cell[] stateTable</b></code>
  * 
  * <br>
  * <br>
  * 
- * where <i>stateTable</i> `associates` <i>Variable</i> to <i>State</i> using
- * <i>Variable</i>'s `name` as key.
+ * where <i>stateTable</i> `associates` <i>Variable</i> to its <i>State</i>
+ * using <i>Variable</i>'s `id` as the index. The id is dense, it is handed
+ * out by {@link #make(String, Map.Entry...)} in the order the
+ * <i>Variable</i>s are made, so the stateTable is a plain array that grows
+ * as needed. The names are only used for looking up the <i>Variable</i>s in
+ * the <i>memory</i>, the <i>Variable</i> itself is the handle used on the hot
+ * path. Each <i>Cell</i> of the stateTable carries the committed
+ * <i>State</i> along with a version stamp drawn from the global version
+ * <b>clock</b>. The clock is bumped once per successful commit, so a
+ * <i>Transaction</i> can validate its readSet by comparing versions instead
+ * of comparing <i>State</i>s.
  * 
  * <br>
  * <br>
  * 
  * Now, since immutable part of `<i>MemCell</i>` represents the `<i>MemCell</i>`
- * itself, the <b>stm</b> becomes:
+ * itself, the <b>stm</b> `associates` <i>Variable</i> to `<i>Transaction</i>`
+ * that owns it during a particular time frame. The owner is kept in the
+ * <i>Cell</i> of the `MemCell` itself, so the <b>stm</b> is a column of the
+ * <i>stateTable</i> rather than a map of its own.
  * 
  * <br>
  * <br>
  * 
- * <code><b>Map&lt;String, Transaction&gt; stm</b></code>
+ * So, `<b>effectively</b>` the collection of `MemCell`s is now represented by
+ * the `stateTable` and the `memory` (logically) and the `<i>stm</i>` still
+ * represents the relation between the `<i>MemCell</i>`s and the
+ * <i>Transaction</i>s.
  * 
  * <br>
  * <br>
  * 
- * The `<i>stm</i>` `associates` <i>Variable</i> to `<i>Transaction</i>` that
- * owns it during a particular time frame using the `<i>Variable</i>`'s `name`
- * as key.
+ * The <i>stm</i>, <i>memory</i> and <i>stateTable</i> are managed by the
+ * <i>StateManager</i>.
  * 
  * <br>
  * <br>
  * 
- * So, `<b>effectively</b>` the collection of `MemCell`s is now represented by
- * the 2 Maps `stateTable` and `memory` (logically) and the `<i>stm</i>` still
- * represents the relation between the `<i>MemCell</i>`s and the
- * <i>Transaction</i>s.
+ * The <i>memory</i> is a concurrent map and the <i>stateTable</i> is only
+ * ever replaced by a bigger copy of itself, so both can be read without
+ * locking by every <i>Transaction</i> running against this manager. Making
+ * new <i>Variable</i>s is serialized. Ownership of a `MemCell` is taken and
+ * given up atomically with a compare-and-set on its <i>Cell</i>, see
+ * {@link #acquireOwnership(Variable, Transaction)} and
+ * {@link #releaseOwnership(Variable, Transaction)}.
  * 
  * <br>
  * <br>
  * 
- * The <i>stm</i>, <i>memory</i> and <i>stateTable</i> are managed by the
- * <i>StateManager</i>.
+ * Every operation comes in two flavours, one taking the <i>Variable</i>
+ * handle and one taking its name. The ones taking the name make an
+ * un-initialized `MemCell` for a name that was never made before, just like
+ * writing to a fresh `MemCell` would.
+ * 
+ * <br>
+ * <br>
+ * 
+ * The <i>stateTable</i> can be split into <i>Shard</i>s, see
+ * {@link #StateManager(int)}. The `MemCell`s are partitioned between the
+ * shards by the hashes of their names, each shard has its own table and
+ * makes its `MemCell`s on its own, and the <i>Cell</i>s are padded so that
+ * transactions over disjoint `MemCell`s never share a cache line. The global
+ * version clock stays shared by all the shards, the snapshots of the
+ * read-only transactions span all of them.
+ * 
+ * <br>
+ * <br>
+ * 
+ * The commits are kept in memory only, unless a <i>WriteAheadLog</i> is
+ * attached to the manager. The committing transactions then append their
+ * writeSets to the log before publishing them, and wait for the log as per
+ * its sync policy after giving up their ownerships.
  * 
  * <br>
  * <br>
@@ -110,46 +164,223 @@ import org.slf4j.LoggerFactory;
 public class StateManager {
     
     /** logging stuff **/
-    private static final Logger      logger = LoggerFactory.getLogger(StateManager.class);
+    private static final Logger               logger                    = LoggerFactory.getLogger(StateManager.class);
     /** logging stuff **/
     
+    /**
+     * <p>
+     * The initial capacity of the <i>stateTable</i>, it doubles every time it
+     * runs out of room.
+     */
+    private static final int                  INITIAL_CAPACITY          = 64;
+    
+    /**
+     * <p>
+     * The system property holding the number of shards of the
+     * <i>StateManager</i>s made with the default constructor, e.g. by the
+     * <i>InstanceFactory</i>.
+     */
+    public static final String                SHARDS_PROPERTY           = "foop.stateManager.shards";
+    
+    /**
+     * <p>
+     * The default time a <i>Transaction</i> waits for the ownership of a
+     * `MemCell` before giving up the attempt, in nanoseconds.
+     */
+    public static final long                  DEFAULT_OWNERSHIP_TIMEOUT = TimeUnit.MILLISECONDS.toNanos(10);
+    
     /**
      * <p>
      * The `memory` is used to hold the `Variable` object references so that
      * they don't get GC'ed. Moreover, the memory represents part of the
-     * `MemCell` collections.
+     * `MemCell` collections. It maps the names of the <i>Variable</i>s to
+     * them.
      */
-    private Map<String, Variable>    memory;
+    private Map<String, Variable>             memory;
     
     /**
      * <p>
      * The <i>stateTable</i> `associates` the immutable part of the `MemCell` to
-     * its mutable part. It uses the <i>Variable</i>'s name as the key.
+     * its mutable part. It uses the <i>Variable</i>'s id as the index, the low
+     * bits of the id pick the shard and the rest is the index in the shard.
+     * Each shard serializes the making of its <i>Variable</i>s and the growth
+     * of its table.
      */
-    private Map<String, State>       stateTable;
+    private final Shard[]                     stateTable;
     
     /**
-     * Represents the Software Transactional Memory(STM)
-     * 
-     * The `<i>stm</i>` `associates` <i>Variable</i> to `<i>Transaction</i>`
-     * that owns it during a particular time frame using the `<i>Variable</i>`'s
-     * `name` as key.
+     * <p>
+     * The mask of the shard bits of the ids.
+     */
+    private final int                         shardMask;
+    
+    /**
+     * <p>
+     * The number of shard bits of the ids.
+     */
+    private final int                         shardBits;
+    
+    /**
+     * <p>
+     * The global version clock, the versions of the <i>Cell</i>s in the
+     * <i>stateTable</i> are drawn from it.
+     */
+    private AtomicLong                        clock;
+    
+    /**
+     * <p>
+     * The default contention manager of the transactions running against this
+     * manager. It can be overridden per <i>Transaction</i>.
+     */
+    private @Getter @Setter ContentionManager contentionManager;
+    
+    /**
+     * <p>
+     * The time a <i>Transaction</i> waits for the ownership of a `MemCell`
+     * owned by some other <i>Transaction</i>, in nanoseconds. Once it elapses
+     * the attempt is aborted and the contention manager decides when to
+     * retry, 0 aborts right away.
+     */
+    private @Getter @Setter long              ownershipTimeout;
+    
+    /**
+     * <p>
+     * The metrics registry, all the transactions running against this manager
+     * report into it.
+     */
+    private @Getter TransactionMetrics        metrics;
+    
+    /**
+     * <p>
+     * The contention profiler, all the transactions running against this
+     * manager report the `MemCell`s they conflict on into it once it is
+     * enabled.
+     */
+    private @Getter ContentionProfiler        contentionProfiler;
+    
+    /**
+     * <p>
+     * The write-ahead log the commits are appended to, null if the commits
+     * are not durable. See <i>WriteAheadLog</i> for attaching it.
+     */
+    private @Getter @Setter WriteAheadLog     writeAheadLog;
+    
+    /**
+     * <p>
+     * The snapshots being read by the read-only transactions, ordered by their
+     * versions. The history of the `MemCell`s is kept as far back as the
+     * oldest of them needs.
+     */
+    private ConcurrentSkipListSet<Snapshot>   snapshots;
+    
+    /**
+     * <p>
+     * The number of read-only transactions running, including the ones still
+     * opening their snapshots. No history is kept while it is 0.
+     */
+    private AtomicInteger                     snapshotReaders;
+    
+    /**
+     * <p>
+     * The number of read-only transactions that have read the version of
+     * their snapshot but not yet added it to the <i>snapshots</i>. The history
+     * is not pruned while it isn't 0.
+     */
+    private AtomicInteger                     openingSnapshots;
+    
+    /**
+     * <p>
+     * The sequence of the snapshots.
+     */
+    private AtomicLong                        snapshotSequence;
+    
+    /**
+     * <p>
+     * The number of read-write transactions running. The reads of the
+     * `MemCell`s not owned by the current transaction are not checked, and
+     * neither are they nor the writes recorded while it is 0.
      */
-    private Map<String, Transaction> stm;
+    private AtomicInteger                     trackingTransactions;
     
     /**
-     * Initializes the StateManager with empty tables for each of the memory,
-     * stm and stateTable.
+     * Initializes the StateManager with empty tables for each of the memory
+     * and stateTable. The stateTable isn't sharded unless the
+     * {@link #SHARDS_PROPERTY} system property says so.
      */
     public StateManager() {
         
-        this.memory = new HashMap<>();
-        this.stm = new HashMap<>();
-        this.stateTable = new HashMap<>();
+        this(Integer.getInteger(SHARDS_PROPERTY, 1));
+    }
+    
+    /**
+     * Initializes the StateManager with empty tables for each of the memory
+     * and stateTable, the stateTable is split into the given number of
+     * shards.
+     * 
+     * <p>
+     * The <i>TransactionMetrics</i> are enabled, the
+     * <i>ContentionProfiler</i> is not: a conflict on a `MemCell` it doesn't
+     * track yet takes the lock of the profiler and scans all the tracked ones
+     * for the one to evict, which the heavily contended workloads it is meant
+     * for would pay on their hot path. Enable it with
+     * <code>getContentionProfiler().setEnabled(true)</code> or over JMX.
+     * 
+     * @param shards
+     *            The number of shards, rounded up to a power of 2. 1 for an
+     *            un-sharded stateTable.
+     * 
+     * @throws IllegalArgumentException
+     *             if the number of shards is not positive
+     */
+    public StateManager(int shards) {
+        
+        if (shards < 1) {
+            
+            throw new IllegalArgumentException("The number of shards must be positive: " + shards);
+        }
+        
+        this.shardBits = 32 - Integer.numberOfLeadingZeros(shards - 1);
+        this.shardMask = (1 << this.shardBits) - 1;
+        this.stateTable = new Shard[1 << this.shardBits];
+        
+        for (int i = 0; i < this.stateTable.length; i++) {
+            
+            this.stateTable[i] = 1 == this.stateTable.length ? new Shard(i, INITIAL_CAPACITY, false)
+                    : new Shard(i, Math.max(1, INITIAL_CAPACITY >> this.shardBits), true);
+        }
+        
+        this.memory = new ConcurrentHashMap<>();
+        this.clock = new AtomicLong(0L);
+        this.contentionManager = new ExponentialBackoff();
+        this.ownershipTimeout = DEFAULT_OWNERSHIP_TIMEOUT;
+        this.metrics = new TransactionMetrics();
+        this.contentionProfiler = new ContentionProfiler();
+        this.contentionProfiler.setEnabled(false);
+        this.snapshots = new ConcurrentSkipListSet<>();
+        this.snapshotReaders = new AtomicInteger();
+        this.openingSnapshots = new AtomicInteger();
+        this.snapshotSequence = new AtomicLong();
+        this.trackingTransactions = new AtomicInteger();
     }
     
     /****** STM operations START ********/
     
+    /**
+     * <p>
+     * Gets the owner of the `MemCell`,
+     * 
+     * @param variable
+     *            The `<i>Variable</i>` or `MemCell` that you want to
+     *            <b>own</b>.
+     * 
+     * @return an Optional Transaction, which may be empty if the `MemCell` is
+     *         not owned by any <i>Transaction</i>.
+     */
+    public Optional<Transaction> getOwner(Variable variable) {
+        
+        return Optional.ofNullable(this.ownerOf(this.idOf(variable)));
+    }
+    
     /**
      * <p>
      * Gets the owner of the `MemCell`,
@@ -163,37 +394,214 @@ public class StateManager {
      */
     public Optional<Transaction> getOwner(String variableName) {
         
-        return Optional.ofNullable(this.stm.get(variableName));
+        return this.getVariable(variableName).map(variable -> this.ownerOf(variable.getId()));
+    }
+    
+    /**
+     * <p>
+     * Gets the owner of the `MemCell`, without wrapping it.
+     * 
+     * @param id
+     *            The id of the `<i>Variable</i>` or `MemCell`
+     * 
+     * @return The owner, null if the `MemCell` is not owned
+     */
+    Transaction ownerOf(int id) {
+        
+        return this.cell(id).owner;
+    }
+    
+    /**
+     * <p>
+     * Atomically takes the ownership of the `MemCell` for the
+     * <i>Transaction</i>. This is a compare-and-set on the <i>Cell</i>, the
+     * ownership is only granted if the `MemCell` is not owned by any other
+     * <i>Transaction</i>. Taking the ownership of a `MemCell` that the
+     * <i>Transaction</i> already owns succeeds.
+     * 
+     * @param variable
+     *            The `<i>Variable</i>` or `MemCell` that you want to
+     *            <b>own</b>.
+     * 
+     * @param owner
+     *            The Transaction that wants to own the `MemCell`.
+     * 
+     * @return true if the <i>owner</i> now owns the `MemCell`, else false
+     */
+    public boolean acquireOwnership(Variable variable, Transaction owner) {
+        
+        return this.acquireOwnership(this.idOf(variable), owner);
     }
     
     /**
      * <p>
-     * Sets the owner of the `MemCell`,
+     * Atomically takes the ownership of the `MemCell` for the
+     * <i>Transaction</i>, see {@link #acquireOwnership(Variable, Transaction)}.
      * 
      * @param variableName
      *            The name of the `<i>Variable</i>` or `MemCell` that you want
      *            to <b>own</b>.
      * 
      * @param owner
-     *            The Transaction that now owns the `MemCell`.
+     *            The Transaction that wants to own the `MemCell`.
+     * 
+     * @return true if the <i>owner</i> now owns the `MemCell`, else false
+     */
+    public boolean acquireOwnership(String variableName, Transaction owner) {
+        
+        return this.acquireOwnership(this.idOf(variableName), owner);
+    }
+    
+    /**
+     * <p>
+     * Atomically takes the ownership of the `MemCell` for the
+     * <i>Transaction</i>.
+     * 
+     * @param id
+     *            The id of the `<i>Variable</i>` or `MemCell`
+     * @param owner
+     *            The Transaction that wants to own the `MemCell`.
+     * 
+     * @return true if the <i>owner</i> now owns the `MemCell`, else false
+     */
+    boolean acquireOwnership(int id, Transaction owner) {
+        
+        return this.cell(id).acquire(owner);
+    }
+    
+    /**
+     * <p>
+     * Waits for the ownership of the `MemCell` for the <i>Transaction</i>,
+     * the thread is parked till the current owner releases it. The wait is
+     * reported to the contention profiler.
+     * 
+     * @param id
+     *            The id of the `<i>Variable</i>` or `MemCell`
+     * @param owner
+     *            The Transaction that wants to own the `MemCell`.
+     * @param timeout
+     *            The maximum time to wait in nanoseconds
+     * 
+     * @return true if the <i>owner</i> now owns the `MemCell`, false if the
+     *         timeout elapsed first
+     */
+    boolean awaitOwnership(int id, Transaction owner, long timeout) {
+        
+        Cell cell = this.cell(id);
+        
+        if (!this.contentionProfiler.isEnabled()) {
+            
+            return cell.await(owner, timeout);
+        }
+        
+        long start = System.nanoTime();
+        
+        boolean acquired = cell.await(owner, timeout);
+        
+        long waitTime = System.nanoTime() - start;
+        
+        if (acquired) {
+            
+            this.contentionProfiler.ownershipAwaited(cell.variable.getName(), waitTime);
+        } else {
+            
+            this.contentionProfiler.ownershipFailed(cell.variable.getName(), waitTime);
+        }
+        
+        return acquired;
+    }
+    
+    /**
+     * <p>
+     * Reports a failure to take the ownership of the `MemCell` without
+     * waiting for it to the contention profiler.
+     * 
+     * @param id
+     *            The id of the `<i>Variable</i>` or `MemCell`
+     */
+    void ownershipFailed(int id) {
+        
+        if (this.contentionProfiler.isEnabled()) {
+            
+            this.contentionProfiler.ownershipFailed(this.nameOf(id), 0L);
+        }
+    }
+    
+    /**
+     * <p>
+     * Reports a `MemCell` found changed since it was read to the contention
+     * profiler.
+     * 
+     * @param id
+     *            The id of the `<i>Variable</i>` or `MemCell`
+     */
+    void validationFailed(int id) {
+        
+        if (this.contentionProfiler.isEnabled()) {
+            
+            this.contentionProfiler.validationFailed(this.nameOf(id));
+        }
+    }
+    
+    /**
+     * <p>
+     * Removes the owner transaction reference for the `MemCell`, only if the
+     * `MemCell` is currently owned by the <i>owner</i>. This is an atomic
+     * operation, a <i>Transaction</i> can never release a `MemCell` owned by
+     * some other <i>Transaction</i>.
+     * 
+     * @param variable
+     *            The `<i>Variable</i>` or `MemCell` that you want to free from
+     *            ownership
+     * 
+     * @param owner
+     *            The Transaction that is giving up the ownership
+     * 
+     * @return true if the ownership was released, false if the <i>owner</i>
+     *         didn't own the `MemCell`
      */
-    public void setOwner(String variableName, Transaction owner) {
+    public boolean releaseOwnership(Variable variable, Transaction owner) {
         
-        this.stm.put(variableName, owner);
+        return this.releaseOwnership(this.idOf(variable), owner);
     }
     
     /**
      * <p>
-     * Removes the owner transaction reference for the `MemCell`
+     * Removes the owner transaction reference for the `MemCell`, see
+     * {@link #releaseOwnership(Variable, Transaction)}.
      * 
      * @param variableName
      *            The name of the `<i>Variable</i>` or `MemCell` that you want
      *            to free from ownership
      * 
+     * @param owner
+     *            The Transaction that is giving up the ownership
+     * 
+     * @return true if the ownership was released, false if the <i>owner</i>
+     *         didn't own the `MemCell`
+     */
+    public boolean releaseOwnership(String variableName, Transaction owner) {
+        
+        Variable variable = this.memory.get(variableName);
+        
+        return null != variable && this.releaseOwnership(variable.getId(), owner);
+    }
+    
+    /**
+     * <p>
+     * Removes the owner transaction reference for the `MemCell`, only if the
+     * `MemCell` is currently owned by the <i>owner</i>.
+     * 
+     * @param id
+     *            The id of the `<i>Variable</i>` or `MemCell`
+     * @param owner
+     *            The Transaction that is giving up the ownership
+     * 
+     * @return true if the ownership was released
      */
-    public void releaseOwnership(String variableName) {
+    boolean releaseOwnership(int id, Transaction owner) {
         
-        this.stm.remove(variableName);
+        return this.cell(id).release(owner);
     }
     
     /****** STM operations END ********/
@@ -205,73 +613,1089 @@ public class StateManager {
      * Makes you a brand new `<i>Variable</i>` or `MemCell` that is allocated in
      * the memory.(JK!)
      * 
+     * <p>
+     * Making a <i>Variable</i> with the name of an existing one replaces its
+     * properties, but it keeps the id and the state of the existing one.
+     * 
      * @param variableName
      *            The name of the <i>Variable</i>
      * @param props
      *            The properties that can be present in the immutable part of
      *            the `MemCell` or <i>Variable</i>
      * 
-     * @return The new <i>Variable</i>
+     * @return The new <i>Variable</i>, this is the handle to be used for
+     *         accessing the `MemCell`
      */
     public Variable make(String variableName, @SuppressWarnings("unchecked") Map.Entry<String, Object>... props) {
         
-        Variable var = new Variable(variableName, props);
-        
-        // add the var to the memory
-        this.memory.put(variableName, var);
-        
-        return var;
+        return this.register(variableName, Arrays.asList(props), true);
     }
     
     /**
      * <p>
-     * Fetches the current state of the <i>Variable</i> or `MemCell`
+     * Makes you a brand new `<i>Variable</i>` or `MemCell` without any
+     * properties, see {@link #make(String, Map.Entry...)}.
      * 
      * @param variableName
-     *            The name of the `<i>Variable</i>` whose current state is
-     *            needed
+     *            The name of the <i>Variable</i>
      * 
-     * @return The current state of the `<i>Variable</i>` which may be empty if
-     *         the Variable never had any state, i.e The `MemCell` has not yet
-     *         been initialized.
+     * @return The new <i>Variable</i>, this is the handle to be used for
+     *         accessing the `MemCell`
      */
-    public Optional<State> read(String variableName) {
-        
-        logger.info(String.format("Variable :: name: %s, has state: %s", variableName,
-                Optional.ofNullable(this.stateTable.get(variableName))));
+    public Variable make(String variableName) {
         
-        return Optional.ofNullable(this.stateTable.get(variableName));
+        return this.register(variableName, Collections.emptyList(), true);
     }
     
     /**
      * <p>
-     * Writes the new state of the <i>Variable</i>, updating its state in the
-     * `stateTable`.
-     * <br>
-     * This action symbolizes that the `MemCell`'s contents were updated.
+     * Looks up the `<i>Variable</i>` or `MemCell` by its name.
      * 
      * @param variableName
-     *            The name of the `<i>Variable</i>` whose state needs to be
-     *            updated
+     *            The name of the <i>Variable</i>
      * 
-     * @param state
-     *            The new state of the `<i>Variable</i>`. This symbolizes that
-     *            the `MemCell`'s contents have been updated to this value since
-     *            `<i>State</i>` represents the `mutable` part of the `MemCell`.
+     * @return The <i>Variable</i>, which may be empty if no <i>Variable</i> of
+     *         that name was made yet
      */
-    public void write(String variableName, State state) {
+    public Optional<Variable> getVariable(String variableName) {
         
-        if (logger.isInfoEnabled()) {
-            
-            State oldState = Optional.ofNullable(this.stateTable.get(variableName)).orElse(null);
+        return Optional.ofNullable(this.memory.get(variableName));
+    }
+    
+    /**
+     * <p>
+     * Gets the `<i>Variable</i>`s made so far. The view is live and weakly
+     * consistent, the <i>Variable</i>s made while iterating it may or may not
+     * show up.
+     * 
+     * @return The <i>Variable</i>s
+     */
+    public Collection<Variable> getVariables() {
+        
+        return Collections.unmodifiableCollection(this.memory.values());
+    }
+    
+    /**
+     * <p>
+     * Gets the number of `<i>Variable</i>`s made so far.
+     * 
+     * @return The number of `MemCell`s
+     */
+    public int size() {
+        
+        int size = 0;
+        
+        for (Shard shard : this.stateTable) {
             
-            logger.info(String.format("Updating Variable :: name: %s with current state: %s", variableName, oldState));
+            synchronized (shard) {
+                
+                size += shard.size();
+            }
         }
         
-        this.stateTable.put(variableName, state);
+        return size;
+    }
+    
+    /**
+     * <p>
+     * Gets the number of shards of the <i>stateTable</i>.
+     * 
+     * @return The number of shards, 1 if it is not sharded
+     */
+    public int getShards() {
+        
+        return this.stateTable.length;
+    }
+    
+    /**
+     * <p>
+     * Fetches the current state of the <i>Variable</i> or `MemCell`.
+     * 
+     * <p>
+     * When called from a <i>Transaction</i> that owns the `MemCell`, this is
+     * the tentative state written by that <i>Transaction</i>, everyone else
+     * gets the last committed state.
+     * 
+     * @param variable
+     *            The `<i>Variable</i>` whose current state is needed
+     * 
+     * @return The current state of the `<i>Variable</i>` which may be empty if
+     *         the Variable never had any state, i.e The `MemCell` has not yet
+     *         been initialized.
+     */
+    public Optional<State> read(Variable variable) {
         
-        logger.info(String.format("Updated Variable :: name: %s to new state: %s", variableName, state));
+        return Optional.ofNullable(this.readState(variable));
     }
     
-    /****** Object - State, stateTable related END *******/
+    /**
+     * <p>
+     * Fetches the current state of the <i>Variable</i> or `MemCell`, see
+     * {@link #read(Variable)}.
+     * 
+     * @param variableName
+     *            The name of the `<i>Variable</i>` whose current state is
+     *            needed
+     * 
+     * @return The current state of the `<i>Variable</i>` which may be empty if
+     *         the Variable never had any state, i.e The `MemCell` has not yet
+     *         been initialized.
+     */
+    public Optional<State> read(String variableName) {
+        
+        return Optional.ofNullable(this.readState(variableName));
+    }
+    
+    /**
+     * <p>
+     * Fetches the current state of the <i>Variable</i> or `MemCell`, just like
+     * {@link #read(Variable)} but without wrapping it into an `Optional`.
+     * 
+     * @param variable
+     *            The `<i>Variable</i>` whose current state is needed
+     * 
+     * @return The current state of the `<i>Variable</i>`, null if the
+     *         `MemCell` has not yet been initialized.
+     */
+    public State readState(Variable variable) {
+        
+        return this.readState(this.cell(this.idOf(variable)));
+    }
+    
+    /**
+     * <p>
+     * Fetches the current state of the <i>Variable</i> or `MemCell`, just like
+     * {@link #read(String)} but without wrapping it into an `Optional`.
+     * 
+     * @param variableName
+     *            The name of the `<i>Variable</i>` whose current state is
+     *            needed
+     * 
+     * @return The current state of the `<i>Variable</i>`, null if the
+     *         `MemCell` has not yet been initialized.
+     */
+    public State readState(String variableName) {
+        
+        Variable variable = this.memory.get(variableName);
+        
+        return null == variable ? null : this.readState(this.cell(variable.getId()));
+    }
+    
+    /**
+     * <p>
+     * Reads the state of the cell as seen by the current thread.
+     * 
+     * @param cell
+     *            The cell of the `MemCell`
+     * 
+     * @return The tentative state for the owner, the state as of the snapshot
+     *         for a read-only transaction, the committed state for everyone
+     *         else. The value of a primitive `MemCell` comes boxed.
+     */
+    State readState(Cell cell) {
+        
+        PrimitiveState.Type type = cell.type;
+        
+        if (null != type) {
+            
+            return new PrimitiveState(type, this.readBits(cell));
+        }
+        
+        if (isOwnedByCurrentTransaction(cell)) {
+            
+            return materialize(cell, cell.state);
+        }
+        
+        if (this.snapshotReaders.get() > 0) {
+            
+            // the current transaction can only be read-only if there are
+            // snapshot readers at all, saves the thread local lookup
+            Snapshot snapshot = currentSnapshot();
+            
+            if (null != snapshot) {
+                
+                return materialize(cell, cell.read(snapshot.version));
+            }
+        }
+        
+        Transaction tracking = this.trackingTransaction();
+        
+        if (null != tracking) {
+            
+            for (;;) {
+                
+                // the version before and after the state, so that the two
+                // belong together
+                long version = cell.version;
+                
+                State state = cell.committed;
+                
+                if (version == cell.version && tracking.checkRead(cell, version)) {
+                    
+                    tracking.trackRead(cell.variable.getId(), version);
+                    
+                    return materialize(cell, state);
+                }
+            }
+        }
+        
+        return materialize(cell, cell.committed);
+    }
+    
+    /**
+     * <p>
+     * Materializes the state read from the cell if it is a <i>LazyState</i>,
+     * replacing it in the cell.
+     * 
+     * @param cell
+     *            The cell
+     * @param state
+     *            The state read from the cell
+     * 
+     * @return The materialized state
+     */
+    private static State materialize(Cell cell, State state) {
+        
+        if (!(state instanceof LazyState)) {
+            
+            return state;
+        }
+        
+        State materialized = ((LazyState) state).materialize();
+        
+        cell.materialize((LazyState) state, materialized);
+        
+        return materialized;
+    }
+    
+    /**
+     * <p>
+     * Writes the new state of the <i>Variable</i>, updating its state in the
+     * `stateTable`.
+     * <br>
+     * This action symbolizes that the `MemCell`'s contents were updated.
+     * 
+     * <p>
+     * When called from a <i>Transaction</i> that owns the `MemCell`, the new
+     * state is tentative until the <i>Transaction</i> commits. Otherwise, the
+     * new state is committed right away with a new version, by a
+     * <i>Transaction</i> of its own that waits for the ownership of the
+     * `MemCell` if some other <i>Transaction</i> owns it.
+     * 
+     * @param variable
+     *            The `<i>Variable</i>` whose state needs to be updated
+     * 
+     * @param state
+     *            The new state of the `<i>Variable</i>`. This symbolizes that
+     *            the `MemCell`'s contents have been updated to this value since
+     *            `<i>State</i>` represents the `mutable` part of the `MemCell`.
+     * 
+     * @throws IllegalStateException
+     *             if called from a read-only <i>Transaction</i>
+     */
+    public void write(Variable variable, State state) {
+        
+        this.write(this.cell(this.idOf(variable)), state);
+    }
+    
+    /**
+     * <p>
+     * Writes the new state of the <i>Variable</i>, see
+     * {@link #write(Variable, State)}.
+     * 
+     * @param variableName
+     *            The name of the `<i>Variable</i>` whose state needs to be
+     *            updated
+     * 
+     * @param state
+     *            The new state of the `<i>Variable</i>`.
+     * 
+     * @throws IllegalStateException
+     *             if called from a read-only <i>Transaction</i>
+     */
+    public void write(String variableName, State state) {
+        
+        this.write(this.cell(this.idOf(variableName)), state);
+    }
+    
+    /**
+     * <p>
+     * Writes the new state into the cell, tentatively for the owner and
+     * committed right away, once owned, for everyone else.
+     * 
+     * @param cell
+     *            The cell of the `MemCell`
+     * @param state
+     *            The new state
+     * 
+     * @throws IllegalArgumentException
+     *             if the state doesn't fit the type of the `MemCell`
+     */
+    void write(Cell cell, State state) {
+        
+        if (state instanceof PrimitiveState) {
+            
+            PrimitiveState primitive = (PrimitiveState) state;
+            
+            this.writeBits(this.typedCell(cell, primitive.getType()), primitive.getBits());
+            
+            return;
+        }
+        
+        if (null != cell.type) {
+            
+            throw new IllegalArgumentException("The MemCell " + cell.variable.getName() + " holds a " + cell.type);
+        }
+        
+        if (isOwnedByCurrentTransaction(cell)) {
+            
+            beforeWrite(cell);
+            
+            cell.state = state;
+            
+            return;
+        }
+        
+        if (this.snapshotReaders.get() > 0 && null != currentSnapshot()) {
+            
+            throw new IllegalStateException("A read-only transaction cannot write");
+        }
+        
+        Transaction tracking = this.trackingTransaction();
+        
+        if (null != tracking && tracking.getRecord().isReadOnly()) {
+            
+            // not reading a snapshot yet
+            throw new IllegalStateException("A read-only transaction cannot write");
+        }
+        
+        if (null != tracking && null != tracking.getContext()) {
+            
+            // the first write through a context, the state is tentative once
+            // the ownership is taken
+            tracking.trackWrite(cell.variable.getId());
+            
+            cell.state = state;
+            
+            return;
+        }
+        
+        // not a transactional write, it is committed by a transaction of its
+        // own so that it never overwrites the tentative state of an owner
+        this.commitAlone(cell, "write", () -> {
+            
+            this.write(cell, state);
+            
+            return true;
+        });
+    }
+    
+    /**
+     * <p>
+     * Reads the value of a primitive cell as seen by the current thread, just
+     * like {@link #readState(Cell)}.
+     * 
+     * @param cell
+     *            The cell of the primitive `MemCell`
+     * 
+     * @return The bits of the value
+     */
+    long readBits(Cell cell) {
+        
+        if (isOwnedByCurrentTransaction(cell)) {
+            
+            return cell.bits;
+        }
+        
+        if (this.snapshotReaders.get() > 0) {
+            
+            Snapshot snapshot = currentSnapshot();
+            
+            if (null != snapshot) {
+                
+                return cell.readBits(snapshot.version);
+            }
+        }
+        
+        Transaction tracking = this.trackingTransaction();
+        
+        if (null != tracking) {
+            
+            for (;;) {
+                
+                long version = cell.version;
+                long bits = cell.committedBits;
+                
+                if (version == cell.version && tracking.checkRead(cell, version)) {
+                    
+                    tracking.trackRead(cell.variable.getId(), version);
+                    
+                    return bits;
+                }
+            }
+        }
+        
+        return cell.committedBits;
+    }
+    
+    /**
+     * <p>
+     * Writes the new value into a primitive cell, just like
+     * {@link #write(Cell, State)}.
+     * 
+     * @param cell
+     *            The cell of the primitive `MemCell`
+     * @param bits
+     *            The bits of the new value
+     */
+    void writeBits(Cell cell, long bits) {
+        
+        if (isOwnedByCurrentTransaction(cell)) {
+            
+            beforeWrite(cell);
+            
+            cell.bits = bits;
+            
+            return;
+        }
+        
+        if (this.snapshotReaders.get() > 0 && null != currentSnapshot()) {
+            
+            throw new IllegalStateException("A read-only transaction cannot write");
+        }
+        
+        Transaction tracking = this.trackingTransaction();
+        
+        if (null != tracking && tracking.getRecord().isReadOnly()) {
+            
+            // not reading a snapshot yet
+            throw new IllegalStateException("A read-only transaction cannot write");
+        }
+        
+        if (null != tracking && null != tracking.getContext()) {
+            
+            tracking.trackWrite(cell.variable.getId());
+            
+            cell.bits = bits;
+            
+            return;
+        }
+        
+        // not a transactional write, it is committed by a transaction of its
+        // own so that it never overwrites the tentative state of an owner
+        this.commitAlone(cell, "write", () -> {
+            
+            this.writeBits(cell, bits);
+            
+            return true;
+        });
+    }
+    
+    /**
+     * <p>
+     * Updates the value of a primitive cell with a commutative update. A
+     * running read-write transaction records it, to be applied at commit,
+     * unless it owns the cell already. Otherwise it is applied right away by
+     * a transaction of its own, so that no concurrent update is lost.
+     * 
+     * @param cell
+     *            The cell of the primitive `MemCell`
+     * @param update
+     *            The commutative update
+     * @param operand
+     *            The operand of the update
+     */
+    void commute(Cell cell, Commutative update, long operand) {
+        
+        if (isOwnedByCurrentTransaction(cell)) {
+            
+            beforeWrite(cell);
+            
+            cell.bits = update.apply(cell.bits, operand);
+            
+            return;
+        }
+        
+        // a batched transaction is not tracked, but its updates are deferred
+        // just the same
+        Transaction current = Transaction.current();
+        
+        if (null != current && current.defer(cell.variable.getId(), update, operand)) {
+            
+            // neither read nor owned till the commit
+            return;
+        }
+        
+        // the read and the write of the update must not interleave with
+        // the ones of another update
+        this.commitAlone(cell, "commute", () -> {
+            
+            this.writeBits(cell, update.apply(this.readBits(cell), operand));
+            
+            return true;
+        });
+    }
+    
+    /**
+     * <p>
+     * Runs the update of a single cell as a transaction of its own, which
+     * owns the cell, waiting for its current owner if any, from before the
+     * update till its commit. The update never overwrites the tentative state
+     * of another transaction, and the versions of the cell are published in
+     * order.
+     * 
+     * @param cell
+     *            The cell
+     * @param description
+     *            The description of the transaction
+     * @param update
+     *            The update, it finds the cell owned by the current
+     *            transaction
+     */
+    private void commitAlone(Cell cell, String description, Transaction.TransactionOperation update) {
+        
+        Record record = new Record();
+        
+        record.setDescription(description);
+        
+        Transaction transaction = new Transaction();
+        
+        transaction.setRecord(record);
+        transaction.setManager(this);
+        transaction.addWriteSetMembers(cell.variable);
+        transaction.setOperation(update);
+        
+        transaction.run();
+    }
+    
+    /**
+     * <p>
+     * Gets the cell of the `MemCell` of the given name for a typed handle,
+     * making it if needed.
+     * 
+     * @param variableName
+     *            The name of the `<i>Variable</i>`
+     * @param type
+     *            The primitive type of the `MemCell`, null for a `MemCell`
+     *            holding <i>State</i>s
+     * 
+     * @return The cell
+     * 
+     * @throws IllegalArgumentException
+     *             if the `MemCell` is already of another type
+     */
+    Cell typedCell(String variableName, PrimitiveState.Type type) {
+        
+        return this.typedCell(this.cell(this.idOf(variableName)), type);
+    }
+    
+    /**
+     * <p>
+     * Makes sure the cell is of the given type, an un-initialized cell takes
+     * the type.
+     * 
+     * @param cell
+     *            The cell
+     * @param type
+     *            The primitive type of the `MemCell`, null for a `MemCell`
+     *            holding <i>State</i>s
+     * 
+     * @return The cell
+     * 
+     * @throws IllegalArgumentException
+     *             if the `MemCell` is already of another type
+     */
+    private Cell typedCell(Cell cell, PrimitiveState.Type type) {
+        
+        if (type == cell.type) {
+            
+            return cell;
+        }
+        
+        String variableName = cell.variable.getName();
+        
+        // the same lock as the making of the variable
+        synchronized (this.stateTable[spread(variableName.hashCode()) & this.shardMask]) {
+            
+            if (null == cell.type && null == cell.committed && null == cell.state) {
+                
+                cell.type = type;
+            }
+        }
+        
+        if (type != cell.type) {
+            
+            throw new IllegalArgumentException("The MemCell " + variableName + " holds a "
+                    + (null == cell.type ? "State" : cell.type.toString()));
+        }
+        
+        return cell;
+    }
+    
+    /**
+     * <p>
+     * Gets the id of the <i>Variable</i>. The <i>Variable</i>s that were not
+     * made by a <i>StateManager</i> are looked up by their names.
+     * 
+     * @param variable
+     *            The `<i>Variable</i>`
+     * 
+     * @return The id of the `MemCell`
+     */
+    int idOf(Variable variable) {
+        
+        int id = variable.getId();
+        
+        return id < 0 ? this.idOf(variable.getName()) : id;
+    }
+    
+    /**
+     * <p>
+     * Gets the id of the <i>Variable</i> of the given name, making an
+     * un-initialized `MemCell` for it if there is none yet.
+     * 
+     * @param variableName
+     *            The name of the `<i>Variable</i>`
+     * 
+     * @return The id of the `MemCell`
+     */
+    int idOf(String variableName) {
+        
+        Variable variable = this.memory.get(variableName);
+        
+        if (null == variable) {
+            
+            variable = this.register(variableName, Collections.emptyList(), false);
+        }
+        
+        return variable.getId();
+    }
+    
+    /**
+     * <p>
+     * Gets the name of the <i>Variable</i> of the given id.
+     * 
+     * @param id
+     *            The id of the `<i>Variable</i>`
+     * 
+     * @return The name of the `MemCell`
+     */
+    String nameOf(int id) {
+        
+        return this.cell(id).variable.getName();
+    }
+    
+    /**
+     * <p>
+     * Gets the <i>Cell</i> of the `MemCell`.
+     * 
+     * @param id
+     *            The id of the `<i>Variable</i>`
+     * 
+     * @return The cell
+     */
+    Cell cell(int id) {
+        
+        return this.stateTable[id & this.shardMask].cell(id >>> this.shardBits);
+    }
+    
+    /**
+     * <p>
+     * Registers the <i>Variable</i> in the memory, adding an un-initialized
+     * <i>Cell</i> for it to the <i>stateTable</i> if it is a new one.
+     * 
+     * <p>
+     * The cell is put into the stateTable before the <i>Variable</i> is put
+     * into the memory, so whoever gets hold of the <i>Variable</i> also sees
+     * its cell.
+     * 
+     * @param variableName
+     *            The name of the <i>Variable</i>
+     * @param props
+     *            The properties of the <i>Variable</i>
+     * @param replace
+     *            true to replace an existing <i>Variable</i> of the same name
+     * 
+     * @return The registered <i>Variable</i>
+     */
+    private Variable register(String variableName, Collection<Map.Entry<String, Object>> props, boolean replace) {
+        
+        Shard shard = this.stateTable[spread(variableName.hashCode()) & this.shardMask];
+        
+        // a name always hashes to the same shard, so the lock of the shard
+        // serializes the making of the variables of that name as well
+        synchronized (shard) {
+            
+            Variable existing = this.memory.get(variableName);
+            
+            if (null != existing && !replace) {
+                
+                return existing;
+            }
+            
+            int id = null == existing ? shard.add() << this.shardBits | shard.index : existing.getId();
+            
+            Variable var = new Variable(id, variableName, props);
+            
+            this.cell(id).variable = var;
+            
+            // add the var to the memory
+            this.memory.put(variableName, var);
+            
+            return var;
+        }
+    }
+    
+    /**
+     * <p>
+     * Spreads the hash of a name, so that names that only differ in their
+     * high bits still end up in different shards.
+     * 
+     * @param hash
+     *            The hash of the name
+     * 
+     * @return The spread hash
+     */
+    private static int spread(int hash) {
+        
+        return hash ^ (hash >>> 16);
+    }
+    
+    /**
+     * <p>
+     * Checks if the `MemCell` is owned by the <i>Transaction</i> running on
+     * the current thread.
+     * 
+     * @param cell
+     *            The cell of the `MemCell`
+     * 
+     * @return true if the current <i>Transaction</i> owns the `MemCell`
+     */
+    private static boolean isOwnedByCurrentTransaction(Cell cell) {
+        
+        Transaction owner = cell.owner;
+        
+        return null != owner && owner == Transaction.current();
+    }
+    
+    /**
+     * <p>
+     * Gets the snapshot read by the <i>Transaction</i> running on the current
+     * thread.
+     * 
+     * @return The snapshot, null if the current thread is not running a
+     *         read-only <i>Transaction</i>
+     */
+    private static Snapshot currentSnapshot() {
+        
+        Transaction current = Transaction.current();
+        
+        return null == current ? null : current.getSnapshot();
+    }
+    
+    /**
+     * <p>
+     * Lets the context of the owner of the cell save its tentative state
+     * before it is overwritten, for a nested transaction to roll back to.
+     * 
+     * @param cell
+     *            The cell owned by the current transaction
+     */
+    private static void beforeWrite(Cell cell) {
+        
+        TransactionContext context = cell.owner.getContext();
+        
+        if (null != context) {
+            
+            context.beforeWrite(cell);
+        }
+    }
+    
+    /**
+     * <p>
+     * Gets the read-write <i>Transaction</i> running on the current thread,
+     * it checks its reads and records its reads and writes if it has a
+     * <i>TransactionContext</i>.
+     * 
+     * @return The transaction, null if the current thread is not running one
+     */
+    private Transaction trackingTransaction() {
+        
+        if (0 == this.trackingTransactions.get()) {
+            
+            // saves the thread local lookup
+            return null;
+        }
+        
+        return Transaction.current();
+    }
+    
+    /**
+     * <p>
+     * Counts a read-write transaction, its reads are checked and recorded
+     * till it is {@link #stopTracking()}.
+     */
+    void startTracking() {
+        
+        this.trackingTransactions.incrementAndGet();
+    }
+    
+    /**
+     * <p>
+     * Stops counting a read-write transaction.
+     */
+    void stopTracking() {
+        
+        this.trackingTransactions.decrementAndGet();
+    }
+    
+    /****** Object - State, stateTable related END *******/
+    
+    /****** Version clock related START *******/
+    
+    /**
+     * <p>
+     * Gets the current value of the global version clock.
+     * 
+     * @return The version of the latest commit
+     */
+    public long getClock() {
+        
+        return this.clock.get();
+    }
+    
+    /**
+     * <p>
+     * Gets the version stamp of the committed state of the <i>Variable</i>.
+     * 
+     * @param variable
+     *            The `<i>Variable</i>`
+     * 
+     * @return The version of the `MemCell`'s committed state, 0 if the
+     *         `MemCell` has never been written to.
+     */
+    public long getVersion(Variable variable) {
+        
+        return this.getVersion(this.idOf(variable));
+    }
+    
+    /**
+     * <p>
+     * Gets the version stamp of the committed state of the <i>Variable</i>.
+     * 
+     * @param variableName
+     *            The name of the `<i>Variable</i>`
+     * 
+     * @return The version of the `MemCell`'s committed state, 0 if the
+     *         `MemCell` has never been written to.
+     */
+    public long getVersion(String variableName) {
+        
+        Variable variable = this.memory.get(variableName);
+        
+        return null == variable ? 0L : this.getVersion(variable.getId());
+    }
+    
+    /**
+     * <p>
+     * Gets the version stamp of the committed state of the `MemCell`.
+     * 
+     * @param id
+     *            The id of the `<i>Variable</i>`
+     * 
+     * @return The version of the `MemCell`'s committed state
+     */
+    long getVersion(int id) {
+        
+        return this.cell(id).version;
+    }
+    
+    /**
+     * <p>
+     * Bumps the global version clock, the new version is used for stamping
+     * all the writeSet members of a committing <i>Transaction</i>.
+     * 
+     * @return The new version
+     */
+    long nextVersion() {
+        
+        return this.clock.incrementAndGet();
+    }
+    
+    /**
+     * <p>
+     * Commits the tentative state of the `MemCell` with the given version.
+     * Must only be called by the owner of the `MemCell`.
+     * 
+     * @param id
+     *            The id of the `<i>Variable</i>`
+     * @param version
+     *            The commit version
+     * @param horizon
+     *            The history horizon, see {@link #historyHorizon()}
+     */
+    void publish(int id, long version, long horizon) {
+        
+        this.cell(id).publish(version, horizon);
+    }
+    
+    /**
+     * <p>
+     * Discards the tentative state of the `MemCell`, restoring its last
+     * committed state. Must only be called by the owner of the `MemCell`.
+     * 
+     * @param id
+     *            The id of the `<i>Variable</i>`
+     */
+    void restore(int id) {
+        
+        this.cell(id).restore();
+    }
+    
+    /**
+     * <p>
+     * Appends the committed states of the `MemCell`s to the write-ahead log,
+     * if any. Must be called by the owner of the `MemCell`s before the states
+     * are published.
+     * 
+     * @param ids
+     *            The ids of the `<i>Variable</i>`s
+     * @param version
+     *            The commit version
+     * 
+     * @return The sequence number of the log record, 0 if there is no log
+     */
+    long log(int[] ids, long version) {
+        
+        WriteAheadLog log = this.writeAheadLog;
+        
+        if (null == log) {
+            
+            return 0L;
+        }
+        
+        String[] names = new String[ids.length];
+        State[] states = new State[ids.length];
+        
+        for (int i = 0; i < ids.length; i++) {
+            
+            Cell cell = this.cell(ids[i]);
+            
+            names[i] = cell.variable.getName();
+            states[i] = null == cell.type ? materialize(cell, cell.state) : new PrimitiveState(cell.type, cell.bits);
+        }
+        
+        return log.append(version, names, states);
+    }
+    
+    /**
+     * <p>
+     * Makes the log record durable as per the sync policy of the write-ahead
+     * log. Must be called after the ownerships of the `MemCell`s are given
+     * up, the fsync may take a while.
+     * 
+     * <p>
+     * The commit is already visible by now, it can't be undone. So a failure
+     * of the log is reported, the log refuses to sync from then on.
+     * 
+     * @param sequence
+     *            The sequence number of the log record, see
+     *            {@link #log(int[], long)}
+     */
+    void awaitDurable(long sequence) {
+        
+        WriteAheadLog log = this.writeAheadLog;
+        
+        if (0L == sequence || null == log) {
+            
+            return;
+        }
+        
+        try {
+            
+            log.awaitDurable(sequence);
+        } catch (UncheckedIOException e) {
+            
+            logger.error("CRITICAL:: The commit of the log record {} is not durable", sequence, e);
+        }
+    }
+    
+    /****** Version clock related END *******/
+    
+    /****** Snapshot related START *******/
+    
+    /**
+     * <p>
+     * Opens a snapshot as of the current version of the global version clock,
+     * the history of the `MemCell`s is kept till it is closed.
+     * 
+     * <p>
+     * The snapshot readers are counted before the version is read, so every
+     * commit that draws a version after the count has been seen keeps the
+     * states it replaces.
+     * 
+     * @return The snapshot
+     */
+    Snapshot openSnapshot() {
+        
+        this.snapshotReaders.incrementAndGet();
+        this.openingSnapshots.incrementAndGet();
+        
+        Snapshot snapshot = new Snapshot(this.clock.get(), this.snapshotSequence.incrementAndGet());
+        
+        this.snapshots.add(snapshot);
+        this.openingSnapshots.decrementAndGet();
+        
+        return snapshot;
+    }
+    
+    /**
+     * <p>
+     * Closes the snapshot, the history it needed can be dropped from now on.
+     * 
+     * @param snapshot
+     *            The snapshot
+     */
+    void closeSnapshot(Snapshot snapshot) {
+        
+        this.snapshots.remove(snapshot);
+        this.snapshotReaders.decrementAndGet();
+    }
+    
+    /**
+     * <p>
+     * Gets how far back the history of the `MemCell`s needs to be kept by a
+     * commit. Must be called after the version of the commit is drawn.
+     * 
+     * <p>
+     * A snapshot opened after this call has a version at least as new as the
+     * commit, so it never needs the states the commit replaces.
+     * 
+     * @return The version of the oldest open snapshot, -1 to keep all the
+     *         history, or {@link Cell#NO_HISTORY} if there is no snapshot
+     */
+    long historyHorizon() {
+        
+        if (0 == this.snapshotReaders.get()) {
+            
+            return Cell.NO_HISTORY;
+        }
+        
+        if (this.openingSnapshots.get() > 0) {
+            
+            // the version of the snapshot being opened is not known yet
+            return -1L;
+        }
+        
+        try {
+            
+            return this.snapshots.first().version;
+        } catch (NoSuchElementException e) {
+            
+            // all the snapshots got closed meanwhile
+            return Cell.NO_HISTORY;
+        }
+    }
+    
+    /****** Snapshot related END *******/
 }
@@ -0,0 +1,107 @@
+/**
+ * Project: Foops_1
+ * Package: foop.core
+ * File: TDouble.java
+ * 
+ * @author sidmishraw
+ *         Last modified: Oct 18, 2026 8:42:19 PM
+ */
+package foop.core;
+
+/**
+ * <p>
+ * A <i>TDouble</i> is a `MemCell` holding a double, kept unboxed so reading
+ * and updating it allocates nothing.
+ * 
+ * <br>
+ * <br>
+ * 
+ * Usage:
+ * 
+ * <pre>
+ * TDouble total = new TDouble(manager, "total");
+ * 
+ * transactions.newTransaction("hit", manager)
+ *         .addWriteSetMembers(total.getVariable())
+ *         .addTransactionOperation(() -&gt; {
+ *             
+ *             total.add(1.0);
+ *             
+ *             return true;
+ *         })
+ *         .get();
+ * </pre>
+ * 
+ * @author sidmishraw
+ *
+ *         Qualified Name: foop.core.TDouble
+ * 
+ */
+public final class TDouble extends TypedVariable {
+    
+    /**
+     * <p>
+     * Binds the handle to the double `MemCell` of the given name, an
+     * un-initialized `MemCell` starts at 0.
+     * 
+     * @param manager
+     *            The manager of the `MemCell`
+     * @param variableName
+     *            The name of the `MemCell`
+     * 
+     * @throws IllegalArgumentException
+     *             if the `MemCell` is not a double one
+     */
+    public TDouble(StateManager manager, String variableName) {
+        
+        super(manager, variableName, PrimitiveState.Type.DOUBLE);
+    }
+    
+    /**
+     * <p>
+     * Reads the value.
+     * 
+     * @return The value
+     */
+    public double get() {
+        
+        return Double.longBitsToDouble(this.manager.readBits(this.cell));
+    }
+    
+    /**
+     * <p>
+     * Writes the value.
+     * 
+     * @param value
+     *            The new value
+     * 
+     * @throws IllegalStateException
+     *             if called from a read-only <i>Transaction</i>
+     */
+    public void set(double value) {
+        
+        this.manager.writeBits(this.cell, Double.doubleToRawLongBits(value));
+    }
+    
+    /**
+     * <p>
+     * Adds to the value, the addition is only atomic when done by the
+     * <i>Transaction</i> owning the `MemCell`.
+     * 
+     * @param delta
+     *            The value to add
+     * 
+     * @return The new value
+     * 
+     * @throws IllegalStateException
+     *             if called from a read-only <i>Transaction</i>
+     */
+    public double add(double delta) {
+        
+        double value = this.get() + delta;
+        
+        this.set(value);
+        
+        return value;
+    }
+}
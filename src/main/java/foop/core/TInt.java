@@ -0,0 +1,107 @@
+/**
+ * Project: Foops_1
+ * Package: foop.core
+ * File: TInt.java
+ * 
+ * @author sidmishraw
+ *         Last modified: Oct 18, 2026 8:40:02 PM
+ */
+package foop.core;
+
+/**
+ * <p>
+ * A <i>TInt</i> is a `MemCell` holding an int, kept unboxed so reading and
+ * updating it allocates nothing.
+ * 
+ * <br>
+ * <br>
+ * 
+ * Usage:
+ * 
+ * <pre>
+ * TInt hits = new TInt(manager, "hits");
+ * 
+ * transactions.newTransaction("hit", manager)
+ *         .addWriteSetMembers(hits.getVariable())
+ *         .addTransactionOperation(() -&gt; {
+ *             
+ *             hits.add(1);
+ *             
+ *             return true;
+ *         })
+ *         .get();
+ * </pre>
+ * 
+ * @author sidmishraw
+ *
+ *         Qualified Name: foop.core.TInt
+ * 
+ */
+public final class TInt extends TypedVariable {
+    
+    /**
+     * <p>
+     * Binds the handle to the int `MemCell` of the given name, an
+     * un-initialized `MemCell` starts at 0.
+     * 
+     * @param manager
+     *            The manager of the `MemCell`
+     * @param variableName
+     *            The name of the `MemCell`
+     * 
+     * @throws IllegalArgumentException
+     *             if the `MemCell` is not an int one
+     */
+    public TInt(StateManager manager, String variableName) {
+        
+        super(manager, variableName, PrimitiveState.Type.INT);
+    }
+    
+    /**
+     * <p>
+     * Reads the value.
+     * 
+     * @return The value
+     */
+    public int get() {
+        
+        return (int) this.manager.readBits(this.cell);
+    }
+    
+    /**
+     * <p>
+     * Writes the value.
+     * 
+     * @param value
+     *            The new value
+     * 
+     * @throws IllegalStateException
+     *             if called from a read-only <i>Transaction</i>
+     */
+    public void set(int value) {
+        
+        this.manager.writeBits(this.cell, value);
+    }
+    
+    /**
+     * <p>
+     * Adds to the value, the addition is only atomic when done by the
+     * <i>Transaction</i> owning the `MemCell`.
+     * 
+     * @param delta
+     *            The value to add
+     * 
+     * @return The new value
+     * 
+     * @throws IllegalStateException
+     *             if called from a read-only <i>Transaction</i>
+     */
+    public int add(int delta) {
+        
+        int value = this.get() + delta;
+        
+        this.set(value);
+        
+        return value;
+    }
+}
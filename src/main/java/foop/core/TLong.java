@@ -0,0 +1,142 @@
+/**
+ * Project: Foops_1
+ * Package: foop.core
+ * File: TLong.java
+ * 
+ * @author sidmishraw
+ *         Last modified: Oct 18, 2026 8:36:45 PM
+ */
+package foop.core;
+
+/**
+ * <p>
+ * A <i>TLong</i> is a `MemCell` holding a long, kept unboxed so reading and
+ * updating it allocates nothing.
+ * 
+ * <br>
+ * <br>
+ * 
+ * Usage:
+ * 
+ * <pre>
+ * TLong hits = new TLong(manager, "hits");
+ * 
+ * transactions.newTransaction("hit", manager)
+ *         .addWriteSetMembers(hits.getVariable())
+ *         .addTransactionOperation(() -&gt; {
+ *             
+ *             hits.add(1L);
+ *             
+ *             return true;
+ *         })
+ *         .get();
+ * </pre>
+ * 
+ * A counter updated by most of the transactions is better updated with
+ * {@link #commute(Commutative, long)}, without putting it in their writeSets.
+ * 
+ * @author sidmishraw
+ *
+ *         Qualified Name: foop.core.TLong
+ * 
+ */
+public final class TLong extends TypedVariable {
+    
+    /**
+     * <p>
+     * Binds the handle to the long `MemCell` of the given name, an
+     * un-initialized `MemCell` starts at 0.
+     * 
+     * @param manager
+     *            The manager of the `MemCell`
+     * @param variableName
+     *            The name of the `MemCell`
+     * 
+     * @throws IllegalArgumentException
+     *             if the `MemCell` is not a long one
+     */
+    public TLong(StateManager manager, String variableName) {
+        
+        super(manager, variableName, PrimitiveState.Type.LONG);
+    }
+    
+    /**
+     * <p>
+     * Reads the value.
+     * 
+     * @return The value
+     */
+    public long get() {
+        
+        return this.manager.readBits(this.cell);
+    }
+    
+    /**
+     * <p>
+     * Writes the value.
+     * 
+     * @param value
+     *            The new value
+     * 
+     * @throws IllegalStateException
+     *             if called from a read-only <i>Transaction</i>
+     */
+    public void set(long value) {
+        
+        this.manager.writeBits(this.cell, value);
+    }
+    
+    /**
+     * <p>
+     * Adds to the value, the addition is only atomic when done by the
+     * <i>Transaction</i> owning the `MemCell`.
+     * 
+     * @param delta
+     *            The value to add
+     * 
+     * @return The new value
+     * 
+     * @throws IllegalStateException
+     *             if called from a read-only <i>Transaction</i>
+     */
+    public long add(long delta) {
+        
+        long value = this.get() + delta;
+        
+        this.set(value);
+        
+        return value;
+    }
+    
+    /**
+     * <p>
+     * Updates the value with a commutative update, without reading it. Unlike
+     * {@link #add(long)}, a <i>Transaction</i> needs neither to own the
+     * `MemCell` nor to read it: the update is recorded and only applied at
+     * commit, when the `MemCell` is owned for as long as it takes to publish
+     * it. The transactions updating a hot counter this way don't conflict
+     * with each other.
+     * 
+     * <br>
+     * <br>
+     * 
+     * The recorded updates are not visible to the <i>Transaction</i> itself,
+     * and are applied after its own writes to the `MemCell`. If the
+     * <i>Transaction</i> owns the `MemCell` already, the update is applied
+     * right away like {@link #set(long)}. Outside of a <i>Transaction</i>, it
+     * is applied right away by a <i>Transaction</i> of its own, so unlike
+     * {@link #add(long)} it is atomic.
+     * 
+     * @param update
+     *            The commutative update
+     * @param operand
+     *            The operand of the update
+     * 
+     * @throws IllegalStateException
+     *             if called from a read-only <i>Transaction</i>
+     */
+    public void commute(Commutative update, long operand) {
+        
+        this.manager.commute(this.cell, update, operand);
+    }
+}
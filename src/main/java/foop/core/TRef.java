@@ -0,0 +1,71 @@
+/**
+ * Project: Foops_1
+ * Package: foop.core
+ * File: TRef.java
+ * 
+ * @author sidmishraw
+ *         Last modified: Oct 18, 2026 8:45:33 PM
+ */
+package foop.core;
+
+/**
+ * <p>
+ * A <i>TRef</i> is a typed handle of a `MemCell` holding <i>State</i>s of the
+ * given type. The `MemCell` holds the reference as it is, so unlike the
+ * <i>State</i> based API of the <i>StateManager</i> reading it needs neither
+ * an Optional nor a cast.
+ * 
+ * @author sidmishraw
+ *
+ *         Qualified Name: foop.core.TRef
+ * 
+ * @param <T>
+ *            The type of the states
+ */
+public final class TRef<T extends State> extends TypedVariable {
+    
+    /**
+     * <p>
+     * Binds the handle to the `MemCell` of the given name, an un-initialized
+     * `MemCell` starts at null.
+     * 
+     * @param manager
+     *            The manager of the `MemCell`
+     * @param variableName
+     *            The name of the `MemCell`
+     * 
+     * @throws IllegalArgumentException
+     *             if the `MemCell` is a primitive one
+     */
+    public TRef(StateManager manager, String variableName) {
+        
+        super(manager, variableName, null);
+    }
+    
+    /**
+     * <p>
+     * Reads the state.
+     * 
+     * @return The state, null if the `MemCell` is un-initialized
+     */
+    @SuppressWarnings("unchecked")
+    public T get() {
+        
+        return (T) this.manager.readState(this.cell);
+    }
+    
+    /**
+     * <p>
+     * Writes the state.
+     * 
+     * @param state
+     *            The new state
+     * 
+     * @throws IllegalStateException
+     *             if called from a read-only <i>Transaction</i>
+     */
+    public void set(T state) {
+        
+        this.manager.write(this.cell, state);
+    }
+}
@@ -8,34 +8,61 @@
  */
 package foop.core;
 
-import java.util.Optional;
-import java.util.Queue;
-import java.util.Set;
-import java.util.concurrent.LinkedBlockingQueue;
+import java.util.Arrays;
+import java.util.concurrent.locks.LockSupport;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import foop.core.metrics.TransactionMetrics;
+import foop.core.metrics.TransactionMetrics.Phase;
+import lombok.Getter;
 import lombok.Setter;
 
 /**
+ * <p>
+ * A <i>Transaction</i> is a unit of work, it runs on whichever thread calls
+ * {@link #run()}, usually one of a <i>TransactionExecutor</i>. It only gets a
+ * `Thread` of its own when it is started with {@link #start()}.
+ * 
  * @author sidmishraw
  *
  *         Qualified Name: foop.core.Transaction
  *
  */
-public class Transaction extends Thread {
+public class Transaction implements Runnable {
     
     /*** Log and administrative stuff *****/
-    private static final Logger logger              = LoggerFactory.getLogger(Transaction.class);
-    private static final long   MAX_SLEEP_WAIT_TIME = 1000;
+    private static final Logger logger = LoggerFactory.getLogger(Transaction.class);
     /*** Log and administrative stuff *****/
     
+    /**
+     * <p>
+     * The transaction that is running on the current thread, the
+     * <i>StateManager</i> uses it to tell the owner of a `MemCell` apart from
+     * everyone else.
+     */
+    private static final ThreadLocal<Transaction> CURRENT = new ThreadLocal<>();
+    
     /**
      * <p>
      * record holds the metadata of the transaction
      */
-    private @Setter Record      record;
+    private @Getter @Setter Record record;
+    
+    /**
+     * <p>
+     * The name of the transaction shown in the logs, the description of its
+     * record unless set.
+     */
+    private @Setter String         name;
+    
+    /**
+     * <p>
+     * The thread of the transaction, null unless it was started with
+     * {@link #start()}.
+     */
+    private Thread                 thread;
     
     /**
      * <p>
@@ -61,6 +88,64 @@ public class Transaction extends Thread {
         public boolean apply();
     }
     
+    /**
+     * <p>
+     * Functional interface that is used to define the operations done by the
+     * transaction through a <i>TransactionContext</i>, the `MemCell`s it reads
+     * and writes need not be declared.
+     * 
+     * @author sidmishraw
+     *
+     *         Qualified Name: foop.core.Transaction.ContextOperation
+     *
+     */
+    @FunctionalInterface
+    public static interface ContextOperation {
+        
+        /**
+         * <p>
+         * Applies the operation logic
+         * 
+         * @param context
+         *            The context recording the reads and writes of the
+         *            current attempt
+         * 
+         * @return true if the operation was completed successfully, else return
+         *         false
+         */
+        public boolean apply(TransactionContext context);
+    }
+    
+    /**
+     * <p>
+     * Functional interface that is used to define the operations done by the
+     * transaction through a <i>TransactionContext</i> that compute a result,
+     * see {@link TransactionResult}.
+     * 
+     * @author sidmishraw
+     *
+     *         Qualified Name: foop.core.Transaction.ValueOperation
+     *
+     * @param <T>
+     *            The type of the result
+     */
+    @FunctionalInterface
+    public static interface ValueOperation<T> {
+        
+        /**
+         * <p>
+         * Applies the operation logic, it always completes successfully
+         * unless it throws
+         * 
+         * @param context
+         *            The context recording the reads and writes of the
+         *            current attempt
+         * 
+         * @return The result of the operation
+         */
+        public T apply(TransactionContext context);
+    }
+    
     /**
      * <p>
      * <i>operation</i>: The functional interface that is used to define the
@@ -68,359 +153,1681 @@ public class Transaction extends Thread {
      */
     private @Setter TransactionOperation operation;
     
+    /**
+     * <p>
+     * The operational logic of the transaction when it goes through a
+     * <i>TransactionContext</i>, it takes the place of the <i>operation</i>.
+     */
+    private ContextOperation             contextOperation;
+    
+    /**
+     * <p>
+     * The context of the <i>contextOperation</i>, it records the reads and
+     * writes of the current attempt.
+     */
+    private TransactionContext           context;
+    
     /**
      * <p>
      * The reference to the StateManager that takes care of global operations.
      */
     private @Setter StateManager         manager;
     
+    /**
+     * <p>
+     * The contention manager consulted on every abort, overrides the one of
+     * the <i>StateManager</i> when set.
+     */
+    private @Setter ContentionManager    contentionManager;
+    
+    /**
+     * <p>
+     * The transaction that caused the last abort, if known.
+     */
+    private Transaction                  enemy;
+    
+    /**
+     * <p>
+     * The version this transaction is committing with, {@link #COMMITTING}
+     * while it is being drawn and 0 when the transaction is not committing.
+     * Snapshot readers wait for the commits at or before their snapshots.
+     */
+    private volatile long                commitVersion;
+    
+    /**
+     * <p>
+     * The commit version of a transaction that is about to draw its version
+     */
+    private static final long            COMMITTING = Long.MIN_VALUE;
+    
+    /**
+     * <p>
+     * The version of the global version clock all the reads of the running
+     * operation are consistent with, {@link #UNCHECKED} when the operation is
+     * not running. It starts as the version of the clock at the start of the
+     * attempt and is extended as newer `MemCell`s are read, see
+     * {@link #checkRead(Cell, long)}.
+     */
+    private long                         readVersion = UNCHECKED;
+    
+    /**
+     * <p>
+     * The read version of a transaction whose reads are not checked
+     */
+    private static final long            UNCHECKED  = -1L;
+    
+    /**
+     * <p>
+     * The members of an empty set
+     */
+    private static final int[]           NO_MEMBERS = new int[0];
+    
+    /**
+     * <p>
+     * The ids of the `MemCell`s read in the current attempt by a transaction
+     * without a <i>TransactionContext</i> and their versions as read, the
+     * first <i>checkedCount</i> entries are in use. They are only checked
+     * again when the read version is extended, the commit validates the
+     * declared readSet only.
+     */
+    private int[]                        checkedReads;
+    private long[]                       checkedVersions;
+    private int                          checkedCount;
+    
+    /**
+     * <p>
+     * The commutative updates recorded in the current attempt, to be applied
+     * at commit, the first <i>deferredCount</i> entries are in use.
+     */
+    private int[]                        deferredIds;
+    private Commutative[]                deferredUpdates;
+    private long[]                       deferredOperands;
+    private int                          deferredCount;
+    
+    /**
+     * <p>
+     * The writeSet followed by the `MemCell`s owned for applying the
+     * commutative updates, null till they are owned.
+     */
+    private int[]                        commitSet;
+    
+    /**
+     * <p>
+     * true while the operation of an attempt runs, its commutative updates
+     * are recorded till the commit.
+     */
+    private boolean                      operating;
+    
+    /**
+     * <p>
+     * The snapshot read by a read-only transaction while it runs.
+     */
+    private Snapshot                     snapshot;
+    
+    /**
+     * <p>
+     * The sequence number of the write-ahead log record of the last commit, 0
+     * if the commits are not logged.
+     */
+    private long                         logSequence;
+    
     /*
      * (non-Javadoc)
      * 
-     * @see java.lang.Thread#run()
+     * @see java.lang.Runnable#run()
      */
     @Override
     public void run() {
         
-        logger.debug("Transaction:: " + this.getName() + " has started...");
+        logger.debug("Transaction:: {} has started...", this.getName());
         
-        while (!this.record.getStatus()) {
+        // the previous transaction is restored instead of removing the entry
+        // so that running a transaction allocates no thread local entries
+        Transaction previous = CURRENT.get();
+        
+        CURRENT.set(this);
+        
+        try {
             
-            logger.info(String.format("Initiating transaction:: %s", this.getName()));
-            logger.info(String.format("Taking ownership of `writeSet` members of transaction:: %s", this.getName()));
+            this.runAttempts();
+        } finally {
             
-            // take ownership of `writeSet` members
-            Boolean ownershipStatus = this.takeOwnership();
+            CURRENT.set(previous);
+        }
+        
+        logger.debug("Transaction:: {} has ended...", this.getName());
+    }
+    
+    /**
+     * <p>
+     * Gets the name of the transaction.
+     * 
+     * @return The name, the description of its record unless set
+     */
+    public String getName() {
+        
+        if (null != this.name || null == this.record) {
             
-            if (!ownershipStatus) {
-                
-                // failed to take ownership, rollback and goto sleep, and then
-                // retry from beginning
-                
-                logger.info(String.format(
-                        "MODERATE:: Transaction %s has failed to take ownership of all of its writeSet members, retrying after sometime",
-                        this.getName()));
-                
-                // since there has been no modification to the writeSet members
-                // yet, the only change that needs to be reverted is
-                // the release of writeSet members' ownership.
-                this.releaseOwnership();
+            return this.name;
+        }
+        
+        return this.record.getDescription();
+    }
+    
+    /**
+     * <p>
+     * Runs the transaction on a new `Thread` of its own, named after the
+     * transaction.
+     * 
+     * @throws IllegalThreadStateException
+     *             if the transaction was already started
+     */
+    public synchronized void start() {
+        
+        if (null != this.thread) {
+            
+            throw new IllegalThreadStateException("The transaction was already started: " + this.getName());
+        }
+        
+        String threadName = this.getName();
+        
+        this.thread = null == threadName ? new Thread(this) : new Thread(this, threadName);
+        
+        this.thread.start();
+    }
+    
+    /**
+     * <p>
+     * Tells if the transaction started with {@link #start()} is still
+     * running.
+     * 
+     * @return true if its thread is alive
+     */
+    public synchronized boolean isAlive() {
+        
+        return null != this.thread && this.thread.isAlive();
+    }
+    
+    /**
+     * <p>
+     * Waits for the transaction started with {@link #start()} to complete.
+     * 
+     * @throws InterruptedException
+     *             if the current thread is interrupted while waiting
+     */
+    public void join() throws InterruptedException {
+        
+        this.join(0L);
+    }
+    
+    /**
+     * <p>
+     * Waits for the transaction started with {@link #start()} to complete,
+     * for a while at most.
+     * 
+     * @param millis
+     *            The time to wait in milliseconds, 0 to wait forever
+     * 
+     * @throws InterruptedException
+     *             if the current thread is interrupted while waiting
+     */
+    public void join(long millis) throws InterruptedException {
+        
+        Thread started;
+        
+        synchronized (this) {
+            
+            started = this.thread;
+        }
+        
+        if (null != started) {
+            
+            started.join(millis);
+        }
+    }
+    
+    /**
+     * <p>
+     * Gets the transaction running on the current thread.
+     * 
+     * @return The current transaction, null if the current thread is not
+     *         running a transaction
+     */
+    static Transaction current() {
+        
+        return CURRENT.get();
+    }
+    
+    /**
+     * <p>
+     * Sets the operational logic of the transaction that goes through a
+     * <i>TransactionContext</i>, it takes the place of the operation set by
+     * {@link #setOperation(TransactionOperation)}. The <i>StateManager</i>
+     * must be set before.
+     * 
+     * @param contextOperation
+     *            The operational logic
+     */
+    public void setContextOperation(ContextOperation contextOperation) {
+        
+        this.contextOperation = contextOperation;
+        this.context = null == contextOperation ? null : new TransactionContext(this, this.manager);
+    }
+    
+    /**
+     * <p>
+     * Sets the operational logic of the transaction that goes through a
+     * <i>TransactionContext</i> and computes a result, see
+     * {@link #setContextOperation(ContextOperation)}.
+     * 
+     * @param valueOperation
+     *            The operational logic
+     * 
+     * @return The handle of the transaction typed after the result, the
+     *         result is only handed back through it
+     */
+    public <T> ValueTransaction<T> setValueOperation(ValueOperation<T> valueOperation) {
+        
+        return new ValueTransaction<>(this, valueOperation);
+    }
+    
+    /**
+     * <p>
+     * Gets the context recording the reads and writes of the transaction.
+     * 
+     * @return The context, null unless the transaction runs a
+     *         <i>ContextOperation</i>
+     */
+    TransactionContext getContext() {
+        
+        return this.context;
+    }
+    
+    /**
+     * <p>
+     * Gets the transaction that caused the last failure of this one, if
+     * known.
+     * 
+     * @return The enemy, null if not known
+     */
+    Transaction getEnemy() {
+        
+        return this.enemy;
+    }
+    
+    /**
+     * <p>
+     * Gets the <i>StateManager</i> the transaction runs against.
+     * 
+     * @return The manager
+     */
+    StateManager getManager() {
+        
+        return this.manager;
+    }
+    
+    /**
+     * <p>
+     * Applies the operation of the transaction on the current thread, as if
+     * the transaction was running on it. The work done counts towards the
+     * karma of the transaction.
+     * 
+     * @return true if the operation was completed successfully
+     */
+    boolean applyOperation() {
+        
+        this.record.setKarma(this.record.getKarma() + this.record.getWriteSetMembers().length
+                + this.record.getReadSetMembers().length);
+        
+        Transaction previous = CURRENT.get();
+        
+        CURRENT.set(this);
+        
+        this.operating = true;
+        
+        try {
+            
+            return this.apply();
+        } finally {
+            
+            this.operating = false;
+            
+            CURRENT.set(previous);
+        }
+    }
+    
+    /**
+     * <p>
+     * Drops the commutative updates and the ownerships taken for them in the
+     * previous attempt, must be called before the attempt takes ownership.
+     */
+    void startAttempt() {
+        
+        this.deferredCount = 0;
+        this.commitSet = null;
+    }
+    
+    /**
+     * <p>
+     * Applies the operation of the transaction, through its context if it
+     * has one.
+     * 
+     * @return true if the operation was completed successfully
+     */
+    private boolean apply() {
+        
+        return null == this.context ? this.operation.apply() : this.contextOperation.apply(this.context);
+    }
+    
+    /**
+     * <p>
+     * Gets the snapshot read by the transaction.
+     * 
+     * @return The snapshot, null unless the transaction is read-only and
+     *         running
+     */
+    Snapshot getSnapshot() {
+        
+        return this.snapshot;
+    }
+    
+    /**
+     * <p>
+     * Checks if the transaction is committing at or before the given
+     * version, or is about to draw its commit version.
+     * 
+     * @param version
+     *            The version of a snapshot
+     * 
+     * @return true if a snapshot of the given version has to wait for the
+     *         commit to complete
+     */
+    boolean isCommittingAtOrBefore(long version) {
+        
+        long commitVersion = this.commitVersion;
+        
+        return 0 != commitVersion && commitVersion <= version;
+    }
+    
+    /**
+     * <p>
+     * Runs the transaction till it completes, retrying on failures to take
+     * ownership or to commit.
+     */
+    private void runAttempts() {
+        
+        TransactionMetrics metrics = this.manager.getMetrics();
+        
+        if (0 == this.record.getStartTime()) {
+            
+            this.record.setStartTime(System.nanoTime());
+        }
+        
+        if (this.record.isReadOnly()) {
+            
+            this.runReadOnly(metrics);
+            
+            return;
+        }
+        
+        // the reads are checked, and recorded through the context if any
+        this.manager.startTracking();
+        
+        boolean committed;
+        
+        try {
+            
+            committed = this.runReadWrite(metrics);
+        } finally {
+            
+            this.manager.stopTracking();
+        }
+        
+        metrics.complete(committed, this.record.getRetries());
+        
+        if (logger.isDebugEnabled()) {
+            
+            logger.debug("Transaction:: {} completed after {} retries, backed off for {} ns", this.getName(),
+                    this.record.getRetries(), this.record.getBackoffTime());
+        }
+    }
+    
+    /**
+     * <p>
+     * Runs the attempts of a transaction that writes, till one of them
+     * commits or the operation reports a failure.
+     * 
+     * @param metrics
+     *            The metrics registry to report into
+     * 
+     * @return true if the transaction committed
+     */
+    private boolean runReadWrite(TransactionMetrics metrics) {
+        
+        boolean committed = false;
+        
+        while (!this.record.getStatus()) {
+            
+            logger.debug("Initiating transaction:: {}", this.getName());
+            
+            if (null != this.context) {
+                
+                // the accesses of the previous attempt are all undone
+                this.context.reset();
+            }
+            
+            this.startAttempt();
+            
+            this.report(TransactionEvents.begin());
+            
+            logger.debug("Taking ownership of `writeSet` members of transaction:: {}", this.getName());
+            
+            // take ownership of `writeSet` members
+            long time = metrics.start();
+            
+            TransactionEvents.Event ownershipEvent = TransactionEvents.ownership();
+            
+            boolean ownershipStatus = this.takeOwnership();
+            
+            if (null != ownershipEvent) {
+                
+                ownershipEvent.set(TransactionEvents.ACQUIRED, ownershipStatus);
+                
+                this.report(ownershipEvent);
+            }
+            
+            time = metrics.record(Phase.OWNERSHIP, time);
+            
+            if (!ownershipStatus) {
+                
+                // failed to take ownership, rollback and back off, and then
+                // retry from beginning
+                
+                logger.debug(
+                        "MODERATE:: Transaction {} has failed to take ownership of all of its writeSet members, retrying after sometime",
+                        this.getName());
+                
+                // since there has been no modification to the writeSet members
+                // yet, the only change that needs to be reverted is
+                // the release of writeSet members' ownership.
+                this.releaseOwnership();
+                
+                metrics.abort(AbortCause.OWNERSHIP);
+                
+                this.backoff(AbortCause.OWNERSHIP);
+                
+                continue;
+            }
+            
+            logger.debug("Transaction:: {} has taken ownership successfully, now moving on to taking backups",
+                    this.getName());
+            
+            // take backup of the states of the read and write sets
+            TransactionEvents.Event backupEvent = TransactionEvents.backup();
+            
+            this.takeBackup();
+            
+            this.report(backupEvent);
+            
+            time = metrics.record(Phase.BACKUP, time);
+            
+            logger.debug("Transaction:: {} has taken backup, starting transaction operation", this.getName());
+            
+            // the work done in this attempt counts towards the karma of the
+            // transaction, even if the attempt aborts later on
+            this.record.setKarma(this.record.getKarma() + this.record.getWriteSetMembers().length
+                    + this.record.getReadSetMembers().length);
+            
+            // apply the transaction's operational logic to the writeSet and
+            // readSet members
+            boolean operationStatus;
+            
+            // the reads are checked as they happen from now on, a doomed
+            // attempt aborts at its first inconsistent read
+            this.checkedCount = 0;
+            this.readVersion = this.manager.getClock();
+            
+            TransactionEvents.Event operationEvent = TransactionEvents.operation();
+            
+            this.operating = true;
+            
+            try {
+                
+                operationStatus = this.apply();
+                
+                if (null != operationEvent) {
+                    
+                    operationEvent.set(TransactionEvents.COMPLETED, operationStatus);
+                    
+                    this.report(operationEvent);
+                }
+            } catch (AbortException e) {
+                
+                this.report(operationEvent);
+                
+                // the context failed to take the ownership of a `MemCell` the
+                // operation wrote, or the operation asked to be retried
+                logger.debug("MODERATE:: Transaction:: {} aborted its operation, rolling back and retrying...",
+                        this.getName());
+                
+                this.rollback();
+                
+                metrics.abort(e.abortCause);
+                
+                if (AbortException.RETRY == e) {
+                    
+                    // nothing it read has changed yet, running it again now
+                    // would only retry once more
+                    this.awaitChange();
+                } else {
+                    
+                    this.backoff(e.abortCause);
+                }
+                
+                continue;
+            } catch (RuntimeException | Error e) {
+                
+                this.report(operationEvent);
+                
+                // the operation threw, it is a failure just like a faulty
+                // operation but the caller gets to see why
+                logger.error("CRITICAL:: Transaction:: {} operation threw, bailing out after rolling back",
+                        this.getName());
+                
+                this.rollback();
+                
+                metrics.abort(AbortCause.OPERATION);
+                
+                this.record.setStatus(true);
+                
+                throw e;
+            } finally {
+                
+                this.operating = false;
+                this.readVersion = UNCHECKED;
+            }
+            
+            time = metrics.record(Phase.OPERATION, time);
+            
+            if (!operationStatus) {
+                
+                // failed to operate successfully, this transaction is flawed,
+                // bailing out
+                logger.error(
+                        "CRITICAL:: Transaction:: {} has faulty operational logic, bailing out after rolling back",
+                        this.getName());
+                
+                this.rollback();
+                
+                metrics.abort(AbortCause.OPERATION);
+                
+                this.record.setStatus(true);
+                
+                break;
+            }
+            
+            logger.debug("Transaction:: {} operation completed, moving to commit changes...", this.getName());
+            
+            if (0 != this.deferredCount && !this.applyDeferred(this.manager.getOwnershipTimeout())) {
+                
+                // failed to take ownership of a `MemCell` it updated
+                // commutatively, the updates are not applied yet
+                logger.debug("MODERATE:: Transaction:: {} couldn't apply its commutative updates, retrying...",
+                        this.getName());
+                
+                this.rollback();
+                
+                metrics.abort(AbortCause.OWNERSHIP);
+                
+                this.backoff(AbortCause.OWNERSHIP);
+                
+                continue;
+            }
+            
+            // commit changes
+            boolean commitStatus = this.commit();
+            
+            metrics.record(Phase.COMMIT, time);
+            
+            if (!commitStatus) {
+                
+                // failed to commit changes to the writeSet, hence rolling back
+                // and then retrying
+                logger.debug("MODERATE:: Transaction:: {} couldn't commit its changes, rolling back and retrying...",
+                        this.getName());
+                
+                this.rollback();
+                
+                metrics.abort(AbortCause.VALIDATION);
+                
+                this.backoff(AbortCause.VALIDATION);
+                
+                continue;
+            }
+            
+            logger.debug(
+                    "transaction:: {} has successfully committed its changes made to the writeSet members, marking transaction as completed.",
+                    this.getName());
+            
+            // since the commit was successful, the transaction releases all its
+            // writeSet members of its ownership and marks itself as complete
+            this.releaseOwnership();
+            
+            // marks itself as complete
+            this.record.setStatus(true);
+            this.record.setCommitted(true);
+            
+            // the fsync, if any, is done after the ownerships are given up
+            this.manager.awaitDurable(this.logSequence);
+            
+            committed = true;
+        }
+        
+        return committed;
+    }
+    
+    /**
+     * <p>
+     * Runs the read-only transaction over a consistent snapshot. It takes no
+     * ownerships and needs no validation at the end.
+     * 
+     * <p>
+     * The operation first runs straight over the committed states, with its
+     * reads checked as they happen just like the ones of a read-write
+     * transaction, which costs next to nothing more than plain reads. Only if
+     * it reads a state that cannot be reconciled with its earlier reads, it
+     * runs once more over a registered snapshot, as of the start of the
+     * second run, which never aborts.
+     * 
+     * @param metrics
+     *            The metrics registry to report into
+     */
+    private void runReadOnly(TransactionMetrics metrics) {
+        
+        long time = metrics.start();
+        
+        this.report(TransactionEvents.begin());
+        
+        TransactionEvents.Event operationEvent = TransactionEvents.operation();
+        
+        boolean operationStatus;
+        
+        try {
+            
+            try {
+                
+                operationStatus = this.runUnregistered();
+            } catch (AbortException e) {
+                
+                logger.debug("Transaction:: {} read an inconsistent state, reading a snapshot", this.getName());
+                
+                metrics.abort(e.abortCause);
+                
+                this.record.setRetries(this.record.getRetries() + 1);
+                
+                operationStatus = this.runOverSnapshot();
+            }
+        } catch (RuntimeException | Error e) {
+            
+            this.report(operationEvent);
+            
+            // the operation threw, there is nothing to roll back but the
+            // caller gets to see why
+            logger.error("CRITICAL:: Transaction:: {} operation threw, bailing out", this.getName());
+            
+            metrics.abort(AbortCause.OPERATION);
+            
+            this.record.setStatus(true);
+            
+            throw e;
+        }
+        
+        if (null != operationEvent) {
+            
+            operationEvent.set(TransactionEvents.COMPLETED, operationStatus);
+            
+            this.report(operationEvent);
+        }
+        
+        metrics.record(Phase.OPERATION, time);
+        
+        if (!operationStatus) {
+            
+            logger.error("CRITICAL:: Transaction:: {} has faulty operational logic, bailing out", this.getName());
+            
+            metrics.abort(AbortCause.OPERATION);
+        }
+        
+        this.record.setStatus(true);
+        this.record.setCommitted(operationStatus);
+        
+        metrics.complete(operationStatus, this.record.getRetries());
+    }
+    
+    /**
+     * <p>
+     * Runs the operation of the read-only transaction over the committed
+     * states, checking its reads against the clock.
+     * 
+     * @return true if the operation was completed successfully
+     * 
+     * @throws AbortException
+     *             if it read a state newer than the earlier reads and some of
+     *             them have changed since
+     */
+    private boolean runUnregistered() {
+        
+        if (null != this.context) {
+            
+            this.context.reset();
+        }
+        
+        this.manager.startTracking();
+        
+        this.checkedCount = 0;
+        this.readVersion = this.manager.getClock();
+        
+        try {
+            
+            return this.apply();
+        } finally {
+            
+            this.readVersion = UNCHECKED;
+            
+            this.manager.stopTracking();
+        }
+    }
+    
+    /**
+     * <p>
+     * Runs the operation of the read-only transaction over a snapshot as of
+     * now, the snapshot is registered so that the states it reads are kept.
+     * 
+     * @return true if the operation was completed successfully
+     */
+    private boolean runOverSnapshot() {
+        
+        if (null != this.context) {
+            
+            this.context.reset();
+        }
+        
+        this.snapshot = this.manager.openSnapshot();
+        
+        try {
+            
+            return this.apply();
+        } finally {
+            
+            // the history is kept for as long as the snapshot is open
+            this.manager.closeSnapshot(this.snapshot);
+            this.snapshot = null;
+        }
+    }
+    
+    /**
+     * <p>
+     * Backs off before retrying an aborted attempt, for as long as the
+     * contention manager decides. The retry count and the time spent backing
+     * off are accounted in the record.
+     * 
+     * @param cause
+     *            The reason of the abort
+     */
+    void backoff(AbortCause cause) {
+        
+        ContentionManager policy = null == this.contentionManager ? this.manager.getContentionManager()
+                : this.contentionManager;
+        
+        long backoff = policy.backoff(this, this.enemy, cause);
+        
+        this.enemy = null;
+        
+        TransactionEvents.Event event = TransactionEvents.backoff();
+        
+        long start = System.nanoTime();
+        
+        if (backoff <= 0) {
+            
+            Thread.yield();
+        } else {
+            
+            LockSupport.parkNanos(backoff);
+        }
+        
+        this.record.setBackoffTime(this.record.getBackoffTime() + System.nanoTime() - start);
+        
+        if (null != event) {
+            
+            event.set(TransactionEvents.CAUSE, cause.name());
+            
+            this.report(event);
+        }
+        
+        this.record.setRetries(this.record.getRetries() + 1);
+    }
+    
+    /**
+     * <p>
+     * Blocks the thread till one of the `MemCell`s read by the aborted attempt
+     * has a new committed state, for a retry of the operation. The thread
+     * watches all of them at once and is parked in between, so it uses no CPU
+     * while waiting. The retry count and the time spent waiting are accounted
+     * in the record.
+     */
+    private void awaitChange() {
+        
+        int[] readSet = this.record.getReadSetMembers();
+        long[] readVersions = this.record.getReadVersions();
+        
+        Thread thread = Thread.currentThread();
+        
+        TransactionEvents.Event event = TransactionEvents.backoff();
+        
+        long start = System.nanoTime();
+        
+        for (;;) {
+            
+            // a new waiter every time, a woken up waiter may still be queued
+            // on the other cells
+            Cell.Waiter waiter = new Cell.Waiter(thread);
+            
+            boolean unchanged = true;
+            
+            for (int i = 0; unchanged && i < readSet.length; i++) {
+                
+                unchanged = this.manager.cell(readSet[i]).watch(waiter, readVersions[i]);
+            }
+            
+            for (int i = 0; unchanged && i < this.context.readCount; i++) {
+                
+                unchanged = this.manager.cell(this.context.reads[i]).watch(waiter, this.context.readVersions[i]);
+            }
+            
+            if (unchanged) {
+                
+                // woken up by a commit, or by a release that changed nothing
+                LockSupport.park(this);
+            }
+            
+            waiter.thread = null;
+            
+            if (!unchanged) {
+                
+                break;
+            }
+        }
+        
+        this.enemy = null;
+        this.record.setBackoffTime(this.record.getBackoffTime() + System.nanoTime() - start);
+        
+        if (null != event) {
+            
+            event.set(TransactionEvents.CAUSE, AbortCause.RETRY.name());
+            
+            this.report(event);
+        }
+        
+        this.record.setRetries(this.record.getRetries() + 1);
+    }
+    
+    /**
+     * <p>
+     * Takes ownership of all the `MemCells` referenced in the transaction's
+     * `writeSet`.
+     * 
+     * <p>
+     * The ownerships are taken in the ascending order of the ids of the
+     * `MemCell`s, the same global order for all the transactions. A
+     * transaction that finds a `MemCell` owned by some other transaction
+     * waits for it while holding on to the ones it already owns. Since the
+     * other transaction can only be waiting for `MemCell`s further along in
+     * the order, there can be no cycle of waiting transactions, and no two
+     * transactions keep aborting each other for holding halves of each
+     * other's writeSets.
+     * 
+     * @return <b>true</b> if all the transaction was able to take ownership of
+     *         all writeSet members, else return <b>false</b> if the wait for
+     *         one of them timed out
+     */
+    private boolean takeOwnership() {
+        
+        return this.takeOwnership(this.manager.getOwnershipTimeout());
+    }
+    
+    /**
+     * <p>
+     * Takes ownership of all the `MemCells` referenced in the transaction's
+     * `writeSet`, waiting for each of them at most for the given timeout.
+     * 
+     * @param timeout
+     *            The maximum time to wait for a `MemCell` in nanoseconds, 0
+     *            to not wait at all
+     * 
+     * @return <b>true</b> if the transaction took ownership of all writeSet
+     *         members
+     */
+    boolean takeOwnership(long timeout) {
+        
+        for (int id : this.record.getWriteSetMembers()) {
+            
+            if (!this.manager.acquireOwnership(id, this)) {
+                
+                Transaction owner = this.manager.ownerOf(id);
+                
+                logger.debug("Transaction:: {} waiting for the ownership of Variable:: {}", this.getName(),
+                        this.manager.nameOf(id));
+                
+                if (timeout <= 0) {
+                    
+                    // not waiting, the failure is not reported by the wait
+                    this.manager.ownershipFailed(id);
+                }
+                
+                if (timeout <= 0 || !this.manager.awaitOwnership(id, this, timeout)) {
+                    
+                    this.enemy = owner;
+                    
+                    // some other transaction has held on to the `MemCell` for
+                    // too long, no point in trying for the rest of the
+                    // writeSet members
+                    logger.debug("Transaction:: {} failed to take ownership of Variable:: {}", this.getName(),
+                            this.manager.nameOf(id));
+                    
+                    return false;
+                }
+            }
+            
+            logger.debug("Transaction:: {} took ownership of Variable:: {}", this.getName(),
+                    this.manager.nameOf(id));
+        }
+        
+        // all the members of the writeSet were owned successfully by this
+        // transaction
+        return true;
+    }
+    
+    /**
+     * <p>
+     * Takes the backup of the versions of all the members in the read set.
+     * <br>
+     * <p>
+     * The `<i>writeSet</i>` members need no backup, their committed states are
+     * kept aside by the <i>StateManager</i> and restored on a rollback.
+     * <p>
+     * While committing, the versions of the read set and the backup are
+     * checked, if they are different commit fails.
+     */
+    void takeBackup() {
+        
+        int[] readSet = this.record.getReadSetMembers();
+        long[] readVersions = this.record.getReadVersions();
+        
+        for (int i = 0; i < readSet.length; i++) {
+            
+            // Backing up `readSet` members' versions, a member being
+            // published has no version to back up till it is done
+            long version;
+            
+            do {
+                
+                version = this.manager.getVersion(readSet[i]);
+            } while (Cell.BUSY == version);
+            
+            readVersions[i] = version;
+        }
+    }
+    
+    /**
+     * <p>
+     * Rolls back all changes made by the transaction and releases ownerships of
+     * the writeSet members as well.
+     */
+    void rollback() {
+        
+        logger.debug("Initiating rollback for transaction:: {}", this.getName());
+        
+        TransactionEvents.Event event = TransactionEvents.rollback();
+        
+        for (int id : this.writeSet()) {
+            
+            // discard the tentative state, restoring the committed state
+            this.manager.restore(id);
+        }
+        
+        // release all the writeSet members from ownership
+        this.releaseOwnership();
+        
+        this.report(event);
+        
+        logger.debug("Rollback complete for transaction:: {}", this.getName());
+    }
+    
+    /**
+     * <p>
+     * Commits the changes made by the transaction to its writeSet members after
+     * validating its readSet members.
+     * 
+     * <p>
+     * Once validated, the writeSet members are stamped with a single new
+     * version from the global version clock.
+     * 
+     * @return true if commit was successful else returns false
+     */
+    private boolean commit() {
+        
+        logger.debug("Initiating commit for transaction:: {}", this.getName());
+        
+        TransactionEvents.Event event = TransactionEvents.commit();
+        
+        boolean status;
+        long version = 0L;
+        
+        if (0 == this.writeSet().length) {
+            
+            // nothing to publish, the reads still have to be valid as of now
+            this.logSequence = 0L;
+            
+            status = this.validate();
+        } else if (status = this.validate()) {
+            
+            // snapshot readers must wait for this commit from before the
+            // version is drawn, they can't tell if it's within their
+            // snapshots otherwise
+            this.commitVersion = COMMITTING;
+            
+            version = this.manager.nextVersion();
+            
+            this.commitVersion = version;
+            
+            this.logSequence = this.publish(version, this.manager.historyHorizon());
+        }
+        
+        if (null != event) {
+            
+            event.set(TransactionEvents.COMMITTED, status);
+            event.set(TransactionEvents.COMMIT_VERSION, version);
+            
+            this.report(event);
+        }
+        
+        logger.debug("Completing commit for transaction:: {}", this.getName());
+        
+        return status;
+    }
+    
+    /**
+     * <p>
+     * Validates the readSet members of the transaction.
+     * 
+     * <p>
+     * The readSet is valid if none of its members has a new version since the
+     * backup was taken and none of them is owned by some other transaction.
+     * 
+     * @return true if the readSet is valid
+     */
+    boolean validate() {
+        
+        int[] readSet = this.record.getReadSetMembers();
+        long[] readVersions = this.record.getReadVersions();
+        
+        for (int i = 0; i < readSet.length; i++) {
+            
+            if (readVersions[i] != this.manager.getVersion(readSet[i])) {
                 
-                try {
-                    
-                    Thread.sleep(MAX_SLEEP_WAIT_TIME);
-                } catch (InterruptedException e) {
-                    
-                    logger.error(e.getMessage(), e);
-                }
+                // the readSet member has been committed to by some other
+                // transaction since the backup was taken
+                this.manager.validationFailed(readSet[i]);
                 
-                continue;
+                return false;
             }
             
-            logger.info(
-                    String.format("Transaction:: %s has taken ownership successfully, now moving on to taking backups",
-                            this.getName()));
-            
-            // take backup of the states of the read and write sets
-            this.takeBackup();
-            
-            logger.info(
-                    String.format("Transaction:: %s has taken backup, starting transaction operation", this.getName()));
-            
-            // apply the transaction's operational logic to the writeSet and
-            // readSet members
-            Boolean operationStatus = this.operation.apply();
+            Transaction owner = this.manager.ownerOf(readSet[i]);
             
-            if (!operationStatus) {
-                
-                // failed to operate successfully, this transaction is flawed,
-                // bailing out
-                logger.error(String.format(
-                        "CRITICAL:: Transaction:: %s has faulty operational logic, bailing out after rolling back",
-                        this.getName()));
+            if (null != owner && owner != this) {
                 
-                this.rollback();
+                // some other transaction is about to commit to the readSet
+                // member
+                this.enemy = owner;
                 
-                this.record.setStatus(true);
+                this.manager.validationFailed(readSet[i]);
                 
-                break;
+                return false;
             }
+        }
+        
+        return null == this.context || this.validateReads(0);
+    }
+    
+    /**
+     * <p>
+     * Validates the `MemCell`s read through the context of the transaction,
+     * just like the readSet members.
+     * 
+     * @param from
+     *            The index of the first read to validate, the earlier ones
+     *            are left out
+     * 
+     * @return true if none of them has changed since it was read
+     */
+    boolean validateReads(int from) {
+        
+        int[] reads = this.context.reads;
+        long[] readVersions = this.context.readVersions;
+        
+        for (int i = from; i < this.context.readCount; i++) {
             
-            logger.info(
-                    String.format("Transaction:: %s operation completed, moving to commit changes...", this.getName()));
+            if (readVersions[i] != this.manager.getVersion(reads[i])) {
+                
+                this.manager.validationFailed(reads[i]);
+                
+                return false;
+            }
             
-            // commit changes
-            Boolean commitStatus = this.commit();
+            Transaction owner = this.manager.ownerOf(reads[i]);
             
-            if (!commitStatus) {
-                
-                // failed to commit changes to the writeSet, hence rolling back
-                // and then retrying
-                logger.error(String.format(
-                        "MODERATE:: Transaction:: %s couldn't commit its changes, rolling back and retrying...",
-                        this.getName()));
+            if (null != owner && owner != this) {
                 
-                this.rollback();
+                this.enemy = owner;
                 
-                try {
-                    
-                    Thread.sleep(MAX_SLEEP_WAIT_TIME);
-                } catch (InterruptedException e) {
-                    
-                    logger.error(e.getMessage(), e);
-                }
+                this.manager.validationFailed(reads[i]);
                 
-                continue;
+                return false;
             }
-            
-            logger.info(String.format(
-                    "transaction:: %s has successfully committed its changes made to the writeSet members, marking transaction as completed.",
-                    this.getName()));
-            
-            // since the commit was successful, the transaction releases all its
-            // writeSet members of its ownership and marks itself as complete
-            this.releaseOwnership();
-            
-            // marks itself as complete
-            this.record.setStatus(true);
         }
         
-        logger.debug("Transaction:: " + this.getName() + " has ended...");
+        return true;
     }
     
     /**
      * <p>
-     * Takes ownership of all the `MemCells` referenced in the transaction's
-     * `writeSet`.
+     * Checks that the state just read from a `MemCell` not owned by the
+     * transaction is consistent with the earlier reads of the attempt, i.e.
+     * that it was the committed state as of the read version.
      * 
-     * @return <b>true</b> if all the transaction was able to take ownership of
-     *         all writeSet members, else return <b>false</b>
+     * <p>
+     * A state committed after the read version extends the read version to
+     * the current version of the clock, if none of the earlier reads has
+     * changed since. A state being committed at or before the read version is
+     * waited for, the one read may be older than the read version.
+     * 
+     * @param cell
+     *            The cell read
+     * @param version
+     *            The version of the state read
+     * 
+     * @return true if the read is consistent, false if the cell must be read
+     *         again
+     * 
+     * @throws AbortException
+     *             if an earlier read has changed, the attempt is aborted
      */
-    private Boolean takeOwnership() {
+    boolean checkRead(Cell cell, long version) {
+        
+        long readVersion = this.readVersion;
+        
+        if (UNCHECKED == readVersion) {
+            
+            return true;
+        }
         
-        Queue<String> writeSet = new LinkedBlockingQueue<>(this.record.getWriteSet());
+        Transaction owner = cell.owner;
+        
+        if (null != owner && owner.isCommittingAtOrBefore(readVersion)) {
+            
+            Thread.yield();
+            
+            return false;
+        }
         
-        int maxOwnershipCount = writeSet.size();
+        if (Cell.BUSY != version && version <= readVersion) {
+            
+            return true;
+        }
         
-        // the status of the ownership phase, by default we assume that it fails
-        // it is only successful if all the writeSet members are successfully
-        // owned by the transaction
-        Boolean status = false;
+        long clock = this.manager.getClock();
         
-        while (!writeSet.isEmpty() && maxOwnershipCount > 0) {
+        if (!this.isConsistentAt(clock)) {
             
-            // the variableName of the `Variable` that needs to be
-            // owned by this transaction
-            String variableName = writeSet.poll();
+            logger.debug("Transaction:: {} read an inconsistent state, aborting early", this.getName());
             
-            Optional<Transaction> currentOwner = this.manager.getOwner(variableName);
+            throw AbortException.VALIDATION;
+        }
+        
+        this.readVersion = clock;
+        
+        // read again, the state may still be newer than the clock
+        return Cell.BUSY != version && version <= clock;
+    }
+    
+    /**
+     * <p>
+     * Checks if the reads of the attempt so far, the backed up readSet
+     * members and the `MemCell`s read since, are all still the committed
+     * states as of the given version of the clock.
+     * 
+     * @param clock
+     *            The version of the clock
+     * 
+     * @return true if none of them has changed, nor is being committed to at
+     *         or before the version
+     */
+    private boolean isConsistentAt(long clock) {
+        
+        // a read-only transaction takes no backup, its readSet members are
+        // checked as they are read
+        int[] readSet = this.record.isReadOnly() ? NO_MEMBERS : this.record.getReadSetMembers();
+        long[] readVersions = this.record.getReadVersions();
+        
+        for (int i = 0; i < readSet.length; i++) {
             
-            if (!currentOwner.isPresent()) {
+            if (!this.isUnchangedAt(readSet[i], readVersions[i], clock)) {
                 
-                // set owner -- successfully took ownership
-                this.manager.setOwner(variableName, this);
-                
-                // log
-                logger.debug(String.format("Transaction:: %s took ownership of Variable:: %s",
-                        this.record.getDescription(), variableName));
+                return false;
+            }
+        }
+        
+        for (int i = 0; null != this.context && i < this.context.readCount; i++) {
+            
+            if (!this.isUnchangedAt(this.context.reads[i], this.context.readVersions[i], clock)) {
                 
-                // reduce the number of ownerships remaining
-                maxOwnershipCount--;
+                return false;
             }
         }
         
-        if (maxOwnershipCount <= 0) {
+        for (int i = 0; i < this.checkedCount; i++) {
             
-            // all the members of the writeSet were owned successfully by this
-            // transaction
-            status = true;
+            if (!this.isUnchangedAt(this.checkedReads[i], this.checkedVersions[i], clock)) {
+                
+                return false;
+            }
         }
         
-        return status;
+        return true;
     }
     
     /**
      * <p>
-     * Takes the backup of all the members in the read set and write set.
-     * <br>
-     * <p>
-     * In case of a rollback, the `<i>writeSet</i>` member contents are
-     * restored, from the <i>record.oldValues</i>.
+     * Checks if the `MemCell` still has the version read as of the given
+     * version of the clock.
+     * 
+     * @param id
+     *            The id of the `MemCell`
+     * @param version
+     *            The version read
+     * @param clock
+     *            The version of the clock
+     * 
+     * @return true if it still has the version, and no owner committing to it
+     *         at or before the version of the clock
+     */
+    private boolean isUnchangedAt(int id, long version, long clock) {
+        
+        Cell cell = this.manager.cell(id);
+        
+        Transaction owner = cell.owner;
+        
+        if (version == cell.version && (null == owner || owner == this || !owner.isCommittingAtOrBefore(clock))) {
+            
+            return true;
+        }
+        
+        this.manager.validationFailed(id);
+        
+        return false;
+    }
+    
+    /**
      * <p>
-     * While committing, the values of the read set and oldValues is checked, if
-     * they are different commit fails.
+     * Records the read of a `MemCell` not owned by the transaction, unless it
+     * is a backed up readSet member. The reads through a context are
+     * validated at commit, the others are only kept for extending the read
+     * version.
+     * 
+     * @param id
+     *            The id of the `MemCell`
+     * @param version
+     *            The version of the `MemCell`, read before its state
      */
-    private void takeBackup() {
+    void trackRead(int id, long version) {
         
-        Queue<String> writeSet = new LinkedBlockingQueue<>(this.record.getWriteSet());
-        Queue<String> readSet = new LinkedBlockingQueue<>(this.record.getReadSet());
+        if (UNCHECKED == this.readVersion || !this.record.isReadOnly() && this.record.isReadSetMember(id)) {
+            
+            return;
+        }
         
-        while (!writeSet.isEmpty()) {
+        if (null != this.context) {
             
-            // Backing up `writeSet` members
-            String variableName = writeSet.poll();
+            this.context.recordRead(id, version);
+            
+            return;
+        }
+        
+        if (null == this.checkedReads) {
             
-            // get the current state of the `Variable` or `MemCell` for creating
-            // the backup, need to be careful since the Transaction extends
-            // Thread class it has a `State` enum internally and that will cause
-            // name conflicts with my foop.core.State. The solution is to use
-            // fully qualified name of my State class.
-            Optional<foop.core.State> currentState = this.manager.read(variableName);
+            this.checkedReads = new int[8];
+            this.checkedVersions = new long[8];
+        } else if (this.checkedCount == this.checkedReads.length) {
             
-            if (currentState.isPresent()) {
-                
-                // if we got something for the current state, we need to store
-                // it as backup
-                this.record.getOldValues().put(variableName, currentState.get());
-            }
+            this.checkedReads = Arrays.copyOf(this.checkedReads, this.checkedCount << 1);
+            this.checkedVersions = Arrays.copyOf(this.checkedVersions, this.checkedCount << 1);
         }
         
-        while (!readSet.isEmpty()) {
+        this.checkedReads[this.checkedCount] = id;
+        this.checkedVersions[this.checkedCount] = version;
+        this.checkedCount++;
+    }
+    
+    /**
+     * <p>
+     * Takes the ownership of a `MemCell` written by the transaction for the
+     * first time, waiting for it for the ownership timeout of the
+     * <i>StateManager</i>.
+     * 
+     * @param id
+     *            The id of the `MemCell`
+     * 
+     * @throws AbortException
+     *             if the wait timed out, the attempt is aborted
+     */
+    void trackWrite(int id) {
+        
+        if (!this.manager.acquireOwnership(id, this)) {
             
-            // Backing up `readSet` members
-            String variableName = readSet.poll();
+            Transaction owner = this.manager.ownerOf(id);
             
-            Optional<foop.core.State> currentState = this.manager.read(variableName);
+            logger.debug("Transaction:: {} waiting for the ownership of Variable:: {}", this.getName(),
+                    this.manager.nameOf(id));
             
-            if (currentState.isPresent()) {
+            if (!this.manager.awaitOwnership(id, this, this.manager.getOwnershipTimeout())) {
+                
+                this.enemy = owner;
                 
-                this.record.getOldValues().put(variableName, currentState.get());
+                throw AbortException.OWNERSHIP;
             }
         }
+        
+        this.context.recordWrite(id);
     }
     
     /**
      * <p>
-     * Rolls back all changes made by the transaction and releases ownerships of
-     * the writeSet members as well.
+     * Records a commutative update of a `MemCell` not owned by the
+     * transaction, to be applied at commit.
+     * 
+     * @param id
+     *            The id of the `MemCell`
+     * @param update
+     *            The commutative update
+     * @param operand
+     *            The operand of the update
+     * 
+     * @return true if it was recorded, false if the transaction is not
+     *         running its operation and the update must be applied right
+     *         away
+     * 
+     * @throws IllegalStateException
+     *             if the transaction is read-only
      */
-    private void rollback() {
+    boolean defer(int id, Commutative update, long operand) {
         
-        logger.debug("Initiating rollback for transaction:: " + this.getName());
-        
-        Queue<String> writeSet = new LinkedBlockingQueue<>(this.record.getWriteSet());
+        if (this.record.isReadOnly()) {
+            
+            throw new IllegalStateException("A read-only transaction cannot write");
+        }
         
-        while (!writeSet.isEmpty()) {
+        if (!this.operating) {
             
-            String variableName = writeSet.poll();
+            return false;
+        }
+        
+        if (null == this.deferredIds) {
             
-            // fetch the backup
-            foop.core.State backup = this.record.getOldValues().get(variableName);
+            this.deferredIds = new int[4];
+            this.deferredUpdates = new Commutative[4];
+            this.deferredOperands = new long[4];
+        } else if (this.deferredCount == this.deferredIds.length) {
             
-            // restore the backup
-            this.manager.write(variableName, backup);
+            this.deferredIds = Arrays.copyOf(this.deferredIds, this.deferredCount << 1);
+            this.deferredUpdates = Arrays.copyOf(this.deferredUpdates, this.deferredCount << 1);
+            this.deferredOperands = Arrays.copyOf(this.deferredOperands, this.deferredCount << 1);
         }
         
-        // release all the writeSet members from ownership
-        this.releaseOwnership();
+        this.deferredIds[this.deferredCount] = id;
+        this.deferredUpdates[this.deferredCount] = update;
+        this.deferredOperands[this.deferredCount] = operand;
+        this.deferredCount++;
         
-        logger.debug("Rollback complete for transaction:: " + this.getName());
+        return true;
     }
     
     /**
      * <p>
-     * Commits the changes made by the transaction to its writeSet members after
-     * referring to the state's of its readSet members.
+     * Gets the number of commutative updates recorded so far, for a nested
+     * transaction to drop its own ones on an abort.
      * 
-     * @return true if commit was successful else returns false
+     * @return The number of recorded updates
+     */
+    int getDeferredCount() {
+        
+        return this.deferredCount;
+    }
+    
+    /**
+     * <p>
+     * Drops the commutative updates recorded after the first ones.
+     * 
+     * @param count
+     *            The number of updates to keep
      */
-    private Boolean commit() {
+    void dropDeferred(int count) {
         
-        logger.debug(String.format("Initiating commit for transaction:: %s", this.getName()));
+        this.deferredCount = count;
+    }
+    
+    /**
+     * <p>
+     * Applies the recorded commutative updates to the tentative states of
+     * their `MemCell`s, taking the ownership of the ones not owned yet.
+     * Nothing is applied unless all of them are owned.
+     * 
+     * @param timeout
+     *            The maximum time to wait for the ownership of each of them in
+     *            nanoseconds, 0 not to wait
+     * 
+     * @return true if the updates were applied, false if the wait for the
+     *         ownership of one of them timed out
+     */
+    boolean applyDeferred(long timeout) {
         
-        Boolean status = true;
+        int[] writeSet = this.writeSet();
         
-        Queue<String> readSet = new LinkedBlockingQueue<>(this.record.getReadSet());
+        int[] acquired = new int[this.deferredCount];
+        int acquiredCount = 0;
         
-        while (!readSet.isEmpty()) {
-            
-            String variableName = readSet.poll();
+        for (int i = 0; i < this.deferredCount; i++) {
             
-            Optional<foop.core.State> currentState = this.manager.read(variableName);
+            int id = this.deferredIds[i];
             
-            foop.core.State backup = this.record.getOldValues().get(variableName);
+            if (this == this.manager.ownerOf(id)) {
+                
+                continue;
+            }
             
-            if (currentState.isPresent()) {
+            if (!this.manager.acquireOwnership(id, this)) {
                 
-                // there is some non-null state in the statetable.
-                if (null == backup) {
-                    
-                    // this means that when the backup was taken, the readSet
-                    // member was un-initiaized but now it has some non-null
-                    // state this means that it has been modified in some way
-                    // and this
-                    // might not be good since the new state of the readSet
-                    // member might cause some
-                    // problem with states of the writeSet members.
-                    
-                    // commit failed
-                    status = false;
-                    break;
-                } else if (!currentState.get().equals(backup)) {
-                    
-                    // backup is not null, now check if their values are equal
-                    status = false;
-                    break;
-                } else {
+                Transaction owner = this.manager.ownerOf(id);
+                
+                if (timeout <= 0) {
                     
-                    // backup of the readSet member matches its current state
-                    status = true;
+                    // not waiting, the failure is not reported by the wait
+                    this.manager.ownershipFailed(id);
                 }
-            } else {
                 
-                // currentstate is empty or null, if old state was not null,
-                // then there has been a change in state
-                if (null == backup) {
+                if (timeout <= 0 || !this.manager.awaitOwnership(id, this, timeout)) {
                     
-                    // means that both currentState of the readSet member and
-                    // its backup were empty
-                    status = true;
-                } else {
+                    this.enemy = owner;
+                    
+                    for (int j = 0; j < acquiredCount; j++) {
+                        
+                        this.manager.releaseOwnership(acquired[j], this);
+                    }
                     
-                    status = false;
+                    return false;
                 }
             }
+            
+            acquired[acquiredCount++] = id;
+        }
+        
+        if (0 != acquiredCount) {
+            
+            this.commitSet = Arrays.copyOf(writeSet, writeSet.length + acquiredCount);
+            
+            System.arraycopy(acquired, 0, this.commitSet, writeSet.length, acquiredCount);
         }
         
-        logger.debug(String.format("Completing commit for transaction:: %s", this.getName()));
+        for (int i = 0; i < this.deferredCount; i++) {
+            
+            Cell cell = this.manager.cell(this.deferredIds[i]);
+            
+            cell.bits = this.deferredUpdates[i].apply(cell.bits, this.deferredOperands[i]);
+        }
         
-        return status;
+        return true;
     }
     
     /**
      * <p>
-     * Releases the ownerships of all the writeSet member `MemCells`
+     * Gets all the `MemCell`s the transaction owns, or tries to own, in the
+     * current attempt.
+     * 
+     * @return The declared writeSet members followed by the ones written
+     *         through the context and the ones owned for the commutative
+     *         updates, must not be modified
+     */
+    private int[] writeSet() {
+        
+        if (null != this.commitSet) {
+            
+            return this.commitSet;
+        }
+        
+        int[] declared = this.record.getWriteSetMembers();
+        
+        return null == this.context ? declared : this.context.writeSet(declared);
+    }
+    
+    /**
+     * <p>
+     * Marks the transaction as committing, snapshot readers wait for it from
+     * now on till it has published its writeSet members. Must be called
+     * before the commit version is drawn.
+     */
+    void markCommitting() {
+        
+        this.commitVersion = COMMITTING;
+    }
+    
+    /**
+     * <p>
+     * Publishes the tentative states of the writeSet members with the commit
+     * version, the transaction is no longer committing afterwards. The states
+     * are appended to the write-ahead log of the manager before they are
+     * published.
+     * 
+     * @param version
+     *            The commit version
+     * @param horizon
+     *            The history horizon of the commit
+     * 
+     * @return The sequence number of the write-ahead log record, 0 if the
+     *         commits are not logged
      */
-    private void releaseOwnership() {
+    long publish(long version, long horizon) {
         
-        logger.debug(String.format("Initiating release of ownership of writeSet members of transaction:: %s",
-                this.getName()));
+        int[] writeSet = this.writeSet();
         
-        Queue<String> writeSet = new LinkedBlockingQueue<>(this.record.getWriteSet());
+        long sequence = this.manager.log(writeSet, version);
         
-        while (!writeSet.isEmpty()) {
+        for (int id : writeSet) {
             
-            String variableName = writeSet.poll();
+            this.manager.publish(id, version, horizon);
+        }
+        
+        this.commitVersion = 0L;
+        
+        return sequence;
+    }
+    
+    /**
+     * <p>
+     * Releases the ownerships of all the writeSet member `MemCells`
+     */
+    void releaseOwnership() {
+        
+        logger.debug("Initiating release of ownership of writeSet members of transaction:: {}", this.getName());
+        
+        for (int id : this.writeSet()) {
             
-            if (this.manager.getOwner(variableName).isPresent()
-                    && this.manager.getOwner(variableName).get().equals(this)) {
-                
-                // release ownership only if this transaction owns it
-                // this is to prevent race conditions(?)
-                this.manager.releaseOwnership(variableName);
-            }
+            // release ownership only if this transaction owns it, the
+            // manager does the check and the release atomically
+            this.manager.releaseOwnership(id, this);
+        }
+        
+        logger.debug("Finished release of ownership of writeSet members of transaction:: {}", this.getName());
+    }
+    
+    /**
+     * <p>
+     * Fills in the fields of the flight recorder event that are common to
+     * all the events of the transaction, and ends it.
+     * 
+     * @param event
+     *            The event, null if it is not recorded
+     */
+    private void report(TransactionEvents.Event event) {
+        
+        if (null == event) {
+            
+            return;
         }
         
-        logger.debug(
-                String.format("Finished release of ownership of writeSet members of transaction:: %s", this.getName()));
+        Integer version = this.record.getVersion();
+        
+        event.set(TransactionEvents.DESCRIPTION, this.record.getDescription());
+        event.set(TransactionEvents.ATTEMPT, this.record.getRetries());
+        event.set(TransactionEvents.VERSION, null == version ? 0 : version);
+        event.set(TransactionEvents.READ_SET_SIZE, this.record.getReadSetMembers().length
+                + (null == this.context ? this.checkedCount : this.context.readCount));
+        event.set(TransactionEvents.WRITE_SET_SIZE, this.writeSet().length);
+        
+        event.commit();
     }
     
     /*** Book keeping methods **/
     
+    /**
+     * <p>
+     * Adds the member <i>Variable</i>s or `MemCell`s to the writeSet of the
+     * transaction. The <i>StateManager</i> must be set before.
+     * 
+     * @param variables
+     *            The `MemCell`s that this transaction intends to modify/write
+     */
+    public final void addWriteSetMembers(Variable... variables) {
+        
+        for (Variable variable : variables) {
+            
+            this.addWriteSetMember(this.manager.idOf(variable));
+        }
+    }
+    
     /**
      * <p>
      * Adds the member <i>Variable</i> or `MemCell`s names to the writeSet of
-     * the transaction.
+     * the transaction. The <i>StateManager</i> must be set before, it resolves
+     * the names.
      * 
      * @param variableNames
      *            The names of the `MemCell`s that this transaction intends to
@@ -428,18 +1835,33 @@ public class Transaction extends Thread {
      */
     public final void addWriteSetMembers(String... variableNames) {
         
-        Set<String> writeSet = this.record.getWriteSet();
-        
         for (String variableName : variableNames) {
             
-            writeSet.add(variableName);
+            this.addWriteSetMember(this.manager.idOf(variableName));
+        }
+    }
+    
+    /**
+     * <p>
+     * Adds the member <i>Variable</i>s or `MemCell`s to the `readSet` of the
+     * transaction. The <i>StateManager</i> must be set before.
+     * 
+     * @param variables
+     *            The `MemCell`s that this transaction intends to read from.
+     */
+    public final void addReadSetMembers(Variable... variables) {
+        
+        for (Variable variable : variables) {
+            
+            this.addReadSetMember(this.manager.idOf(variable));
         }
     }
     
     /**
      * <p>
      * Adds the member <i>Variable</i> or `MemCell`s names to the `readSet` of
-     * the transaction.
+     * the transaction. The <i>StateManager</i> must be set before, it resolves
+     * the names.
      * 
      * @param variableNames
      *            The names of the `MemCell`s that this transaction intends to
@@ -447,19 +1869,43 @@ public class Transaction extends Thread {
      */
     public final void addReadSetMembers(String... variableNames) {
         
-        Set<String> readSet = this.record.getReadSet();
-        
         for (String variableName : variableNames) {
             
-            // since the variables that are needed by the transaction in its
-            // writeSet are going to be updated anyways
-            // it would be a better idea to have them owned only once, hence the
-            // variables that are already a part of the writeSet are not going
-            // to be added to the readSet
-            if (!this.record.getWriteSet().contains(variableName)) {
-                
-                readSet.add(variableName);
-            }
+            this.addReadSetMember(this.manager.idOf(variableName));
+        }
+    }
+    
+    /**
+     * <p>
+     * Adds the `MemCell` to the writeSet.
+     * 
+     * @param id
+     *            The id of the `MemCell`
+     */
+    private void addWriteSetMember(int id) {
+        
+        this.record.setManager(this.manager);
+        this.record.addWriteSetMember(id);
+    }
+    
+    /**
+     * <p>
+     * Adds the `MemCell` to the `readSet`, unless it is in the writeSet.
+     * 
+     * @param id
+     *            The id of the `MemCell`
+     */
+    private void addReadSetMember(int id) {
+        
+        // since the variables that are needed by the transaction in its
+        // writeSet are going to be updated anyways
+        // it would be a better idea to have them owned only once, hence the
+        // variables that are already a part of the writeSet are not going
+        // to be added to the readSet
+        if (!this.record.isWriteSetMember(id)) {
+            
+            this.record.setManager(this.manager);
+            this.record.addReadSetMember(id);
         }
     }
     
@@ -0,0 +1,453 @@
+/**
+ * Project: Foops_1
+ * Package: foop.core
+ * File: TransactionBatch.java
+ * 
+ * @author sidmishraw
+ *         Last modified: Oct 18, 2026 5:37:21 PM
+ */
+package foop.core;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import foop.core.metrics.TransactionMetrics;
+
+/**
+ * <p>
+ * A <i>TransactionBatch</i> runs a group of <i>Transaction</i>s together on
+ * the calling thread, committing them in grouped passes instead of one after
+ * the other.
+ * 
+ * <br>
+ * <br>
+ * 
+ * The batch first plans its rounds from the declared writeSets and readSets,
+ * in the order of submission: a transaction goes in the round after the last
+ * one that has a transaction writing any of its members, or reading any of
+ * the members it writes. So the transactions of a round are independent of
+ * each other and the conflicting ones commit in the order of submission.
+ * 
+ * <br>
+ * <br>
+ * 
+ * Each round of the batch goes through its transactions in passes:
+ * <ul>
+ * <li>the ownership pass takes the ownership of the writeSets of as many of
+ * them as possible, without waiting. A transaction that finds a `MemCell`
+ * owned by some other transaction of the batch follows it, i.e. it is only
+ * tried again in the round after the other one has given up its ownerships.
+ * The ones that find a `MemCell` owned by a transaction outside of the batch
+ * are deferred to the next round.
+ * 
+ * <li>the operation pass takes the backups and applies the operations. The
+ * commutative updates of an operation take the ownership of their `MemCell`s
+ * without waiting, a transaction that finds one owned is deferred to the next
+ * round. A transaction whose operation throws, or reports a failure, is
+ * rolled back and completes without committing, the rest of the round goes
+ * on.
+ * 
+ * <li>the validation pass validates the readSets. A transaction that read a
+ * `MemCell` owned by some other transaction of the batch fails the
+ * validation, so the ones left are independent of each other.
+ * 
+ * <li>the commit pass draws a single version from the global version clock
+ * for all of them, publishes their writeSets and only then releases all the
+ * ownerships. With a write-ahead log, the round waits for a single fsync
+ * covering all of its records.
+ * </ul>
+ * 
+ * The deferred and invalid transactions are retried in the next round, the
+ * batch backs off only if a round made no progress at all. Following another
+ * transaction of the batch is not an abort, it is the batch equivalent of
+ * waiting for the ownership.
+ * 
+ * <br>
+ * <br>
+ * 
+ * Usage:
+ * 
+ * <pre>
+ * List&lt;Record&gt; records = new TransactionBatch(transactions).run();
+ * 
+ * records.get(0).isCommitted(); // the outcome of the first transaction
+ * </pre>
+ * 
+ * All the transactions of a batch must run against the same
+ * <i>StateManager</i>. Read-only transactions, and the ones going through a
+ * <i>TransactionContext</i> whose accesses are only known as they run, are
+ * just run one after the other.
+ * 
+ * @author sidmishraw
+ *
+ *         Qualified Name: foop.core.TransactionBatch
+ * 
+ */
+public class TransactionBatch {
+    
+    /** logging stuff **/
+    private static final Logger     logger = LoggerFactory.getLogger(TransactionBatch.class);
+    /** logging stuff **/
+    
+    /**
+     * <p>
+     * The transactions of the batch, in the order of submission.
+     */
+    private final List<Transaction> transactions;
+    
+    /**
+     * <p>
+     * The manager all the transactions of the batch run against.
+     */
+    private final StateManager      manager;
+    
+    /**
+     * <p>
+     * Makes a batch of the transactions.
+     * 
+     * @param transactions
+     *            The transactions
+     * 
+     * @throws IllegalArgumentException
+     *             if the transactions don't all run against the same
+     *             <i>StateManager</i>
+     */
+    public TransactionBatch(Collection<Transaction> transactions) {
+        
+        this.transactions = new ArrayList<>(transactions);
+        this.manager = this.transactions.isEmpty() ? null : this.transactions.get(0).getManager();
+        
+        for (Transaction transaction : this.transactions) {
+            
+            if (transaction.getManager() != this.manager) {
+                
+                throw new IllegalArgumentException("All the transactions of a batch must share the StateManager");
+            }
+        }
+    }
+    
+    /**
+     * <p>
+     * Runs all the transactions of the batch till they complete.
+     * 
+     * @return The records of the transactions in the order of submission,
+     *         {@link Record#isCommitted()} tells the outcome of each, false
+     *         for the ones whose operations threw
+     */
+    public List<Record> run() {
+        
+        List<Record> records = new ArrayList<>(this.transactions.size());
+        
+        List<Transaction> pending = new ArrayList<>(this.transactions.size());
+        
+        long startTime = System.nanoTime();
+        
+        for (Transaction transaction : this.transactions) {
+            
+            records.add(transaction.getRecord());
+            
+            if (transaction.getRecord().isReadOnly() || null != transaction.getContext()) {
+                
+                // never aborts or has nothing declared, nothing to group
+                transaction.run();
+            } else {
+                
+                if (0 == transaction.getRecord().getStartTime()) {
+                    
+                    transaction.getRecord().setStartTime(startTime);
+                }
+                
+                pending.add(transaction);
+            }
+        }
+        
+        List<List<Transaction>> plan = this.plan(pending);
+        
+        int rounds = 0;
+        
+        pending = new ArrayList<>();
+        
+        while (rounds < plan.size() || !pending.isEmpty()) {
+            
+            if (rounds < plan.size()) {
+                
+                pending.addAll(plan.get(rounds));
+            }
+            
+            pending = this.runRound(pending);
+            
+            rounds++;
+        }
+        
+        logger.debug("Batch of {} transactions completed in {} rounds", records.size(), rounds);
+        
+        return records;
+    }
+    
+    /**
+     * <p>
+     * Plans the rounds of the transactions, so that the transactions of a
+     * round neither write the members written by the others nor read them.
+     * 
+     * @param transactions
+     *            The transactions in the order of submission
+     * 
+     * @return The transactions of each round
+     */
+    private List<List<Transaction>> plan(List<Transaction> transactions) {
+        
+        List<List<Transaction>> plan = new ArrayList<>();
+        
+        // the last round writing each member, and the last one accessing it
+        Map<Integer, Integer> lastWrite = new HashMap<>();
+        Map<Integer, Integer> lastAccess = new HashMap<>();
+        
+        for (Transaction transaction : transactions) {
+            
+            int[] writeSet = transaction.getRecord().getWriteSetMembers();
+            int[] readSet = transaction.getRecord().getReadSetMembers();
+            
+            int round = 0;
+            
+            for (int id : writeSet) {
+                
+                round = Math.max(round, lastAccess.getOrDefault(id, -1) + 1);
+            }
+            
+            for (int id : readSet) {
+                
+                round = Math.max(round, lastWrite.getOrDefault(id, -1) + 1);
+            }
+            
+            for (int id : writeSet) {
+                
+                lastWrite.put(id, round);
+                lastAccess.put(id, round);
+            }
+            
+            for (int id : readSet) {
+                
+                lastAccess.merge(id, round, Math::max);
+            }
+            
+            while (plan.size() <= round) {
+                
+                plan.add(new ArrayList<>());
+            }
+            
+            plan.get(round).add(transaction);
+        }
+        
+        return plan;
+    }
+    
+    /**
+     * <p>
+     * Runs a round of the batch over the pending transactions.
+     * 
+     * @param pending
+     *            The transactions pending at the start of the round
+     * 
+     * @return The transactions still pending at the end of the round
+     */
+    private List<Transaction> runRound(List<Transaction> pending) {
+        
+        TransactionMetrics metrics = this.manager.getMetrics();
+        
+        List<Transaction> owners = new ArrayList<>(pending.size());
+        List<Transaction> deferred = new ArrayList<>();
+        
+        // the transactions of the batch following each owner of this round
+        Map<Transaction, List<Transaction>> followers = new IdentityHashMap<>();
+        
+        AbortCause cause = null;
+        
+        // the ownership pass
+        for (Transaction transaction : pending) {
+            
+            transaction.startAttempt();
+            
+            if (transaction.takeOwnership(0L)) {
+                
+                owners.add(transaction);
+                followers.put(transaction, null);
+                
+                continue;
+            }
+            
+            transaction.releaseOwnership();
+            
+            Transaction enemy = transaction.getEnemy();
+            
+            if (null != enemy && followers.containsKey(enemy)) {
+                
+                followers.compute(enemy, (owner, list) -> null == list ? new ArrayList<>() : list)
+                        .add(transaction);
+            } else {
+                
+                metrics.abort(AbortCause.OWNERSHIP);
+                
+                cause = null == cause ? AbortCause.OWNERSHIP : cause;
+                
+                deferred.add(transaction);
+            }
+        }
+        
+        // the operation pass
+        List<Transaction> operated = new ArrayList<>(owners.size());
+        
+        for (Transaction transaction : owners) {
+            
+            transaction.takeBackup();
+            
+            boolean operationStatus;
+            
+            try {
+                
+                operationStatus = transaction.applyOperation();
+            } catch (RuntimeException | Error e) {
+                
+                // a failure of this transaction only, the rest of the round
+                // goes on
+                logger.error("CRITICAL:: Transaction:: {} operation threw, bailing out after rolling back",
+                        transaction.getName(), e);
+                
+                transaction.rollback();
+                
+                metrics.abort(AbortCause.OPERATION);
+                
+                this.complete(transaction, false);
+                
+                continue;
+            }
+            
+            if (!operationStatus) {
+                
+                logger.error(
+                        "CRITICAL:: Transaction:: {} has faulty operational logic, bailing out after rolling back",
+                        transaction.getName());
+                
+                transaction.rollback();
+                
+                metrics.abort(AbortCause.OPERATION);
+                
+                this.complete(transaction, false);
+            } else if (0 != transaction.getDeferredCount() && !transaction.applyDeferred(0L)) {
+                
+                // a `MemCell` it updated commutatively is owned by another
+                // transaction, the updates are not applied yet
+                transaction.rollback();
+                
+                metrics.abort(AbortCause.OWNERSHIP);
+                
+                cause = null == cause ? AbortCause.OWNERSHIP : cause;
+                
+                deferred.add(transaction);
+            } else {
+                
+                operated.add(transaction);
+            }
+        }
+        
+        // the validation pass
+        List<Transaction> committing = new ArrayList<>(operated.size());
+        
+        for (Transaction transaction : operated) {
+            
+            if (transaction.validate()) {
+                
+                committing.add(transaction);
+            } else {
+                
+                transaction.rollback();
+                
+                metrics.abort(AbortCause.VALIDATION);
+                
+                cause = null == cause ? AbortCause.VALIDATION : cause;
+                
+                deferred.add(transaction);
+            }
+        }
+        
+        // the commit pass
+        if (!committing.isEmpty()) {
+            
+            for (Transaction transaction : committing) {
+                
+                transaction.markCommitting();
+            }
+            
+            long version = this.manager.nextVersion();
+            long horizon = this.manager.historyHorizon();
+            
+            long sequence = 0L;
+            
+            for (Transaction transaction : committing) {
+                
+                sequence = Math.max(sequence, transaction.publish(version, horizon));
+            }
+            
+            for (Transaction transaction : committing) {
+                
+                transaction.releaseOwnership();
+                
+                this.complete(transaction, true);
+            }
+            
+            // a single fsync for the whole round
+            this.manager.awaitDurable(sequence);
+        }
+        
+        for (int i = 0; i < deferred.size(); i++) {
+            
+            Transaction transaction = deferred.get(i);
+            
+            if (0 == i && committing.isEmpty()) {
+                
+                // no progress at all, the contention is with transactions
+                // outside of the batch
+                transaction.backoff(cause);
+            } else {
+                
+                transaction.getRecord().setRetries(transaction.getRecord().getRetries() + 1);
+            }
+        }
+        
+        // all the owners of this round have given up their ownerships by now
+        for (List<Transaction> list : followers.values()) {
+            
+            if (null != list) {
+                
+                deferred.addAll(list);
+            }
+        }
+        
+        return deferred;
+    }
+    
+    /**
+     * <p>
+     * Marks the transaction as completed.
+     * 
+     * @param transaction
+     *            The transaction
+     * @param committed
+     *            true if it committed
+     */
+    private void complete(Transaction transaction, boolean committed) {
+        
+        Record record = transaction.getRecord();
+        
+        record.setStatus(true);
+        record.setCommitted(committed);
+        
+        this.manager.getMetrics().complete(committed, record.getRetries());
+    }
+}
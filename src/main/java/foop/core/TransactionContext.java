@@ -0,0 +1,623 @@
+/**
+ * Project: Foops_1
+ * Package: foop.core
+ * File: TransactionContext.java
+ * 
+ * @author sidmishraw
+ *         Last modified: Oct 18, 2026 10:58:02 PM
+ */
+package foop.core;
+
+import java.util.Arrays;
+import java.util.Optional;
+
+import lombok.Getter;
+
+/**
+ * <p>
+ * A <i>TransactionContext</i> is handed to the operation of a
+ * <i>Transaction</i> made with a {@link Transaction.ContextOperation}, the
+ * operation reads and writes the `MemCell`s through it. The accesses are
+ * recorded as they happen, so the <i>Transaction</i> needs no declared
+ * readSet or writeSet:
+ * <ul>
+ * <li>a read of a `MemCell` not owned by the <i>Transaction</i> records the
+ * version read, the `MemCell` is validated at commit just like a declared
+ * readSet member. The read is also checked against the earlier ones right
+ * away, so the operation never sees an inconsistent set of states.
+ * 
+ * <li>the first write of a `MemCell` takes its ownership, waiting for it for
+ * the ownership timeout of the <i>StateManager</i>. If the wait times out the
+ * attempt is aborted, rolled back and retried.
+ * </ul>
+ * 
+ * The recording is done by the <i>StateManager</i> itself, so the typed
+ * handles and the transactional collections used from the operation are
+ * recorded too. The declared members, if any, are owned and validated as
+ * before.
+ * 
+ * <br>
+ * <br>
+ * 
+ * Usage:
+ * 
+ * <pre>
+ * transactions.newTransaction("transfer", manager)
+ *         .addTransactionOperation(context -&gt; {
+ * 
+ *             long balance = ((Value) context.readState("alice")).value;
+ * 
+ *             context.write("alice", new Value(balance - 10));
+ *             context.write("bob", new Value(((Value) context.readState("bob")).value + 10));
+ * 
+ *             return true;
+ *         })
+ *         .get();
+ * </pre>
+ * 
+ * An aborted attempt is signalled by an unchecked exception thrown from the
+ * reads and writes, the operation must let it through.
+ * 
+ * <p>
+ * A step of the operation can run as a nested transaction, see
+ * {@link #nested(Transaction.ContextOperation)}. It is rolled back and
+ * retried on its own, without undoing the rest of the work of the attempt.
+ * 
+ * <p>
+ * An operation that has to wait for some condition, e.g. a queue becoming
+ * non-empty, calls {@link #retry()}: the attempt is rolled back and the thread
+ * blocks till one of the `MemCell`s it read has a new committed state. The
+ * alternatives to try before blocking are composed with
+ * {@link #orElse(Transaction.ContextOperation, Transaction.ContextOperation)}.
+ * 
+ * <pre>
+ * transactions.newTransaction("consume", manager)
+ *         .addTransactionOperation(context -&gt; {
+ * 
+ *             String job = jobs.poll();
+ * 
+ *             return null == job ? context.retry() : handle(job);
+ *         })
+ *         .get();
+ * </pre>
+ * 
+ * @author sidmishraw
+ *
+ *         Qualified Name: foop.core.TransactionContext
+ * 
+ */
+public final class TransactionContext {
+    
+    /**
+     * <p>
+     * The number of times a nested transaction is retried on a conflict
+     * before the whole attempt is aborted.
+     */
+    public static final int            NESTED_RETRIES = 4;
+    
+    /**
+     * <p>
+     * The transaction of the context.
+     */
+    private final @Getter Transaction  transaction;
+    
+    /**
+     * <p>
+     * The manager of the transaction.
+     */
+    private final @Getter StateManager manager;
+    
+    /**
+     * <p>
+     * The ids of the `MemCell`s read in the current attempt and their
+     * versions as read, the first <i>readCount</i> entries are in use.
+     */
+    int[]                              reads;
+    long[]                             readVersions;
+    int                                readCount;
+    
+    /**
+     * <p>
+     * The ids of the `MemCell`s owned for writing in the current attempt,
+     * besides the declared writeSet. The first <i>writeCount</i> entries are
+     * in use.
+     */
+    int[]                              writes;
+    int                                writeCount;
+    
+    /**
+     * <p>
+     * The declared writeSet members followed by the ones written, rebuilt only
+     * if one more `MemCell` was written since.
+     */
+    private int[]                      writeSet;
+    
+    /**
+     * <p>
+     * The undo log of the nested transactions: the `MemCell`s already owned
+     * when a nested transaction first wrote them, with their tentative states
+     * and values from before. The first <i>undoCount</i> entries are in use.
+     */
+    private int[]                      undoIds;
+    private State[]                    undoStates;
+    private long[]                     undoBits;
+    private int                        undoCount;
+    
+    /**
+     * <p>
+     * The marks of the open nested transactions, four per nesting level: the
+     * <i>readCount</i>, the <i>writeCount</i>, the <i>undoCount</i> and the
+     * number of commutative updates of the transaction as of the start of the
+     * nested transaction.
+     */
+    private int[]                      scopes;
+    private int                        depth;
+    
+    /**
+     * <p>
+     * Makes the context of the transaction.
+     * 
+     * @param transaction
+     *            The transaction
+     * @param manager
+     *            The manager of the transaction
+     */
+    TransactionContext(Transaction transaction, StateManager manager) {
+        
+        this.transaction = transaction;
+        this.manager = manager;
+        this.reads = new int[16];
+        this.readVersions = new long[16];
+        this.writes = new int[8];
+        this.undoIds = new int[8];
+        this.undoStates = new State[8];
+        this.undoBits = new long[8];
+        this.scopes = new int[16];
+    }
+    
+    /**
+     * <p>
+     * Reads the state of the <i>Variable</i>, see
+     * {@link StateManager#read(Variable)}.
+     * 
+     * @param variable
+     *            The `<i>Variable</i>`
+     * 
+     * @return The state of the `<i>Variable</i>`, empty if the `MemCell` has
+     *         not yet been initialized
+     */
+    public Optional<State> read(Variable variable) {
+        
+        return this.manager.read(variable);
+    }
+    
+    /**
+     * <p>
+     * Reads the state of the <i>Variable</i> of the given name, see
+     * {@link StateManager#read(String)}.
+     * 
+     * @param variableName
+     *            The name of the `<i>Variable</i>`
+     * 
+     * @return The state of the `<i>Variable</i>`, empty if the `MemCell` has
+     *         not yet been initialized
+     */
+    public Optional<State> read(String variableName) {
+        
+        return this.manager.read(variableName);
+    }
+    
+    /**
+     * <p>
+     * Reads the state of the <i>Variable</i> without wrapping it into an
+     * `Optional`.
+     * 
+     * @param variable
+     *            The `<i>Variable</i>`
+     * 
+     * @return The state of the `<i>Variable</i>`, null if the `MemCell` has
+     *         not yet been initialized
+     */
+    public State readState(Variable variable) {
+        
+        return this.manager.readState(variable);
+    }
+    
+    /**
+     * <p>
+     * Reads the state of the <i>Variable</i> of the given name without
+     * wrapping it into an `Optional`.
+     * 
+     * @param variableName
+     *            The name of the `<i>Variable</i>`
+     * 
+     * @return The state of the `<i>Variable</i>`, null if the `MemCell` has
+     *         not yet been initialized
+     */
+    public State readState(String variableName) {
+        
+        return this.manager.readState(variableName);
+    }
+    
+    /**
+     * <p>
+     * Writes the new state of the <i>Variable</i>, taking its ownership first
+     * if needed.
+     * 
+     * @param variable
+     *            The `<i>Variable</i>`
+     * @param state
+     *            The new state
+     */
+    public void write(Variable variable, State state) {
+        
+        this.manager.write(variable, state);
+    }
+    
+    /**
+     * <p>
+     * Writes the new state of the <i>Variable</i> of the given name, taking
+     * its ownership first if needed.
+     * 
+     * @param variableName
+     *            The name of the `<i>Variable</i>`
+     * @param state
+     *            The new state
+     */
+    public void write(String variableName, State state) {
+        
+        this.manager.write(variableName, state);
+    }
+    
+    /**
+     * <p>
+     * Runs the operation as a nested transaction of the current attempt.
+     * 
+     * <p>
+     * The nested transaction reads and writes through this context just like
+     * the rest of the operation, but keeps its own undo information. If the
+     * operation reports a failure, only the changes of the nested transaction
+     * are rolled back and the caller gets to decide what to do next. If it
+     * runs into a conflict, i.e. fails to take the ownership of a `MemCell`
+     * or finds one of the `MemCell`s it read changed by the time it ends, its
+     * changes are rolled back and it is retried on its own up to
+     * {@link #NESTED_RETRIES} times before the whole attempt is aborted. On
+     * success, its reads and writes become the ones of the enclosing
+     * transaction.
+     * 
+     * @param operation
+     *            The operation of the nested transaction
+     * 
+     * @return true if the nested transaction completed, false if its
+     *         operation reported a failure and its changes were rolled back
+     */
+    public boolean nested(Transaction.ContextOperation operation) {
+        
+        for (int retries = 0;; retries++) {
+            
+            this.open();
+            
+            AbortCause cause;
+            
+            try {
+                
+                if (!operation.apply(this)) {
+                    
+                    this.abort(false);
+                    
+                    return false;
+                }
+                
+                if (this.transaction.validateReads(this.scopes[4 * this.depth - 4])) {
+                    
+                    this.merge();
+                    
+                    return true;
+                }
+                
+                cause = AbortCause.VALIDATION;
+            } catch (AbortException e) {
+                
+                if (AbortException.RETRY == e) {
+                    
+                    // the reads are kept, the attempt has to wait for them
+                    this.abort(true);
+                    
+                    throw e;
+                }
+                
+                cause = e.abortCause;
+            }
+            
+            this.abort(false);
+            
+            this.manager.getMetrics().abort(cause);
+            
+            if (AbortCause.VALIDATION == cause && !this.transaction.validate()) {
+                
+                // a read of the enclosing transaction has changed, retrying
+                // the nested one alone cannot help
+                throw AbortException.VALIDATION;
+            }
+            
+            if (retries == NESTED_RETRIES) {
+                
+                // the conflict is not going away, the enclosing transaction
+                // has to start over
+                throw AbortCause.OWNERSHIP == cause ? AbortException.OWNERSHIP : AbortException.VALIDATION;
+            }
+            
+            this.transaction.backoff(cause);
+        }
+    }
+    
+    /**
+     * <p>
+     * Aborts the attempt and blocks the thread till one of the `MemCell`s read
+     * by the attempt has a new committed state, the attempt is run again from
+     * the start then. The readSet members count as read, the `MemCell`s owned
+     * by the transaction don't.
+     * 
+     * <p>
+     * It never returns normally, it is typed for an operation to
+     * <code>return context.retry();</code>
+     * 
+     * @return Never returns
+     * 
+     * @throws IllegalStateException
+     *             if the transaction is read-only, or has read no `MemCell`
+     *             that could ever change
+     */
+    public boolean retry() {
+        
+        if (this.transaction.getRecord().isReadOnly()) {
+            
+            throw new IllegalStateException("A read-only transaction cannot retry");
+        }
+        
+        if (0 == this.readCount && 0 == this.transaction.getRecord().getReadSetMembers().length) {
+            
+            throw new IllegalStateException("The transaction has read nothing to wait for, it would block forever");
+        }
+        
+        throw AbortException.RETRY;
+    }
+    
+    /**
+     * <p>
+     * Runs the first operation as a nested transaction, and the second one in
+     * its place if the first one calls {@link #retry()}. The changes of the
+     * first operation are rolled back before the second one runs, its reads
+     * are kept though: if the second operation retries too, the attempt
+     * blocks till a `MemCell` read by either of them changes.
+     * 
+     * <p>
+     * The calls nest, so any number of alternatives can be chained.
+     * 
+     * @param first
+     *            The operation to try first
+     * @param second
+     *            The operation to try if the first one retries
+     * 
+     * @return true if the operation that ran completed, false if it reported
+     *         a failure and its changes were rolled back
+     */
+    public boolean orElse(Transaction.ContextOperation first, Transaction.ContextOperation second) {
+        
+        try {
+            
+            return this.nested(first);
+        } catch (AbortException e) {
+            
+            if (AbortException.RETRY != e) {
+                
+                throw e;
+            }
+        }
+        
+        return this.nested(second);
+    }
+    
+    /**
+     * <p>
+     * Opens a nested transaction.
+     */
+    private void open() {
+        
+        if (4 * this.depth == this.scopes.length) {
+            
+            this.scopes = Arrays.copyOf(this.scopes, this.scopes.length << 1);
+        }
+        
+        this.scopes[4 * this.depth] = this.readCount;
+        this.scopes[4 * this.depth + 1] = this.writeCount;
+        this.scopes[4 * this.depth + 2] = this.undoCount;
+        this.scopes[4 * this.depth + 3] = this.transaction.getDeferredCount();
+        this.depth++;
+    }
+    
+    /**
+     * <p>
+     * Ends the innermost nested transaction, its reads, writes and undo
+     * information go to the enclosing one.
+     */
+    private void merge() {
+        
+        this.depth--;
+    }
+    
+    /**
+     * <p>
+     * Rolls back the innermost nested transaction: the `MemCell`s owned
+     * before it get their tentative states back, the ones it took the
+     * ownership of are restored and released, its commutative updates are
+     * dropped, and its reads are forgotten unless asked otherwise.
+     * 
+     * @param keepReads
+     *            true to keep the reads for the enclosing transaction
+     */
+    private void abort(boolean keepReads) {
+        
+        this.depth--;
+        
+        int reads = this.scopes[4 * this.depth];
+        int writes = this.scopes[4 * this.depth + 1];
+        int undos = this.scopes[4 * this.depth + 2];
+        
+        this.transaction.dropDeferred(this.scopes[4 * this.depth + 3]);
+        
+        // newest first, so a `MemCell` ends up with its oldest saved state
+        for (int i = this.undoCount - 1; i >= undos; i--) {
+            
+            Cell cell = this.manager.cell(this.undoIds[i]);
+            
+            cell.state = this.undoStates[i];
+            cell.bits = this.undoBits[i];
+            
+            this.undoStates[i] = null;
+        }
+        
+        for (int i = writes; i < this.writeCount; i++) {
+            
+            this.manager.restore(this.writes[i]);
+            this.manager.releaseOwnership(this.writes[i], this.transaction);
+        }
+        
+        this.readCount = keepReads ? this.readCount : reads;
+        this.writeCount = writes;
+        this.undoCount = undos;
+        this.writeSet = null;
+    }
+    
+    /**
+     * <p>
+     * Saves the tentative state of a `MemCell` owned by the transaction
+     * before it is written, if a nested transaction is open and has not saved
+     * it yet.
+     * 
+     * @param cell
+     *            The cell of the `MemCell`
+     */
+    void beforeWrite(Cell cell) {
+        
+        if (0 == this.depth) {
+            
+            return;
+        }
+        
+        int id = cell.variable.getId();
+        
+        for (int i = this.scopes[4 * this.depth - 2]; i < this.undoCount; i++) {
+            
+            if (id == this.undoIds[i]) {
+                
+                return;
+            }
+        }
+        
+        for (int i = this.scopes[4 * this.depth - 3]; i < this.writeCount; i++) {
+            
+            if (id == this.writes[i]) {
+                
+                // owned by the nested transaction itself, it is restored to
+                // the committed state on an abort
+                return;
+            }
+        }
+        
+        if (this.undoCount == this.undoIds.length) {
+            
+            this.undoIds = Arrays.copyOf(this.undoIds, this.undoCount << 1);
+            this.undoStates = Arrays.copyOf(this.undoStates, this.undoCount << 1);
+            this.undoBits = Arrays.copyOf(this.undoBits, this.undoCount << 1);
+        }
+        
+        this.undoIds[this.undoCount] = id;
+        this.undoStates[this.undoCount] = cell.state;
+        this.undoBits[this.undoCount] = cell.bits;
+        this.undoCount++;
+    }
+    
+    /**
+     * <p>
+     * Forgets the accesses of the previous attempt.
+     */
+    void reset() {
+        
+        Arrays.fill(this.undoStates, 0, this.undoCount, null);
+        
+        this.readCount = 0;
+        this.writeCount = 0;
+        this.writeSet = null;
+        this.undoCount = 0;
+        this.depth = 0;
+    }
+    
+    /**
+     * <p>
+     * Records the read of a `MemCell`.
+     * 
+     * @param id
+     *            The id of the `MemCell`
+     * @param version
+     *            The version read, read before the state
+     */
+    void recordRead(int id, long version) {
+        
+        if (this.readCount == this.reads.length) {
+            
+            this.reads = Arrays.copyOf(this.reads, this.readCount << 1);
+            this.readVersions = Arrays.copyOf(this.readVersions, this.readCount << 1);
+        }
+        
+        this.reads[this.readCount] = id;
+        this.readVersions[this.readCount] = version;
+        this.readCount++;
+    }
+    
+    /**
+     * <p>
+     * Records the write of a `MemCell` whose ownership was just taken.
+     * 
+     * @param id
+     *            The id of the `MemCell`
+     */
+    void recordWrite(int id) {
+        
+        if (this.writeCount == this.writes.length) {
+            
+            this.writes = Arrays.copyOf(this.writes, this.writeCount << 1);
+        }
+        
+        this.writes[this.writeCount++] = id;
+        this.writeSet = null;
+    }
+    
+    /**
+     * <p>
+     * Gets all the `MemCell`s owned by the transaction in the current
+     * attempt.
+     * 
+     * @param declared
+     *            The declared writeSet members
+     * 
+     * @return The declared members followed by the written ones, must not be
+     *         modified
+     */
+    int[] writeSet(int[] declared) {
+        
+        if (0 == this.writeCount) {
+            
+            return declared;
+        }
+        
+        if (null == this.writeSet) {
+            
+            this.writeSet = Arrays.copyOf(declared, declared.length + this.writeCount);
+            
+            System.arraycopy(this.writes, 0, this.writeSet, declared.length, this.writeCount);
+        }
+        
+        return this.writeSet;
+    }
+}
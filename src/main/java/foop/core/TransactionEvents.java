@@ -0,0 +1,479 @@
+/**
+ * Project: Foops_1
+ * Package: foop.core
+ * File: TransactionEvents.java
+ * 
+ * @author sidmishraw
+ *         Last modified: Oct 19, 2026 12:41:26 PM
+ */
+package foop.core;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * <p>
+ * The Java Flight Recorder events of the lifecycle of a <i>Transaction</i>,
+ * from its begin to its commit, rollback or back off, so that the
+ * transactions show up in the recordings next to the rest of the
+ * application.
+ * 
+ * <p>
+ * The flight recorder API is only there from Java 9 on, so the event types
+ * are made at runtime with <code>jdk.jfr.EventFactory</code>, looked up
+ * reflectively. On a runtime without it, no event is ever recorded and the
+ * code compiles for Java 8 all the same.
+ * 
+ * <p>
+ * Each event type is checked with <code>EventType.isEnabled()</code> before an
+ * event is made, which is false unless a recording is running with the event
+ * enabled. Without a recording, a <i>Transaction</i> neither allocates the
+ * events nor reads the clock for them.
+ * 
+ * <br>
+ * <br>
+ * 
+ * Usage:
+ * 
+ * <pre>
+ * java -XX:StartFlightRecording:filename=stm.jfr ...
+ * jfr print --categories Foop stm.jfr
+ * </pre>
+ * 
+ * @author sidmishraw
+ *
+ *         Qualified Name: foop.core.TransactionEvents
+ * 
+ */
+final class TransactionEvents {
+    
+    /** logging stuff **/
+    private static final Logger       logger         = LoggerFactory.getLogger(TransactionEvents.class);
+    
+    /**
+     * <p>
+     * The indices of the fields common to the events of a <i>Transaction</i>,
+     * filled in by the <i>Transaction</i> when the event ends.
+     */
+    static final int                  DESCRIPTION    = 0;
+    static final int                  ATTEMPT        = 1;
+    static final int                  VERSION        = 2;
+    static final int                  READ_SET_SIZE  = 3;
+    static final int                  WRITE_SET_SIZE = 4;
+    
+    /**
+     * <p>
+     * The indices of the fields of the ownership, operation, commit and back
+     * off events.
+     */
+    static final int                  ACQUIRED       = 5;
+    static final int                  COMPLETED      = 5;
+    static final int                  COMMITTED      = 5;
+    static final int                  COMMIT_VERSION = 6;
+    static final int                  CAUSE          = 5;
+    
+    /**
+     * <p>
+     * The handles of the flight recorder API, all null if there is none.
+     */
+    private static final MethodHandle CREATE;
+    private static final MethodHandle ANNOTATION;
+    private static final MethodHandle VALUE;
+    private static final MethodHandle EVENT_TYPE;
+    private static final MethodHandle IS_ENABLED;
+    private static final MethodHandle NEW_EVENT;
+    private static final MethodHandle BEGIN_EVENT;
+    private static final MethodHandle SET;
+    private static final MethodHandle COMMIT_EVENT;
+    
+    private static final Class<?>     NAME;
+    private static final Class<?>     LABEL;
+    private static final Class<?>     DESCRIPTION_OF;
+    private static final Class<?>     CATEGORY;
+    private static final Class<?>     STACK_TRACE;
+    
+    static {
+        
+        MethodHandle[] handles = new MethodHandle[9];
+        Class<?>[] annotations = new Class<?>[5];
+        
+        try {
+            
+            MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+            
+            Class<?> factory = Class.forName("jdk.jfr.EventFactory");
+            Class<?> annotation = Class.forName("jdk.jfr.AnnotationElement");
+            Class<?> value = Class.forName("jdk.jfr.ValueDescriptor");
+            Class<?> type = Class.forName("jdk.jfr.EventType");
+            Class<?> event = Class.forName("jdk.jfr.Event");
+            
+            handles[0] = lookup.findStatic(factory, "create",
+                    MethodType.methodType(factory, List.class, List.class));
+            handles[1] = lookup.findConstructor(annotation,
+                    MethodType.methodType(void.class, Class.class, Object.class));
+            handles[2] = lookup.findConstructor(value,
+                    MethodType.methodType(void.class, Class.class, String.class, List.class));
+            handles[3] = lookup.findVirtual(factory, "getEventType", MethodType.methodType(type));
+            handles[4] = lookup.findVirtual(type, "isEnabled", MethodType.methodType(boolean.class));
+            handles[5] = lookup.findVirtual(factory, "newEvent", MethodType.methodType(event));
+            handles[6] = lookup.findVirtual(event, "begin", MethodType.methodType(void.class));
+            handles[7] = lookup.findVirtual(event, "set",
+                    MethodType.methodType(void.class, int.class, Object.class));
+            handles[8] = lookup.findVirtual(event, "commit", MethodType.methodType(void.class));
+            
+            annotations[0] = Class.forName("jdk.jfr.Name");
+            annotations[1] = Class.forName("jdk.jfr.Label");
+            annotations[2] = Class.forName("jdk.jfr.Description");
+            annotations[3] = Class.forName("jdk.jfr.Category");
+            annotations[4] = Class.forName("jdk.jfr.StackTrace");
+        } catch (ReflectiveOperationException | RuntimeException | LinkageError e) {
+            
+            logger.debug("The flight recorder is not available, the transaction events are not recorded");
+            
+            Arrays.fill(handles, null);
+            Arrays.fill(annotations, null);
+        }
+        
+        CREATE = handles[0];
+        ANNOTATION = handles[1];
+        VALUE = handles[2];
+        EVENT_TYPE = handles[3];
+        IS_ENABLED = handles[4];
+        NEW_EVENT = handles[5];
+        BEGIN_EVENT = handles[6];
+        SET = handles[7];
+        COMMIT_EVENT = handles[8];
+        
+        NAME = annotations[0];
+        LABEL = annotations[1];
+        DESCRIPTION_OF = annotations[2];
+        CATEGORY = annotations[3];
+        STACK_TRACE = annotations[4];
+    }
+    
+    private static final Type BEGIN     = new Type("foop.TransactionBegin", "Transaction Begin",
+            "An attempt of a transaction begins");
+    
+    private static final Type OWNERSHIP = new Type("foop.TransactionOwnership", "Transaction Ownership",
+            "An attempt takes the ownership of its writeSet members",
+            field(boolean.class, "acquired", "Acquired", null));
+    
+    private static final Type BACKUP    = new Type("foop.TransactionBackup", "Transaction Backup",
+            "An attempt backs up the versions of its readSet members");
+    
+    private static final Type OPERATION = new Type("foop.TransactionOperation", "Transaction Operation",
+            "An attempt runs the operation of the transaction",
+            field(boolean.class, "completed", "Completed",
+                    "false if the operation reported a failure, threw or was aborted"));
+    
+    private static final Type COMMIT    = new Type("foop.TransactionCommit", "Transaction Commit",
+            "An attempt validates its reads and publishes its writes",
+            field(boolean.class, "committed", "Committed", "false if the validation of the reads failed"),
+            field(long.class, "commitVersion", "Commit Version",
+                    "The version the writes were published with, 0 if there were none"));
+    
+    private static final Type ROLLBACK  = new Type("foop.TransactionRollback", "Transaction Rollback",
+            "An attempt discards its writes and gives up its ownerships");
+    
+    private static final Type BACKOFF   = new Type("foop.TransactionBackoff", "Transaction Backoff",
+            "A transaction waits before its next attempt", field(String.class, "cause", "Cause", null));
+    
+    private TransactionEvents() {
+    }
+    
+    /**
+     * <p>
+     * Starts a begin event, if recorded.
+     * 
+     * @return The event, null if it is not recorded
+     */
+    static Event begin() {
+        
+        return BEGIN.start();
+    }
+    
+    /**
+     * <p>
+     * Starts an ownership event, if recorded.
+     * 
+     * @return The event, null if it is not recorded
+     */
+    static Event ownership() {
+        
+        return OWNERSHIP.start();
+    }
+    
+    /**
+     * <p>
+     * Starts a backup event, if recorded.
+     * 
+     * @return The event, null if it is not recorded
+     */
+    static Event backup() {
+        
+        return BACKUP.start();
+    }
+    
+    /**
+     * <p>
+     * Starts an operation event, if recorded.
+     * 
+     * @return The event, null if it is not recorded
+     */
+    static Event operation() {
+        
+        return OPERATION.start();
+    }
+    
+    /**
+     * <p>
+     * Starts a commit event, if recorded.
+     * 
+     * @return The event, null if it is not recorded
+     */
+    static Event commit() {
+        
+        return COMMIT.start();
+    }
+    
+    /**
+     * <p>
+     * Starts a rollback event, if recorded.
+     * 
+     * @return The event, null if it is not recorded
+     */
+    static Event rollback() {
+        
+        return ROLLBACK.start();
+    }
+    
+    /**
+     * <p>
+     * Starts a back off event, if recorded.
+     * 
+     * @return The event, null if it is not recorded
+     */
+    static Event backoff() {
+        
+        return BACKOFF.start();
+    }
+    
+    /**
+     * <p>
+     * Describes a field of an event type.
+     * 
+     * @param type
+     *            The type of the field, a primitive type or String
+     * @param name
+     *            The name of the field
+     * @param label
+     *            The label of the field
+     * @param description
+     *            The description of the field, null for none
+     * 
+     * @return The <code>jdk.jfr.ValueDescriptor</code> of the field, null if
+     *         there is no flight recorder
+     */
+    private static Object field(Class<?> type, String name, String label, String description) {
+        
+        if (null == VALUE) {
+            
+            return null;
+        }
+        
+        try {
+            
+            List<Object> annotations = new ArrayList<>();
+            
+            annotations.add(ANNOTATION.invoke(LABEL, label));
+            
+            if (null != description) {
+                
+                annotations.add(ANNOTATION.invoke(DESCRIPTION_OF, description));
+            }
+            
+            return VALUE.invoke(type, name, annotations);
+        } catch (Throwable e) {
+            
+            throw new IllegalStateException("Failed to describe the field " + name, e);
+        }
+    }
+    
+    /**
+     * <p>
+     * An event type of the lifecycle of a <i>Transaction</i>, made at runtime.
+     * 
+     * @author sidmishraw
+     *
+     *         Qualified Name: foop.core.TransactionEvents.Type
+     * 
+     */
+    private static final class Type {
+        
+        /**
+         * <p>
+         * The <code>jdk.jfr.EventFactory</code> and the
+         * <code>jdk.jfr.EventType</code> of the events, null if there is no
+         * flight recorder.
+         */
+        private final Object factory;
+        private final Object eventType;
+        
+        /**
+         * <p>
+         * Makes the event type with the fields common to all the events of a
+         * <i>Transaction</i> followed by its own ones.
+         * 
+         * @param name
+         *            The name of the event type
+         * @param label
+         *            The label of the event type
+         * @param description
+         *            The description of the event type
+         * @param fields
+         *            The own fields of the event type, see
+         *            {@link TransactionEvents#field(Class, String, String, String)}
+         */
+        Type(String name, String label, String description, Object... fields) {
+            
+            Object factory = null;
+            Object eventType = null;
+            
+            if (null != CREATE) {
+                
+                try {
+                    
+                    List<Object> annotations = new ArrayList<>();
+                    
+                    annotations.add(ANNOTATION.invoke(NAME, name));
+                    annotations.add(ANNOTATION.invoke(LABEL, label));
+                    annotations.add(ANNOTATION.invoke(DESCRIPTION_OF, description));
+                    annotations.add(ANNOTATION.invoke(CATEGORY, new String[] { "Foop", "Transaction" }));
+                    annotations.add(ANNOTATION.invoke(STACK_TRACE, false));
+                    
+                    List<Object> values = new ArrayList<>();
+                    
+                    values.add(field(String.class, "description", "Description", null));
+                    values.add(field(int.class, "attempt", "Attempt",
+                            "The number of attempts of the transaction before this one"));
+                    values.add(field(int.class, "version", "Version",
+                            "The version of the transaction, in the order the transactions were made"));
+                    values.add(field(int.class, "readSetSize", "Read Set Size",
+                            "The declared readSet members and the MemCells read so far"));
+                    values.add(field(int.class, "writeSetSize", "Write Set Size",
+                            "The MemCells owned, or to be owned, by the attempt"));
+                    values.addAll(Arrays.asList(fields));
+                    
+                    factory = CREATE.invoke(annotations, values);
+                    eventType = EVENT_TYPE.invoke(factory);
+                } catch (Throwable e) {
+                    
+                    logger.warn("Failed to make the flight recorder event {}, it is not recorded", name, e);
+                    
+                    factory = null;
+                    eventType = null;
+                }
+            }
+            
+            this.factory = factory;
+            this.eventType = eventType;
+        }
+        
+        /**
+         * <p>
+         * Starts an event of the type, if recorded.
+         * 
+         * @return The event, null if it is not recorded
+         */
+        Event start() {
+            
+            if (null == this.eventType) {
+                
+                return null;
+            }
+            
+            try {
+                
+                if (!(boolean) IS_ENABLED.invoke(this.eventType)) {
+                    
+                    return null;
+                }
+                
+                Object event = NEW_EVENT.invoke(this.factory);
+                
+                BEGIN_EVENT.invoke(event);
+                
+                return new Event(event);
+            } catch (Throwable e) {
+                
+                throw new IllegalStateException("Failed to start a flight recorder event", e);
+            }
+        }
+    }
+    
+    /**
+     * <p>
+     * A started event of the lifecycle of a <i>Transaction</i>.
+     * 
+     * @author sidmishraw
+     *
+     *         Qualified Name: foop.core.TransactionEvents.Event
+     * 
+     */
+    static final class Event {
+        
+        /**
+         * <p>
+         * The <code>jdk.jfr.Event</code>
+         */
+        private final Object event;
+        
+        private Event(Object event) {
+            
+            this.event = event;
+        }
+        
+        /**
+         * <p>
+         * Sets a field of the event.
+         * 
+         * @param index
+         *            The index of the field, one of the constants of
+         *            <i>TransactionEvents</i>
+         * @param value
+         *            The value of the field
+         */
+        void set(int index, Object value) {
+            
+            try {
+                
+                SET.invoke(this.event, index, value);
+            } catch (Throwable e) {
+                
+                throw new IllegalStateException("Failed to set a field of a flight recorder event", e);
+            }
+        }
+        
+        /**
+         * <p>
+         * Ends the event and commits it to the recording.
+         */
+        void commit() {
+            
+            try {
+                
+                COMMIT_EVENT.invoke(this.event);
+            } catch (Throwable e) {
+                
+                throw new IllegalStateException("Failed to commit a flight recorder event", e);
+            }
+        }
+    }
+}
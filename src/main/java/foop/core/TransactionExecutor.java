@@ -0,0 +1,435 @@
+/**
+ * Project: Foops_1
+ * Package: foop.core
+ * File: TransactionExecutor.java
+ * 
+ * @author sidmishraw
+ *         Last modified: Oct 18, 2026 11:26:40 AM
+ */
+package foop.core;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * <p>
+ * The <i>TransactionExecutor</i> runs <i>Transaction</i>s on a pool of
+ * threads instead of starting a new thread for each of them.
+ * 
+ * <br>
+ * <br>
+ * 
+ * A <i>Transaction</i> is a `Runnable` unit of work, the threads of the pool
+ * run it and no `Thread` is made for it. Only the legacy thread per
+ * transaction mode starts a new thread for each of them.
+ * 
+ * <br>
+ * <br>
+ * 
+ * Usage:
+ * 
+ * <pre>
+ * TransactionExecutor executor = TransactionExecutor.fixedPool(8);
+ * 
+ * Future&lt;Record&gt; handle = executor.submit(transactions.newTransaction("t1", manager)
+ *         .addWriteSetMembers("a", "b")
+ *         .addTransactionOperation(() -&gt; ...)
+ *         .get());
+ * 
+ * handle.get(); // waits for the transaction to complete
+ * </pre>
+ * 
+ * The transactions can also be submitted without blocking any thread on
+ * their outcomes, the futures compose:
+ * 
+ * <pre>
+ * executor.submitAsync(debit)
+ *         .thenCompose(debited -&gt; debited.isCommitted() ? executor.submitAsync(credit) : failed)
+ *         .thenAccept(credited -&gt; ...);
+ * </pre>
+ * 
+ * @author sidmishraw
+ *
+ *         Qualified Name: foop.core.TransactionExecutor
+ * 
+ */
+public class TransactionExecutor implements AutoCloseable {
+    
+    /** logging stuff **/
+    private static final Logger   logger = LoggerFactory.getLogger(TransactionExecutor.class);
+    /** logging stuff **/
+    
+    /**
+     * <p>
+     * The pool that runs the transactions, it is null in the legacy thread per
+     * transaction mode.
+     */
+    private final ExecutorService executor;
+    
+    /**
+     * <p>
+     * Makes an executor that runs the transactions on the given pool.
+     * 
+     * @param executor
+     *            The pool, null for the legacy thread per transaction mode
+     */
+    private TransactionExecutor(ExecutorService executor) {
+        
+        this.executor = executor;
+    }
+    
+    /**
+     * <p>
+     * Makes an executor backed by a fixed pool of threads.
+     * 
+     * @param threads
+     *            The number of threads in the pool
+     * 
+     * @return The executor
+     */
+    public static TransactionExecutor fixedPool(int threads) {
+        
+        return new TransactionExecutor(Executors.newFixedThreadPool(threads));
+    }
+    
+    /**
+     * <p>
+     * Makes an executor backed by a fork-join pool.
+     * 
+     * @param parallelism
+     *            The parallelism level of the pool
+     * 
+     * @return The executor
+     */
+    public static TransactionExecutor forkJoinPool(int parallelism) {
+        
+        return new TransactionExecutor(new ForkJoinPool(parallelism));
+    }
+    
+    /**
+     * <p>
+     * Makes an executor that runs each transaction on its own virtual thread.
+     * Virtual threads are only available on newer JDKs, on older ones this
+     * falls back to a fork-join pool with one thread per available processor.
+     * 
+     * @return The executor
+     */
+    public static TransactionExecutor virtualThreads() {
+        
+        try {
+            
+            // looked up reflectively so that the project still builds on
+            // JDKs without virtual threads
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            
+            return new TransactionExecutor((ExecutorService) factory.invoke(null));
+        } catch (ReflectiveOperationException e) {
+            
+            logger.warn("Virtual threads are not supported by this JDK, falling back to a fork-join pool");
+            
+            return forkJoinPool(Runtime.getRuntime().availableProcessors());
+        }
+    }
+    
+    /**
+     * <p>
+     * Makes an executor that runs the transactions on the given pool. The
+     * pool is shutdown along with the executor.
+     * 
+     * @param executor
+     *            The pool
+     * 
+     * @return The executor
+     */
+    public static TransactionExecutor of(ExecutorService executor) {
+        
+        return new TransactionExecutor(executor);
+    }
+    
+    /**
+     * <p>
+     * Makes an executor in the legacy mode, i.e. each transaction is started
+     * as a thread of its own.
+     * 
+     * @return The executor
+     */
+    public static TransactionExecutor threadPerTransaction() {
+        
+        return new TransactionExecutor(null);
+    }
+    
+    /**
+     * <p>
+     * Submits the transaction for execution.
+     * 
+     * @param transaction
+     *            The transaction
+     * 
+     * @return The handle of the transaction, it completes with the
+     *         transaction's record once the transaction completes
+     */
+    public Future<Record> submit(Transaction transaction) {
+        
+        if (null == this.executor) {
+            
+            transaction.start();
+            
+            return new ThreadHandle(transaction);
+        }
+        
+        return this.executor.submit(transaction, transaction.getRecord());
+    }
+    
+    /**
+     * <p>
+     * Submits the transaction for execution, its outcome is handed to the
+     * returned future instead of a thread waiting for it.
+     * 
+     * <p>
+     * The future completes on the thread that ran the transaction, so the
+     * dependent stages without an executor of their own run there too. A
+     * transaction submitted from a dependent stage needs a <i>Transactions</i>
+     * builder of its own, since the builders are not thread safe. The future
+     * completes exceptionally if the operation throws, the changes of the
+     * transaction are rolled back then.
+     * 
+     * @param transaction
+     *            The transaction, see
+     *            {@link Transaction#setValueOperation(Transaction.ValueOperation)}
+     * 
+     * @return The future of the outcome of the transaction, with the result of
+     *         its operation
+     */
+    public <T> CompletableFuture<TransactionResult<T>> submitAsync(ValueTransaction<T> transaction) {
+        
+        return this.submitAsync(transaction.getTransaction(), () -> TransactionResult.of(transaction));
+    }
+    
+    /**
+     * <p>
+     * Submits the transaction for execution, its outcome is handed to the
+     * returned future instead of a thread waiting for it, see
+     * {@link #submitAsync(ValueTransaction)}.
+     * 
+     * @param transaction
+     *            The transaction
+     * 
+     * @return The future of the outcome of the transaction, the result of a
+     *         transaction without a <i>ValueOperation</i> has no value
+     */
+    public CompletableFuture<TransactionResult<Void>> submitAsync(Transaction transaction) {
+        
+        return this.submitAsync(transaction, () -> TransactionResult.of(transaction));
+    }
+    
+    /**
+     * <p>
+     * Runs the transaction on the pool, and completes the future with its
+     * outcome.
+     * 
+     * @param transaction
+     *            The transaction
+     * @param result
+     *            Makes the outcome of the completed transaction
+     * 
+     * @return The future of the outcome of the transaction
+     */
+    private <T> CompletableFuture<TransactionResult<T>> submitAsync(Transaction transaction,
+            Supplier<TransactionResult<T>> result) {
+        
+        CompletableFuture<TransactionResult<T>> future = new CompletableFuture<>();
+        
+        Runnable task = () -> {
+            
+            try {
+                
+                transaction.run();
+                
+                future.complete(result.get());
+            } catch (RuntimeException | Error e) {
+                
+                future.completeExceptionally(e);
+            }
+        };
+        
+        if (null == this.executor) {
+            
+            new Thread(task, transaction.getName()).start();
+        } else {
+            
+            this.executor.execute(task);
+        }
+        
+        return future;
+    }
+    
+    /**
+     * <p>
+     * Submits all the transactions for execution.
+     * 
+     * @param transactions
+     *            The transactions
+     * 
+     * @return The handles of the transactions in the same order
+     */
+    public List<Future<Record>> submitAll(Collection<Transaction> transactions) {
+        
+        List<Future<Record>> handles = new ArrayList<>(transactions.size());
+        
+        for (Transaction transaction : transactions) {
+            
+            handles.add(this.submit(transaction));
+        }
+        
+        return handles;
+    }
+    
+    /**
+     * <p>
+     * Submits the transactions for execution as a single
+     * <i>TransactionBatch</i>, they are committed in grouped passes by one
+     * thread of the pool.
+     * 
+     * @param transactions
+     *            The transactions, all running against the same
+     *            <i>StateManager</i>
+     * 
+     * @return The handle of the batch, it completes with the records of the
+     *         transactions in the same order once all of them complete
+     */
+    public Future<List<Record>> submitBatch(Collection<Transaction> transactions) {
+        
+        TransactionBatch batch = new TransactionBatch(transactions);
+        
+        if (null == this.executor) {
+            
+            FutureTask<List<Record>> task = new FutureTask<>(batch::run);
+            
+            new Thread(task).start();
+            
+            return task;
+        }
+        
+        return this.executor.submit(batch::run);
+    }
+    
+    /**
+     * <p>
+     * Stops accepting new transactions, the submitted ones still run to
+     * completion.
+     */
+    public void shutdown() {
+        
+        if (null != this.executor) {
+            
+            this.executor.shutdown();
+        }
+    }
+    
+    /**
+     * <p>
+     * Waits for the submitted transactions to complete after a shutdown.
+     * 
+     * @param timeout
+     *            The maximum time to wait
+     * @param unit
+     *            The unit of the timeout
+     * 
+     * @return true if all the transactions completed, false if the timeout
+     *         elapsed first
+     * 
+     * @throws InterruptedException
+     *             if interrupted while waiting
+     */
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        
+        return null == this.executor || this.executor.awaitTermination(timeout, unit);
+    }
+    
+    /*
+     * (non-Javadoc)
+     * 
+     * @see java.lang.AutoCloseable#close()
+     */
+    @Override
+    public void close() {
+        
+        this.shutdown();
+    }
+    
+    /**
+     * <p>
+     * The handle of a transaction started as a thread of its own, completion
+     * means the thread has terminated.
+     * 
+     * @author sidmishraw
+     *
+     *         Qualified Name: foop.core.TransactionExecutor.ThreadHandle
+     * 
+     */
+    private static final class ThreadHandle implements Future<Record> {
+        
+        private final Transaction transaction;
+        
+        private ThreadHandle(Transaction transaction) {
+            
+            this.transaction = transaction;
+        }
+        
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            
+            // transactions cannot be cancelled once started
+            return false;
+        }
+        
+        @Override
+        public boolean isCancelled() {
+            
+            return false;
+        }
+        
+        @Override
+        public boolean isDone() {
+            
+            return !this.transaction.isAlive();
+        }
+        
+        @Override
+        public Record get() throws InterruptedException, ExecutionException {
+            
+            this.transaction.join();
+            
+            return this.transaction.getRecord();
+        }
+        
+        @Override
+        public Record get(long timeout, TimeUnit unit)
+                throws InterruptedException, ExecutionException, TimeoutException {
+            
+            this.transaction.join(Math.max(1L, unit.toMillis(timeout)));
+            
+            if (this.transaction.isAlive()) {
+                
+                throw new TimeoutException();
+            }
+            
+            return this.transaction.getRecord();
+        }
+    }
+}
@@ -0,0 +1,109 @@
+/**
+ * Project: Foops_1
+ * Package: foop.core
+ * File: TransactionResult.java
+ * 
+ * @author sidmishraw
+ *         Last modified: Oct 19, 2026 1:12:26 AM
+ */
+package foop.core;
+
+import lombok.Getter;
+
+/**
+ * <p>
+ * A <i>TransactionResult</i> is the outcome of a completed
+ * <i>Transaction</i>, as handed back by
+ * {@link TransactionExecutor#submitAsync(ValueTransaction)} and
+ * {@link TransactionExecutor#submitAsync(Transaction)}.
+ * 
+ * <p>
+ * Contents of the result are as follows:
+ * <ul>
+ * <li><b> value </b>: The result of the <i>ValueOperation</i> of the
+ * committed attempt, null if the transaction did not commit. Always null for
+ * the transactions without a <i>ValueOperation</i>, typed <i>Void</i>.
+ * 
+ * <li><b> committed </b>: true if the transaction committed, false if it
+ * bailed out because of its faulty operational logic.
+ * 
+ * <li><b> retries </b>: The number of times the transaction was retried.
+ * </ul>
+ * 
+ * @author sidmishraw
+ *
+ *         Qualified Name: foop.core.TransactionResult
+ * 
+ * @param <T>
+ *            The type of the value
+ */
+public final class TransactionResult<T> {
+    
+    private final @Getter T       value;
+    private final @Getter boolean committed;
+    private final @Getter int     retries;
+    
+    /**
+     * <p>
+     * Makes the result.
+     * 
+     * @param value
+     *            The result of the operation
+     * @param committed
+     *            true if the transaction committed
+     * @param retries
+     *            The number of retries
+     */
+    TransactionResult(T value, boolean committed, int retries) {
+        
+        this.value = value;
+        this.committed = committed;
+        this.retries = retries;
+    }
+    
+    /**
+     * <p>
+     * Makes the result of the completed transaction.
+     * 
+     * @param transaction
+     *            The transaction
+     * 
+     * @return Its result
+     */
+    static <T> TransactionResult<T> of(ValueTransaction<T> transaction) {
+        
+        Record record = transaction.getTransaction().getRecord();
+        
+        return new TransactionResult<>(record.isCommitted() ? transaction.getValue() : null, record.isCommitted(),
+                record.getRetries());
+    }
+    
+    /**
+     * <p>
+     * Makes the result of the completed transaction without a
+     * <i>ValueOperation</i>.
+     * 
+     * @param transaction
+     *            The transaction
+     * 
+     * @return Its result
+     */
+    static TransactionResult<Void> of(Transaction transaction) {
+        
+        Record record = transaction.getRecord();
+        
+        return new TransactionResult<>(null, record.isCommitted(), record.getRetries());
+    }
+    
+    /*
+     * (non-Javadoc)
+     * 
+     * @see java.lang.Object#toString()
+     */
+    @Override
+    public String toString() {
+        
+        return "TransactionResult [value=" + this.value + ", committed=" + this.committed + ", retries="
+                + this.retries + "]";
+    }
+}
@@ -0,0 +1,85 @@
+/**
+ * Project: Foops_1
+ * Package: foop.core
+ * File: TypedVariable.java
+ * 
+ * @author sidmishraw
+ *         Last modified: Oct 18, 2026 8:31:12 PM
+ */
+package foop.core;
+
+import lombok.Getter;
+
+/**
+ * <p>
+ * A <i>TypedVariable</i> is a typed handle of a `MemCell`, it reads and
+ * writes the `MemCell` directly instead of going through the <i>State</i>
+ * based API of the <i>StateManager</i>. The reads and writes follow the same
+ * rules: from the <i>Transaction</i> owning the `MemCell` they are tentative,
+ * from a read-only <i>Transaction</i> they see its snapshot, from anywhere
+ * else they see and commit right away the last committed value.
+ * 
+ * <p>
+ * The handle is bound to the `MemCell` of the given name, making it if needed
+ * and keeping its value otherwise, e.g. the value recovered from a
+ * write-ahead log. The <i>Variable</i> of the handle is what goes into the
+ * readSets and writeSets of the transactions.
+ * 
+ * @author sidmishraw
+ *
+ *         Qualified Name: foop.core.TypedVariable
+ * 
+ */
+public abstract class TypedVariable {
+    
+    /**
+     * <p>
+     * The manager of the `MemCell`.
+     */
+    final StateManager             manager;
+    
+    /**
+     * <p>
+     * The cell of the `MemCell`.
+     */
+    final Cell                     cell;
+    
+    /**
+     * <p>
+     * The <i>Variable</i> of the `MemCell`.
+     */
+    private final @Getter Variable variable;
+    
+    /**
+     * <p>
+     * Binds the handle to the `MemCell` of the given name.
+     * 
+     * @param manager
+     *            The manager of the `MemCell`
+     * @param variableName
+     *            The name of the `MemCell`
+     * @param type
+     *            The primitive type of the `MemCell`, null for a `MemCell`
+     *            holding <i>State</i>s
+     * 
+     * @throws IllegalArgumentException
+     *             if the `MemCell` is already of another type
+     */
+    TypedVariable(StateManager manager, String variableName, PrimitiveState.Type type) {
+        
+        this.manager = manager;
+        this.cell = manager.typedCell(variableName, type);
+        this.variable = this.cell.variable;
+    }
+    
+    /*
+     * (non-Javadoc)
+     * 
+     * @see java.lang.Object#toString()
+     */
+    @Override
+    public String toString() {
+        
+        return this.variable.getName() + "=" + this.manager.readState(this.cell);
+    }
+}
@@ -0,0 +1,101 @@
+/**
+ * Project: Foops_1
+ * Package: foop.core
+ * File: ValueTransaction.java
+ * 
+ * @author sidmishraw
+ *         Last modified: Oct 19, 2026 3:05:44 PM
+ */
+package foop.core;
+
+import java.util.concurrent.CompletableFuture;
+
+import lombok.Getter;
+
+/**
+ * <p>
+ * A <i>ValueTransaction</i> is the handle of a <i>Transaction</i> whose
+ * operation computes a result, typed after its <i>ValueOperation</i>. The
+ * future of its outcome is typed the same, so the type of the result is
+ * checked at compile time.
+ * 
+ * <br>
+ * <br>
+ * 
+ * Usage:
+ * 
+ * <pre>
+ * CompletableFuture&lt;TransactionResult&lt;Long&gt;&gt; hits = transactions.newTransaction("hit", manager)
+ *         .addValueOperation(context -&gt; counter.add(1L))
+ *         .submitAsync(executor);
+ * </pre>
+ * 
+ * @author sidmishraw
+ *
+ *         Qualified Name: foop.core.ValueTransaction
+ * 
+ * @param <T>
+ *            The type of the result
+ */
+public final class ValueTransaction<T> {
+    
+    /**
+     * <p>
+     * The transaction running the operation.
+     */
+    private final @Getter Transaction transaction;
+    
+    /**
+     * <p>
+     * The result of the last attempt, the one of the committed attempt once
+     * the transaction completes.
+     */
+    private volatile T                value;
+    
+    /**
+     * <p>
+     * Makes the operation the one of the transaction.
+     * 
+     * @param transaction
+     *            The transaction, its <i>StateManager</i> must be set
+     * @param operation
+     *            The operation computing the result
+     */
+    ValueTransaction(Transaction transaction, Transaction.ValueOperation<T> operation) {
+        
+        this.transaction = transaction;
+        
+        transaction.setContextOperation(context -> {
+            
+            this.value = operation.apply(context);
+            
+            return true;
+        });
+    }
+    
+    /**
+     * <p>
+     * Gets the result of the operation.
+     * 
+     * @return The result of the last attempt, null if it has not run yet
+     */
+    T getValue() {
+        
+        return this.value;
+    }
+    
+    /**
+     * <p>
+     * Submits the transaction to the executor without blocking, see
+     * {@link TransactionExecutor#submitAsync(ValueTransaction)}.
+     * 
+     * @param executor
+     *            The executor that runs the transaction
+     * 
+     * @return The future of the outcome of the transaction
+     */
+    public CompletableFuture<TransactionResult<T>> submitAsync(TransactionExecutor executor) {
+        
+        return executor.submitAsync(this);
+    }
+}
@@ -9,6 +9,7 @@
 package foop.core;
 
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
@@ -51,10 +52,14 @@ import lombok.Getter;
  */
 public class Variable {
     
-    // TODO :: Implement a proper id for Variables -- later
-    // not thought out completely yet, might add an identifier field
-    // in the future when polishing the model
-    // private int id;
+    /**
+     * <p>
+     * The dense identifier of the <i>Variable</i>, it is the index of its
+     * `MemCell` in the <i>StateManager</i> that made it. It is -1 for the
+     * <i>Variable</i>s not made by a <i>StateManager</i>, those are looked up
+     * by their names.
+     */
+    private @Getter int         id;
     
     private @Getter String      name;
     
@@ -71,6 +76,7 @@ public class Variable {
      */
     public Variable(String name) {
         
+        this.id = -1;
         this.name = name;
         this.immutableProperties = new HashMap<>();
     }
@@ -85,14 +91,32 @@ public class Variable {
      *            immutable part of the `MemCell`
      */
     @SafeVarargs
+    @SuppressWarnings("varargs")
     public Variable(String name, Map.Entry<String, Object>... immutableProperties) {
         
+        this(-1, name, Arrays.asList(immutableProperties));
+    }
+    
+    /**
+     * Makes the `<i>Variable</i>` with its identifier, used by the
+     * <i>StateManager</i>.
+     * 
+     * @param id
+     *            The index of the `MemCell` in the <i>StateManager</i>
+     * @param name
+     *            The name of the `<i>Variable</i>`
+     * @param immutableProperties
+     *            The properties of the <i>Variable</i> that can make into the
+     *            immutable part of the `MemCell`
+     */
+    Variable(int id, String name, Collection<Map.Entry<String, Object>> immutableProperties) {
+        
+        this.id = id;
         this.name = name;
         this.immutableProperties = new HashMap<>();
         
         // add the properties into the properties of the Value
-        Arrays.asList(immutableProperties)
-                .forEach(prop -> this.immutableProperties.put(prop.getKey(), prop.getValue()));
+        immutableProperties.forEach(prop -> this.immutableProperties.put(prop.getKey(), prop.getValue()));
     }
     
     /**
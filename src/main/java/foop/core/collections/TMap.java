@@ -0,0 +1,470 @@
+/**
+ * Project: Foops_1
+ * Package: foop.core.collections
+ * File: TMap.java
+ * 
+ * @author sidmishraw
+ *         Last modified: Oct 18, 2026 9:14:37 PM
+ */
+package foop.core.collections;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.BiConsumer;
+import java.util.stream.IntStream;
+
+import foop.core.State;
+import foop.core.StateManager;
+import foop.core.TRef;
+import foop.core.Variable;
+import lombok.Getter;
+
+/**
+ * <p>
+ * A <i>TMap</i> is a transactional hash map spread over a fixed number of
+ * bucket `MemCell`s. Each bucket holds an immutable array of the entries whose
+ * keys hash to it, a write copies the array of its bucket only.
+ * 
+ * <br>
+ * <br>
+ * 
+ * Since the conflicts are detected per `MemCell`, the transactions over keys
+ * of different buckets never conflict with each other. A <i>Transaction</i>
+ * writing the map must have the buckets of its keys in its writeSet, the ones
+ * only reading it can have them in their readSets. Reading the whole map, e.g.
+ * its size, reads all the buckets, which is best done from a read-only
+ * <i>Transaction</i>.
+ * 
+ * <br>
+ * <br>
+ * 
+ * Usage:
+ * 
+ * <pre>
+ * TMap&lt;String, Long&gt; balances = new TMap&lt;&gt;(manager, "balances");
+ * 
+ * transactions.newTransaction("open", manager)
+ *         .addWriteSetMembers(balances.variablesOf("alice", "bob"))
+ *         .addTransactionOperation(() -&gt; {
+ * 
+ *             balances.put("alice", 100L);
+ *             balances.put("bob", 100L);
+ * 
+ *             return true;
+ *         })
+ *         .get();
+ * </pre>
+ * 
+ * The number of buckets is fixed when the map is first bound, the map never
+ * resizes since the buckets of the keys are declared up front by the
+ * transactions. It is the sizing parameter of the map: the more buckets, the
+ * fewer conflicts between the writers and the shorter the arrays each write
+ * copies. A map expected to hold n entries is best bound with about n / 8
+ * buckets or more.
+ * 
+ * <br>
+ * <br>
+ * 
+ * The keys and values are held as they are, so they must be immutable, and
+ * `Serializable` for a write-ahead log or a checkpoint with the
+ * <i>SerializableStateCodec</i>. The keys must not be null.
+ * 
+ * @author sidmishraw
+ *
+ *         Qualified Name: foop.core.collections.TMap
+ * 
+ * @param <K>
+ *            The type of the keys
+ * @param <V>
+ *            The type of the values
+ */
+public final class TMap<K, V> {
+    
+    /**
+     * <p>
+     * The default number of buckets.
+     */
+    public static final int          DEFAULT_BUCKETS = 64;
+    
+    /**
+     * <p>
+     * The buckets, their number is a power of 2.
+     */
+    private final List<TRef<Bucket>> buckets;
+    
+    /**
+     * <p>
+     * The <i>Variable</i>s of the buckets.
+     */
+    private final @Getter Variable[] variables;
+    
+    /**
+     * <p>
+     * Binds the map to the bucket `MemCell`s of the given name, with the
+     * default number of buckets.
+     * 
+     * @param manager
+     *            The manager of the `MemCell`s
+     * @param name
+     *            The name of the map, the buckets are named after it
+     */
+    public TMap(StateManager manager, String name) {
+        
+        this(manager, name, DEFAULT_BUCKETS);
+    }
+    
+    /**
+     * <p>
+     * Binds the map to the bucket `MemCell`s of the given name, making them
+     * if needed and keeping their entries otherwise.
+     * 
+     * @param manager
+     *            The manager of the `MemCell`s
+     * @param name
+     *            The name of the map, the buckets are named after it
+     * @param buckets
+     *            The number of buckets, rounded up to a power of 2. It must be
+     *            the same every time the map is bound to the same name, the
+     *            map never resizes
+     * 
+     * @throws IllegalArgumentException
+     *             if the number of buckets is not positive
+     */
+    public TMap(StateManager manager, String name, int buckets) {
+        
+        if (buckets < 1) {
+            
+            throw new IllegalArgumentException("The number of buckets must be positive: " + buckets);
+        }
+        
+        int count = Integer.highestOneBit(buckets);
+        
+        count = count < buckets ? count << 1 : count;
+        
+        this.buckets = new ArrayList<>(count);
+        this.variables = new Variable[count];
+        
+        for (int i = 0; i < count; i++) {
+            
+            this.buckets.add(new TRef<>(manager, name + "#" + i));
+            this.variables[i] = this.buckets.get(i).getVariable();
+        }
+    }
+    
+    /**
+     * <p>
+     * Gets the <i>Variable</i> of the bucket of the key, the one to put in
+     * the readSet or the writeSet of a <i>Transaction</i> using the key.
+     * 
+     * @param key
+     *            The key
+     * 
+     * @return The <i>Variable</i> of its bucket
+     */
+    public Variable variableOf(K key) {
+        
+        return this.variables[this.indexOf(key)];
+    }
+    
+    /**
+     * <p>
+     * Gets the <i>Variable</i>s of the buckets of the keys, see
+     * {@link #variableOf(Object)}.
+     * 
+     * @param keys
+     *            The keys
+     * 
+     * @return The <i>Variable</i>s of their buckets, without duplicates
+     */
+    @SafeVarargs
+    public final Variable[] variablesOf(K... keys) {
+        
+        return this.variablesAt(IntStream.range(0, keys.length).map(i -> this.indexOf(keys[i])));
+    }
+    
+    /**
+     * <p>
+     * Gets the <i>Variable</i>s of the buckets of the keys, see
+     * {@link #variableOf(Object)}.
+     * 
+     * @param keys
+     *            The keys
+     * 
+     * @return The <i>Variable</i>s of their buckets, without duplicates
+     */
+    public Variable[] variablesOf(Collection<? extends K> keys) {
+        
+        return this.variablesAt(keys.stream().mapToInt(this::indexOf));
+    }
+    
+    /**
+     * <p>
+     * Gets the value of the key.
+     * 
+     * @param key
+     *            The key
+     * 
+     * @return The value, null if the map has no entry for the key
+     */
+    @SuppressWarnings("unchecked")
+    public V get(K key) {
+        
+        Bucket bucket = this.buckets.get(this.indexOf(key)).get();
+        
+        int index = null == bucket ? -1 : bucket.indexOf(key);
+        
+        return index < 0 ? null : (V) bucket.values[index];
+    }
+    
+    /**
+     * <p>
+     * Checks if the map has an entry for the key.
+     * 
+     * @param key
+     *            The key
+     * 
+     * @return true if the map has an entry for the key
+     */
+    public boolean containsKey(K key) {
+        
+        Bucket bucket = this.buckets.get(this.indexOf(key)).get();
+        
+        return null != bucket && bucket.indexOf(key) >= 0;
+    }
+    
+    /**
+     * <p>
+     * Puts the value of the key, replacing its old value.
+     * 
+     * @param key
+     *            The key
+     * @param value
+     *            The value
+     * 
+     * @return The old value, null if the map had no entry for the key
+     * 
+     * @throws IllegalStateException
+     *             if called from a read-only <i>Transaction</i>
+     */
+    @SuppressWarnings("unchecked")
+    public V put(K key, V value) {
+        
+        TRef<Bucket> ref = this.buckets.get(this.indexOf(key));
+        
+        Bucket bucket = ref.get();
+        
+        int index = null == bucket ? -1 : bucket.indexOf(key);
+        
+        if (index < 0) {
+            
+            ref.set(null == bucket ? new Bucket(new Object[] { key }, new Object[] { value })
+                    : bucket.with(key, value));
+            
+            return null;
+        }
+        
+        Object[] values = bucket.values.clone();
+        
+        values[index] = value;
+        
+        ref.set(new Bucket(bucket.keys, values));
+        
+        return (V) bucket.values[index];
+    }
+    
+    /**
+     * <p>
+     * Removes the entry of the key.
+     * 
+     * @param key
+     *            The key
+     * 
+     * @return The old value, null if the map had no entry for the key
+     * 
+     * @throws IllegalStateException
+     *             if called from a read-only <i>Transaction</i>
+     */
+    @SuppressWarnings("unchecked")
+    public V remove(K key) {
+        
+        TRef<Bucket> ref = this.buckets.get(this.indexOf(key));
+        
+        Bucket bucket = ref.get();
+        
+        int index = null == bucket ? -1 : bucket.indexOf(key);
+        
+        if (index < 0) {
+            
+            return null;
+        }
+        
+        ref.set(bucket.without(index));
+        
+        return (V) bucket.values[index];
+    }
+    
+    /**
+     * <p>
+     * Counts the entries of the map, reading all the buckets.
+     * 
+     * @return The number of entries
+     */
+    public int size() {
+        
+        int size = 0;
+        
+        for (TRef<Bucket> ref : this.buckets) {
+            
+            Bucket bucket = ref.get();
+            
+            size += null == bucket ? 0 : bucket.keys.length;
+        }
+        
+        return size;
+    }
+    
+    /**
+     * <p>
+     * Goes through the entries of the map, reading all the buckets.
+     * 
+     * @param action
+     *            The action taking the key and the value of each entry
+     */
+    @SuppressWarnings("unchecked")
+    public void forEach(BiConsumer<? super K, ? super V> action) {
+        
+        for (TRef<Bucket> ref : this.buckets) {
+            
+            Bucket bucket = ref.get();
+            
+            for (int i = 0; null != bucket && i < bucket.keys.length; i++) {
+                
+                action.accept((K) bucket.keys[i], (V) bucket.values[i]);
+            }
+        }
+    }
+    
+    /**
+     * <p>
+     * Gets the index of the bucket of the key.
+     * 
+     * @param key
+     *            The key
+     * 
+     * @return The index of its bucket
+     */
+    private int indexOf(K key) {
+        
+        int hash = key.hashCode();
+        
+        return (hash ^ (hash >>> 16)) & (this.variables.length - 1);
+    }
+    
+    /**
+     * <p>
+     * Gets the <i>Variable</i>s of the buckets at the indices.
+     * 
+     * @param indices
+     *            The indices of the buckets
+     * 
+     * @return The <i>Variable</i>s of the buckets, without duplicates
+     */
+    private Variable[] variablesAt(IntStream indices) {
+        
+        return indices.distinct().mapToObj(i -> this.variables[i]).toArray(Variable[]::new);
+    }
+    
+    /**
+     * <p>
+     * The immutable state of a bucket, the keys and the values of its entries
+     * in parallel arrays.
+     * 
+     * @author sidmishraw
+     *
+     *         Qualified Name: foop.core.collections.TMap.Bucket
+     * 
+     */
+    static final class Bucket extends State implements Serializable {
+        
+        private static final long serialVersionUID = 1L;
+        
+        final Object[]            keys;
+        
+        final Object[]            values;
+        
+        Bucket(Object[] keys, Object[] values) {
+            
+            this.keys = keys;
+            this.values = values;
+        }
+        
+        /**
+         * <p>
+         * Finds the entry of the key.
+         * 
+         * @param key
+         *            The key
+         * 
+         * @return The index of its entry, -1 if there is none
+         */
+        int indexOf(Object key) {
+            
+            for (int i = 0; i < this.keys.length; i++) {
+                
+                if (key.equals(this.keys[i])) {
+                    
+                    return i;
+                }
+            }
+            
+            return -1;
+        }
+        
+        /**
+         * <p>
+         * Copies the bucket with a new entry.
+         * 
+         * @param key
+         *            The key of the new entry
+         * @param value
+         *            The value of the new entry
+         * 
+         * @return The copy
+         */
+        Bucket with(Object key, Object value) {
+            
+            Object[] keys = Arrays.copyOf(this.keys, this.keys.length + 1);
+            Object[] values = Arrays.copyOf(this.values, this.values.length + 1);
+            
+            keys[this.keys.length] = key;
+            values[this.values.length] = value;
+            
+            return new Bucket(keys, values);
+        }
+        
+        /**
+         * <p>
+         * Copies the bucket without the entry of the given index.
+         * 
+         * @param index
+         *            The index of the entry
+         * 
+         * @return The copy
+         */
+        Bucket without(int index) {
+            
+            Object[] keys = new Object[this.keys.length - 1];
+            Object[] values = new Object[this.values.length - 1];
+            
+            System.arraycopy(this.keys, 0, keys, 0, index);
+            System.arraycopy(this.keys, index + 1, keys, index, keys.length - index);
+            System.arraycopy(this.values, 0, values, 0, index);
+            System.arraycopy(this.values, index + 1, values, index, values.length - index);
+            
+            return new Bucket(keys, values);
+        }
+    }
+}
@@ -0,0 +1,262 @@
+/**
+ * Project: Foops_1
+ * Package: foop.core.collections
+ * File: TQueue.java
+ * 
+ * @author sidmishraw
+ *         Last modified: Oct 18, 2026 9:52:08 PM
+ */
+package foop.core.collections;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+import foop.core.State;
+import foop.core.StateManager;
+import foop.core.TLong;
+import foop.core.TRef;
+import foop.core.Variable;
+import lombok.Getter;
+
+/**
+ * <p>
+ * A <i>TQueue</i> is a bounded transactional FIFO queue, a ring of slot
+ * `MemCell`s with a head `MemCell` counting the elements taken out and a tail
+ * `MemCell` counting the elements put in.
+ * 
+ * <br>
+ * <br>
+ * 
+ * The producers and the consumers don't conflict with each other: a
+ * <i>Transaction</i> offering elements owns only the tail, see
+ * {@link #getTail()}, and a <i>Transaction</i> polling elements owns only the
+ * head, see {@link #getHead()}. Each side reads the counter of the other side
+ * without owning it, which is safe since the committed counters only ever
+ * grow: a stale head only makes the queue look fuller to a producer and a
+ * stale tail only makes it look emptier to a consumer.
+ * 
+ * <br>
+ * <br>
+ * 
+ * The slots are never owned either. The producer owning the tail is the only
+ * one writing the slot past the tail, so it writes the slot right away and
+ * the element becomes visible to the consumers when the tail commits. If its
+ * <i>Transaction</i> aborts instead, the tail is rolled back and the slot is
+ * just written again by the next producer.
+ * 
+ * <br>
+ * <br>
+ * 
+ * Usage:
+ * 
+ * <pre>
+ * TQueue&lt;String&gt; jobs = new TQueue&lt;&gt;(manager, "jobs", 1024);
+ * 
+ * transactions.newTransaction("produce", manager)
+ *         .addWriteSetMembers(jobs.getTail())
+ *         .addTransactionOperation(() -&gt; jobs.offer("job"))
+ *         .get();
+ * </pre>
+ * 
+ * The elements are held as they are, so they must be immutable, and
+ * `Serializable` for a write-ahead log or a checkpoint with the
+ * <i>SerializableStateCodec</i>. The elements must not be null.
+ * 
+ * @author sidmishraw
+ *
+ *         Qualified Name: foop.core.collections.TQueue
+ * 
+ * @param <E>
+ *            The type of the elements
+ */
+public final class TQueue<E> {
+    
+    /**
+     * <p>
+     * The number of elements taken out.
+     */
+    private final TLong            head;
+    
+    /**
+     * <p>
+     * The number of elements put in.
+     */
+    private final TLong            tail;
+    
+    /**
+     * <p>
+     * The slots of the ring, the element number n is in the slot n modulo the
+     * capacity.
+     */
+    private final List<TRef<Slot>> slots;
+    
+    /**
+     * <p>
+     * The maximum number of elements in the queue.
+     */
+    private final @Getter int      capacity;
+    
+    /**
+     * <p>
+     * Binds the queue to the `MemCell`s of the given name, making them if
+     * needed and keeping their elements otherwise.
+     * 
+     * @param manager
+     *            The manager of the `MemCell`s
+     * @param name
+     *            The name of the queue, the `MemCell`s are named after it
+     * @param capacity
+     *            The maximum number of elements in the queue. It must be the
+     *            same every time the queue is bound to the same name
+     * 
+     * @throws IllegalArgumentException
+     *             if the capacity is not positive
+     */
+    public TQueue(StateManager manager, String name, int capacity) {
+        
+        if (capacity < 1) {
+            
+            throw new IllegalArgumentException("The capacity must be positive: " + capacity);
+        }
+        
+        this.head = new TLong(manager, name + "#head");
+        this.tail = new TLong(manager, name + "#tail");
+        this.capacity = capacity;
+        this.slots = new ArrayList<>(capacity);
+        
+        for (int i = 0; i < capacity; i++) {
+            
+            this.slots.add(new TRef<>(manager, name + "#" + i));
+        }
+    }
+    
+    /**
+     * <p>
+     * Gets the <i>Variable</i> of the head, the one to put in the writeSet of
+     * a <i>Transaction</i> polling the queue.
+     * 
+     * @return The <i>Variable</i> of the head
+     */
+    public Variable getHead() {
+        
+        return this.head.getVariable();
+    }
+    
+    /**
+     * <p>
+     * Gets the <i>Variable</i> of the tail, the one to put in the writeSet of
+     * a <i>Transaction</i> offering elements to the queue.
+     * 
+     * @return The <i>Variable</i> of the tail
+     */
+    public Variable getTail() {
+        
+        return this.tail.getVariable();
+    }
+    
+    /**
+     * <p>
+     * Puts the element at the end of the queue, must be called by the
+     * <i>Transaction</i> owning the tail.
+     * 
+     * @param element
+     *            The element
+     * 
+     * @return true if the element was put in, false if the queue is full
+     * 
+     * @throws IllegalStateException
+     *             if called from a read-only <i>Transaction</i>
+     */
+    public boolean offer(E element) {
+        
+        long tail = this.tail.get();
+        
+        if (tail - this.head.get() >= this.capacity) {
+            
+            return false;
+        }
+        
+        this.slots.get((int) (tail % this.capacity)).set(new Slot(element));
+        
+        this.tail.set(tail + 1);
+        
+        return true;
+    }
+    
+    /**
+     * <p>
+     * Takes the element at the front of the queue, must be called by the
+     * <i>Transaction</i> owning the head.
+     * 
+     * @return The element, null if the queue is empty
+     * 
+     * @throws IllegalStateException
+     *             if called from a read-only <i>Transaction</i>
+     */
+    public E poll() {
+        
+        E element = this.peek();
+        
+        if (null != element) {
+            
+            this.head.set(this.head.get() + 1);
+        }
+        
+        return element;
+    }
+    
+    /**
+     * <p>
+     * Gets the element at the front of the queue without taking it.
+     * 
+     * @return The element, null if the queue is empty
+     */
+    @SuppressWarnings("unchecked")
+    public E peek() {
+        
+        long head = this.head.get();
+        
+        if (head >= this.tail.get()) {
+            
+            return null;
+        }
+        
+        return (E) this.slots.get((int) (head % this.capacity)).get().element;
+    }
+    
+    /**
+     * <p>
+     * Counts the elements of the queue.
+     * 
+     * @return The number of elements
+     */
+    public int size() {
+        
+        // the head first, the tail read after it can only be further ahead
+        long head = this.head.get();
+        
+        return (int) (this.tail.get() - head);
+    }
+    
+    /**
+     * <p>
+     * The immutable state of a slot, the element put in it.
+     * 
+     * @author sidmishraw
+     *
+     *         Qualified Name: foop.core.collections.TQueue.Slot
+     * 
+     */
+    static final class Slot extends State implements Serializable {
+        
+        private static final long serialVersionUID = 1L;
+        
+        final Object              element;
+        
+        Slot(Object element) {
+            
+            this.element = element;
+        }
+    }
+}
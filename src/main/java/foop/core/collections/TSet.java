@@ -0,0 +1,198 @@
+/**
+ * Project: Foops_1
+ * Package: foop.core.collections
+ * File: TSet.java
+ * 
+ * @author sidmishraw
+ *         Last modified: Oct 18, 2026 9:31:50 PM
+ */
+package foop.core.collections;
+
+import java.util.Collection;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+
+import foop.core.StateManager;
+import foop.core.Variable;
+
+/**
+ * <p>
+ * A <i>TSet</i> is a transactional hash set, it is a <i>TMap</i> of the
+ * elements to a marker. So it detects the conflicts per bucket just like the
+ * <i>TMap</i>: a <i>Transaction</i> adding or removing elements must have the
+ * buckets of the elements in its writeSet, see {@link #variablesOf(Object...)}.
+ * 
+ * @author sidmishraw
+ *
+ *         Qualified Name: foop.core.collections.TSet
+ * 
+ * @param <E>
+ *            The type of the elements
+ */
+public final class TSet<E> {
+    
+    private final TMap<E, Boolean> map;
+    
+    /**
+     * <p>
+     * Binds the set to the bucket `MemCell`s of the given name, with the
+     * default number of buckets.
+     * 
+     * @param manager
+     *            The manager of the `MemCell`s
+     * @param name
+     *            The name of the set, the buckets are named after it
+     */
+    public TSet(StateManager manager, String name) {
+        
+        this(manager, name, TMap.DEFAULT_BUCKETS);
+    }
+    
+    /**
+     * <p>
+     * Binds the set to the bucket `MemCell`s of the given name, see
+     * {@link TMap#TMap(StateManager, String, int)}.
+     * 
+     * @param manager
+     *            The manager of the `MemCell`s
+     * @param name
+     *            The name of the set, the buckets are named after it
+     * @param buckets
+     *            The number of buckets, rounded up to a power of 2
+     * 
+     * @throws IllegalArgumentException
+     *             if the number of buckets is not positive
+     */
+    public TSet(StateManager manager, String name, int buckets) {
+        
+        this.map = new TMap<>(manager, name, buckets);
+    }
+    
+    /**
+     * <p>
+     * Gets the <i>Variable</i> of the bucket of the element.
+     * 
+     * @param element
+     *            The element
+     * 
+     * @return The <i>Variable</i> of its bucket
+     */
+    public Variable variableOf(E element) {
+        
+        return this.map.variableOf(element);
+    }
+    
+    /**
+     * <p>
+     * Gets the <i>Variable</i>s of the buckets of the elements.
+     * 
+     * @param elements
+     *            The elements
+     * 
+     * @return The <i>Variable</i>s of their buckets, without duplicates
+     */
+    @SafeVarargs
+    public final Variable[] variablesOf(E... elements) {
+        
+        return IntStream.range(0, elements.length)
+                .mapToObj(i -> this.map.variableOf(elements[i]))
+                .distinct()
+                .toArray(Variable[]::new);
+    }
+    
+    /**
+     * <p>
+     * Gets the <i>Variable</i>s of the buckets of the elements.
+     * 
+     * @param elements
+     *            The elements
+     * 
+     * @return The <i>Variable</i>s of their buckets, without duplicates
+     */
+    public Variable[] variablesOf(Collection<? extends E> elements) {
+        
+        return this.map.variablesOf(elements);
+    }
+    
+    /**
+     * <p>
+     * Gets the <i>Variable</i>s of all the buckets.
+     * 
+     * @return The <i>Variable</i>s of the buckets
+     */
+    public Variable[] getVariables() {
+        
+        return this.map.getVariables();
+    }
+    
+    /**
+     * <p>
+     * Checks if the set has the element.
+     * 
+     * @param element
+     *            The element
+     * 
+     * @return true if the set has the element
+     */
+    public boolean contains(E element) {
+        
+        return this.map.containsKey(element);
+    }
+    
+    /**
+     * <p>
+     * Adds the element.
+     * 
+     * @param element
+     *            The element
+     * 
+     * @return true if the set did not have the element
+     * 
+     * @throws IllegalStateException
+     *             if called from a read-only <i>Transaction</i>
+     */
+    public boolean add(E element) {
+        
+        return !this.map.containsKey(element) && null == this.map.put(element, Boolean.TRUE);
+    }
+    
+    /**
+     * <p>
+     * Removes the element.
+     * 
+     * @param element
+     *            The element
+     * 
+     * @return true if the set had the element
+     * 
+     * @throws IllegalStateException
+     *             if called from a read-only <i>Transaction</i>
+     */
+    public boolean remove(E element) {
+        
+        return null != this.map.remove(element);
+    }
+    
+    /**
+     * <p>
+     * Counts the elements of the set, reading all the buckets.
+     * 
+     * @return The number of elements
+     */
+    public int size() {
+        
+        return this.map.size();
+    }
+    
+    /**
+     * <p>
+     * Goes through the elements of the set, reading all the buckets.
+     * 
+     * @param action
+     *            The action taking each element
+     */
+    public void forEach(Consumer<? super E> action) {
+        
+        this.map.forEach((element, marker) -> action.accept(element));
+    }
+}
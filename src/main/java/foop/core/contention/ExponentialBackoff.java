@@ -0,0 +1,126 @@
+/**
+ * Project: Foops_1
+ * Package: foop.core.contention
+ * File: ExponentialBackoff.java
+ * 
+ * @author sidmishraw
+ *         Last modified: Oct 18, 2026 12:22:37 PM
+ */
+package foop.core.contention;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+import foop.core.AbortCause;
+import foop.core.ContentionManager;
+import foop.core.Transaction;
+
+/**
+ * <p>
+ * Backs off exponentially with the number of retries, with full jitter: the
+ * backoff is picked uniformly at random from
+ * <code>[0, min(maxBackoff, minBackoff * 2^retries))</code>. The jitter keeps
+ * transactions that aborted each other from retrying in lockstep.
+ * 
+ * <br>
+ * <br>
+ * 
+ * This is the default contention manager of the <i>StateManager</i>.
+ * 
+ * @author sidmishraw
+ *
+ *         Qualified Name: foop.core.contention.ExponentialBackoff
+ * 
+ */
+public class ExponentialBackoff implements ContentionManager {
+    
+    /**
+     * <p>
+     * The default minimum backoff, 1 microsecond.
+     */
+    public static final long DEFAULT_MIN_BACKOFF = 1000L;
+    
+    /**
+     * <p>
+     * The default maximum backoff, 10 milliseconds.
+     */
+    public static final long DEFAULT_MAX_BACKOFF = 10000000L;
+    
+    private final long       minBackoff;
+    
+    private final long       maxBackoff;
+    
+    /**
+     * <p>
+     * Makes the exponential backoff with the default bounds.
+     */
+    public ExponentialBackoff() {
+        
+        this(DEFAULT_MIN_BACKOFF, DEFAULT_MAX_BACKOFF);
+    }
+    
+    /**
+     * <p>
+     * Makes the exponential backoff
+     * 
+     * @param minBackoff
+     *            The backoff of the first retry in nanoseconds
+     * @param maxBackoff
+     *            The cap on the backoff in nanoseconds
+     */
+    public ExponentialBackoff(long minBackoff, long maxBackoff) {
+        
+        if (minBackoff <= 0 || maxBackoff < minBackoff) {
+            
+            throw new IllegalArgumentException(
+                    String.format("Invalid backoff bounds, min: %d, max: %d", minBackoff, maxBackoff));
+        }
+        
+        this.minBackoff = minBackoff;
+        this.maxBackoff = maxBackoff;
+    }
+    
+    /*
+     * (non-Javadoc)
+     * 
+     * @see foop.core.ContentionManager#backoff(foop.core.Transaction,
+     * foop.core.Transaction, foop.core.AbortCause)
+     */
+    @Override
+    public long backoff(Transaction transaction, Transaction enemy, AbortCause cause) {
+        
+        return this.backoff(transaction.getRecord().getRetries());
+    }
+    
+    /**
+     * <p>
+     * Computes the jittered backoff for the number of retries.
+     * 
+     * @param retries
+     *            The number of retries so far
+     * 
+     * @return The backoff in nanoseconds
+     */
+    public long backoff(int retries) {
+        
+        // cap the shift so that the ceiling doesn't overflow
+        long ceiling = this.minBackoff << Math.min(retries, 30);
+        
+        if (ceiling <= 0 || ceiling > this.maxBackoff) {
+            
+            ceiling = this.maxBackoff;
+        }
+        
+        return ThreadLocalRandom.current().nextLong(ceiling) + 1;
+    }
+    
+    /**
+     * <p>
+     * Gets the minimum backoff
+     * 
+     * @return The backoff of the first retry in nanoseconds
+     */
+    public long getMinBackoff() {
+        
+        return this.minBackoff;
+    }
+}
@@ -0,0 +1,92 @@
+/**
+ * Project: Foops_1
+ * Package: foop.core.contention
+ * File: KarmaContentionManager.java
+ * 
+ * @author sidmishraw
+ *         Last modified: Oct 18, 2026 12:40:18 PM
+ */
+package foop.core.contention;
+
+import foop.core.AbortCause;
+import foop.core.ContentionManager;
+import foop.core.Transaction;
+
+/**
+ * <p>
+ * Polka style contention manager, a transaction's priority is its
+ * <b>karma</b>, i.e. the work it has done so far across all of its attempts.
+ * The karma is not reset on an abort, so a transaction that keeps losing keeps
+ * gaining priority.
+ * 
+ * <br>
+ * <br>
+ * 
+ * A transaction that has at least as much karma as its enemy retries after
+ * the minimum backoff, since the enemy is expected to give way. Otherwise it
+ * backs off exponentially, the exponent growing with the karma gap as well as
+ * with the number of retries.
+ * 
+ * @author sidmishraw
+ *
+ *         Qualified Name: foop.core.contention.KarmaContentionManager
+ * 
+ */
+public class KarmaContentionManager implements ContentionManager {
+    
+    private final ExponentialBackoff backoff;
+    
+    /**
+     * <p>
+     * Makes the karma contention manager with the default exponential
+     * backoff.
+     */
+    public KarmaContentionManager() {
+        
+        this(new ExponentialBackoff());
+    }
+    
+    /**
+     * <p>
+     * Makes the karma contention manager
+     * 
+     * @param backoff
+     *            The backoff used when the transaction has lesser karma than
+     *            its enemy
+     */
+    public KarmaContentionManager(ExponentialBackoff backoff) {
+        
+        this.backoff = backoff;
+    }
+    
+    /*
+     * (non-Javadoc)
+     * 
+     * @see foop.core.ContentionManager#backoff(foop.core.Transaction,
+     * foop.core.Transaction, foop.core.AbortCause)
+     */
+    @Override
+    public long backoff(Transaction transaction, Transaction enemy, AbortCause cause) {
+        
+        int retries = transaction.getRecord().getRetries();
+        
+        if (null == enemy) {
+            
+            return this.backoff.backoff(retries);
+        }
+        
+        long karma = transaction.getRecord().getKarma();
+        long enemyKarma = enemy.getRecord().getKarma();
+        
+        if (karma >= enemyKarma) {
+            
+            return this.backoff.getMinBackoff();
+        }
+        
+        // the gap is counted in the number of doublings, so that a huge gap
+        // doesn't translate into a huge backoff
+        int gap = 64 - Long.numberOfLeadingZeros(enemyKarma - karma);
+        
+        return this.backoff.backoff(retries + gap);
+    }
+}
@@ -0,0 +1,80 @@
+/**
+ * Project: Foops_1
+ * Package: foop.core.contention
+ * File: SpinThenPark.java
+ * 
+ * @author sidmishraw
+ *         Last modified: Oct 18, 2026 12:31:02 PM
+ */
+package foop.core.contention;
+
+import foop.core.AbortCause;
+import foop.core.ContentionManager;
+import foop.core.Transaction;
+
+/**
+ * <p>
+ * Retries right away for the first few retries, hoping that the conflict is
+ * short lived, and then parks with exponential backoff.
+ * 
+ * @author sidmishraw
+ *
+ *         Qualified Name: foop.core.contention.SpinThenPark
+ * 
+ */
+public class SpinThenPark implements ContentionManager {
+    
+    /**
+     * <p>
+     * The default number of retries without backing off.
+     */
+    public static final int          DEFAULT_SPINS = 8;
+    
+    private final int                spins;
+    
+    private final ExponentialBackoff park;
+    
+    /**
+     * <p>
+     * Makes the policy with the default number of spins and the default
+     * exponential backoff.
+     */
+    public SpinThenPark() {
+        
+        this(DEFAULT_SPINS, new ExponentialBackoff());
+    }
+    
+    /**
+     * <p>
+     * Makes the policy
+     * 
+     * @param spins
+     *            The number of retries without backing off
+     * @param park
+     *            The backoff used once the spins are exhausted
+     */
+    public SpinThenPark(int spins, ExponentialBackoff park) {
+        
+        this.spins = spins;
+        this.park = park;
+    }
+    
+    /*
+     * (non-Javadoc)
+     * 
+     * @see foop.core.ContentionManager#backoff(foop.core.Transaction,
+     * foop.core.Transaction, foop.core.AbortCause)
+     */
+    @Override
+    public long backoff(Transaction transaction, Transaction enemy, AbortCause cause) {
+        
+        int retries = transaction.getRecord().getRetries();
+        
+        if (retries < this.spins) {
+            
+            return 0L;
+        }
+        
+        return this.park.backoff(retries - this.spins);
+    }
+}
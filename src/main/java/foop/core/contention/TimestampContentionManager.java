@@ -0,0 +1,79 @@
+/**
+ * Project: Foops_1
+ * Package: foop.core.contention
+ * File: TimestampContentionManager.java
+ * 
+ * @author sidmishraw
+ *         Last modified: Oct 18, 2026 12:47:55 PM
+ */
+package foop.core.contention;
+
+import foop.core.AbortCause;
+import foop.core.ContentionManager;
+import foop.core.Transaction;
+
+/**
+ * <p>
+ * "Older wins" contention manager, the transaction that started its first
+ * attempt earlier has the priority. Since the start time is not reset on an
+ * abort, every transaction eventually becomes the oldest one around and gets
+ * through.
+ * 
+ * <br>
+ * <br>
+ * 
+ * The older transaction retries after the minimum backoff while the younger
+ * one backs off exponentially.
+ * 
+ * @author sidmishraw
+ *
+ *         Qualified Name: foop.core.contention.TimestampContentionManager
+ * 
+ */
+public class TimestampContentionManager implements ContentionManager {
+    
+    private final ExponentialBackoff backoff;
+    
+    /**
+     * <p>
+     * Makes the timestamp contention manager with the default exponential
+     * backoff.
+     */
+    public TimestampContentionManager() {
+        
+        this(new ExponentialBackoff());
+    }
+    
+    /**
+     * <p>
+     * Makes the timestamp contention manager
+     * 
+     * @param backoff
+     *            The backoff used by the younger transaction
+     */
+    public TimestampContentionManager(ExponentialBackoff backoff) {
+        
+        this.backoff = backoff;
+    }
+    
+    /*
+     * (non-Javadoc)
+     * 
+     * @see foop.core.ContentionManager#backoff(foop.core.Transaction,
+     * foop.core.Transaction, foop.core.AbortCause)
+     */
+    @Override
+    public long backoff(Transaction transaction, Transaction enemy, AbortCause cause) {
+        
+        int retries = transaction.getRecord().getRetries();
+        
+        if (null != enemy && transaction.getRecord().getStartTime() - enemy.getRecord().getStartTime() < 0) {
+            
+            // this transaction is the older one, nanoTime values are compared
+            // by their difference since they might overflow
+            return this.backoff.getMinBackoff();
+        }
+        
+        return this.backoff.backoff(retries);
+    }
+}
@@ -0,0 +1,506 @@
+/**
+ * Project: Foops_1
+ * Package: foop.core.durability
+ * File: Checkpoint.java
+ * 
+ * @author sidmishraw
+ *         Last modified: Oct 18, 2026 7:31:09 PM
+ */
+package foop.core.durability;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import foop.core.LazyState;
+import foop.core.PrimitiveState;
+import foop.core.State;
+import foop.core.StateManager;
+import foop.core.Transaction;
+import foop.core.Variable;
+import foop.utils.Transactions;
+import lombok.Getter;
+
+/**
+ * <p>
+ * A <i>Checkpoint</i> is a file holding a consistent snapshot of all the
+ * `MemCell`s of a <i>StateManager</i>, their names and their <i>State</i>s
+ * encoded by a <i>StateCodec</i>. Loading it back is way faster than
+ * rebuilding the `MemCell`s: the file is memory-mapped and the <i>State</i>s
+ * are only decoded on their first read, so the load time is proportional to
+ * the number of `MemCell`s and the time to read them to the number of
+ * `MemCell`s actually read.
+ * 
+ * <br>
+ * <br>
+ * 
+ * The checkpoint is written by a read-only <i>Transaction</i>, so it reads
+ * the snapshot of the `MemCell`s as of its start while the other transactions
+ * keep committing. The file is written next to its final place and moved
+ * into it once complete, a crash never leaves a partial checkpoint behind.
+ * 
+ * <br>
+ * <br>
+ * 
+ * The format of the file:
+ * 
+ * <pre>
+ * header:
+ *   int    magic, FOOP
+ *   int    version of the format
+ *   int    number of `MemCell`s
+ *   long   position of the index
+ * states:
+ *   the encoded states, none of them crosses a window of the mapping
+ * index:
+ *   int    length of the name, followed by the UTF-8 name of the `MemCell`
+ *   byte   kind of the state, as in the write-ahead log
+ *   long   position of the state, the value itself for a primitive `MemCell`
+ *   int    length of the state, -1 for null
+ *   int    CRC32 of the state
+ * </pre>
+ * 
+ * The values of the primitive `MemCell`s are in the index, they are loaded
+ * right away.
+ * 
+ * Usage:
+ * 
+ * <pre>
+ * Checkpoint checkpoint = new Checkpoint(file, new SerializableStateCodec());
+ * 
+ * checkpoint.write(manager); // at shutdown, or periodically
+ * 
+ * StateManager restarted = new StateManager();
+ * 
+ * checkpoint.load(restarted); // at startup
+ * </pre>
+ * 
+ * @author sidmishraw
+ *
+ *         Qualified Name: foop.core.durability.Checkpoint
+ * 
+ */
+public class Checkpoint {
+    
+    /** logging stuff **/
+    private static final Logger logger = LoggerFactory.getLogger(Checkpoint.class);
+    /** logging stuff **/
+    
+    /**
+     * <p>
+     * The magic number of the checkpoints, FOOP.
+     */
+    private static final int    MAGIC  = 0x464F4F50;
+    
+    /**
+     * <p>
+     * The version of the format.
+     */
+    private static final int    FORMAT = 1;
+    
+    /**
+     * <p>
+     * The size of the header.
+     */
+    private static final int    HEADER = 20;
+    
+    /**
+     * <p>
+     * The size of the windows the file is mapped in, a mapping can't exceed
+     * 2 GB.
+     */
+    private static final long   WINDOW = 1L << 30;
+    
+    /**
+     * <p>
+     * The file of the checkpoint.
+     */
+    private final @Getter Path  file;
+    
+    /**
+     * <p>
+     * The codec of the states.
+     */
+    private final StateCodec    codec;
+    
+    /**
+     * <p>
+     * Makes the checkpoint of the given file.
+     * 
+     * @param file
+     *            The file of the checkpoint
+     * @param codec
+     *            The codec of the states
+     */
+    public Checkpoint(Path file, StateCodec codec) {
+        
+        this.file = file;
+        this.codec = codec;
+    }
+    
+    /**
+     * <p>
+     * Writes the snapshot of all the `MemCell`s of the manager to the file,
+     * replacing the previous checkpoint if any.
+     * 
+     * @param manager
+     *            The manager
+     * 
+     * @return The number of `MemCell`s written
+     * 
+     * @throws IOException
+     *             if the file can't be written
+     */
+    public int write(StateManager manager) throws IOException {
+        
+        Path temporary = this.file.resolveSibling(this.file.getFileName() + ".writing");
+        
+        List<byte[]> names = new ArrayList<>();
+        List<long[]> entries = new ArrayList<>();
+        
+        try (FileChannel out = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            
+            ByteBuffer buffer = ByteBuffer.allocateDirect(1 << 20);
+            
+            long[] position = new long[1];
+            
+            Transaction snapshot = new Transactions().newTransaction("checkpoint", manager)
+                    .readOnly()
+                    .addTransactionOperation(() -> {
+                        
+                        // the operation runs again over a snapshot if its
+                        // first run read an inconsistent state, so each run
+                        // starts the file over
+                        names.clear();
+                        entries.clear();
+                        position[0] = HEADER;
+                        
+                        rewind(out, buffer);
+                        
+                        for (Variable variable : manager.getVariables()) {
+                            
+                            State state = manager.readState(variable);
+                            
+                            names.add(variable.getName().getBytes(StandardCharsets.UTF_8));
+                            
+                            if (state instanceof PrimitiveState) {
+                                
+                                entries.add(new long[] { LogFormat.kindOf(state), ((PrimitiveState) state).getBits(),
+                                        0L, 0L });
+                                
+                                continue;
+                            }
+                            
+                            byte[] encoded = LogFormat.encode(state, this.codec);
+                            
+                            if (null == encoded) {
+                                
+                                entries.add(new long[] { LogFormat.ENCODED, 0L, -1L, 0L });
+                                
+                                continue;
+                            }
+                            
+                            if (encoded.length > WINDOW) {
+                                
+                                throw new IllegalArgumentException(
+                                        "The state of " + variable.getName() + " is too big to checkpoint");
+                            }
+                            
+                            // a state never crosses a window of the mapping
+                            long padding = position[0] / WINDOW == (position[0] + encoded.length - 1) / WINDOW ? 0L
+                                    : WINDOW - position[0] % WINDOW;
+                            
+                            CRC32 crc = new CRC32();
+                            
+                            crc.update(encoded);
+                            
+                            entries.add(new long[] { LogFormat.ENCODED, position[0] + padding, encoded.length,
+                                    crc.getValue() });
+                            
+                            write(out, buffer, new byte[(int) padding]);
+                            write(out, buffer, encoded);
+                            
+                            position[0] += padding + encoded.length;
+                        }
+                        
+                        return true;
+                    })
+                    .get();
+            
+            try {
+                
+                snapshot.run();
+            } catch (UncheckedIOException e) {
+                
+                throw e.getCause();
+            }
+            
+            long index = position[0];
+            
+            for (int i = 0; i < names.size(); i++) {
+                
+                byte[] name = names.get(i);
+                long[] entry = entries.get(i);
+                
+                write(out, buffer, ByteBuffer.allocate(4 + name.length + 17)
+                        .putInt(name.length)
+                        .put(name)
+                        .put((byte) entry[0])
+                        .putLong(entry[1])
+                        .putInt((int) entry[2])
+                        .putInt((int) entry[3])
+                        .array());
+            }
+            
+            flush(out, buffer);
+            
+            buffer.putInt(MAGIC).putInt(FORMAT).putInt(names.size()).putLong(index).flip();
+            
+            out.write(buffer, 0L);
+            out.force(true);
+        }
+        
+        Files.move(temporary, this.file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        
+        logger.info("Wrote the checkpoint of {} MemCells to {}", names.size(), this.file);
+        
+        return names.size();
+    }
+    
+    /**
+     * <p>
+     * Loads the checkpoint into the manager, the `MemCell`s are made as
+     * needed and their <i>State</i>s are decoded on their first read. Must be
+     * called before a <i>WriteAheadLog</i> is attached to the manager, and
+     * before the log is replayed into it.
+     * 
+     * @param manager
+     *            The manager, usually a fresh one
+     * 
+     * @return The number of `MemCell`s loaded
+     * 
+     * @throws IOException
+     *             if the file can't be read or is not a checkpoint
+     * @throws IllegalStateException
+     *             if the manager already logs its commits
+     */
+    public int load(StateManager manager) throws IOException {
+        
+        if (null != manager.getWriteAheadLog()) {
+            
+            throw new IllegalStateException("Can't load a checkpoint into a manager that already logs its commits");
+        }
+        
+        try (FileChannel in = FileChannel.open(this.file, StandardOpenOption.READ)) {
+            
+            // not closed, it would close the channel
+            DataInputStream header = new DataInputStream(Channels.newInputStream(in));
+            
+            if (in.size() < HEADER || MAGIC != header.readInt() || FORMAT != header.readInt()) {
+                
+                throw new IOException("Not a checkpoint: " + this.file);
+            }
+            
+            int count = header.readInt();
+            long index = header.readLong();
+            
+            // the mappings stay valid after the channel is closed
+            MappedByteBuffer[] windows = new MappedByteBuffer[(int) ((index + WINDOW - 1) / WINDOW)];
+            
+            for (int i = 0; i < windows.length; i++) {
+                
+                windows[i] = in.map(FileChannel.MapMode.READ_ONLY, i * WINDOW, Math.min(WINDOW, index - i * WINDOW));
+            }
+            
+            DataInputStream entries = new DataInputStream(
+                    new BufferedInputStream(Channels.newInputStream(in.position(index)), 1 << 16));
+            
+            for (int i = 0; i < count; i++) {
+                
+                byte[] name = new byte[entries.readInt()];
+                
+                entries.readFully(name);
+                
+                byte kind = entries.readByte();
+                long position = entries.readLong();
+                int length = entries.readInt();
+                int crc = entries.readInt();
+                
+                String variableName = new String(name, StandardCharsets.UTF_8);
+                
+                Variable variable = manager.getVariable(variableName).orElseGet(() -> manager.make(variableName));
+                
+                if (LogFormat.ENCODED != kind) {
+                    
+                    manager.write(variable, new PrimitiveState(PrimitiveState.Type.values()[kind - 1], position));
+                } else {
+                    
+                    manager.write(variable, length < 0 ? null
+                            : new MappedState(windows[(int) (position / WINDOW)], (int) (position % WINDOW), length,
+                                    crc, this.codec));
+                }
+            }
+            
+            logger.info("Loaded the checkpoint of {} MemCells from {}", count, this.file);
+            
+            return count;
+        }
+    }
+    
+    /**
+     * <p>
+     * Writes the bytes through the buffer.
+     * 
+     * @param out
+     *            The channel
+     * @param buffer
+     *            The buffer
+     * @param bytes
+     *            The bytes
+     */
+    private static void write(FileChannel out, ByteBuffer buffer, byte[] bytes) {
+        
+        int offset = 0;
+        
+        while (offset < bytes.length) {
+            
+            if (!buffer.hasRemaining()) {
+                
+                flush(out, buffer);
+            }
+            
+            int length = Math.min(buffer.remaining(), bytes.length - offset);
+            
+            buffer.put(bytes, offset, length);
+            
+            offset += length;
+        }
+    }
+    
+    /**
+     * <p>
+     * Empties the channel and the buffer, leaving room for the header.
+     * 
+     * @param out
+     *            The channel
+     * @param buffer
+     *            The buffer
+     */
+    private static void rewind(FileChannel out, ByteBuffer buffer) {
+        
+        try {
+            
+            out.truncate(0L);
+            out.position(0L);
+        } catch (IOException e) {
+            
+            throw new UncheckedIOException(e);
+        }
+        
+        buffer.clear();
+        buffer.position(HEADER);
+    }
+    
+    /**
+     * <p>
+     * Writes out the buffer, leaving it empty.
+     * 
+     * @param out
+     *            The channel
+     * @param buffer
+     *            The buffer
+     */
+    private static void flush(FileChannel out, ByteBuffer buffer) {
+        
+        buffer.flip();
+        
+        try {
+            
+            while (buffer.hasRemaining()) {
+                
+                out.write(buffer);
+            }
+        } catch (IOException e) {
+            
+            throw new UncheckedIOException(e);
+        }
+        
+        buffer.clear();
+    }
+    
+    /**
+     * <p>
+     * A <i>State</i> of the checkpoint, decoded from the mapped file on its
+     * first read.
+     * 
+     * @author sidmishraw
+     *
+     *         Qualified Name: foop.core.durability.Checkpoint.MappedState
+     * 
+     */
+    private static final class MappedState extends LazyState {
+        
+        private final ByteBuffer window;
+        
+        private final int        position;
+        
+        private final int        length;
+        
+        private final int        crc;
+        
+        private final StateCodec codec;
+        
+        MappedState(ByteBuffer window, int position, int length, int crc, StateCodec codec) {
+            
+            this.window = window;
+            this.position = position;
+            this.length = length;
+            this.crc = crc;
+            this.codec = codec;
+        }
+        
+        /*
+         * (non-Javadoc)
+         * 
+         * @see foop.core.LazyState#materialize()
+         */
+        @Override
+        protected State materialize() {
+            
+            byte[] bytes = new byte[this.length];
+            
+            ByteBuffer state = this.window.duplicate();
+            
+            state.position(this.position);
+            state.get(bytes);
+            
+            CRC32 checksum = new CRC32();
+            
+            checksum.update(bytes);
+            
+            if ((int) checksum.getValue() != this.crc) {
+                
+                throw new IllegalStateException("The checkpointed state is corrupt");
+            }
+            
+            return this.codec.decode(bytes);
+        }
+    }
+}
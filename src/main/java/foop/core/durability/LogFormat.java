@@ -0,0 +1,310 @@
+/**
+ * Project: Foops_1
+ * Package: foop.core.durability
+ * File: LogFormat.java
+ * 
+ * @author sidmishraw
+ *         Last modified: Oct 18, 2026 6:13:26 PM
+ */
+package foop.core.durability;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.CRC32;
+
+import foop.core.PrimitiveState;
+import foop.core.State;
+
+/**
+ * <p>
+ * The format of the records of the <i>WriteAheadLog</i>. A record holds the
+ * writeSet of a committed <i>Transaction</i>:
+ * 
+ * <pre>
+ * int    length of the body
+ * int    CRC32 of the body
+ * body:
+ *   long   commit version
+ *   int    number of entries
+ *   entries:
+ *     int    length of the name, followed by the UTF-8 name of the `MemCell`
+ *     byte   kind of the state, see {@link #kindOf(State)}
+ *     int    length of the state, followed by the encoded state, -1 for null
+ * </pre>
+ * 
+ * The states of the primitive `MemCell`s are not encoded by the codec, they
+ * are the 8 bytes of their values.
+ * 
+ * A record whose length runs past the end of the segment or whose checksum
+ * doesn't match was torn by a crash, it and everything after it is ignored.
+ * 
+ * @author sidmishraw
+ *
+ *         Qualified Name: foop.core.durability.LogFormat
+ * 
+ */
+final class LogFormat {
+    
+    /**
+     * <p>
+     * The size of the header of a record, its length and checksum.
+     */
+    static final int HEADER = 8;
+    
+    /**
+     * <p>
+     * The smallest body of a record, its version and number of entries.
+     */
+    static final int MIN_BODY = 12;
+    
+    /**
+     * <p>
+     * The kind of the states encoded by the codec.
+     */
+    static final byte ENCODED = 0;
+    
+    private LogFormat() {}
+    
+    /**
+     * <p>
+     * Gets the kind of the state, {@link #ENCODED} or 1 + the ordinal of the
+     * <i>Type</i> of a <i>PrimitiveState</i>.
+     * 
+     * @param state
+     *            The state
+     * 
+     * @return The kind
+     */
+    static byte kindOf(State state) {
+        
+        return state instanceof PrimitiveState ? (byte) (1 + ((PrimitiveState) state).getType().ordinal()) : ENCODED;
+    }
+    
+    /**
+     * <p>
+     * Encodes the state as per its kind.
+     * 
+     * @param state
+     *            The state
+     * @param codec
+     *            The codec of the states
+     * 
+     * @return The bytes of the state, null for null
+     */
+    static byte[] encode(State state, StateCodec codec) {
+        
+        if (state instanceof PrimitiveState) {
+            
+            return ByteBuffer.allocate(8).putLong(((PrimitiveState) state).getBits()).array();
+        }
+        
+        return null == state ? null : codec.encode(state);
+    }
+    
+    /**
+     * <p>
+     * Decodes the state as per its kind.
+     * 
+     * @param kind
+     *            The kind of the state
+     * @param bytes
+     *            The bytes of the state
+     * @param codec
+     *            The codec of the states
+     * 
+     * @return The state
+     */
+    static State decode(byte kind, byte[] bytes, StateCodec codec) {
+        
+        if (null == bytes) {
+            
+            return null;
+        }
+        
+        return ENCODED == kind ? codec.decode(bytes)
+                : new PrimitiveState(PrimitiveState.Type.values()[kind - 1], ByteBuffer.wrap(bytes).getLong());
+    }
+    
+    /**
+     * <p>
+     * Visits the records of a segment.
+     * 
+     * @author sidmishraw
+     *
+     *         Qualified Name: foop.core.durability.LogFormat.Visitor
+     * 
+     */
+    @FunctionalInterface
+    interface Visitor {
+        
+        /**
+         * <p>
+         * Visits a record.
+         * 
+         * @param version
+         *            The commit version
+         * @param names
+         *            The names of the `MemCell`s
+         * @param kinds
+         *            The kinds of the states
+         * @param states
+         *            The encoded states of the `MemCell`s, null entries for
+         *            the null states
+         */
+        void visit(long version, String[] names, byte[] kinds, byte[][] states);
+    }
+    
+    /**
+     * <p>
+     * Encodes a record.
+     * 
+     * @param version
+     *            The commit version
+     * @param names
+     *            The names of the `MemCell`s
+     * @param kinds
+     *            The kinds of the states
+     * @param states
+     *            The encoded states of the `MemCell`s, null entries for the
+     *            null states
+     * 
+     * @return The record
+     */
+    static byte[] encode(long version, String[] names, byte[] kinds, byte[][] states) {
+        
+        byte[][] encodedNames = new byte[names.length][];
+        
+        int length = MIN_BODY;
+        
+        for (int i = 0; i < names.length; i++) {
+            
+            encodedNames[i] = names[i].getBytes(StandardCharsets.UTF_8);
+            
+            length += 9 + encodedNames[i].length + (null == states[i] ? 0 : states[i].length);
+        }
+        
+        ByteBuffer record = ByteBuffer.allocate(HEADER + length);
+        
+        record.putInt(length);
+        record.putInt(0);
+        record.putLong(version);
+        record.putInt(names.length);
+        
+        for (int i = 0; i < names.length; i++) {
+            
+            record.putInt(encodedNames[i].length);
+            record.put(encodedNames[i]);
+            record.put(kinds[i]);
+            
+            if (null == states[i]) {
+                
+                record.putInt(-1);
+            } else {
+                
+                record.putInt(states[i].length);
+                record.put(states[i]);
+            }
+        }
+        
+        CRC32 crc = new CRC32();
+        
+        crc.update(record.array(), HEADER, length);
+        
+        record.putInt(4, (int) crc.getValue());
+        
+        return record.array();
+    }
+    
+    /**
+     * <p>
+     * Scans the records from the position of the buffer to its limit, the
+     * scan stops at the first torn record.
+     * 
+     * @param buffer
+     *            The records
+     * @param visitor
+     *            The visitor of the records, null to only find their end
+     * 
+     * @return The position of the end of the last valid record
+     */
+    static int scan(ByteBuffer buffer, Visitor visitor) {
+        
+        CRC32 crc = new CRC32();
+        
+        int end = buffer.position();
+        
+        while (buffer.remaining() >= HEADER + MIN_BODY) {
+            
+            int length = buffer.getInt();
+            int checksum = buffer.getInt();
+            
+            if (length < MIN_BODY || length > buffer.remaining()) {
+                
+                break;
+            }
+            
+            ByteBuffer body = buffer.slice();
+            
+            body.limit(length);
+            
+            crc.reset();
+            crc.update(body.duplicate());
+            
+            if ((int) crc.getValue() != checksum) {
+                
+                break;
+            }
+            
+            if (null != visitor) {
+                
+                decode(body, visitor);
+            }
+            
+            buffer.position(buffer.position() + length);
+            
+            end = buffer.position();
+        }
+        
+        return end;
+    }
+    
+    /**
+     * <p>
+     * Decodes the body of a valid record.
+     * 
+     * @param body
+     *            The body
+     * @param visitor
+     *            The visitor of the record
+     */
+    private static void decode(ByteBuffer body, Visitor visitor) {
+        
+        long version = body.getLong();
+        int count = body.getInt();
+        
+        String[] names = new String[count];
+        byte[] kinds = new byte[count];
+        byte[][] states = new byte[count][];
+        
+        for (int i = 0; i < count; i++) {
+            
+            byte[] name = new byte[body.getInt()];
+            
+            body.get(name);
+            
+            names[i] = new String(name, StandardCharsets.UTF_8);
+            kinds[i] = body.get();
+            
+            int length = body.getInt();
+            
+            if (length >= 0) {
+                
+                states[i] = new byte[length];
+                
+                body.get(states[i]);
+            }
+        }
+        
+        visitor.visit(version, names, kinds, states);
+    }
+}
@@ -0,0 +1,82 @@
+/**
+ * Project: Foops_1
+ * Package: foop.core.durability
+ * File: SerializableStateCodec.java
+ * 
+ * @author sidmishraw
+ *         Last modified: Oct 18, 2026 6:04:37 PM
+ */
+package foop.core.durability;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.io.UncheckedIOException;
+
+import foop.core.State;
+
+/**
+ * <p>
+ * The <i>StateCodec</i> of the <i>State</i>s that are `Serializable`, they
+ * are encoded with the Java serialization.
+ * 
+ * <p>
+ * The Java serialization is slow and verbose, the <i>State</i>s written at a
+ * high rate are better off with a codec of their own.
+ * 
+ * @author sidmishraw
+ *
+ *         Qualified Name: foop.core.durability.SerializableStateCodec
+ * 
+ */
+public class SerializableStateCodec implements StateCodec {
+    
+    /*
+     * (non-Javadoc)
+     * 
+     * @see foop.core.durability.StateCodec#encode(foop.core.State)
+     */
+    @Override
+    public byte[] encode(State state) {
+        
+        if (!(state instanceof Serializable)) {
+            
+            throw new IllegalArgumentException("The state is not serializable: " + state.getClass().getName());
+        }
+        
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            
+            out.writeObject(state);
+        } catch (IOException e) {
+            
+            throw new UncheckedIOException(e);
+        }
+        
+        return bytes.toByteArray();
+    }
+    
+    /*
+     * (non-Javadoc)
+     * 
+     * @see foop.core.durability.StateCodec#decode(byte[])
+     */
+    @Override
+    public State decode(byte[] bytes) {
+        
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes))) {
+            
+            return (State) in.readObject();
+        } catch (IOException e) {
+            
+            throw new UncheckedIOException(e);
+        } catch (ClassNotFoundException e) {
+            
+            throw new IllegalStateException("The class of the state is not available", e);
+        }
+    }
+}
@@ -0,0 +1,52 @@
+/**
+ * Project: Foops_1
+ * Package: foop.core.durability
+ * File: StateCodec.java
+ * 
+ * @author sidmishraw
+ *         Last modified: Oct 18, 2026 6:02:11 PM
+ */
+package foop.core.durability;
+
+import foop.core.State;
+
+/**
+ * <p>
+ * A <i>StateCodec</i> turns the <i>State</i>s of the `MemCell`s into bytes
+ * for the <i>WriteAheadLog</i> and back. The <i>State</i>s are opaque to the
+ * <i>StateManager</i>, so the application provides the codec of its own
+ * <i>State</i>s, see {@link SerializableStateCodec} for the default one.
+ * 
+ * <p>
+ * A codec is called concurrently by the committing transactions, so it must
+ * be thread safe.
+ * 
+ * @author sidmishraw
+ *
+ *         Qualified Name: foop.core.durability.StateCodec
+ * 
+ */
+public interface StateCodec {
+    
+    /**
+     * <p>
+     * Encodes the state.
+     * 
+     * @param state
+     *            The state, never null
+     * 
+     * @return The bytes of the state
+     */
+    public byte[] encode(State state);
+    
+    /**
+     * <p>
+     * Decodes the state encoded by {@link #encode(State)}.
+     * 
+     * @param bytes
+     *            The bytes of the state
+     * 
+     * @return The state
+     */
+    public State decode(byte[] bytes);
+}
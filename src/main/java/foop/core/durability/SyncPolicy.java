@@ -0,0 +1,158 @@
+/**
+ * Project: Foops_1
+ * Package: foop.core.durability
+ * File: SyncPolicy.java
+ * 
+ * @author sidmishraw
+ *         Last modified: Oct 18, 2026 6:07:52 PM
+ */
+package foop.core.durability;
+
+import lombok.Getter;
+
+/**
+ * <p>
+ * The <i>SyncPolicy</i> tells the <i>WriteAheadLog</i> when to force its
+ * records to the disk, trading the latency of the commits for the window of
+ * the commits lost to a crash:
+ * <ul>
+ * <li>{@link #everyCommit()}: every committing transaction waits for its
+ * record to be on the disk. The transactions committing together share a
+ * single fsync, so the cost is amortized under load. Nothing committed is
+ * ever lost.
+ * 
+ * <li>{@link #everyCommits(int)}: every Nth committing transaction forces the
+ * records of the ones before it, the others don't wait. Up to N - 1 commits
+ * are lost to a crash.
+ * 
+ * <li>{@link #everyMillis(long)}: a background thread forces the records at a
+ * fixed interval, the committing transactions never wait. Up to the interval
+ * worth of commits are lost to a crash.
+ * </ul>
+ * 
+ * The records are forced anyway once enough of them pile up in memory, and
+ * when the log is synced or closed.
+ * 
+ * @author sidmishraw
+ *
+ *         Qualified Name: foop.core.durability.SyncPolicy
+ * 
+ */
+public final class SyncPolicy {
+    
+    /**
+     * <p>
+     * The number of commits per fsync, 0 if the commits don't sync.
+     */
+    private final @Getter int  commits;
+    
+    /**
+     * <p>
+     * The interval of the background fsync in milliseconds, 0 if there is
+     * none.
+     */
+    private final @Getter long intervalMillis;
+    
+    /**
+     * <p>
+     * Makes the policy.
+     * 
+     * @param commits
+     *            The number of commits per fsync
+     * @param intervalMillis
+     *            The interval of the background fsync
+     */
+    private SyncPolicy(int commits, long intervalMillis) {
+        
+        this.commits = commits;
+        this.intervalMillis = intervalMillis;
+    }
+    
+    /**
+     * <p>
+     * Every commit waits for its record to be forced to the disk.
+     * 
+     * @return The policy
+     */
+    public static SyncPolicy everyCommit() {
+        
+        return new SyncPolicy(1, 0L);
+    }
+    
+    /**
+     * <p>
+     * Every Nth commit forces the records to the disk.
+     * 
+     * @param commits
+     *            The number of commits per fsync
+     * 
+     * @return The policy
+     * 
+     * @throws IllegalArgumentException
+     *             if the number of commits is not positive
+     */
+    public static SyncPolicy everyCommits(int commits) {
+        
+        if (commits < 1) {
+            
+            throw new IllegalArgumentException("The number of commits must be positive: " + commits);
+        }
+        
+        return new SyncPolicy(commits, 0L);
+    }
+    
+    /**
+     * <p>
+     * The records are forced to the disk by a background thread every so many
+     * milliseconds.
+     * 
+     * @param intervalMillis
+     *            The interval in milliseconds
+     * 
+     * @return The policy
+     * 
+     * @throws IllegalArgumentException
+     *             if the interval is not positive
+     */
+    public static SyncPolicy everyMillis(long intervalMillis) {
+        
+        if (intervalMillis < 1) {
+            
+            throw new IllegalArgumentException("The interval must be positive: " + intervalMillis);
+        }
+        
+        return new SyncPolicy(0, intervalMillis);
+    }
+    
+    /**
+     * <p>
+     * Tells if the commit of the record with the given sequence number must
+     * force the records to the disk, i.e. if a multiple of the number of
+     * commits per fsync was appended since the last fsync. The records of a
+     * batch are awaited together, so the multiple itself may never be
+     * awaited.
+     * 
+     * @param durable
+     *            The sequence number of the last record forced to the disk
+     * @param sequence
+     *            The sequence number of the record
+     * 
+     * @return true if the commit syncs
+     */
+    boolean syncs(long durable, long sequence) {
+        
+        return this.commits > 0 && sequence / this.commits > durable / this.commits;
+    }
+    
+    /*
+     * (non-Javadoc)
+     * 
+     * @see java.lang.Object#toString()
+     */
+    @Override
+    public String toString() {
+        
+        return this.commits > 0 ? "SyncPolicy[every " + this.commits + " commits]"
+                : "SyncPolicy[every " + this.intervalMillis + " ms]";
+    }
+}
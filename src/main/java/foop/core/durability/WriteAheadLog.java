@@ -0,0 +1,866 @@
+/**
+ * Project: Foops_1
+ * Package: foop.core.durability
+ * File: WriteAheadLog.java
+ * 
+ * @author sidmishraw
+ *         Last modified: Oct 18, 2026 6:21:44 PM
+ */
+package foop.core.durability;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import foop.core.State;
+import foop.core.StateManager;
+import foop.core.Variable;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * <p>
+ * The <i>WriteAheadLog</i> makes the commits of a <i>StateManager</i>
+ * durable. Every committed writeSet is appended to the log as a record of the
+ * names of its `MemCell`s, their new <i>State</i>s and the commit version, see
+ * {@link LogFormat}. The <i>State</i>s are encoded by a <i>StateCodec</i>.
+ * 
+ * <br>
+ * <br>
+ * 
+ * The records are appended to an in-memory buffer while the
+ * <i>Transaction</i> still owns its writeSet, so the order of the records of
+ * the transactions writing the same `MemCell`s is their commit order. The
+ * buffer is written out and forced to the disk as per the <i>SyncPolicy</i>,
+ * once the <i>Transaction</i> has given up its ownerships. The fsync is a
+ * group commit: a single fsync covers all the records appended before it,
+ * and the transactions whose records it covers don't fsync on their own.
+ * 
+ * <br>
+ * <br>
+ * 
+ * The log is a directory of segment files, <code>wal-N.log</code>. Once the
+ * current segment grows past the <b>segmentSize</b> it is sealed and a new
+ * one is started. Once <b>compactionThreshold</b> segments are sealed they are
+ * compacted in the background into a single segment holding only the latest
+ * <i>State</i> of each `MemCell`, see {@link #compact()}.
+ * 
+ * <br>
+ * <br>
+ * 
+ * Usage:
+ * 
+ * <pre>
+ * WriteAheadLog log = new WriteAheadLog(directory, new SerializableStateCodec(), SyncPolicy.everyCommit());
+ * 
+ * StateManager manager = new StateManager();
+ * 
+ * log.recover(manager); // replays the log of the last run
+ * 
+ * manager.setWriteAheadLog(log); // logs the commits from now on
+ * </pre>
+ * 
+ * @author sidmishraw
+ *
+ *         Qualified Name: foop.core.durability.WriteAheadLog
+ * 
+ */
+public class WriteAheadLog implements Closeable {
+    
+    /** logging stuff **/
+    private static final Logger            logger               = LoggerFactory.getLogger(WriteAheadLog.class);
+    /** logging stuff **/
+    
+    /**
+     * <p>
+     * The default size of a segment, 64 MB.
+     */
+    public static final long               DEFAULT_SEGMENT_SIZE = 64L << 20;
+    
+    /**
+     * <p>
+     * The default number of sealed segments that triggers a compaction.
+     */
+    public static final int                DEFAULT_COMPACTION   = 4;
+    
+    /**
+     * <p>
+     * The number of bytes buffered in memory that forces the records to the
+     * disk regardless of the <i>SyncPolicy</i>.
+     */
+    private static final int               FLUSH_THRESHOLD      = 1 << 20;
+    
+    /**
+     * <p>
+     * The names of the segment files.
+     */
+    private static final Pattern           SEGMENT              = Pattern.compile("wal-(\\d+)\\.log");
+    
+    /**
+     * <p>
+     * The directory of the segments.
+     */
+    private final @Getter Path             directory;
+    
+    /**
+     * <p>
+     * The codec of the states.
+     */
+    private final StateCodec               codec;
+    
+    /**
+     * <p>
+     * The sync policy.
+     */
+    private final @Getter SyncPolicy       policy;
+    
+    /**
+     * <p>
+     * The size past which the current segment is sealed, in bytes.
+     */
+    private @Getter @Setter long           segmentSize;
+    
+    /**
+     * <p>
+     * The number of sealed segments that triggers a compaction, 0 to only
+     * compact on demand.
+     */
+    private @Getter @Setter int            compactionThreshold;
+    
+    /**
+     * <p>
+     * Guards the appending of the records: the <b>buffer</b>, the
+     * <b>appended</b> sequence.
+     */
+    private final Object                   appendLock           = new Object();
+    
+    /**
+     * <p>
+     * Guards the writing out of the records: the <b>spare</b> buffer, the
+     * current segment. Taken before the <b>appendLock</b>.
+     */
+    private final Object                   syncLock             = new Object();
+    
+    /**
+     * <p>
+     * Serializes the compactions.
+     */
+    private final Object                   compactLock          = new Object();
+    
+    /**
+     * <p>
+     * The records appended but not yet written out.
+     */
+    private ByteBuffer                     buffer;
+    
+    /**
+     * <p>
+     * The buffer being written out, swapped with the <b>buffer</b> by each
+     * sync.
+     */
+    private ByteBuffer                     spare;
+    
+    /**
+     * <p>
+     * The number of bytes in the <b>buffer</b>.
+     */
+    private volatile int                   buffered;
+    
+    /**
+     * <p>
+     * The sequence number of the last appended record.
+     */
+    private long                           appended;
+    
+    /**
+     * <p>
+     * The sequence number of the last record forced to the disk.
+     */
+    private volatile long                  durable;
+    
+    /**
+     * <p>
+     * The number of the current segment.
+     */
+    private long                           segment;
+    
+    /**
+     * <p>
+     * The channel of the current segment.
+     */
+    private FileChannel                    channel;
+    
+    /**
+     * <p>
+     * The number of bytes in the current segment.
+     */
+    private long                           segmentBytes;
+    
+    /**
+     * <p>
+     * The number of sealed segments.
+     */
+    private int                            sealed;
+    
+    /**
+     * <p>
+     * The error that failed the log, once the records can't be written out
+     * the log can't tell what made it to the disk.
+     */
+    private volatile IOException           failure;
+    
+    /**
+     * <p>
+     * true once closed.
+     */
+    private volatile boolean               closed;
+    
+    /**
+     * <p>
+     * Runs the background syncs and the compactions.
+     */
+    private final ScheduledExecutorService background;
+    
+    /**
+     * <p>
+     * Opens the log in the directory, making it if needed. A torn record at
+     * the end of the last segment, left by a crash, is truncated.
+     * 
+     * @param directory
+     *            The directory of the segments
+     * @param codec
+     *            The codec of the states
+     * @param policy
+     *            The sync policy
+     * 
+     * @throws IOException
+     *             if the directory or the last segment can't be opened
+     */
+    public WriteAheadLog(Path directory, StateCodec codec, SyncPolicy policy) throws IOException {
+        
+        this.directory = directory;
+        this.codec = codec;
+        this.policy = policy;
+        this.segmentSize = DEFAULT_SEGMENT_SIZE;
+        this.compactionThreshold = DEFAULT_COMPACTION;
+        this.buffer = ByteBuffer.allocateDirect(FLUSH_THRESHOLD);
+        this.spare = ByteBuffer.allocateDirect(FLUSH_THRESHOLD);
+        
+        Files.createDirectories(directory);
+        
+        // left over by a compaction cut short
+        try (Stream<Path> files = Files.list(directory)) {
+            
+            for (Path file : files.filter(file -> file.toString().endsWith(".compacting"))
+                    .collect(Collectors.toList())) {
+                
+                Files.delete(file);
+            }
+        }
+        
+        List<Long> segments = this.segments();
+        
+        if (segments.isEmpty()) {
+            
+            this.openSegment(1L);
+        } else {
+            
+            this.segment = segments.get(segments.size() - 1);
+            this.sealed = segments.size() - 1;
+            this.channel = FileChannel.open(this.pathOf(this.segment), StandardOpenOption.READ,
+                    StandardOpenOption.WRITE);
+            
+            MappedByteBuffer records = this.channel.map(FileChannel.MapMode.READ_ONLY, 0L, this.channel.size());
+            
+            this.segmentBytes = LogFormat.scan(records, null);
+            
+            if (this.segmentBytes < this.channel.size()) {
+                
+                logger.warn("Truncating the torn tail of the log segment {} at {} of {} bytes", this.segment,
+                        this.segmentBytes, this.channel.size());
+                
+                this.channel.truncate(this.segmentBytes);
+                this.channel.force(true);
+            }
+            
+            this.channel.position(this.segmentBytes);
+        }
+        
+        this.background = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            
+            Thread thread = new Thread(runnable, "foop-wal-" + directory.getFileName());
+            
+            thread.setDaemon(true);
+            
+            return thread;
+        });
+        
+        if (policy.getIntervalMillis() > 0) {
+            
+            this.background.scheduleWithFixedDelay(this::syncQuietly, policy.getIntervalMillis(),
+                    policy.getIntervalMillis(), TimeUnit.MILLISECONDS);
+        }
+    }
+    
+    /****** Logging START *******/
+    
+    /**
+     * <p>
+     * Appends the record of a committed writeSet to the log. Must be called
+     * while the committing <i>Transaction</i> owns the writeSet, so that the
+     * records of the conflicting transactions are in their commit order.
+     * 
+     * <p>
+     * The record is only buffered in memory, it is written out by
+     * {@link #awaitDurable(long)} or by the background syncs.
+     * 
+     * @param version
+     *            The commit version
+     * @param names
+     *            The names of the `MemCell`s
+     * @param states
+     *            The new states of the `MemCell`s
+     * 
+     * @return The sequence number of the record
+     * 
+     * @throws IllegalStateException
+     *             if the log is closed
+     */
+    public long append(long version, String[] names, State[] states) {
+        
+        byte[] kinds = new byte[states.length];
+        byte[][] encoded = new byte[states.length][];
+        
+        for (int i = 0; i < states.length; i++) {
+            
+            kinds[i] = LogFormat.kindOf(states[i]);
+            encoded[i] = LogFormat.encode(states[i], this.codec);
+        }
+        
+        byte[] record = LogFormat.encode(version, names, kinds, encoded);
+        
+        synchronized (this.appendLock) {
+            
+            if (this.closed) {
+                
+                throw new IllegalStateException("The log is closed");
+            }
+            
+            if (this.buffer.remaining() < record.length) {
+                
+                ByteBuffer bigger = ByteBuffer
+                        .allocateDirect(Math.max(this.buffer.capacity() << 1, this.buffer.position() + record.length));
+                
+                this.buffer.flip();
+                
+                bigger.put(this.buffer);
+                
+                this.buffer = bigger;
+            }
+            
+            this.buffer.put(record);
+            this.buffered = this.buffer.position();
+            
+            return ++this.appended;
+        }
+    }
+    
+    /**
+     * <p>
+     * Makes the record durable as per the <i>SyncPolicy</i>, called by the
+     * committing <i>Transaction</i> after it has given up its ownerships. It
+     * returns right away unless the policy wants this commit to sync or the
+     * record is already durable.
+     * 
+     * @param sequence
+     *            The sequence number of the record
+     * 
+     * @throws UncheckedIOException
+     *             if the records can't be written out
+     */
+    public void awaitDurable(long sequence) {
+        
+        long durable = this.durable;
+        
+        if (sequence <= durable) {
+            
+            return;
+        }
+        
+        if (this.policy.syncs(durable, sequence) || this.buffered >= FLUSH_THRESHOLD) {
+            
+            this.sync(sequence);
+        }
+    }
+    
+    /**
+     * <p>
+     * Forces all the records appended so far to the disk.
+     * 
+     * @throws UncheckedIOException
+     *             if the records can't be written out
+     */
+    public void sync() {
+        
+        long sequence;
+        
+        synchronized (this.appendLock) {
+            
+            sequence = this.appended;
+        }
+        
+        this.sync(sequence);
+    }
+    
+    /**
+     * <p>
+     * Gets the sequence number of the last record forced to the disk.
+     * 
+     * @return The sequence number
+     */
+    public long getDurableSequence() {
+        
+        return this.durable;
+    }
+    
+    /**
+     * <p>
+     * Forces the records up to the given sequence number to the disk, along
+     * with all the others appended so far. The appends carry on while the
+     * fsync is in progress, the transactions syncing meanwhile wait for it and
+     * return right away if it covered their records.
+     * 
+     * @param sequence
+     *            The sequence number
+     */
+    private void sync(long sequence) {
+        
+        synchronized (this.syncLock) {
+            
+            if (sequence <= this.durable) {
+                
+                return;
+            }
+            
+            if (null != this.failure) {
+                
+                throw new UncheckedIOException("The log has failed", this.failure);
+            }
+            
+            ByteBuffer records;
+            long last;
+            
+            synchronized (this.appendLock) {
+                
+                records = this.buffer;
+                last = this.appended;
+                
+                this.buffer = this.spare;
+                this.buffered = 0;
+            }
+            
+            try {
+                
+                records.flip();
+                
+                this.segmentBytes += records.remaining();
+                
+                while (records.hasRemaining()) {
+                    
+                    this.channel.write(records);
+                }
+                
+                this.channel.force(false);
+            } catch (IOException e) {
+                
+                this.failure = e;
+                
+                throw new UncheckedIOException("Failed to write out the log", e);
+            } finally {
+                
+                records.clear();
+                
+                this.spare = records;
+            }
+            
+            this.durable = last;
+            
+            if (this.segmentBytes >= this.segmentSize) {
+                
+                this.roll();
+            }
+        }
+    }
+    
+    /**
+     * <p>
+     * Syncs, logging the failures instead of throwing them. Used by the
+     * background syncs.
+     */
+    private void syncQuietly() {
+        
+        try {
+            
+            this.sync();
+        } catch (UncheckedIOException e) {
+            
+            logger.error("CRITICAL:: Failed to sync the log {}", this.directory, e);
+        }
+    }
+    
+    /**
+     * <p>
+     * Seals the current segment and starts a new one, must be called while
+     * holding the <b>syncLock</b> after a sync.
+     */
+    private void roll() {
+        
+        try {
+            
+            this.channel.close();
+            this.openSegment(this.segment + 1);
+        } catch (IOException e) {
+            
+            this.failure = e;
+            
+            throw new UncheckedIOException("Failed to roll the log", e);
+        }
+        
+        this.sealed++;
+        
+        logger.debug("Sealed the log segment {}, {} segments sealed", this.segment - 1, this.sealed);
+        
+        if (this.compactionThreshold > 0 && this.sealed >= this.compactionThreshold) {
+            
+            this.background.execute(() -> {
+                
+                try {
+                    
+                    this.compact();
+                } catch (IOException e) {
+                    
+                    logger.error("Failed to compact the log {}", this.directory, e);
+                }
+            });
+        }
+    }
+    
+    /****** Logging END *******/
+    
+    /****** Recovery and compaction START *******/
+    
+    /**
+     * <p>
+     * Replays the log into the <i>StateManager</i>, the `MemCell`s are made
+     * as needed and written with their latest logged <i>State</i>s. Must be
+     * called before the log is attached to the manager, see
+     * {@link StateManager#setWriteAheadLog(WriteAheadLog)}.
+     * 
+     * @param manager
+     *            The manager, usually a fresh one
+     * 
+     * @return The number of records replayed
+     * 
+     * @throws IOException
+     *             if a segment can't be read, or if a sealed segment is
+     *             corrupt
+     * @throws IllegalStateException
+     *             if the manager already logs its commits
+     */
+    public long recover(StateManager manager) throws IOException {
+        
+        if (null != manager.getWriteAheadLog()) {
+            
+            throw new IllegalStateException("Can't replay the log into a manager that already logs its commits");
+        }
+        
+        long[] records = new long[1];
+        
+        List<Long> segments;
+        
+        synchronized (this.syncLock) {
+            
+            segments = this.segments();
+        }
+        
+        for (int i = 0; i < segments.size(); i++) {
+            
+            boolean current = i == segments.size() - 1;
+            
+            this.read(segments.get(i), current, (version, names, kinds, states) -> {
+                
+                for (int j = 0; j < names.length; j++) {
+                    
+                    String name = names[j];
+                    
+                    Variable variable = manager.getVariable(name).orElseGet(() -> manager.make(name));
+                    
+                    manager.write(variable, LogFormat.decode(kinds[j], states[j], this.codec));
+                }
+                
+                records[0]++;
+            });
+        }
+        
+        logger.info("Replayed {} records from {} log segments", records[0], segments.size());
+        
+        return records[0];
+    }
+    
+    /**
+     * <p>
+     * Compacts the sealed segments into a single segment holding only the
+     * latest <i>State</i> of each `MemCell`. The compacted segment replaces
+     * the newest of the sealed segments and the others are deleted after
+     * that, so a crash at any point leaves a log that replays to the same
+     * <i>State</i>s. The current segment is not touched, the appends carry on
+     * during a compaction.
+     * 
+     * @throws IOException
+     *             if a segment can't be read or written, or if a sealed
+     *             segment is corrupt
+     */
+    public void compact() throws IOException {
+        
+        synchronized (this.compactLock) {
+            
+            List<Long> segments;
+            
+            synchronized (this.syncLock) {
+                
+                segments = this.segments();
+                segments.remove(this.segment);
+            }
+            
+            if (segments.size() < 2) {
+                
+                return;
+            }
+            
+            Map<String, byte[]> states = new LinkedHashMap<>();
+            Map<String, Byte> kinds = new LinkedHashMap<>();
+            Map<String, Long> versions = new LinkedHashMap<>();
+            
+            for (long sealedSegment : segments) {
+                
+                this.read(sealedSegment, false, (version, names, kind, encoded) -> {
+                    
+                    for (int i = 0; i < names.length; i++) {
+                        
+                        states.put(names[i], encoded[i]);
+                        kinds.put(names[i], kind[i]);
+                        versions.put(names[i], version);
+                    }
+                });
+            }
+            
+            long last = segments.get(segments.size() - 1);
+            
+            Path compacting = this.directory.resolve(this.pathOf(last).getFileName() + ".compacting");
+            
+            try (FileChannel out = FileChannel.open(compacting, StandardOpenOption.CREATE_NEW,
+                    StandardOpenOption.WRITE)) {
+                
+                for (Map.Entry<String, byte[]> state : states.entrySet()) {
+                    
+                    ByteBuffer record = ByteBuffer.wrap(LogFormat.encode(versions.get(state.getKey()),
+                            new String[] { state.getKey() }, new byte[] { kinds.get(state.getKey()) },
+                            new byte[][] { state.getValue() }));
+                    
+                    while (record.hasRemaining()) {
+                        
+                        out.write(record);
+                    }
+                }
+                
+                out.force(true);
+            }
+            
+            Files.move(compacting, this.pathOf(last), StandardCopyOption.ATOMIC_MOVE,
+                    StandardCopyOption.REPLACE_EXISTING);
+            
+            for (long sealedSegment : segments) {
+                
+                if (sealedSegment != last) {
+                    
+                    Files.delete(this.pathOf(sealedSegment));
+                }
+            }
+            
+            synchronized (this.syncLock) {
+                
+                this.sealed -= segments.size() - 1;
+            }
+            
+            logger.info("Compacted {} log segments into {} records", segments.size(), states.size());
+        }
+    }
+    
+    /**
+     * <p>
+     * Reads the records of a segment.
+     * 
+     * @param segment
+     *            The number of the segment
+     * @param current
+     *            true for the current segment, whose records past the last
+     *            sync are not read
+     * @param visitor
+     *            The visitor of the records
+     * 
+     * @throws IOException
+     *             if the segment can't be read, or if it is sealed and corrupt
+     */
+    private void read(long segment, boolean current, LogFormat.Visitor visitor) throws IOException {
+        
+        try (FileChannel in = FileChannel.open(this.pathOf(segment), StandardOpenOption.READ)) {
+            
+            MappedByteBuffer records = in.map(FileChannel.MapMode.READ_ONLY, 0L, in.size());
+            
+            int end = LogFormat.scan(records, visitor);
+            
+            if (!current && end < in.size()) {
+                
+                throw new IOException("The log segment " + this.pathOf(segment) + " is corrupt at " + end);
+            }
+        }
+    }
+    
+    /****** Recovery and compaction END *******/
+    
+    /**
+     * <p>
+     * Lists the numbers of the segments in the directory, in order.
+     * 
+     * @return The numbers of the segments
+     * 
+     * @throws IOException
+     *             if the directory can't be listed
+     */
+    private List<Long> segments() throws IOException {
+        
+        List<Long> segments = new ArrayList<>();
+        
+        try (Stream<Path> files = Files.list(this.directory)) {
+            
+            files.forEach(file -> {
+                
+                Matcher matcher = SEGMENT.matcher(file.getFileName().toString());
+                
+                if (matcher.matches()) {
+                    
+                    segments.add(Long.parseLong(matcher.group(1)));
+                }
+            });
+        }
+        
+        segments.sort(null);
+        
+        return segments;
+    }
+    
+    /**
+     * <p>
+     * Gets the path of a segment.
+     * 
+     * @param segment
+     *            The number of the segment
+     * 
+     * @return The path
+     */
+    private Path pathOf(long segment) {
+        
+        return this.directory.resolve(String.format("wal-%020d.log", segment));
+    }
+    
+    /**
+     * <p>
+     * Makes a new segment and makes it the current one.
+     * 
+     * @param segment
+     *            The number of the segment
+     * 
+     * @throws IOException
+     *             if the segment can't be made
+     */
+    private void openSegment(long segment) throws IOException {
+        
+        this.channel = FileChannel.open(this.pathOf(segment), StandardOpenOption.CREATE_NEW,
+                StandardOpenOption.WRITE);
+        this.segment = segment;
+        this.segmentBytes = 0L;
+        
+        // the new file itself must survive a crash
+        try (FileChannel directory = FileChannel.open(this.directory, StandardOpenOption.READ)) {
+            
+            directory.force(true);
+        } catch (IOException e) {
+            
+            // not supported on every platform
+            logger.debug("Couldn't sync the log directory {}", this.directory, e);
+        }
+    }
+    
+    /**
+     * <p>
+     * Forces all the records to the disk and closes the log. The commits of
+     * the <i>StateManager</i> must have stopped, or the log be detached from
+     * it, before.
+     * 
+     * @throws IOException
+     *             if the records can't be written out
+     */
+    @Override
+    public void close() throws IOException {
+        
+        this.background.shutdown();
+        
+        try {
+            
+            this.background.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            
+            Thread.currentThread().interrupt();
+        }
+        
+        synchronized (this.syncLock) {
+            
+            synchronized (this.appendLock) {
+                
+                this.closed = true;
+            }
+            
+            try {
+                
+                this.sync();
+            } catch (UncheckedIOException e) {
+                
+                throw e.getCause();
+            } finally {
+                
+                this.channel.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,446 @@
+/**
+ * Project: Foops_1
+ * Package: foop.core.metrics
+ * File: ContentionProfiler.java
+ * 
+ * @author sidmishraw
+ *         Last modified: Oct 19, 2026 4:15:40 AM
+ */
+package foop.core.metrics;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+import lombok.Getter;
+
+/**
+ * <p>
+ * The contention profiler of a <i>StateManager</i>, it tells which `MemCell`s
+ * the aborts and the waits of the transactions are about. Every
+ * <i>Transaction</i> running against the manager reports into it when it
+ * waits for the ownership of a `MemCell`, fails to take it, or finds a
+ * `MemCell` it read changed.
+ * 
+ * <p>
+ * Only the <b>capacity</b> hottest `MemCell`s are tracked, with the
+ * Space-Saving algorithm: a `MemCell` not tracked yet takes the place of the
+ * least contended tracked one and inherits its count of conflicts, so the
+ * memory is bounded however many `MemCell`s are contended. The count of
+ * conflicts of a <i>HotSpot</i> is an upper bound, over by at most its
+ * <b>error</b>, and every `MemCell` with more conflicts than the least
+ * contended <i>HotSpot</i> is sure to be tracked. The counts by kind and the
+ * wait time are exact since the `MemCell` was last taken in.
+ * 
+ * <p>
+ * Reporting on a tracked `MemCell` takes no lock, its counts are striped
+ * across the reporting threads. Only taking a `MemCell` in takes the lock of
+ * the profiler, to pick the one to evict. A report racing with the eviction
+ * of its `MemCell` may be lost, the profile is approximate anyway. When
+ * disabled, the transactions report nothing at all.
+ * 
+ * <br>
+ * <br>
+ * 
+ * The profiler can be read programmatically or exposed over JMX with
+ * {@link #register(String)}.
+ * 
+ * @author sidmishraw
+ *
+ *         Qualified Name: foop.core.metrics.ContentionProfiler
+ * 
+ */
+public class ContentionProfiler implements ContentionProfilerMBean {
+    
+    /**
+     * <p>
+     * The default number of tracked `MemCell`s.
+     */
+    public static final int            DEFAULT_CAPACITY = 32;
+    
+    private volatile boolean           enabled;
+    
+    private final int                  capacity;
+    
+    /**
+     * <p>
+     * The tracked `MemCell`s by name, only changed with the lock of the
+     * profiler held.
+     */
+    private final Map<String, Tally>   tallies;
+    
+    /**
+     * <p>
+     * Makes an empty, enabled profiler tracking the default number of
+     * `MemCell`s
+     */
+    public ContentionProfiler() {
+        
+        this(DEFAULT_CAPACITY);
+    }
+    
+    /**
+     * <p>
+     * Makes an empty, enabled profiler
+     * 
+     * @param capacity
+     *            The number of `MemCell`s tracked
+     * 
+     * @throws IllegalArgumentException
+     *             if the capacity is not positive
+     */
+    public ContentionProfiler(int capacity) {
+        
+        if (capacity < 1) {
+            
+            throw new IllegalArgumentException("The capacity must be positive: " + capacity);
+        }
+        
+        this.enabled = true;
+        this.capacity = capacity;
+        this.tallies = new ConcurrentHashMap<>(capacity << 1);
+    }
+    
+    /****** Reporting START *******/
+    
+    /**
+     * <p>
+     * Records a wait for the ownership of a `MemCell` that ended with the
+     * ownership taken.
+     * 
+     * @param variable
+     *            The name of the `MemCell`
+     * @param waitTime
+     *            The time waited in nanoseconds
+     */
+    public void ownershipAwaited(String variable, long waitTime) {
+        
+        if (this.enabled) {
+            
+            Tally tally = this.tally(variable);
+            
+            tally.ownershipWaits.increment();
+            tally.waitTime.add(waitTime);
+        }
+    }
+    
+    /**
+     * <p>
+     * Records a failure to take the ownership of a `MemCell`, after waiting
+     * for it or not.
+     * 
+     * @param variable
+     *            The name of the `MemCell`
+     * @param waitTime
+     *            The time waited in nanoseconds, 0 if the transaction didn't
+     *            wait
+     */
+    public void ownershipFailed(String variable, long waitTime) {
+        
+        if (this.enabled) {
+            
+            Tally tally = this.tally(variable);
+            
+            tally.ownershipFailures.increment();
+            tally.waitTime.add(waitTime);
+        }
+    }
+    
+    /**
+     * <p>
+     * Records a `MemCell` found changed, or being committed to, since it was
+     * read by the transaction validating its reads.
+     * 
+     * @param variable
+     *            The name of the `MemCell`
+     */
+    public void validationFailed(String variable) {
+        
+        if (this.enabled) {
+            
+            this.tally(variable).validationFailures.increment();
+        }
+    }
+    
+    /**
+     * <p>
+     * Counts one more conflict on the `MemCell`, taking it in if it is not
+     * tracked yet.
+     * 
+     * @param variable
+     *            The name of the `MemCell`
+     * 
+     * @return Its tally
+     */
+    private Tally tally(String variable) {
+        
+        Tally tally = this.tallies.get(variable);
+        
+        if (null == tally) {
+            
+            tally = this.takeIn(variable);
+        }
+        
+        tally.conflicts.increment();
+        
+        return tally;
+    }
+    
+    /**
+     * <p>
+     * Takes the `MemCell` in, evicting the least contended tracked one if the
+     * profiler is full.
+     * 
+     * @param variable
+     *            The name of the `MemCell`
+     * 
+     * @return Its tally
+     */
+    private synchronized Tally takeIn(String variable) {
+        
+        Tally tally = this.tallies.get(variable);
+        
+        if (null != tally) {
+            
+            // taken in by another thread meanwhile
+            return tally;
+        }
+        
+        long error = 0L;
+        
+        if (this.tallies.size() >= this.capacity) {
+            
+            Tally coldest = null;
+            long fewest = Long.MAX_VALUE;
+            
+            for (Tally candidate : this.tallies.values()) {
+                
+                long conflicts = candidate.conflicts.sum();
+                
+                if (conflicts < fewest) {
+                    
+                    coldest = candidate;
+                    fewest = conflicts;
+                }
+            }
+            
+            // the new one may have had as many conflicts while it was not
+            // tracked
+            this.tallies.remove(coldest.variable);
+            
+            error = fewest;
+        }
+        
+        tally = new Tally(variable, error);
+        
+        this.tallies.put(variable, tally);
+        
+        return tally;
+    }
+    
+    /****** Reporting END *******/
+    
+    /****** Reading START *******/
+    
+    /**
+     * <p>
+     * Gets the tracked `MemCell`s, the hottest first.
+     * 
+     * @return The hot spots as of now
+     */
+    public List<HotSpot> getHotSpots() {
+        
+        List<HotSpot> hotSpots = new ArrayList<>(this.capacity);
+        
+        for (Tally tally : this.tallies.values()) {
+            
+            hotSpots.add(new HotSpot(tally));
+        }
+        
+        hotSpots.sort(Comparator.comparingLong(HotSpot::getConflicts).reversed());
+        
+        return hotSpots;
+    }
+    
+    @Override
+    public boolean isEnabled() {
+        
+        return this.enabled;
+    }
+    
+    @Override
+    public void setEnabled(boolean enabled) {
+        
+        this.enabled = enabled;
+    }
+    
+    @Override
+    public int getCapacity() {
+        
+        return this.capacity;
+    }
+    
+    @Override
+    public String[] getHottest() {
+        
+        List<HotSpot> hotSpots = this.getHotSpots();
+        
+        String[] hottest = new String[hotSpots.size()];
+        
+        for (int i = 0; i < hottest.length; i++) {
+            
+            hottest[i] = hotSpots.get(i).toString();
+        }
+        
+        return hottest;
+    }
+    
+    @Override
+    public synchronized void reset() {
+        
+        this.tallies.clear();
+    }
+    
+    /****** Reading END *******/
+    
+    /****** JMX START *******/
+    
+    /**
+     * <p>
+     * Registers the profiler with the platform MBean server, under
+     * <code>foop:type=ContentionProfiler,name=&lt;name&gt;</code>.
+     * 
+     * @param name
+     *            The name telling the profiler apart from the ones of other
+     *            <i>StateManager</i>s
+     * 
+     * @return The object name of the MBean
+     * 
+     * @throws JMException
+     *             if the registration fails, e.g. the name is taken
+     */
+    public ObjectName register(String name) throws JMException {
+        
+        return MBeans.register(this, "ContentionProfiler", name);
+    }
+    
+    /**
+     * <p>
+     * Removes the profiler from the platform MBean server.
+     * 
+     * @param name
+     *            The name the profiler was registered with
+     * 
+     * @throws JMException
+     *             if the profiler was not registered
+     */
+    public void unregister(String name) throws JMException {
+        
+        MBeans.unregister("ContentionProfiler", name);
+    }
+    
+    /****** JMX END *******/
+    
+    /**
+     * <p>
+     * The counts of a tracked `MemCell`, striped across the reporting
+     * threads.
+     * 
+     * @author sidmishraw
+     *
+     *         Qualified Name: foop.core.metrics.ContentionProfiler.Tally
+     * 
+     */
+    private static final class Tally {
+        
+        final String    variable;
+        final long      error;
+        final LongAdder conflicts          = new LongAdder();
+        final LongAdder ownershipWaits     = new LongAdder();
+        final LongAdder ownershipFailures  = new LongAdder();
+        final LongAdder validationFailures = new LongAdder();
+        final LongAdder waitTime           = new LongAdder();
+        
+        Tally(String variable, long error) {
+            
+            this.variable = variable;
+            this.error = error;
+            this.conflicts.add(error);
+        }
+    }
+    
+    /**
+     * <p>
+     * A <i>HotSpot</i> is the contention of a tracked `MemCell`, as of the
+     * time it was read from the profiler.
+     * 
+     * <p>
+     * Contents of the hot spot are as follows:
+     * <ul>
+     * <li><b> variable </b>: The name of the `MemCell`.
+     * 
+     * <li><b> conflicts </b>: The number of waits and failures on the
+     * `MemCell`, over by at most the error.
+     * 
+     * <li><b> error </b>: The conflicts counted before the `MemCell` was
+     * taken in, that may have been on other `MemCell`s.
+     * 
+     * <li><b> ownershipWaits </b>: The number of waits for its ownership that
+     * ended with the ownership taken.
+     * 
+     * <li><b> ownershipFailures </b>: The number of failures to take its
+     * ownership.
+     * 
+     * <li><b> validationFailures </b>: The number of times it was found
+     * changed since it was read.
+     * 
+     * <li><b> waitTime </b>: The time spent waiting for its ownership, in
+     * nanoseconds.
+     * </ul>
+     * 
+     * @author sidmishraw
+     *
+     *         Qualified Name: foop.core.metrics.ContentionProfiler.HotSpot
+     * 
+     */
+    public static final class HotSpot {
+        
+        private final @Getter String variable;
+        private final @Getter long   conflicts;
+        private final @Getter long   error;
+        private final @Getter long   ownershipWaits;
+        private final @Getter long   ownershipFailures;
+        private final @Getter long   validationFailures;
+        private final @Getter long   waitTime;
+        
+        private HotSpot(Tally tally) {
+            
+            this.variable = tally.variable;
+            this.conflicts = tally.conflicts.sum();
+            this.error = tally.error;
+            this.ownershipWaits = tally.ownershipWaits.sum();
+            this.ownershipFailures = tally.ownershipFailures.sum();
+            this.validationFailures = tally.validationFailures.sum();
+            this.waitTime = tally.waitTime.sum();
+        }
+        
+        /*
+         * (non-Javadoc)
+         * 
+         * @see java.lang.Object#toString()
+         */
+        @Override
+        public String toString() {
+            
+            return "HotSpot [variable=" + this.variable + ", conflicts=" + this.conflicts + ", error=" + this.error
+                    + ", ownershipWaits=" + this.ownershipWaits + ", ownershipFailures=" + this.ownershipFailures
+                    + ", validationFailures=" + this.validationFailures + ", waitTime=" + this.waitTime + "]";
+        }
+    }
+}
@@ -0,0 +1,32 @@
+/**
+ * Project: Foops_1
+ * Package: foop.core.metrics
+ * File: ContentionProfilerMBean.java
+ * 
+ * @author sidmishraw
+ *         Last modified: Oct 19, 2026 4:02:18 AM
+ */
+package foop.core.metrics;
+
+/**
+ * <p>
+ * The JMX view of the <i>ContentionProfiler</i>. Wait times are in
+ * nanoseconds.
+ * 
+ * @author sidmishraw
+ *
+ *         Qualified Name: foop.core.metrics.ContentionProfilerMBean
+ * 
+ */
+public interface ContentionProfilerMBean {
+    
+    public boolean isEnabled();
+    
+    public void setEnabled(boolean enabled);
+    
+    public int getCapacity();
+    
+    public String[] getHottest();
+    
+    public void reset();
+}
@@ -0,0 +1,180 @@
+/**
+ * Project: Foops_1
+ * Package: foop.core.metrics
+ * File: Histogram.java
+ * 
+ * @author sidmishraw
+ *         Last modified: Oct 18, 2026 3:48:26 PM
+ */
+package foop.core.metrics;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * <p>
+ * A lock-free histogram with power of two buckets, bucket <i>i</i> counts the
+ * values in <code>[2^(i-1), 2^i)</code>. Recording a value is a couple of
+ * striped additions, so it can be done from every transaction without them
+ * contending with each other.
+ * 
+ * <br>
+ * <br>
+ * 
+ * Percentiles are approximated by the upper bound of the bucket they fall in,
+ * i.e. they are off by at most a factor of 2.
+ * 
+ * <br>
+ * <br>
+ * 
+ * The values are any non-negative longs, the latencies of the phases in
+ * nanoseconds as well as the retries of each transaction.
+ * 
+ * @author sidmishraw
+ *
+ *         Qualified Name: foop.core.metrics.Histogram
+ * 
+ */
+public class Histogram {
+    
+    private static final int      BUCKETS = 64;
+    
+    private final LongAdder[]     buckets;
+    
+    private final LongAdder       sum;
+    
+    private final LongAccumulator max;
+    
+    /**
+     * <p>
+     * Makes an empty histogram
+     */
+    public Histogram() {
+        
+        this.buckets = new LongAdder[BUCKETS];
+        
+        for (int i = 0; i < BUCKETS; i++) {
+            
+            this.buckets[i] = new LongAdder();
+        }
+        
+        this.sum = new LongAdder();
+        this.max = new LongAccumulator(Math::max, 0L);
+    }
+    
+    /**
+     * <p>
+     * Records the value, negative values are recorded as 0.
+     * 
+     * @param value
+     *            The value, a latency in nanoseconds or a count
+     */
+    public void record(long value) {
+        
+        long v = Math.max(0L, value);
+        
+        this.buckets[Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(v))].increment();
+        this.sum.add(v);
+        
+        // the max rarely changes, reading it first spares the update
+        if (v > this.max.get()) {
+            
+            this.max.accumulate(v);
+        }
+    }
+    
+    /**
+     * <p>
+     * Gets the number of recorded values
+     * 
+     * @return The count
+     */
+    public long getCount() {
+        
+        long count = 0L;
+        
+        for (LongAdder bucket : this.buckets) {
+            
+            count += bucket.sum();
+        }
+        
+        return count;
+    }
+    
+    /**
+     * <p>
+     * Gets the mean of the recorded values
+     * 
+     * @return The mean, 0 if nothing was recorded
+     */
+    public double getMean() {
+        
+        long n = this.getCount();
+        
+        return 0 == n ? 0.0 : (double) this.sum.sum() / n;
+    }
+    
+    /**
+     * <p>
+     * Gets the largest recorded value
+     * 
+     * @return The max, 0 if nothing was recorded
+     */
+    public long getMax() {
+        
+        return this.max.get();
+    }
+    
+    /**
+     * <p>
+     * Approximates the percentile of the recorded values
+     * 
+     * @param percentile
+     *            The percentile, between 0 and 100
+     * 
+     * @return The upper bound of the bucket the percentile falls in, capped by
+     *         the max
+     */
+    public long getPercentile(double percentile) {
+        
+        long n = this.getCount();
+        
+        if (0 == n) {
+            
+            return 0L;
+        }
+        
+        long rank = (long) Math.ceil(Math.min(100.0, Math.max(0.0, percentile)) / 100.0 * n);
+        long seen = 0L;
+        
+        for (int i = 0; i < BUCKETS; i++) {
+            
+            seen += this.buckets[i].sum();
+            
+            if (seen >= rank && seen > 0) {
+                
+                long upper = 0 == i ? 0L : (i >= 63 ? Long.MAX_VALUE : (1L << i) - 1);
+                
+                return Math.min(upper, this.getMax());
+            }
+        }
+        
+        return this.getMax();
+    }
+    
+    /**
+     * <p>
+     * Clears the histogram. Values recorded concurrently with the reset might
+     * or might not survive it.
+     */
+    public void reset() {
+        
+        for (LongAdder bucket : this.buckets) {
+            
+            bucket.reset();
+        }
+        
+        this.sum.reset();
+        this.max.reset();
+    }
+}
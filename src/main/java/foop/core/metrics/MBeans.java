@@ -0,0 +1,77 @@
+/**
+ * Project: Foops_1
+ * Package: foop.core.metrics
+ * File: MBeans.java
+ * 
+ * @author sidmishraw
+ *         Last modified: Oct 19, 2026 4:17:40 PM
+ */
+package foop.core.metrics;
+
+import java.lang.management.ManagementFactory;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+/**
+ * <p>
+ * Registers the MBeans of the metrics with the platform MBean server, under
+ * <code>foop:type=&lt;type&gt;,name=&lt;name&gt;</code>, the name telling
+ * apart the MBeans of the different <i>StateManager</i>s.
+ * 
+ * @author sidmishraw
+ *
+ *         Qualified Name: foop.core.metrics.MBeans
+ * 
+ */
+final class MBeans {
+    
+    private MBeans() {}
+    
+    /**
+     * <p>
+     * Registers the MBean with the platform MBean server.
+     * 
+     * @param mbean
+     *            The MBean
+     * @param type
+     *            The type of the MBean
+     * @param name
+     *            The name of the MBean
+     * 
+     * @return The object name of the MBean
+     * 
+     * @throws JMException
+     *             if the registration fails, e.g. the name is taken
+     */
+    static ObjectName register(Object mbean, String type, String name) throws JMException {
+        
+        ObjectName objectName = objectName(type, name);
+        
+        ManagementFactory.getPlatformMBeanServer().registerMBean(mbean, objectName);
+        
+        return objectName;
+    }
+    
+    /**
+     * <p>
+     * Removes the MBean from the platform MBean server.
+     * 
+     * @param type
+     *            The type of the MBean
+     * @param name
+     *            The name the MBean was registered with
+     * 
+     * @throws JMException
+     *             if the MBean was not registered
+     */
+    static void unregister(String type, String name) throws JMException {
+        
+        ManagementFactory.getPlatformMBeanServer().unregisterMBean(objectName(type, name));
+    }
+    
+    private static ObjectName objectName(String type, String name) throws JMException {
+        
+        return new ObjectName("foop:type=" + type + ",name=" + ObjectName.quote(name));
+    }
+}
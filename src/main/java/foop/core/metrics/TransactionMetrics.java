@@ -0,0 +1,423 @@
+/**
+ * Project: Foops_1
+ * Package: foop.core.metrics
+ * File: TransactionMetrics.java
+ * 
+ * @author sidmishraw
+ *         Last modified: Oct 18, 2026 4:10:37 PM
+ */
+package foop.core.metrics;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+import foop.core.AbortCause;
+
+/**
+ * <p>
+ * The metrics registry of a <i>StateManager</i>, every <i>Transaction</i>
+ * running against the manager reports into it.
+ * 
+ * <p>
+ * Contents of the registry are as follows:
+ * <ul>
+ * <li><b> commits </b>: The number of committed transactions.
+ * 
+ * <li><b> aborts </b>: The number of aborted attempts, by their
+ * <i>AbortCause</i>.
+ * 
+ * <li><b> retries </b>: The histogram of the number of retries per
+ * transaction.
+ * 
+ * <li><b> latencies </b>: The latency histograms of each <i>Phase</i> of an
+ * attempt.
+ * </ul>
+ * 
+ * <p>
+ * All counters are striped, so reporting costs a few uncontended additions
+ * per attempt. Reading the clock costs more than the rest of the reporting
+ * put together, so the phase latencies are only measured for a random sample
+ * of the attempts, one in <b>sampleRate</b>. The counters are exact. When
+ * disabled, the transactions report nothing at all.
+ * 
+ * <br>
+ * <br>
+ * 
+ * The registry can be read programmatically or exposed over JMX with
+ * {@link #register(String)}.
+ * 
+ * @author sidmishraw
+ *
+ *         Qualified Name: foop.core.metrics.TransactionMetrics
+ * 
+ */
+public class TransactionMetrics implements TransactionMetricsMBean {
+    
+    /**
+     * <p>
+     * The phases of an attempt of a transaction
+     * 
+     * @author sidmishraw
+     *
+     *         Qualified Name: foop.core.metrics.TransactionMetrics.Phase
+     * 
+     */
+    public static enum Phase {
+        OWNERSHIP, BACKUP, OPERATION, COMMIT
+    }
+    
+    /**
+     * <p>
+     * The default sampling of the phase latencies, one in 16 attempts.
+     */
+    public static final int                      DEFAULT_SAMPLE_RATE = 16;
+    
+    private volatile boolean                     enabled;
+    
+    private volatile int                         sampleRate;
+    
+    private final LongAdder                      commits;
+    
+    private final Map<AbortCause, LongAdder>     aborts;
+    
+    private final Histogram                      retries;
+    
+    private final Map<Phase, Histogram>          latencies;
+    
+    /**
+     * <p>
+     * Makes an empty, enabled registry
+     */
+    public TransactionMetrics() {
+        
+        this.enabled = true;
+        this.sampleRate = DEFAULT_SAMPLE_RATE;
+        this.commits = new LongAdder();
+        this.aborts = new EnumMap<>(AbortCause.class);
+        this.retries = new Histogram();
+        this.latencies = new EnumMap<>(Phase.class);
+        
+        for (AbortCause cause : AbortCause.values()) {
+            
+            this.aborts.put(cause, new LongAdder());
+        }
+        
+        for (Phase phase : Phase.values()) {
+            
+            this.latencies.put(phase, new Histogram());
+        }
+    }
+    
+    /****** Reporting START *******/
+    
+    /**
+     * <p>
+     * Marks the start of an attempt, deciding whether its phases are sampled.
+     * 
+     * @return The current time in nanoseconds, 0 if the attempt is not sampled
+     */
+    public long start() {
+        
+        if (!this.enabled) {
+            
+            return 0L;
+        }
+        
+        int rate = this.sampleRate;
+        
+        if (rate > 1 && 0 != ThreadLocalRandom.current().nextInt(rate)) {
+            
+            return 0L;
+        }
+        
+        return System.nanoTime();
+    }
+    
+    /**
+     * <p>
+     * Records the latency of a phase of a sampled attempt. The phases of an
+     * attempt are chained, the end of one phase being the start of the next.
+     * 
+     * @param phase
+     *            The phase
+     * @param start
+     *            The start of the phase, as returned by {@link #start()} or by
+     *            the recording of the previous phase
+     * 
+     * @return The end of the phase, 0 if the attempt is not sampled
+     */
+    public long record(Phase phase, long start) {
+        
+        if (0L == start) {
+            
+            return 0L;
+        }
+        
+        long end = System.nanoTime();
+        
+        this.latencies.get(phase).record(end - start);
+        
+        return end;
+    }
+    
+    /**
+     * <p>
+     * Records an aborted attempt.
+     * 
+     * @param cause
+     *            The reason of the abort
+     */
+    public void abort(AbortCause cause) {
+        
+        if (this.enabled) {
+            
+            this.aborts.get(cause).increment();
+        }
+    }
+    
+    /**
+     * <p>
+     * Records a completed transaction.
+     * 
+     * @param committed
+     *            true if the transaction committed, false if it bailed out
+     * @param retries
+     *            The number of retries the transaction took
+     */
+    public void complete(boolean committed, int retries) {
+        
+        if (this.enabled) {
+            
+            if (committed) {
+                
+                this.commits.increment();
+            }
+            
+            this.retries.record(retries);
+        }
+    }
+    
+    /****** Reporting END *******/
+    
+    /****** Reading START *******/
+    
+    /**
+     * <p>
+     * Gets the number of aborted attempts for the cause
+     * 
+     * @param cause
+     *            The reason of the abort
+     * 
+     * @return The number of aborts
+     */
+    public long getAborts(AbortCause cause) {
+        
+        return this.aborts.get(cause).sum();
+    }
+    
+    /**
+     * <p>
+     * Gets the histogram of the retries per transaction
+     * 
+     * @return The histogram
+     */
+    public Histogram getRetries() {
+        
+        return this.retries;
+    }
+    
+    /**
+     * <p>
+     * Gets the latency histogram of the phase
+     * 
+     * @param phase
+     *            The phase
+     * 
+     * @return The histogram, in nanoseconds
+     */
+    public Histogram getLatency(Phase phase) {
+        
+        return this.latencies.get(phase);
+    }
+    
+    @Override
+    public boolean isEnabled() {
+        
+        return this.enabled;
+    }
+    
+    @Override
+    public void setEnabled(boolean enabled) {
+        
+        this.enabled = enabled;
+    }
+    
+    @Override
+    public int getSampleRate() {
+        
+        return this.sampleRate;
+    }
+    
+    @Override
+    public void setSampleRate(int sampleRate) {
+        
+        if (sampleRate < 1) {
+            
+            throw new IllegalArgumentException("The sample rate must be at least 1, got: " + sampleRate);
+        }
+        
+        this.sampleRate = sampleRate;
+    }
+    
+    @Override
+    public long getCommits() {
+        
+        return this.commits.sum();
+    }
+    
+    @Override
+    public long getOwnershipAborts() {
+        
+        return this.getAborts(AbortCause.OWNERSHIP);
+    }
+    
+    @Override
+    public long getValidationAborts() {
+        
+        return this.getAborts(AbortCause.VALIDATION);
+    }
+    
+    @Override
+    public long getOperationAborts() {
+        
+        return this.getAborts(AbortCause.OPERATION);
+    }
+    
+    @Override
+    public long getRetryAborts() {
+        
+        return this.getAborts(AbortCause.RETRY);
+    }
+    
+    @Override
+    public double getRetriesMean() {
+        
+        return this.retries.getMean();
+    }
+    
+    @Override
+    public long getRetriesMax() {
+        
+        return this.retries.getMax();
+    }
+    
+    @Override
+    public double getOwnershipLatencyMean() {
+        
+        return this.getLatency(Phase.OWNERSHIP).getMean();
+    }
+    
+    @Override
+    public long getOwnershipLatency99() {
+        
+        return this.getLatency(Phase.OWNERSHIP).getPercentile(99.0);
+    }
+    
+    @Override
+    public double getBackupLatencyMean() {
+        
+        return this.getLatency(Phase.BACKUP).getMean();
+    }
+    
+    @Override
+    public long getBackupLatency99() {
+        
+        return this.getLatency(Phase.BACKUP).getPercentile(99.0);
+    }
+    
+    @Override
+    public double getOperationLatencyMean() {
+        
+        return this.getLatency(Phase.OPERATION).getMean();
+    }
+    
+    @Override
+    public long getOperationLatency99() {
+        
+        return this.getLatency(Phase.OPERATION).getPercentile(99.0);
+    }
+    
+    @Override
+    public double getCommitLatencyMean() {
+        
+        return this.getLatency(Phase.COMMIT).getMean();
+    }
+    
+    @Override
+    public long getCommitLatency99() {
+        
+        return this.getLatency(Phase.COMMIT).getPercentile(99.0);
+    }
+    
+    @Override
+    public void reset() {
+        
+        this.commits.reset();
+        this.retries.reset();
+        
+        for (LongAdder abort : this.aborts.values()) {
+            
+            abort.reset();
+        }
+        
+        for (Histogram latency : this.latencies.values()) {
+            
+            latency.reset();
+        }
+    }
+    
+    /****** Reading END *******/
+    
+    /****** JMX START *******/
+    
+    /**
+     * <p>
+     * Registers the registry with the platform MBean server, under
+     * <code>foop:type=TransactionMetrics,name=&lt;name&gt;</code>.
+     * 
+     * @param name
+     *            The name telling the registry apart from the ones of other
+     *            <i>StateManager</i>s
+     * 
+     * @return The object name of the MBean
+     * 
+     * @throws JMException
+     *             if the registration fails, e.g. the name is taken
+     */
+    public ObjectName register(String name) throws JMException {
+        
+        return MBeans.register(this, "TransactionMetrics", name);
+    }
+    
+    /**
+     * <p>
+     * Removes the registry from the platform MBean server.
+     * 
+     * @param name
+     *            The name the registry was registered with
+     * 
+     * @throws JMException
+     *             if the registry was not registered
+     */
+    public void unregister(String name) throws JMException {
+        
+        MBeans.unregister("TransactionMetrics", name);
+    }
+    
+    /****** JMX END *******/
+}
@@ -0,0 +1,62 @@
+/**
+ * Project: Foops_1
+ * Package: foop.core.metrics
+ * File: TransactionMetricsMBean.java
+ * 
+ * @author sidmishraw
+ *         Last modified: Oct 18, 2026 4:02:53 PM
+ */
+package foop.core.metrics;
+
+/**
+ * <p>
+ * The JMX view of the <i>TransactionMetrics</i>. Latencies are in
+ * nanoseconds.
+ * 
+ * @author sidmishraw
+ *
+ *         Qualified Name: foop.core.metrics.TransactionMetricsMBean
+ * 
+ */
+public interface TransactionMetricsMBean {
+    
+    public boolean isEnabled();
+    
+    public void setEnabled(boolean enabled);
+    
+    public int getSampleRate();
+    
+    public void setSampleRate(int sampleRate);
+    
+    public long getCommits();
+    
+    public long getOwnershipAborts();
+    
+    public long getValidationAborts();
+    
+    public long getOperationAborts();
+    
+    public long getRetryAborts();
+    
+    public double getRetriesMean();
+    
+    public long getRetriesMax();
+    
+    public double getOwnershipLatencyMean();
+    
+    public long getOwnershipLatency99();
+    
+    public double getBackupLatencyMean();
+    
+    public long getBackupLatency99();
+    
+    public double getOperationLatencyMean();
+    
+    public long getOperationLatency99();
+    
+    public double getCommitLatencyMean();
+    
+    public long getCommitLatency99();
+    
+    public void reset();
+}
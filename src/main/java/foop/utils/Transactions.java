@@ -8,9 +8,17 @@
  */
 package foop.utils;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
+
+import foop.core.ContentionManager;
 import foop.core.Record;
 import foop.core.StateManager;
 import foop.core.Transaction;
+import foop.core.TransactionExecutor;
+import foop.core.TransactionResult;
+import foop.core.ValueTransaction;
+import foop.core.Variable;
 
 /**
  * <p>
@@ -73,6 +81,23 @@ public final class Transactions {
         return this;
     }
     
+    /**
+     * <p>
+     * Adds the <i>Variable</i>s or `MemCell`s to the `writeSet` of the
+     * transaction.
+     * 
+     * @param variables
+     *            The `MemCell`s or <i>Variable</i>s
+     * 
+     * @return The <i>Transactions</i> utility for builder method chaining
+     */
+    public final Transactions addWriteSetMembers(Variable... variables) {
+        
+        this.t.addWriteSetMembers(variables);
+        
+        return this;
+    }
+    
     /**
      * <p>
      * Adds the <i>Variable</i>s or `MemCell`s to the `writeSet` of the
@@ -90,6 +115,23 @@ public final class Transactions {
         return this;
     }
     
+    /**
+     * <p>
+     * Adds the <i>Variable</i>s or `MemCell`s to the `readSet` of the
+     * transaction.
+     * 
+     * @param variables
+     *            The `MemCell`s or <i>Variable</i>s
+     * 
+     * @return The <i>Transactions</i> utility for builder method chaining
+     */
+    public final Transactions addReadSetMembers(Variable... variables) {
+        
+        this.t.addReadSetMembers(variables);
+        
+        return this;
+    }
+    
     /**
      * <p>
      * Adds the <i>Variable</i>s or `MemCell`s to the `readSet` of the
@@ -107,6 +149,22 @@ public final class Transactions {
         return this;
     }
     
+    /**
+     * <p>
+     * Declares the transaction read-only. It reads a consistent snapshot of
+     * the `MemCell`s, takes no ownerships and runs its operation at most
+     * twice, its readSet needs no validation. It must not write to any
+     * `MemCell`.
+     * 
+     * @return The <i>Transactions</i> utility for builder method chaining
+     */
+    public final Transactions readOnly() {
+        
+        this.t.getRecord().setReadOnly(true);
+        
+        return this;
+    }
+    
     /**
      * <p>
      * Adds the transaction's operational logic
@@ -123,6 +181,60 @@ public final class Transactions {
         return this;
     }
     
+    /**
+     * <p>
+     * Adds the transaction's operational logic going through a
+     * <i>TransactionContext</i>, the `MemCell`s it reads and writes are
+     * recorded as it runs instead of being declared.
+     * 
+     * @param operation
+     *            The operational logic of the transaction
+     * 
+     * @return The <i>Transactions</i> utility for builder method chaining
+     */
+    public final Transactions addTransactionOperation(Transaction.ContextOperation operation) {
+        
+        this.t.setContextOperation(operation);
+        
+        return this;
+    }
+    
+    /**
+     * <p>
+     * Adds the transaction's operational logic going through a
+     * <i>TransactionContext</i> and computing a result. It ends the chaining,
+     * the rest of the transaction must be set before: the result of the
+     * committed attempt is handed back through the returned handle, typed
+     * after the operation, by
+     * {@link ValueTransaction#submitAsync(TransactionExecutor)}.
+     * 
+     * @param operation
+     *            The operational logic of the transaction
+     * 
+     * @return The handle of the constructed transaction
+     */
+    public final <T> ValueTransaction<T> addValueOperation(Transaction.ValueOperation<T> operation) {
+        
+        return this.t.setValueOperation(operation);
+    }
+    
+    /**
+     * <p>
+     * Sets the contention manager of the transaction, overriding the default
+     * one of the <i>StateManager</i>.
+     * 
+     * @param contentionManager
+     *            The contention manager consulted on every abort
+     * 
+     * @return The <i>Transactions</i> utility for builder method chaining
+     */
+    public final Transactions addContentionManager(ContentionManager contentionManager) {
+        
+        this.t.setContentionManager(contentionManager);
+        
+        return this;
+    }
+    
     /**
      * <p>
      * The terminal method of the chaining, gives the constructed transaction
@@ -133,4 +245,35 @@ public final class Transactions {
         
         return this.t;
     }
+    
+    /**
+     * <p>
+     * The terminal method of the chaining, submits the constructed transaction
+     * to the executor instead of handing it back.
+     * 
+     * @param executor
+     *            The executor that runs the transaction
+     * 
+     * @return The handle of the submitted transaction
+     */
+    public final Future<Record> submit(TransactionExecutor executor) {
+        
+        return executor.submit(this.t);
+    }
+    
+    /**
+     * <p>
+     * The terminal method of the chaining, submits the constructed transaction
+     * to the executor without blocking, see
+     * {@link TransactionExecutor#submitAsync(Transaction)}.
+     * 
+     * @param executor
+     *            The executor that runs the transaction
+     * 
+     * @return The future of the outcome of the transaction, without a value
+     */
+    public final CompletableFuture<TransactionResult<Void>> submitAsync(TransactionExecutor executor) {
+        
+        return executor.submitAsync(this.t);
+    }
 }
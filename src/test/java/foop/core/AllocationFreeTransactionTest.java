@@ -0,0 +1,126 @@
+/**
+ * Project: Foops_1
+ * Package: foop.core
+ * File: AllocationFreeTransactionTest.java
+ * 
+ * @author sidmishraw
+ *         Last modified: Oct 19, 2026 5:06:51 PM
+ */
+package foop.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+import org.junit.Test;
+
+import foop.utils.Transactions;
+
+/**
+ * <p>
+ * Re-running an uncontended <i>Transaction</i> allocates nothing in the
+ * framework once the JIT has warmed it up, be it over declared `MemCell`s or
+ * over primitive ones.
+ * 
+ * @author sidmishraw
+ *
+ *         Qualified Name: foop.core.AllocationFreeTransactionTest
+ * 
+ */
+public class AllocationFreeTransactionTest {
+    
+    private static final int RUNS   = 10000;
+    
+    private static final int ROUNDS = 50;
+    
+    @Test
+    public void declaredSwapAllocatesNothing() {
+        
+        StateManager manager = new StateManager();
+        Variable source = manager.make("source");
+        Variable target = manager.make("target");
+        
+        manager.write(source, new Value());
+        manager.write(target, new Value());
+        
+        Transaction swap = new Transactions().newTransaction("swap", manager)
+                .addWriteSetMembers(source, target)
+                .addTransactionOperation(() -> {
+                    
+                    State state = manager.readState(source);
+                    
+                    manager.write(source, manager.readState(target));
+                    manager.write(target, state);
+                    
+                    return true;
+                })
+                .get();
+        
+        assertAllocationFree(swap);
+    }
+    
+    @Test
+    public void primitiveCounterAllocatesNothing() {
+        
+        StateManager manager = new StateManager();
+        TLong counter = new TLong(manager, "counter");
+        
+        Transaction count = new Transactions().newTransaction("count", manager)
+                .addWriteSetMembers(counter.getVariable())
+                .addTransactionOperation(() -> {
+                    
+                    counter.add(1);
+                    
+                    return true;
+                })
+                .get();
+        
+        assertAllocationFree(count);
+        
+        assertTrue(counter.get() >= RUNS);
+    }
+    
+    /**
+     * <p>
+     * Re-runs the transaction round after round, till a whole round allocates
+     * nothing on the current thread.
+     */
+    private static void assertAllocationFree(Transaction transaction) {
+        
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        
+        assumeTrue(threads instanceof com.sun.management.ThreadMXBean);
+        
+        com.sun.management.ThreadMXBean allocations = (com.sun.management.ThreadMXBean) threads;
+        
+        assumeTrue(allocations.isThreadAllocatedMemorySupported() && allocations.isThreadAllocatedMemoryEnabled());
+        
+        long thread = Thread.currentThread().getId();
+        long allocated = Long.MAX_VALUE;
+        
+        // the interpreter and the first compilations allocate what the
+        // escape analysis later takes away
+        for (int round = 0; round < ROUNDS && allocated > 0L; round++) {
+            
+            long start = allocations.getThreadAllocatedBytes(thread);
+            
+            for (int i = 0; i < RUNS; i++) {
+                
+                transaction.getRecord().reset();
+                transaction.run();
+            }
+            
+            allocated = allocations.getThreadAllocatedBytes(thread) - start;
+            
+            assertTrue(transaction.getRecord().isCommitted());
+        }
+        
+        assertEquals(0L, allocated);
+    }
+    
+    private static final class Value extends State {
+    }
+}
@@ -0,0 +1,84 @@
+/**
+ * Project: Foops_1
+ * Package: foop.core
+ * File: CommutativeTest.java
+ * 
+ * @author sidmishraw
+ *         Last modified: Oct 19, 2026 11:52:16 AM
+ */
+package foop.core;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+import foop.utils.Transactions;
+
+/**
+ * <p>
+ * No commutative update is lost, whether it is made from within a
+ * <i>Transaction</i> or outside of one.
+ * 
+ * @author sidmishraw
+ *
+ *         Qualified Name: foop.core.CommutativeTest
+ * 
+ */
+public class CommutativeTest {
+    
+    private static final int THREADS = 8;
+    
+    private static final int UPDATES = 2000;
+    
+    @Test
+    public void updatesOutsideOfTransactionsAreAtomic() throws InterruptedException {
+        
+        StateManager manager = new StateManager();
+        TLong counter = new TLong(manager, "counter");
+        
+        Races.race(THREADS, index -> {
+            
+            for (int i = 0; i < UPDATES; i++) {
+                
+                counter.commute(Commutative.ADD, 1L);
+            }
+        });
+        
+        assertEquals((long) THREADS * UPDATES, counter.get());
+    }
+    
+    @Test
+    public void deferredUpdatesMergeAtCommit() throws InterruptedException {
+        
+        StateManager manager = new StateManager();
+        TLong counter = new TLong(manager, "counter");
+        TLong maximum = new TLong(manager, "maximum");
+        
+        Races.race(THREADS, index -> {
+            
+            Transactions transactions = new Transactions();
+            
+            for (int i = 0; i < UPDATES; i++) {
+                
+                long value = (long) index * UPDATES + i;
+                
+                transactions.newTransaction("count", manager)
+                        .addTransactionOperation(() -> {
+                            
+                            counter.commute(Commutative.ADD, 1L);
+                            maximum.commute(Commutative.MAX, value);
+                            
+                            return true;
+                        })
+                        .get()
+                        .run();
+                
+                // and some from outside of the transactions
+                counter.commute(Commutative.ADD, 1L);
+            }
+        });
+        
+        assertEquals(2L * THREADS * UPDATES, counter.get());
+        assertEquals((long) THREADS * UPDATES - 1, maximum.get());
+    }
+}
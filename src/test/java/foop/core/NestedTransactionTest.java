@@ -0,0 +1,186 @@
+/**
+ * Project: Foops_1
+ * Package: foop.core
+ * File: NestedTransactionTest.java
+ * 
+ * @author sidmishraw
+ *         Last modified: Oct 19, 2026 1:39:20 PM
+ */
+package foop.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import foop.utils.Transactions;
+
+/**
+ * <p>
+ * A nested transaction rolls back and retries its own changes only, and
+ * hands them to the enclosing transaction once it completes.
+ * 
+ * @author sidmishraw
+ *
+ *         Qualified Name: foop.core.NestedTransactionTest
+ * 
+ */
+public class NestedTransactionTest {
+    
+    @Test
+    public void failedNestedTransactionUndoesItsChangesOnly() {
+        
+        StateManager manager = new StateManager();
+        TLong a = new TLong(manager, "a");
+        TLong b = new TLong(manager, "b");
+        TLong c = new TLong(manager, "c");
+        
+        AtomicBoolean failed = new AtomicBoolean();
+        
+        Transaction transaction = new Transactions().newTransaction("partial", manager)
+                .addTransactionOperation(context -> {
+                    
+                    a.set(1L);
+                    
+                    failed.set(!context.nested(nested -> {
+                        
+                        // a is rewritten, b is written first here
+                        a.set(2L);
+                        b.set(2L);
+                        
+                        return false;
+                    }));
+                    
+                    context.nested(nested -> {
+                        
+                        c.set(a.get() + 2L);
+                        
+                        return true;
+                    });
+                    
+                    return true;
+                })
+                .get();
+        
+        transaction.run();
+        
+        assertTrue(transaction.getRecord().isCommitted());
+        assertTrue(failed.get());
+        assertEquals(1L, a.get());
+        assertEquals(0L, b.get());
+        assertEquals(3L, c.get());
+    }
+    
+    @Test
+    public void conflictRetriesTheNestedTransactionAlone() {
+        
+        StateManager manager = new StateManager();
+        TLong a = new TLong(manager, "a");
+        TLong b = new TLong(manager, "b");
+        TLong c = new TLong(manager, "c");
+        
+        AtomicInteger runs = new AtomicInteger();
+        AtomicInteger nestedRuns = new AtomicInteger();
+        
+        Transaction transaction = new Transactions().newTransaction("partial", manager)
+                .addTransactionOperation(context -> {
+                    
+                    runs.incrementAndGet();
+                    
+                    a.set(1L);
+                    
+                    context.nested(nested -> {
+                        
+                        long value = c.get();
+                        
+                        if (1 == nestedRuns.incrementAndGet()) {
+                            
+                            // c changes after the nested transaction read it
+                            commitConcurrently(c);
+                        }
+                        
+                        b.set(value);
+                        
+                        return true;
+                    });
+                    
+                    return true;
+                })
+                .get();
+        
+        transaction.run();
+        
+        assertTrue(transaction.getRecord().isCommitted());
+        assertEquals(1, runs.get());
+        assertEquals(2, nestedRuns.get());
+        assertEquals(1L, a.get());
+        assertEquals(5L, b.get());
+        assertEquals(1L, manager.getMetrics().getValidationAborts());
+    }
+    
+    @Test
+    public void changedEnclosingReadAbortsTheAttempt() {
+        
+        StateManager manager = new StateManager();
+        TLong a = new TLong(manager, "a");
+        TLong b = new TLong(manager, "b");
+        TLong c = new TLong(manager, "c");
+        
+        AtomicInteger runs = new AtomicInteger();
+        
+        Transaction transaction = new Transactions().newTransaction("partial", manager)
+                .addTransactionOperation(context -> {
+                    
+                    runs.incrementAndGet();
+                    
+                    long value = c.get();
+                    
+                    boolean completed = context.nested(nested -> {
+                        
+                        if (1 == runs.get()) {
+                            
+                            // the read of the enclosing transaction changes
+                            commitConcurrently(c);
+                        }
+                        
+                        b.set(c.get());
+                        
+                        return true;
+                    });
+                    
+                    a.set(value);
+                    
+                    return completed;
+                })
+                .get();
+        
+        transaction.run();
+        
+        assertTrue(transaction.getRecord().isCommitted());
+        assertEquals(2, runs.get());
+        assertEquals(5L, a.get());
+        assertEquals(5L, b.get());
+    }
+    
+    /**
+     * <p>
+     * Sets the `MemCell` to 5 from another thread, and waits for it.
+     */
+    private static void commitConcurrently(TLong c) {
+        
+        Thread writer = new Thread(() -> c.set(5L));
+        
+        writer.start();
+        
+        try {
+            
+            writer.join();
+        } catch (InterruptedException e) {
+            
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,112 @@
+/**
+ * Project: Foops_1
+ * Package: foop.core
+ * File: OpacityTest.java
+ * 
+ * @author sidmishraw
+ *         Last modified: Oct 19, 2026 10:41:05 AM
+ */
+package foop.core;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Test;
+
+import foop.utils.Transactions;
+
+/**
+ * <p>
+ * The operation of a <i>Transaction</i> never sees an inconsistent state,
+ * not even in an attempt that aborts later on.
+ * 
+ * @author sidmishraw
+ *
+ *         Qualified Name: foop.core.OpacityTest
+ * 
+ */
+public class OpacityTest {
+    
+    private static final int WRITERS = 4;
+    
+    private static final int READERS = 4;
+    
+    private static final int READS   = 20000;
+    
+    @Test
+    public void checkedReadsSeeNoTornState() throws InterruptedException {
+        
+        StateManager manager = new StateManager();
+        
+        // x + y is always 0 in a committed state
+        TLong x = new TLong(manager, "x");
+        TLong y = new TLong(manager, "y");
+        
+        AtomicBoolean stop = new AtomicBoolean();
+        AtomicInteger readers = new AtomicInteger(READERS);
+        AtomicLong inconsistentViews = new AtomicLong();
+        AtomicLong committedSums = new AtomicLong();
+        
+        Races.race(WRITERS + READERS, index -> {
+            
+            Transactions transactions = new Transactions();
+            
+            if (index < WRITERS) {
+                
+                while (!stop.get()) {
+                    
+                    transactions.newTransaction("move", manager)
+                            .addWriteSetMembers(x.getVariable(), y.getVariable())
+                            .addTransactionOperation(() -> {
+                                
+                                x.add(1);
+                                y.add(-1);
+                                
+                                return true;
+                            })
+                            .get()
+                            .run();
+                }
+                
+                return;
+            }
+            
+            // a reader of its own, so the readers don't conflict
+            TLong sum = new TLong(manager, "sum" + index);
+            
+            for (int i = 0; i < READS; i++) {
+                
+                transactions.newTransaction("sum", manager)
+                        .addWriteSetMembers(sum.getVariable())
+                        .addTransactionOperation(() -> {
+                            
+                            long value = x.get() + y.get();
+                            
+                            if (0L != value) {
+                                
+                                inconsistentViews.incrementAndGet();
+                            }
+                            
+                            sum.set(value);
+                            
+                            return true;
+                        })
+                        .get()
+                        .run();
+                
+                committedSums.addAndGet(Math.abs(sum.get()));
+            }
+            
+            if (0 == readers.decrementAndGet()) {
+                
+                stop.set(true);
+            }
+        });
+        
+        assertEquals(0L, inconsistentViews.get());
+        assertEquals(0L, committedSums.get());
+    }
+}
@@ -0,0 +1,177 @@
+/**
+ * Project: Foops_1
+ * Package: foop.core
+ * File: OwnershipStressTest.java
+ * 
+ * @author sidmishraw
+ *         Last modified: Oct 19, 2026 9:12:40 AM
+ */
+package foop.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import org.junit.Test;
+
+import foop.utils.Transactions;
+
+/**
+ * <p>
+ * Hammers overlapping writeSets from many threads at once, no `MemCell` may
+ * ever have two owners.
+ * 
+ * @author sidmishraw
+ *
+ *         Qualified Name: foop.core.OwnershipStressTest
+ * 
+ */
+public class OwnershipStressTest {
+    
+    private static final int THREADS   = 16;
+    
+    private static final int VARIABLES = 8;
+    
+    private static final int ROUNDS    = 20000;
+    
+    @Test
+    public void acquireGrantsOneOwnerAtATime() throws InterruptedException {
+        
+        StateManager manager = new StateManager();
+        Variable[] variables = new Variable[VARIABLES];
+        
+        for (int i = 0; i < VARIABLES; i++) {
+            
+            variables[i] = manager.make("v" + i);
+        }
+        
+        // the number of threads believing they own each variable
+        AtomicIntegerArray owners = new AtomicIntegerArray(VARIABLES);
+        AtomicInteger doubleOwnerships = new AtomicInteger();
+        
+        Races.race(THREADS, index -> {
+            
+            Transaction transaction = new Transaction();
+            
+            for (int round = 0; round < ROUNDS; round++) {
+                
+                // two overlapping variables, in no particular order
+                int first = ThreadLocalRandom.current().nextInt(VARIABLES);
+                int second = (first + 1 + ThreadLocalRandom.current().nextInt(2)) % VARIABLES;
+                
+                for (int i : new int[] { first, second }) {
+                    
+                    if (!manager.acquireOwnership(variables[i], transaction)) {
+                        
+                        continue;
+                    }
+                    
+                    if (1 != owners.incrementAndGet(i)) {
+                        
+                        doubleOwnerships.incrementAndGet();
+                    }
+                    
+                    Thread.yield();
+                    
+                    owners.decrementAndGet(i);
+                    
+                    assertTrue(manager.releaseOwnership(variables[i], transaction));
+                }
+            }
+        });
+        
+        assertEquals(0, doubleOwnerships.get());
+        
+        for (int i = 0; i < VARIABLES; i++) {
+            
+            assertFalse(manager.getOwner(variables[i]).isPresent());
+        }
+    }
+    
+    @Test
+    public void releaseOnlyByTheOwner() {
+        
+        StateManager manager = new StateManager();
+        Variable variable = manager.make("v");
+        
+        Transaction owner = new Transaction();
+        Transaction other = new Transaction();
+        
+        assertTrue(manager.acquireOwnership(variable, owner));
+        assertTrue(manager.acquireOwnership(variable, owner));
+        assertFalse(manager.acquireOwnership(variable, other));
+        assertFalse(manager.releaseOwnership(variable, other));
+        assertSame(owner, manager.getOwner(variable).get());
+        assertTrue(manager.releaseOwnership(variable, owner));
+        assertTrue(manager.acquireOwnership(variable, other));
+    }
+    
+    @Test
+    public void overlappingTransactionsLoseNoUpdate() throws InterruptedException {
+        
+        StateManager manager = new StateManager();
+        TLong[] counters = new TLong[VARIABLES];
+        
+        for (int i = 0; i < VARIABLES; i++) {
+            
+            counters[i] = new TLong(manager, "c" + i);
+        }
+        
+        AtomicIntegerArray inside = new AtomicIntegerArray(VARIABLES);
+        AtomicInteger doubleOwnerships = new AtomicInteger();
+        
+        int transactions = 2000;
+        
+        Races.race(THREADS, index -> {
+            
+            Transactions builder = new Transactions();
+            
+            for (int round = 0; round < transactions; round++) {
+                
+                int first = ThreadLocalRandom.current().nextInt(VARIABLES);
+                int second = (first + 1) % VARIABLES;
+                
+                builder.newTransaction("increment", manager)
+                        .addWriteSetMembers(counters[first].getVariable(), counters[second].getVariable())
+                        .addTransactionOperation(() -> {
+                            
+                            for (int i : new int[] { first, second }) {
+                                
+                                if (1 != inside.incrementAndGet(i)) {
+                                    
+                                    doubleOwnerships.incrementAndGet();
+                                }
+                                
+                                // a lost update shows up in the totals
+                                long value = counters[i].get();
+                                
+                                Thread.yield();
+                                
+                                counters[i].set(value + 1);
+                                
+                                inside.decrementAndGet(i);
+                            }
+                            
+                            return true;
+                        })
+                        .get()
+                        .run();
+            }
+        });
+        
+        long total = 0L;
+        
+        for (TLong counter : counters) {
+            
+            total += counter.get();
+        }
+        
+        assertEquals(0, doubleOwnerships.get());
+        assertEquals(2L * THREADS * transactions, total);
+    }
+}
@@ -0,0 +1,210 @@
+/**
+ * Project: Foops_1
+ * Package: foop.core
+ * File: OwnershipWaitTest.java
+ * 
+ * @author sidmishraw
+ *         Last modified: Oct 19, 2026 1:14:08 PM
+ */
+package foop.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import foop.utils.Transactions;
+
+/**
+ * <p>
+ * A <i>Transaction</i> waits for a `MemCell` owned by another one instead of
+ * aborting, and the waits never deadlock since the writeSets are owned in
+ * the same order by all of them.
+ * 
+ * @author sidmishraw
+ *
+ *         Qualified Name: foop.core.OwnershipWaitTest
+ * 
+ */
+public class OwnershipWaitTest {
+    
+    private static final int THREADS      = 8;
+    
+    private static final int TRANSACTIONS = 2000;
+    
+    @Test
+    public void waitsForTheOwnerToRelease() throws InterruptedException {
+        
+        StateManager manager = new StateManager();
+        TLong x = new TLong(manager, "x");
+        
+        manager.setOwnershipTimeout(TimeUnit.SECONDS.toNanos(10));
+        
+        CountDownLatch owned = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        
+        Thread holder = hold(manager, x, owned, release);
+        
+        owned.await();
+        
+        Thread waiter = new Thread(() -> increment(manager, x).run());
+        
+        waiter.start();
+        
+        // the waiter parks on the owned MemCell
+        awaitParked(waiter);
+        
+        release.countDown();
+        
+        holder.join();
+        waiter.join();
+        
+        assertEquals(2L, x.get());
+        assertEquals(0L, manager.getMetrics().getOwnershipAborts());
+    }
+    
+    @Test
+    public void zeroTimeoutAbortsRightAway() throws InterruptedException {
+        
+        StateManager manager = new StateManager();
+        TLong x = new TLong(manager, "x");
+        
+        manager.setOwnershipTimeout(0L);
+        
+        CountDownLatch owned = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        
+        Thread holder = hold(manager, x, owned, release);
+        
+        owned.await();
+        
+        Transaction transaction = increment(manager, x);
+        Thread waiter = new Thread(transaction::run);
+        
+        waiter.start();
+        
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        
+        while (0L == manager.getMetrics().getOwnershipAborts() && System.nanoTime() < deadline) {
+            
+            Thread.yield();
+        }
+        
+        release.countDown();
+        
+        holder.join();
+        waiter.join();
+        
+        assertEquals(2L, x.get());
+        assertTrue(0 < transaction.getRecord().getRetries());
+        assertTrue(0L < manager.getMetrics().getOwnershipAborts());
+    }
+    
+    @Test
+    public void oppositeDeclarationOrdersDoNotDeadlock() throws InterruptedException {
+        
+        StateManager manager = new StateManager();
+        TLong a = new TLong(manager, "a");
+        TLong b = new TLong(manager, "b");
+        
+        // a deadlock would only be broken by this timeout
+        manager.setOwnershipTimeout(TimeUnit.SECONDS.toNanos(10));
+        
+        Races.race(THREADS, index -> {
+            
+            Transactions transactions = new Transactions();
+            
+            Variable first = (0 == index % 2 ? a : b).getVariable();
+            Variable second = (0 == index % 2 ? b : a).getVariable();
+            
+            for (int i = 0; i < TRANSACTIONS; i++) {
+                
+                transactions.newTransaction("transfer", manager)
+                        .addWriteSetMembers(first, second)
+                        .addTransactionOperation(() -> {
+                            
+                            a.add(1);
+                            
+                            Thread.yield();
+                            
+                            b.add(-1);
+                            
+                            return true;
+                        })
+                        .get()
+                        .run();
+            }
+        });
+        
+        assertEquals((long) THREADS * TRANSACTIONS, a.get());
+        assertEquals(-(long) THREADS * TRANSACTIONS, b.get());
+        assertEquals(0L, manager.getMetrics().getOwnershipAborts());
+    }
+    
+    /**
+     * <p>
+     * Makes a transaction adding 1 to the `MemCell`.
+     */
+    private static Transaction increment(StateManager manager, TLong x) {
+        
+        return new Transactions().newTransaction("increment", manager)
+                .addWriteSetMembers(x.getVariable())
+                .addTransactionOperation(() -> {
+                    
+                    x.add(1);
+                    
+                    return true;
+                })
+                .get();
+    }
+    
+    /**
+     * <p>
+     * Starts a thread owning the `MemCell` in a transaction till it is told
+     * to release it.
+     */
+    private static Thread hold(StateManager manager, TLong x, CountDownLatch owned, CountDownLatch release) {
+        
+        Thread holder = new Thread(() -> new Transactions().newTransaction("hold", manager)
+                .addWriteSetMembers(x.getVariable())
+                .addTransactionOperation(() -> {
+                    
+                    owned.countDown();
+                    
+                    try {
+                        
+                        release.await();
+                    } catch (InterruptedException e) {
+                        
+                        Thread.currentThread().interrupt();
+                    }
+                    
+                    x.add(1);
+                    
+                    return true;
+                })
+                .get()
+                .run());
+        
+        holder.start();
+        
+        return holder;
+    }
+    
+    /**
+     * <p>
+     * Waits for the thread to park, for a while at most.
+     */
+    private static void awaitParked(Thread thread) throws InterruptedException {
+        
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        
+        while (Thread.State.TIMED_WAITING != thread.getState() && System.nanoTime() < deadline) {
+            
+            Thread.sleep(1L);
+        }
+    }
+}
@@ -0,0 +1,160 @@
+/**
+ * Project: Foops_1
+ * Package: foop.core
+ * File: PlainWriteTest.java
+ * 
+ * @author sidmishraw
+ *         Last modified: Oct 19, 2026 2:31:12 PM
+ */
+package foop.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Test;
+
+import foop.utils.Transactions;
+
+/**
+ * <p>
+ * A write from outside of a <i>Transaction</i> waits for the owner of the
+ * `MemCell`, it never overwrites a tentative state nor publishes an older
+ * version over a newer one.
+ * 
+ * @author sidmishraw
+ *
+ *         Qualified Name: foop.core.PlainWriteTest
+ * 
+ */
+public class PlainWriteTest {
+    
+    private static final int THREADS = 8;
+    
+    private static final int WRITES  = 2000;
+    
+    @Test
+    public void plainWriteWaitsForTheOwner() throws InterruptedException {
+        
+        StateManager manager = new StateManager();
+        Variable x = manager.make("x");
+        
+        manager.write(x, new Value(0));
+        
+        CountDownLatch owned = new CountDownLatch(1);
+        CountDownLatch written = new CountDownLatch(1);
+        AtomicInteger readBack = new AtomicInteger(-1);
+        
+        Thread owner = new Thread(() -> new Transactions().newTransaction("owner", manager)
+                .addWriteSetMembers(x)
+                .addTransactionOperation(() -> {
+                    
+                    manager.write(x, new Value(1));
+                    
+                    owned.countDown();
+                    
+                    try {
+                        
+                        // the plain write has its chance to interfere
+                        written.await(100L, TimeUnit.MILLISECONDS);
+                    } catch (InterruptedException e) {
+                        
+                        Thread.currentThread().interrupt();
+                    }
+                    
+                    readBack.set(((Value) manager.readState(x)).value);
+                    
+                    return true;
+                })
+                .get()
+                .run());
+        
+        owner.start();
+        owned.await();
+        
+        Thread writer = new Thread(() -> {
+            
+            manager.write(x, new Value(99));
+            
+            written.countDown();
+        });
+        
+        writer.start();
+        
+        owner.join();
+        writer.join();
+        
+        assertEquals(1, readBack.get());
+        
+        // the plain write is committed after the owner
+        assertEquals(99, ((Value) manager.readState(x)).value);
+    }
+    
+    @Test
+    public void plainWritesPublishIncreasingVersions() throws InterruptedException {
+        
+        StateManager manager = new StateManager();
+        TLong x = new TLong(manager, "x");
+        Cell cell = manager.cell(x.getVariable().getId());
+        
+        AtomicBoolean stop = new AtomicBoolean();
+        AtomicInteger writers = new AtomicInteger(THREADS);
+        AtomicLong backwards = new AtomicLong();
+        
+        Races.race(THREADS + 1, index -> {
+            
+            if (THREADS == index) {
+                
+                long last = 0L;
+                
+                while (!stop.get()) {
+                    
+                    long version = cell.version;
+                    
+                    if (Cell.BUSY == version) {
+                        
+                        continue;
+                    }
+                    
+                    if (version < last) {
+                        
+                        backwards.incrementAndGet();
+                    }
+                    
+                    last = version;
+                }
+                
+                return;
+            }
+            
+            for (int i = 0; i < WRITES; i++) {
+                
+                x.set(i);
+            }
+            
+            if (0 == writers.decrementAndGet()) {
+                
+                stop.set(true);
+            }
+        });
+        
+        assertEquals(0L, backwards.get());
+        assertTrue(0L < cell.version);
+        assertEquals(WRITES - 1L, x.get());
+    }
+    
+    private static final class Value extends State {
+        
+        private final int value;
+        
+        private Value(int value) {
+            
+            this.value = value;
+        }
+    }
+}
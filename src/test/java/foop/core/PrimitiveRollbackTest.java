@@ -0,0 +1,206 @@
+/**
+ * Project: Foops_1
+ * Package: foop.core
+ * File: PrimitiveRollbackTest.java
+ * 
+ * @author sidmishraw
+ *         Last modified: Oct 19, 2026 5:34:48 PM
+ */
+package foop.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import foop.utils.Transactions;
+
+/**
+ * <p>
+ * The writes of a failed or aborted attempt to the <i>TLong</i>,
+ * <i>TInt</i>, <i>TDouble</i> and <i>TRef</i> `MemCell`s are rolled back to
+ * the exact states they had before it.
+ * 
+ * @author sidmishraw
+ *
+ *         Qualified Name: foop.core.PrimitiveRollbackTest
+ * 
+ */
+public class PrimitiveRollbackTest {
+    
+    @Test
+    public void failedTransactionRestoresEveryType() {
+        
+        StateManager manager = new StateManager();
+        Cells cells = new Cells(manager);
+        
+        Transaction transaction = new Transactions().newTransaction("faulty", manager)
+                .addWriteSetMembers(cells.variables())
+                .addTransactionOperation(() -> {
+                    
+                    cells.overwrite();
+                    
+                    // the owner reads its own tentative states
+                    cells.assertOverwritten();
+                    
+                    return false;
+                })
+                .get();
+        
+        transaction.run();
+        
+        assertFalse(transaction.getRecord().isCommitted());
+        
+        cells.assertInitial();
+    }
+    
+    @Test
+    public void throwingTransactionRestoresEveryType() {
+        
+        StateManager manager = new StateManager();
+        Cells cells = new Cells(manager);
+        IllegalStateException failure = new IllegalStateException("boom");
+        
+        Transaction transaction = new Transactions().newTransaction("throwing", manager)
+                .addWriteSetMembers(cells.variables())
+                .addTransactionOperation(() -> {
+                    
+                    cells.overwrite();
+                    
+                    throw failure;
+                })
+                .get();
+        
+        try {
+            
+            transaction.run();
+            
+            throw new AssertionError("The failure of the operation was swallowed");
+        } catch (IllegalStateException e) {
+            
+            assertSame(failure, e);
+        }
+        
+        cells.assertInitial();
+    }
+    
+    @Test
+    public void abortedAttemptOfAContextTransactionIsUndone() {
+        
+        StateManager manager = new StateManager();
+        Cells cells = new Cells(manager);
+        TLong trigger = new TLong(manager, "trigger");
+        
+        AtomicInteger runs = new AtomicInteger();
+        
+        Transaction transaction = new Transactions().newTransaction("context", manager)
+                .addTransactionOperation(context -> {
+                    
+                    long seen = trigger.get();
+                    
+                    if (1 == runs.incrementAndGet()) {
+                        
+                        cells.overwrite();
+                        
+                        // the read changes after the writes, the attempt
+                        // aborts at commit
+                        Thread writer = new Thread(() -> trigger.set(1L));
+                        
+                        writer.start();
+                        
+                        try {
+                            
+                            writer.join();
+                        } catch (InterruptedException e) {
+                            
+                            throw new IllegalStateException(e);
+                        }
+                    }
+                    
+                    cells.l.add(seen);
+                    
+                    return true;
+                })
+                .get();
+        
+        transaction.run();
+        
+        assertTrue(transaction.getRecord().isCommitted());
+        assertEquals(2, runs.get());
+        
+        // only the second attempt took effect
+        assertEquals(Long.MIN_VALUE + 1L, cells.l.get());
+        assertEquals(Integer.MIN_VALUE, cells.i.get());
+        assertEquals(Double.doubleToRawLongBits(-0.0), Double.doubleToRawLongBits(cells.d.get()));
+        assertSame(cells.initial, cells.r.get());
+    }
+    
+    /**
+     * <p>
+     * A `MemCell` of each type, holding values whose bits are easily mangled.
+     */
+    private static final class Cells {
+        
+        private final TLong      l;
+        
+        private final TInt       i;
+        
+        private final TDouble    d;
+        
+        private final TRef<Text> r;
+        
+        private final Text       initial     = new Text();
+        
+        private final Text       overwritten = new Text();
+        
+        private Cells(StateManager manager) {
+            
+            this.l = new TLong(manager, "l");
+            this.i = new TInt(manager, "i");
+            this.d = new TDouble(manager, "d");
+            this.r = new TRef<>(manager, "r");
+            
+            this.l.set(Long.MIN_VALUE);
+            this.i.set(Integer.MIN_VALUE);
+            this.d.set(-0.0);
+            this.r.set(this.initial);
+        }
+        
+        private Variable[] variables() {
+            
+            return new Variable[] { this.l.getVariable(), this.i.getVariable(), this.d.getVariable(),
+                    this.r.getVariable() };
+        }
+        
+        private void overwrite() {
+            
+            this.l.set(Long.MAX_VALUE);
+            this.i.add(-1);
+            this.d.set(Double.NaN);
+            this.r.set(this.overwritten);
+        }
+        
+        private void assertOverwritten() {
+            
+            assertEquals(Long.MAX_VALUE, this.l.get());
+            assertEquals(Integer.MAX_VALUE, this.i.get());
+            assertTrue(Double.isNaN(this.d.get()));
+            assertSame(this.overwritten, this.r.get());
+        }
+        
+        private void assertInitial() {
+            
+            assertEquals(Long.MIN_VALUE, this.l.get());
+            assertEquals(Integer.MIN_VALUE, this.i.get());
+            assertEquals(Double.doubleToRawLongBits(-0.0), Double.doubleToRawLongBits(this.d.get()));
+            assertSame(this.initial, this.r.get());
+        }
+    }
+    
+    private static final class Text extends State {
+    }
+}
@@ -0,0 +1,101 @@
+/**
+ * Project: Foops_1
+ * Package: foop.core
+ * File: Races.java
+ * 
+ * @author sidmishraw
+ *         Last modified: Oct 19, 2026 9:20:03 AM
+ */
+package foop.core;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * <p>
+ * Runs a task on many threads released at the same time, for the tests
+ * hammering the `MemCell`s concurrently.
+ * 
+ * @author sidmishraw
+ *
+ *         Qualified Name: foop.core.Races
+ * 
+ */
+public final class Races {
+    
+    /**
+     * <p>
+     * The task of a racing thread
+     */
+    public static interface Task {
+        
+        /**
+         * <p>
+         * Runs the task.
+         * 
+         * @param index
+         *            The index of the thread, from 0
+         */
+        void run(int index) throws Exception;
+    }
+    
+    private Races() {
+    }
+    
+    /**
+     * <p>
+     * Runs the task on the given number of threads started together, and
+     * waits for all of them.
+     * 
+     * @param threads
+     *            The number of threads
+     * @param task
+     *            The task run by each thread
+     * 
+     * @throws AssertionError
+     *             if the task failed on any of the threads
+     */
+    public static void race(int threads, Task task) throws InterruptedException {
+        
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> runners = new ArrayList<>(threads);
+        List<Throwable> failures = new ArrayList<>();
+        
+        for (int i = 0; i < threads; i++) {
+            
+            int index = i;
+            
+            Thread runner = new Thread(() -> {
+                
+                try {
+                    
+                    start.await();
+                    
+                    task.run(index);
+                } catch (Throwable e) {
+                    
+                    synchronized (failures) {
+                        
+                        failures.add(e);
+                    }
+                }
+            });
+            
+            runner.start();
+            runners.add(runner);
+        }
+        
+        start.countDown();
+        
+        for (Thread runner : runners) {
+            
+            runner.join();
+        }
+        
+        if (!failures.isEmpty()) {
+            
+            throw new AssertionError("A racing thread failed", failures.get(0));
+        }
+    }
+}
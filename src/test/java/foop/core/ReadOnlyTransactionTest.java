@@ -0,0 +1,110 @@
+/**
+ * Project: Foops_1
+ * Package: foop.core
+ * File: ReadOnlyTransactionTest.java
+ * 
+ * @author sidmishraw
+ *         Last modified: Oct 19, 2026 11:27:40 AM
+ */
+package foop.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Test;
+
+import foop.utils.Transactions;
+
+/**
+ * <p>
+ * The transactions that write nothing still commit consistent reads only,
+ * and a read-only one that throws completes like a read-write one.
+ * 
+ * @author sidmishraw
+ *
+ *         Qualified Name: foop.core.ReadOnlyTransactionTest
+ * 
+ */
+public class ReadOnlyTransactionTest {
+    
+    @Test
+    public void writeFreeCommitValidatesItsReads() {
+        
+        StateManager manager = new StateManager();
+        TLong x = new TLong(manager, "x");
+        
+        AtomicInteger runs = new AtomicInteger();
+        AtomicLong seen = new AtomicLong();
+        
+        Transaction transaction = new Transactions().newTransaction("lookup", manager)
+                .addReadSetMembers(x.getVariable())
+                .addTransactionOperation(() -> {
+                    
+                    seen.set(x.get());
+                    
+                    if (1 == runs.incrementAndGet()) {
+                        
+                        // x changes after it was read
+                        Thread writer = new Thread(() -> x.set(1L));
+                        
+                        writer.start();
+                        
+                        try {
+                            
+                            writer.join();
+                        } catch (InterruptedException e) {
+                            
+                            throw new IllegalStateException(e);
+                        }
+                    }
+                    
+                    return true;
+                })
+                .get();
+        
+        transaction.run();
+        
+        assertTrue(transaction.getRecord().isCommitted());
+        assertEquals(2, runs.get());
+        assertEquals(1L, seen.get());
+    }
+    
+    @Test
+    public void throwingReadOnlyOperationCompletes() {
+        
+        StateManager manager = new StateManager();
+        TLong x = new TLong(manager, "x");
+        
+        IllegalStateException failure = new IllegalStateException("boom");
+        
+        Transaction transaction = new Transactions().newTransaction("lookup", manager)
+                .readOnly()
+                .addTransactionOperation(() -> {
+                    
+                    x.get();
+                    
+                    throw failure;
+                })
+                .get();
+        
+        try {
+            
+            transaction.run();
+            
+            fail("The failure of the operation was swallowed");
+        } catch (IllegalStateException e) {
+            
+            assertSame(failure, e);
+        }
+        
+        assertTrue(transaction.getRecord().getStatus());
+        assertFalse(transaction.getRecord().isCommitted());
+        assertEquals(1L, manager.getMetrics().getOperationAborts());
+    }
+}
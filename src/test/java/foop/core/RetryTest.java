@@ -0,0 +1,158 @@
+/**
+ * Project: Foops_1
+ * Package: foop.core
+ * File: RetryTest.java
+ * 
+ * @author sidmishraw
+ *         Last modified: Oct 19, 2026 1:52:37 PM
+ */
+package foop.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import foop.utils.Transactions;
+
+/**
+ * <p>
+ * A <i>Transaction</i> calling retry blocks till a `MemCell` it read
+ * changes, and orElse falls back to its second operation instead.
+ * 
+ * @author sidmishraw
+ *
+ *         Qualified Name: foop.core.RetryTest
+ * 
+ */
+public class RetryTest {
+    
+    @Test
+    public void retryBlocksTillAReadChanges() throws InterruptedException {
+        
+        StateManager manager = new StateManager();
+        TLong available = new TLong(manager, "available");
+        TLong taken = new TLong(manager, "taken");
+        
+        AtomicInteger runs = new AtomicInteger();
+        
+        Thread consumer = new Thread(() -> new Transactions().newTransaction("take", manager)
+                .addTransactionOperation(context -> {
+                    
+                    runs.incrementAndGet();
+                    
+                    long count = available.get();
+                    
+                    if (0L == count) {
+                        
+                        return context.retry();
+                    }
+                    
+                    available.set(count - 1);
+                    taken.add(1);
+                    
+                    return true;
+                })
+                .get()
+                .run());
+        
+        consumer.start();
+        
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        
+        while (Thread.State.WAITING != consumer.getState() && System.nanoTime() < deadline) {
+            
+            Thread.sleep(1L);
+        }
+        
+        // blocked, not spinning
+        int blockedRuns = runs.get();
+        
+        Thread.sleep(50L);
+        
+        assertEquals(blockedRuns, runs.get());
+        assertEquals(0L, taken.get());
+        
+        available.set(1L);
+        
+        consumer.join(TimeUnit.SECONDS.toMillis(10));
+        
+        assertEquals(Thread.State.TERMINATED, consumer.getState());
+        assertEquals(0L, available.get());
+        assertEquals(1L, taken.get());
+        assertTrue(0L < manager.getMetrics().getRetryAborts());
+    }
+    
+    @Test
+    public void orElseRunsTheSecondWhenTheFirstRetries() {
+        
+        StateManager manager = new StateManager();
+        TLong first = new TLong(manager, "first");
+        TLong second = new TLong(manager, "second");
+        TLong tried = new TLong(manager, "tried");
+        TLong taken = new TLong(manager, "taken");
+        
+        second.set(1L);
+        
+        Transaction transaction = new Transactions().newTransaction("take", manager)
+                .addTransactionOperation(context -> context.orElse(alternative -> {
+                    
+                    // undone once it retries
+                    tried.set(1L);
+                    
+                    return 0L == first.get() ? alternative.retry() : take(first, taken);
+                }, alternative -> 0L == second.get() ? alternative.retry() : take(second, taken)))
+                .get();
+        
+        transaction.run();
+        
+        assertTrue(transaction.getRecord().isCommitted());
+        assertEquals(0L, tried.get());
+        assertEquals(0L, second.get());
+        assertEquals(1L, taken.get());
+    }
+    
+    @Test
+    public void retryWithNothingReadThrows() {
+        
+        StateManager manager = new StateManager();
+        TLong x = new TLong(manager, "x");
+        
+        Transaction transaction = new Transactions().newTransaction("blind", manager)
+                .addTransactionOperation(context -> {
+                    
+                    x.set(1L);
+                    
+                    return context.retry();
+                })
+                .get();
+        
+        try {
+            
+            transaction.run();
+            
+            fail("A transaction with nothing to wait for blocked");
+        } catch (IllegalStateException e) {
+            
+            // expected
+        }
+        
+        assertEquals(0L, x.get());
+    }
+    
+    /**
+     * <p>
+     * Moves one from the source to the taken count.
+     */
+    private static boolean take(TLong source, TLong taken) {
+        
+        source.add(-1);
+        taken.add(1);
+        
+        return true;
+    }
+}
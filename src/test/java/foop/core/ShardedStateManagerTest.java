@@ -0,0 +1,160 @@
+/**
+ * Project: Foops_1
+ * Package: foop.core
+ * File: ShardedStateManagerTest.java
+ * 
+ * @author sidmishraw
+ *         Last modified: Oct 19, 2026 5:21:14 PM
+ */
+package foop.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import org.junit.Test;
+
+import foop.utils.Transactions;
+
+/**
+ * <p>
+ * A sharded <i>StateManager</i> ends up in the same states as an un-sharded
+ * one running the same transactions, however its `MemCell`s are spread.
+ * 
+ * @author sidmishraw
+ *
+ *         Qualified Name: foop.core.ShardedStateManagerTest
+ * 
+ */
+public class ShardedStateManagerTest {
+    
+    private static final int THREADS   = 4;
+    
+    private static final int VARIABLES = 256;
+    
+    private static final int ROUNDS    = 50;
+    
+    @Test
+    public void shardedAndSingleMapManagersAgree() throws InterruptedException {
+        
+        Map<String, Long> expected = run(new StateManager(1));
+        
+        for (int shards : new int[] { 2, 3, 16 }) {
+            
+            assertEquals("shards: " + shards, expected, run(new StateManager(shards)));
+        }
+    }
+    
+    @Test
+    public void shardsAreRoundedUpToAPowerOfTwo() {
+        
+        assertEquals(1, new StateManager(1).getShards());
+        assertEquals(4, new StateManager(3).getShards());
+        assertEquals(16, new StateManager(16).getShards());
+        
+        try {
+            
+            new StateManager(0);
+            
+            throw new AssertionError("No shards were accepted");
+        } catch (IllegalArgumentException e) {
+            
+            // expected
+        }
+    }
+    
+    @Test
+    public void remakingAVariableKeepsItsCellInEveryShard() {
+        
+        StateManager manager = new StateManager(8);
+        Set<Integer> ids = new HashSet<>();
+        
+        for (int i = 0; i < VARIABLES; i++) {
+            
+            TLong variable = new TLong(manager, "v" + i);
+            
+            variable.set(i);
+            
+            assertTrue(ids.add(variable.getVariable().getId()));
+        }
+        
+        assertEquals(VARIABLES, manager.size());
+        
+        for (int i = 0; i < VARIABLES; i++) {
+            
+            Variable remade = manager.make("v" + i);
+            
+            assertSame(remade, manager.getVariable("v" + i).get());
+            assertTrue(ids.contains(remade.getId()));
+            assertEquals((long) i, ((PrimitiveState) manager.readState(remade)).longValue());
+        }
+        
+        assertEquals(VARIABLES, manager.size());
+    }
+    
+    /**
+     * <p>
+     * Makes more `MemCell`s than the initial capacity of a shard, and has
+     * each thread move amounts from its share of them to the next ones,
+     * counting every move into a shared total. The moves only add, so the
+     * final states don't depend on the order of the commits.
+     * 
+     * @return The states of the `MemCell`s by name
+     */
+    private static Map<String, Long> run(StateManager manager) throws InterruptedException {
+        
+        TLong[] variables = new TLong[VARIABLES];
+        
+        for (int i = 0; i < VARIABLES; i++) {
+            
+            variables[i] = new TLong(manager, "v" + i);
+        }
+        
+        TLong total = new TLong(manager, "total");
+        
+        Races.race(THREADS, index -> {
+            
+            Transactions transactions = new Transactions();
+            
+            for (int round = 0; round < ROUNDS; round++) {
+                
+                for (int i = index; i < VARIABLES; i += THREADS) {
+                    
+                    TLong from = variables[i];
+                    TLong to = variables[(i + THREADS) % VARIABLES];
+                    long amount = i + round;
+                    
+                    transactions.newTransaction("move", manager)
+                            .addWriteSetMembers(from.getVariable(), to.getVariable(), total.getVariable())
+                            .addTransactionOperation(() -> {
+                                
+                                from.add(-amount);
+                                to.add(amount + 1);
+                                total.add(1);
+                                
+                                return true;
+                            })
+                            .get()
+                            .run();
+                }
+            }
+        });
+        
+        Map<String, Long> states = new TreeMap<>();
+        
+        for (Variable variable : manager.getVariables()) {
+            
+            states.put(variable.getName(), ((PrimitiveState) manager.readState(variable)).longValue());
+        }
+        
+        assertEquals(VARIABLES + 1, manager.size());
+        assertEquals((long) VARIABLES * ROUNDS, total.get());
+        
+        return states;
+    }
+}
@@ -0,0 +1,216 @@
+/**
+ * Project: Foops_1
+ * Package: foop.core
+ * File: SnapshotReadTest.java
+ * 
+ * @author sidmishraw
+ *         Last modified: Oct 19, 2026 1:02:45 PM
+ */
+package foop.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Test;
+
+import foop.utils.Transactions;
+
+/**
+ * <p>
+ * A read-only <i>Transaction</i> sees a consistent set of committed states,
+ * whatever is committed while it runs. Its operation runs once more at most,
+ * over a snapshot that never aborts.
+ * 
+ * @author sidmishraw
+ *
+ *         Qualified Name: foop.core.SnapshotReadTest
+ * 
+ */
+public class SnapshotReadTest {
+    
+    private static final int WRITERS = 4;
+    
+    private static final int READERS = 4;
+    
+    private static final int READS   = 5000;
+    
+    @Test
+    public void rerunReadsItsSnapshot() {
+        
+        StateManager manager = new StateManager();
+        TLong x = new TLong(manager, "x");
+        TLong y = new TLong(manager, "y");
+        
+        AtomicInteger runs = new AtomicInteger();
+        AtomicLong seenX = new AtomicLong(-1L);
+        AtomicLong seenY = new AtomicLong(-1L);
+        
+        Transaction transaction = new Transactions().newTransaction("lookup", manager)
+                .readOnly()
+                .addTransactionOperation(() -> {
+                    
+                    runs.incrementAndGet();
+                    
+                    seenX.set(x.get());
+                    
+                    // both change after x was read, in either run
+                    commitConcurrently(manager, x, y);
+                    
+                    seenY.set(y.get());
+                    
+                    return true;
+                })
+                .get();
+        
+        transaction.run();
+        
+        assertTrue(transaction.getRecord().isCommitted());
+        assertEquals(2, runs.get());
+        assertEquals(1L, seenX.get());
+        assertEquals(1L, seenY.get());
+        assertEquals(2L, x.get());
+        assertEquals(2L, y.get());
+    }
+    
+    @Test
+    public void writingThrows() {
+        
+        StateManager manager = new StateManager();
+        TLong x = new TLong(manager, "x");
+        
+        Transaction transaction = new Transactions().newTransaction("lookup", manager)
+                .readOnly()
+                .addTransactionOperation(() -> {
+                    
+                    x.set(1L);
+                    
+                    return true;
+                })
+                .get();
+        
+        try {
+            
+            transaction.run();
+            
+            fail("A read-only transaction wrote");
+        } catch (IllegalStateException e) {
+            
+            // expected
+        }
+        
+        assertEquals(0L, x.get());
+    }
+    
+    @Test
+    public void readersRunTwiceAtMostUnderWriters() throws InterruptedException {
+        
+        StateManager manager = new StateManager();
+        
+        // x + y is always 0 in a committed state
+        TLong x = new TLong(manager, "x");
+        TLong y = new TLong(manager, "y");
+        
+        AtomicBoolean stop = new AtomicBoolean();
+        AtomicInteger readers = new AtomicInteger(READERS);
+        AtomicLong inconsistentViews = new AtomicLong();
+        AtomicLong snapshotAborts = new AtomicLong();
+        
+        Races.race(WRITERS + READERS, index -> {
+            
+            Transactions transactions = new Transactions();
+            
+            if (index < WRITERS) {
+                
+                while (!stop.get()) {
+                    
+                    transactions.newTransaction("move", manager)
+                            .addWriteSetMembers(x.getVariable(), y.getVariable())
+                            .addTransactionOperation(() -> {
+                                
+                                x.add(1);
+                                y.add(-1);
+                                
+                                return true;
+                            })
+                            .get()
+                            .run();
+                }
+                
+                return;
+            }
+            
+            for (int i = 0; i < READS; i++) {
+                
+                AtomicInteger runs = new AtomicInteger();
+                
+                transactions.newTransaction("sum", manager)
+                        .readOnly()
+                        .addTransactionOperation(() -> {
+                            
+                            runs.incrementAndGet();
+                            
+                            long first = x.get();
+                            
+                            Thread.yield();
+                            
+                            if (0L != first + y.get()) {
+                                
+                                inconsistentViews.incrementAndGet();
+                            }
+                            
+                            return true;
+                        })
+                        .get()
+                        .run();
+                
+                if (2 < runs.get()) {
+                    
+                    snapshotAborts.incrementAndGet();
+                }
+            }
+            
+            if (0 == readers.decrementAndGet()) {
+                
+                stop.set(true);
+            }
+        });
+        
+        assertEquals(0L, inconsistentViews.get());
+        assertEquals(0L, snapshotAborts.get());
+    }
+    
+    /**
+     * <p>
+     * Adds 1 to both `MemCell`s in one transaction from another thread, and
+     * waits for it.
+     */
+    private static void commitConcurrently(StateManager manager, TLong x, TLong y) {
+        
+        Thread writer = new Thread(() -> new Transactions().newTransaction("increment", manager)
+                .addWriteSetMembers(x.getVariable(), y.getVariable())
+                .addTransactionOperation(() -> {
+                    
+                    x.add(1);
+                    y.add(1);
+                    
+                    return true;
+                })
+                .get()
+                .run());
+        
+        writer.start();
+        
+        try {
+            
+            writer.join();
+        } catch (InterruptedException e) {
+            
+            Thread.currentThread().interrupt();
+        }
+    }
+}
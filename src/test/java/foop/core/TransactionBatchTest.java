@@ -0,0 +1,140 @@
+/**
+ * Project: Foops_1
+ * Package: foop.core
+ * File: TransactionBatchTest.java
+ * 
+ * @author sidmishraw
+ *         Last modified: Oct 19, 2026 10:02:17 AM
+ */
+package foop.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import foop.utils.Transactions;
+
+/**
+ * <p>
+ * A throwing operation fails its own transaction of a
+ * <i>TransactionBatch</i> only, and the commutative updates of the batch
+ * wait for the commit.
+ * 
+ * @author sidmishraw
+ *
+ *         Qualified Name: foop.core.TransactionBatchTest
+ * 
+ */
+public class TransactionBatchTest {
+    
+    @Test
+    public void throwingOperationFailsItsTransactionOnly() {
+        
+        StateManager manager = new StateManager();
+        TLong a = new TLong(manager, "a");
+        TLong b = new TLong(manager, "b");
+        TLong c = new TLong(manager, "c");
+        
+        Transactions transactions = new Transactions();
+        List<Transaction> batch = new ArrayList<>();
+        
+        batch.add(transactions.newTransaction("first", manager)
+                .addWriteSetMembers(a.getVariable())
+                .addTransactionOperation(() -> a.add(1) > 0)
+                .get());
+        
+        batch.add(transactions.newTransaction("throwing", manager)
+                .addWriteSetMembers(b.getVariable())
+                .addTransactionOperation(() -> {
+                    
+                    b.add(1);
+                    
+                    throw new IllegalStateException("boom");
+                })
+                .get());
+        
+        batch.add(transactions.newTransaction("last", manager)
+                .addWriteSetMembers(c.getVariable())
+                .addTransactionOperation(() -> c.add(1) > 0)
+                .get());
+        
+        // planned in the round after the throwing one
+        batch.add(transactions.newTransaction("later", manager)
+                .addWriteSetMembers(b.getVariable())
+                .addTransactionOperation(() -> b.add(10) > 0)
+                .get());
+        
+        List<Record> records = new TransactionBatch(batch).run();
+        
+        for (Record record : records) {
+            
+            assertTrue(record.getStatus());
+        }
+        
+        assertTrue(records.get(0).isCommitted());
+        assertFalse(records.get(1).isCommitted());
+        assertTrue(records.get(2).isCommitted());
+        assertTrue(records.get(3).isCommitted());
+        
+        assertEquals(1L, a.get());
+        assertEquals(10L, b.get());
+        assertEquals(1L, c.get());
+        
+        for (TLong variable : new TLong[] { a, b, c }) {
+            
+            assertFalse(manager.getOwner(variable.getVariable()).isPresent());
+        }
+        
+        assertEquals(1L, manager.getMetrics().getOperationAborts());
+    }
+    
+    @Test
+    public void commutativeUpdatesWaitForTheCommit() {
+        
+        StateManager manager = new StateManager();
+        TLong total = new TLong(manager, "total");
+        TLong other = new TLong(manager, "other");
+        
+        Transactions transactions = new Transactions();
+        List<Transaction> batch = new ArrayList<>();
+        
+        for (int i = 0; i < 8; i++) {
+            
+            batch.add(transactions.newTransaction("add", manager)
+                    .addWriteSetMembers(other.getVariable())
+                    .addTransactionOperation(() -> {
+                        
+                        total.commute(Commutative.ADD, 1L);
+                        
+                        return other.add(1) > 0;
+                    })
+                    .get());
+        }
+        
+        batch.add(transactions.newTransaction("faulty", manager)
+                .addTransactionOperation(() -> {
+                    
+                    total.commute(Commutative.ADD, 100L);
+                    
+                    // the update is dropped with the rest of the attempt
+                    return false;
+                })
+                .get());
+        
+        List<Record> records = new TransactionBatch(batch).run();
+        
+        for (int i = 0; i < 8; i++) {
+            
+            assertTrue(records.get(i).isCommitted());
+        }
+        
+        assertFalse(records.get(8).isCommitted());
+        assertEquals(8L, total.get());
+        assertFalse(manager.getOwner(total.getVariable()).isPresent());
+    }
+}
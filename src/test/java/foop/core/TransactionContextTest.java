@@ -0,0 +1,196 @@
+/**
+ * Project: Foops_1
+ * Package: foop.core
+ * File: TransactionContextTest.java
+ * 
+ * @author sidmishraw
+ *         Last modified: Oct 19, 2026 1:27:51 PM
+ */
+package foop.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Test;
+
+import foop.utils.Transactions;
+
+/**
+ * <p>
+ * A <i>Transaction</i> with no declared readSet or writeSet owns what it
+ * writes and validates what it reads, as recorded by its
+ * <i>TransactionContext</i>.
+ * 
+ * @author sidmishraw
+ *
+ *         Qualified Name: foop.core.TransactionContextTest
+ * 
+ */
+public class TransactionContextTest {
+    
+    private static final int THREADS      = 8;
+    
+    private static final int COUNTERS     = 4;
+    
+    private static final int TRANSACTIONS = 2000;
+    
+    @Test
+    public void undeclaredWritesLoseNoUpdate() throws InterruptedException {
+        
+        StateManager manager = new StateManager();
+        TLong[] counters = new TLong[COUNTERS];
+        
+        for (int i = 0; i < COUNTERS; i++) {
+            
+            counters[i] = new TLong(manager, "c" + i);
+        }
+        
+        Races.race(THREADS, index -> {
+            
+            Transactions transactions = new Transactions();
+            
+            for (int round = 0; round < TRANSACTIONS; round++) {
+                
+                int first = ThreadLocalRandom.current().nextInt(COUNTERS);
+                int second = (first + 1) % COUNTERS;
+                
+                transactions.newTransaction("increment", manager)
+                        .addTransactionOperation(context -> {
+                            
+                            for (int i : new int[] { first, second }) {
+                                
+                                // a lost update shows up in the totals
+                                long value = counters[i].get();
+                                
+                                Thread.yield();
+                                
+                                counters[i].set(value + 1);
+                            }
+                            
+                            return true;
+                        })
+                        .get()
+                        .run();
+            }
+        });
+        
+        long total = 0L;
+        
+        for (TLong counter : counters) {
+            
+            total += counter.get();
+        }
+        
+        assertEquals(2L * THREADS * TRANSACTIONS, total);
+    }
+    
+    @Test
+    public void changedReadAbortsBeforeItIsSeen() {
+        
+        StateManager manager = new StateManager();
+        
+        // x == y in a committed state
+        TLong x = new TLong(manager, "x");
+        TLong y = new TLong(manager, "y");
+        TLong copy = new TLong(manager, "copy");
+        
+        AtomicInteger runs = new AtomicInteger();
+        AtomicInteger inconsistentViews = new AtomicInteger();
+        
+        Transaction transaction = new Transactions().newTransaction("copy", manager)
+                .addTransactionOperation(context -> {
+                    
+                    long first = x.get();
+                    
+                    if (1 == runs.incrementAndGet()) {
+                        
+                        // both change after x was read
+                        Thread writer = new Thread(() -> new Transactions().newTransaction("increment", manager)
+                                .addTransactionOperation(other -> {
+                                    
+                                    x.add(1);
+                                    y.add(1);
+                                    
+                                    return true;
+                                })
+                                .get()
+                                .run());
+                        
+                        writer.start();
+                        
+                        try {
+                            
+                            writer.join();
+                        } catch (InterruptedException e) {
+                            
+                            throw new IllegalStateException(e);
+                        }
+                    }
+                    
+                    if (first != y.get()) {
+                        
+                        inconsistentViews.incrementAndGet();
+                    }
+                    
+                    copy.set(first);
+                    
+                    return true;
+                })
+                .get();
+        
+        transaction.run();
+        
+        assertTrue(transaction.getRecord().isCommitted());
+        assertEquals(0, inconsistentViews.get());
+        assertEquals(2, runs.get());
+        assertEquals(1L, copy.get());
+    }
+    
+    @Test
+    public void changedReadIsValidatedAtCommit() {
+        
+        StateManager manager = new StateManager();
+        TLong x = new TLong(manager, "x");
+        TLong copy = new TLong(manager, "copy");
+        
+        AtomicInteger runs = new AtomicInteger();
+        AtomicLong seen = new AtomicLong(-1L);
+        
+        Transaction transaction = new Transactions().newTransaction("copy", manager)
+                .addTransactionOperation(context -> {
+                    
+                    seen.set(x.get());
+                    
+                    if (1 == runs.incrementAndGet()) {
+                        
+                        // x changes after it was read, nothing else is read
+                        Thread writer = new Thread(() -> x.set(5L));
+                        
+                        writer.start();
+                        
+                        try {
+                            
+                            writer.join();
+                        } catch (InterruptedException e) {
+                            
+                            throw new IllegalStateException(e);
+                        }
+                    }
+                    
+                    copy.set(seen.get());
+                    
+                    return true;
+                })
+                .get();
+        
+        transaction.run();
+        
+        assertTrue(transaction.getRecord().isCommitted());
+        assertEquals(2, runs.get());
+        assertEquals(5L, copy.get());
+    }
+}
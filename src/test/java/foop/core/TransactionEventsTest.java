@@ -0,0 +1,268 @@
+/**
+ * Project: Foops_1
+ * Package: foop.core
+ * File: TransactionEventsTest.java
+ * 
+ * @author sidmishraw
+ *         Last modified: Oct 19, 2026 6:08:37 PM
+ */
+package foop.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+import java.lang.reflect.Method;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import foop.utils.Transactions;
+
+/**
+ * <p>
+ * The <i>Transaction</i>s emit the flight recorder events of their lifecycle
+ * while a recording is running, and make none otherwise. The flight recorder
+ * API is used reflectively, like <i>TransactionEvents</i> does, so the test
+ * compiles for Java 8 and is skipped on a runtime without it.
+ * 
+ * @author sidmishraw
+ *
+ *         Qualified Name: foop.core.TransactionEventsTest
+ * 
+ */
+public class TransactionEventsTest {
+    
+    private static final String[] EVENTS = { "foop.TransactionBegin", "foop.TransactionOwnership",
+            "foop.TransactionBackup", "foop.TransactionOperation", "foop.TransactionCommit", "foop.TransactionRollback",
+            "foop.TransactionBackoff" };
+    
+    @Rule
+    public TemporaryFolder        folder = new TemporaryFolder();
+    
+    @Test
+    public void lifecycleIsRecorded() throws Exception {
+        
+        assumeTrue(recorderAvailable());
+        
+        StateManager manager = new StateManager();
+        TLong a = new TLong(manager, "a");
+        TLong b = new TLong(manager, "b");
+        
+        // makes the event types, nothing is recorded yet
+        a.set(1L);
+        
+        assertNull(TransactionEvents.begin());
+        
+        Object recording = Class.forName("jdk.jfr.Recording").getConstructor().newInstance();
+        
+        for (String event : EVENTS) {
+            
+            invoke(recording, "enable", new Class<?>[] { String.class }, event);
+        }
+        
+        invoke(recording, "start", new Class<?>[0]);
+        
+        assertNotNull(TransactionEvents.begin());
+        
+        new Transactions().newTransaction("committed", manager)
+                .addWriteSetMembers(a.getVariable())
+                .addTransactionOperation(() -> {
+                    
+                    a.add(1);
+                    
+                    return true;
+                })
+                .get()
+                .run();
+        
+        new Transactions().newTransaction("faulty", manager)
+                .addWriteSetMembers(a.getVariable())
+                .addTransactionOperation(() -> false)
+                .get()
+                .run();
+        
+        AtomicInteger runs = new AtomicInteger();
+        
+        new Transactions().newTransaction("conflicted", manager)
+                .addTransactionOperation(context -> {
+                    
+                    long value = a.get();
+                    
+                    if (1 == runs.incrementAndGet()) {
+                        
+                        Thread writer = new Thread(() -> a.set(5L));
+                        
+                        writer.start();
+                        
+                        try {
+                            
+                            writer.join();
+                        } catch (InterruptedException e) {
+                            
+                            throw new IllegalStateException(e);
+                        }
+                    }
+                    
+                    b.set(value);
+                    
+                    return true;
+                })
+                .get()
+                .run();
+        
+        invoke(recording, "stop", new Class<?>[0]);
+        
+        Path file = this.folder.getRoot().toPath().resolve("transactions.jfr");
+        
+        invoke(recording, "dump", new Class<?>[] { Path.class }, file);
+        invoke(recording, "close", new Class<?>[0]);
+        
+        assertNull(TransactionEvents.begin());
+        
+        List<Recorded> events = read(file);
+        
+        // the committed one
+        assertEquals(1, count(events, "committed", "Begin"));
+        assertEquals(1, count(events, "committed", "Ownership", "acquired", true));
+        assertEquals(1, count(events, "committed", "Operation", "completed", true));
+        assertEquals(1, count(events, "committed", "Commit", "committed", true));
+        assertEquals(0, count(events, "committed", "Rollback"));
+        assertTrue(0L < (long) first(events, "committed", "Commit").value("commitVersion"));
+        
+        // the faulty one bails out
+        assertEquals(1, count(events, "faulty", "Operation", "completed", false));
+        assertEquals(1, count(events, "faulty", "Rollback"));
+        assertEquals(0, count(events, "faulty", "Commit"));
+        assertEquals(0, count(events, "faulty", "Backoff"));
+        
+        // the conflicted one fails its validation, backs off once and commits
+        // its second attempt
+        assertEquals(2, count(events, "conflicted", "Begin"));
+        assertEquals(1, count(events, "conflicted", "Commit", "committed", false));
+        assertEquals(1, count(events, "conflicted", "Backoff", "cause", AbortCause.VALIDATION.name()));
+        assertEquals(0, (int) first(events, "conflicted", "Backoff").value("attempt"));
+        assertEquals(1, count(events, "conflicted", "Commit", "committed", true));
+        assertEquals(1, count(events, "conflicted", "Commit", "attempt", 1));
+        assertEquals(5L, b.get());
+    }
+    
+    /**
+     * <p>
+     * Tells if the runtime has the flight recorder API.
+     */
+    private static boolean recorderAvailable() {
+        
+        try {
+            
+            Class.forName("jdk.jfr.Recording");
+            Class.forName("jdk.jfr.consumer.RecordingFile");
+            
+            return true;
+        } catch (ClassNotFoundException e) {
+            
+            return false;
+        }
+    }
+    
+    private static Object invoke(Object target, String name, Class<?>[] types, Object... arguments)
+            throws ReflectiveOperationException {
+        
+        return target.getClass().getMethod(name, types).invoke(target, arguments);
+    }
+    
+    /**
+     * <p>
+     * Reads the events of the transactions from the recording.
+     */
+    private static List<Recorded> read(Path file) throws ReflectiveOperationException {
+        
+        Class<?> recorded = Class.forName("jdk.jfr.consumer.RecordedEvent");
+        Method getEventType = recorded.getMethod("getEventType");
+        Method getValue = recorded.getMethod("getValue", String.class);
+        Method getName = Class.forName("jdk.jfr.EventType").getMethod("getName");
+        
+        List<Recorded> events = new ArrayList<>();
+        
+        for (Object event : (List<?>) Class.forName("jdk.jfr.consumer.RecordingFile")
+                .getMethod("readAllEvents", Path.class)
+                .invoke(null, file)) {
+            
+            String type = (String) getName.invoke(getEventType.invoke(event));
+            
+            if (type.startsWith("foop.Transaction")) {
+                
+                events.add(new Recorded(type.substring("foop.Transaction".length()), event, getValue));
+            }
+        }
+        
+        return events;
+    }
+    
+    private static int count(List<Recorded> events, String description, String type, Object... field)
+            throws ReflectiveOperationException {
+        
+        int count = 0;
+        
+        for (Recorded event : events) {
+            
+            if (event.is(description, type) && (0 == field.length || field[1].equals(event.value((String) field[0])))) {
+                
+                count++;
+            }
+        }
+        
+        return count;
+    }
+    
+    private static Recorded first(List<Recorded> events, String description, String type)
+            throws ReflectiveOperationException {
+        
+        for (Recorded event : events) {
+            
+            if (event.is(description, type)) {
+                
+                return event;
+            }
+        }
+        
+        throw new AssertionError("No " + type + " event of " + description);
+    }
+    
+    /**
+     * <p>
+     * A recorded event of a transaction, read reflectively.
+     */
+    private static final class Recorded {
+        
+        private final String type;
+        
+        private final Object event;
+        
+        private final Method getValue;
+        
+        private Recorded(String type, Object event, Method getValue) {
+            
+            this.type = type;
+            this.event = event;
+            this.getValue = getValue;
+        }
+        
+        private Object value(String field) throws ReflectiveOperationException {
+            
+            return this.getValue.invoke(this.event, field);
+        }
+        
+        private boolean is(String description, String type) throws ReflectiveOperationException {
+            
+            return this.type.equals(type) && description.equals(this.value("description"));
+        }
+    }
+}
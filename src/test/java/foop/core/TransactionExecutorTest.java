@@ -0,0 +1,224 @@
+/**
+ * Project: Foops_1
+ * Package: foop.core
+ * File: TransactionExecutorTest.java
+ * 
+ * @author sidmishraw
+ *         Last modified: Oct 19, 2026 3:24:58 PM
+ */
+package foop.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import foop.utils.Transactions;
+
+/**
+ * <p>
+ * The <i>TransactionExecutor</i> hands back the outcome of every submitted
+ * <i>Transaction</i>, whether submitted alone, asynchronously or in a batch.
+ * 
+ * @author sidmishraw
+ *
+ *         Qualified Name: foop.core.TransactionExecutorTest
+ * 
+ */
+public class TransactionExecutorTest {
+    
+    private static final int    TRANSACTIONS = 200;
+    
+    private TransactionExecutor executor;
+    
+    @Before
+    public void start() {
+        
+        this.executor = TransactionExecutor.fixedPool(4);
+    }
+    
+    @After
+    public void stop() throws InterruptedException {
+        
+        this.executor.shutdown();
+        this.executor.awaitTermination(10L, TimeUnit.SECONDS);
+    }
+    
+    @Test
+    public void asyncResultsCarryTheValuesOfTheCommittedAttempts() throws Exception {
+        
+        StateManager manager = new StateManager();
+        TLong counter = new TLong(manager, "counter");
+        
+        List<CompletableFuture<TransactionResult<Long>>> results = new ArrayList<>();
+        
+        for (int i = 0; i < TRANSACTIONS; i++) {
+            
+            results.add(new Transactions().newTransaction("count", manager)
+                    .addValueOperation(context -> counter.add(1))
+                    .submitAsync(this.executor));
+        }
+        
+        Set<Long> values = new HashSet<>();
+        
+        for (CompletableFuture<TransactionResult<Long>> result : results) {
+            
+            TransactionResult<Long> outcome = result.get();
+            
+            assertTrue(outcome.isCommitted());
+            
+            values.add(outcome.getValue());
+        }
+        
+        // each committed attempt saw a count of its own
+        assertEquals(TRANSACTIONS, values.size());
+        assertEquals((long) TRANSACTIONS, counter.get());
+    }
+    
+    @Test
+    public void asyncFutureCompletesExceptionallyWhenTheOperationThrows() throws InterruptedException {
+        
+        StateManager manager = new StateManager();
+        TLong counter = new TLong(manager, "counter");
+        
+        IllegalStateException failure = new IllegalStateException("boom");
+        
+        CompletableFuture<TransactionResult<Long>> result = new Transactions().newTransaction("count", manager)
+                .<Long> addValueOperation(context -> {
+                    
+                    counter.add(1);
+                    
+                    throw failure;
+                })
+                .submitAsync(this.executor);
+        
+        try {
+            
+            result.get();
+            
+            fail("The failure of the operation was swallowed");
+        } catch (ExecutionException e) {
+            
+            assertSame(failure, e.getCause());
+        }
+        
+        assertEquals(0L, counter.get());
+    }
+    
+    @Test
+    public void asyncResultOfAPlainTransactionHasNoValue() throws Exception {
+        
+        StateManager manager = new StateManager();
+        TLong counter = new TLong(manager, "counter");
+        
+        TransactionResult<Void> faulty = new Transactions().newTransaction("faulty", manager)
+                .addWriteSetMembers(counter.getVariable())
+                .addTransactionOperation(() -> false)
+                .submitAsync(this.executor)
+                .get();
+        
+        assertFalse(faulty.isCommitted());
+        assertNull(faulty.getValue());
+    }
+    
+    @Test
+    public void onlyTheLegacyModeStartsAThreadPerTransaction() throws Exception {
+        
+        StateManager manager = new StateManager();
+        TLong counter = new TLong(manager, "counter");
+        TransactionExecutor legacy = TransactionExecutor.threadPerTransaction();
+        
+        List<String> threads = new ArrayList<>();
+        
+        for (TransactionExecutor executor : new TransactionExecutor[] { this.executor, legacy }) {
+            
+            Transaction transaction = new Transactions().newTransaction("named", manager)
+                    .addWriteSetMembers(counter.getVariable())
+                    .addTransactionOperation(() -> {
+                        
+                        threads.add(Thread.currentThread().getName());
+                        
+                        counter.add(1);
+                        
+                        return true;
+                    })
+                    .get();
+            
+            assertEquals("named", transaction.getName());
+            assertTrue(executor.submit(transaction).get().isCommitted());
+        }
+        
+        // a thread of the pool, then one of its own
+        assertEquals(2, threads.size());
+        assertFalse("named".equals(threads.get(0)));
+        assertEquals("named", threads.get(1));
+        assertEquals(2L, counter.get());
+    }
+    
+    @Test
+    public void batchCompletesEveryTransaction() throws Exception {
+        
+        StateManager manager = new StateManager();
+        TLong[] accounts = new TLong[4];
+        
+        for (int i = 0; i < accounts.length; i++) {
+            
+            accounts[i] = new TLong(manager, "account" + i);
+        }
+        
+        Transactions transactions = new Transactions();
+        List<Transaction> batch = new ArrayList<>();
+        
+        for (int i = 0; i < TRANSACTIONS; i++) {
+            
+            TLong from = accounts[i % accounts.length];
+            TLong to = accounts[(i + 1) % accounts.length];
+            
+            batch.add(transactions.newTransaction("transfer", manager)
+                    .addWriteSetMembers(from.getVariable(), to.getVariable())
+                    .addTransactionOperation(() -> {
+                        
+                        from.add(-1);
+                        to.add(1);
+                        
+                        return true;
+                    })
+                    .get());
+        }
+        
+        Future<List<Record>> handle = this.executor.submitBatch(batch);
+        
+        List<Record> records = handle.get();
+        
+        assertEquals(TRANSACTIONS, records.size());
+        
+        for (int i = 0; i < TRANSACTIONS; i++) {
+            
+            assertSame(batch.get(i).getRecord(), records.get(i));
+            assertTrue(records.get(i).isCommitted());
+        }
+        
+        for (TLong account : accounts) {
+            
+            // every account gave as much as it got
+            assertEquals(0L, account.get());
+        }
+        
+        assertEquals((long) TRANSACTIONS, manager.getMetrics().getCommits());
+    }
+}
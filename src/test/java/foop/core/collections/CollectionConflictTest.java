@@ -0,0 +1,204 @@
+/**
+ * Project: Foops_1
+ * Package: foop.core.collections
+ * File: CollectionConflictTest.java
+ * 
+ * @author sidmishraw
+ *         Last modified: Oct 19, 2026 5:52:09 PM
+ */
+package foop.core.collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.Test;
+
+import foop.core.StateManager;
+import foop.core.Transaction;
+import foop.core.Variable;
+import foop.utils.Transactions;
+
+/**
+ * <p>
+ * The transactions over different buckets of a <i>TMap</i>, or over the head
+ * and the tail of a <i>TQueue</i>, commit while the other one is still
+ * running, without waiting for it nor aborting.
+ * 
+ * @author sidmishraw
+ *
+ *         Qualified Name: foop.core.collections.CollectionConflictTest
+ * 
+ */
+public class CollectionConflictTest {
+    
+    /**
+     * <p>
+     * How long the first transaction waits for the second one to commit.
+     */
+    private static final long WAIT = TimeUnit.SECONDS.toMillis(5);
+    
+    @Test
+    public void keysOfDifferentBucketsDoNotConflict() throws InterruptedException {
+        
+        StateManager manager = manager();
+        TMap<String, Long> map = new TMap<>(manager, "map");
+        
+        String other = keyOfAnotherBucket(map, "a");
+        
+        assertNotSame(map.variableOf("a"), map.variableOf(other));
+        
+        assertTrue(overlaps(manager, map.variableOf("a"), () -> null == map.put("a", 1L), map.variableOf(other),
+                () -> null == map.put(other, 2L), WAIT));
+        
+        assertEquals(Long.valueOf(1L), map.get("a"));
+        assertEquals(Long.valueOf(2L), map.get(other));
+        assertEquals(2, map.size());
+        assertEquals(0L, manager.getMetrics().getOwnershipAborts());
+        assertEquals(0L, manager.getMetrics().getValidationAborts());
+    }
+    
+    @Test
+    public void keysOfTheSameBucketConflict() throws InterruptedException {
+        
+        StateManager manager = manager();
+        TMap<String, Long> map = new TMap<>(manager, "map");
+        
+        String same = keyOfTheSameBucket(map, "a");
+        
+        assertSame(map.variableOf("a"), map.variableOf(same));
+        
+        // the second one waits for the first one to give up the bucket
+        assertFalse(overlaps(manager, map.variableOf("a"), () -> null == map.put("a", 1L), map.variableOf(same),
+                () -> null == map.put(same, 2L), 100L));
+        
+        assertEquals(Long.valueOf(1L), map.get("a"));
+        assertEquals(Long.valueOf(2L), map.get(same));
+    }
+    
+    @Test
+    public void producerAndConsumerDoNotConflict() throws InterruptedException {
+        
+        StateManager manager = manager();
+        TQueue<String> queue = new TQueue<>(manager, "queue", 4);
+        
+        new Transactions().newTransaction("fill", manager)
+                .addWriteSetMembers(queue.getTail())
+                .addTransactionOperation(() -> queue.offer("first"))
+                .get()
+                .run();
+        
+        String[] polled = new String[1];
+        
+        assertTrue(overlaps(manager, queue.getHead(), () -> {
+            
+            polled[0] = queue.poll();
+            
+            return null != polled[0];
+        }, queue.getTail(), () -> queue.offer("second"), WAIT));
+        
+        assertEquals("first", polled[0]);
+        assertEquals(1, queue.size());
+        assertEquals("second", queue.peek());
+        assertEquals(0L, manager.getMetrics().getOwnershipAborts());
+        assertEquals(0L, manager.getMetrics().getValidationAborts());
+    }
+    
+    /**
+     * <p>
+     * A manager whose transactions wait long for the ownerships, so that a
+     * conflict shows up as a wait rather than an abort.
+     */
+    private static StateManager manager() {
+        
+        StateManager manager = new StateManager();
+        
+        manager.setOwnershipTimeout(TimeUnit.SECONDS.toNanos(10));
+        
+        return manager;
+    }
+    
+    /**
+     * <p>
+     * Runs the first operation in a transaction owning the first
+     * <i>Variable</i>, and the second one in a transaction owning the second
+     * <i>Variable</i> while the first transaction is still running.
+     * 
+     * @return true if the second transaction committed before the first one
+     *         gave up waiting for it
+     */
+    private static boolean overlaps(StateManager manager, Variable first,
+            Transaction.TransactionOperation firstOperation, Variable second,
+            Transaction.TransactionOperation secondOperation, long waitMillis) throws InterruptedException {
+        
+        CountDownLatch owned = new CountDownLatch(1);
+        CountDownLatch committed = new CountDownLatch(1);
+        AtomicBoolean overlapped = new AtomicBoolean();
+        
+        Transaction holder = new Transactions().newTransaction("first", manager)
+                .addWriteSetMembers(first)
+                .addTransactionOperation(() -> {
+                    
+                    boolean completed = firstOperation.apply();
+                    
+                    owned.countDown();
+                    
+                    try {
+                        
+                        overlapped.set(committed.await(waitMillis, TimeUnit.MILLISECONDS));
+                    } catch (InterruptedException e) {
+                        
+                        Thread.currentThread().interrupt();
+                    }
+                    
+                    return completed;
+                })
+                .get();
+        
+        holder.start();
+        owned.await();
+        
+        Transaction other = new Transactions().newTransaction("second", manager)
+                .addWriteSetMembers(second)
+                .addTransactionOperation(secondOperation)
+                .get();
+        
+        other.run();
+        committed.countDown();
+        
+        holder.join();
+        
+        assertTrue(holder.getRecord().isCommitted());
+        assertTrue(other.getRecord().isCommitted());
+        
+        return overlapped.get();
+    }
+    
+    private static String keyOfAnotherBucket(TMap<String, Long> map, String key) {
+        
+        for (int i = 0;; i++) {
+            
+            if (map.variableOf("k" + i) != map.variableOf(key)) {
+                
+                return "k" + i;
+            }
+        }
+    }
+    
+    private static String keyOfTheSameBucket(TMap<String, Long> map, String key) {
+        
+        for (int i = 0;; i++) {
+            
+            if (map.variableOf("k" + i) == map.variableOf(key)) {
+                
+                return "k" + i;
+            }
+        }
+    }
+}
@@ -0,0 +1,208 @@
+/**
+ * Project: Foops_1
+ * Package: foop.core.contention
+ * File: BackoffPolicyTest.java
+ * 
+ * @author sidmishraw
+ *         Last modified: Oct 19, 2026 4:48:23 PM
+ */
+package foop.core.contention;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import foop.core.AbortCause;
+import foop.core.ContentionManager;
+import foop.core.Races;
+import foop.core.Record;
+import foop.core.StateManager;
+import foop.core.TLong;
+import foop.core.Transaction;
+import foop.utils.Transactions;
+
+/**
+ * <p>
+ * The built-in <i>ContentionManager</i>s back off within their bounds, give
+ * way as per their priorities, and let every contended transaction through.
+ * 
+ * @author sidmishraw
+ *
+ *         Qualified Name: foop.core.contention.BackoffPolicyTest
+ * 
+ */
+public class BackoffPolicyTest {
+    
+    private static final long MIN     = 100L;
+    
+    private static final long MAX     = 10000L;
+    
+    private static final int  SAMPLES = 1000;
+    
+    private static final int  THREADS = 4;
+    
+    private static final int  COUNTS  = 500;
+    
+    @Test
+    public void exponentialBackoffDoublesUpToItsCap() {
+        
+        ExponentialBackoff backoff = new ExponentialBackoff(MIN, MAX);
+        
+        for (int retries = 0; retries <= 40; retries++) {
+            
+            long ceiling = Math.min(MAX, MIN << Math.min(retries, 30));
+            long highest = 0L;
+            
+            for (int i = 0; i < SAMPLES; i++) {
+                
+                long nanos = backoff.backoff(retries);
+                
+                assertTrue(1L <= nanos && nanos <= ceiling);
+                
+                highest = Math.max(highest, nanos);
+            }
+            
+            // the jitter spreads over the whole range
+            assertTrue(highest > ceiling / 2);
+        }
+        
+        assertTrue(backoff.backoff(Integer.MAX_VALUE) <= MAX);
+        
+        for (long[] bounds : new long[][] { { 0L, MAX }, { MIN, MIN - 1L } }) {
+            
+            try {
+                
+                new ExponentialBackoff(bounds[0], bounds[1]);
+                
+                throw new AssertionError("Invalid bounds were accepted");
+            } catch (IllegalArgumentException e) {
+                
+                // expected
+            }
+        }
+    }
+    
+    @Test
+    public void spinThenParkRetriesRightAwayFirst() {
+        
+        SpinThenPark policy = new SpinThenPark(3, new ExponentialBackoff(MIN, MAX));
+        
+        for (int retries = 0; retries < 3; retries++) {
+            
+            assertEquals(0L, policy.backoff(transaction(retries, 0L, 0L), null, AbortCause.OWNERSHIP));
+        }
+        
+        for (int i = 0; i < SAMPLES; i++) {
+            
+            // parks as the exponential backoff does from its first retry
+            long nanos = policy.backoff(transaction(3, 0L, 0L), null, AbortCause.OWNERSHIP);
+            
+            assertTrue(1L <= nanos && nanos <= MIN);
+        }
+    }
+    
+    @Test
+    public void karmaGivesWayToTheHarderWorker() {
+        
+        KarmaContentionManager policy = new KarmaContentionManager(new ExponentialBackoff(MIN, MAX));
+        
+        Transaction worker = transaction(0, 1L << 10, 0L);
+        Transaction idler = transaction(0, 1L, 0L);
+        
+        assertEquals(MIN, policy.backoff(worker, idler, AbortCause.OWNERSHIP));
+        assertEquals(MIN, policy.backoff(worker, worker, AbortCause.OWNERSHIP));
+        
+        long highest = 0L;
+        
+        for (int i = 0; i < SAMPLES; i++) {
+            
+            long nanos = policy.backoff(idler, worker, AbortCause.OWNERSHIP);
+            
+            assertTrue(1L <= nanos && nanos <= MAX);
+            
+            highest = Math.max(highest, nanos);
+        }
+        
+        // the karma gap raises the ceiling beyond the one of the first retry
+        assertTrue(highest > MIN);
+        
+        for (int i = 0; i < SAMPLES; i++) {
+            
+            // no enemy, plain exponential backoff
+            assertTrue(policy.backoff(idler, null, AbortCause.VALIDATION) <= MIN);
+        }
+    }
+    
+    @Test
+    public void timestampGivesWayToTheOlder() {
+        
+        TimestampContentionManager policy = new TimestampContentionManager(new ExponentialBackoff(MIN, MAX));
+        
+        // the clock wrapped around between the two starts
+        Transaction older = transaction(0, 0L, Long.MAX_VALUE);
+        Transaction younger = transaction(0, 0L, Long.MIN_VALUE);
+        
+        assertEquals(MIN, policy.backoff(older, younger, AbortCause.OWNERSHIP));
+        
+        for (int i = 0; i < SAMPLES; i++) {
+            
+            assertTrue(policy.backoff(younger, older, AbortCause.OWNERSHIP) <= MIN);
+            assertTrue(policy.backoff(older, null, AbortCause.OWNERSHIP) <= MIN);
+        }
+    }
+    
+    @Test
+    public void everyPolicyLetsTheContendedTransactionsThrough() throws InterruptedException {
+        
+        for (ContentionManager policy : new ContentionManager[] { new ExponentialBackoff(), new SpinThenPark(),
+                new KarmaContentionManager(), new TimestampContentionManager() }) {
+            
+            StateManager manager = new StateManager();
+            TLong counter = new TLong(manager, "counter");
+            
+            manager.setContentionManager(policy);
+            
+            Races.race(THREADS, index -> {
+                
+                Transactions transactions = new Transactions();
+                
+                for (int i = 0; i < COUNTS; i++) {
+                    
+                    transactions.newTransaction("count", manager)
+                            .addWriteSetMembers(counter.getVariable())
+                            .addTransactionOperation(() -> {
+                                
+                                counter.add(1);
+                                
+                                return true;
+                            })
+                            .get()
+                            .run();
+                }
+            });
+            
+            assertEquals(policy.getClass().getSimpleName(), (long) THREADS * COUNTS, counter.get());
+        }
+    }
+    
+    /**
+     * <p>
+     * Makes a transaction whose record has the given retries, karma and start
+     * time.
+     */
+    private static Transaction transaction(int retries, long karma, long startTime) {
+        
+        Record record = new Record();
+        
+        record.setRetries(retries);
+        record.setKarma(karma);
+        record.setStartTime(startTime);
+        
+        Transaction transaction = new Transaction();
+        
+        transaction.setRecord(record);
+        
+        return transaction;
+    }
+}
@@ -0,0 +1,144 @@
+/**
+ * Project: Foops_1
+ * Package: foop.core.durability
+ * File: CheckpointTest.java
+ * 
+ * @author sidmishraw
+ *         Last modified: Oct 19, 2026 11:08:52 AM
+ */
+package foop.core.durability;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import foop.core.State;
+import foop.core.StateManager;
+import foop.core.Variable;
+import foop.utils.Transactions;
+
+/**
+ * <p>
+ * A <i>Checkpoint</i> holds every `MemCell` once, even when its snapshot has
+ * to be read twice.
+ * 
+ * @author sidmishraw
+ *
+ *         Qualified Name: foop.core.durability.CheckpointTest
+ * 
+ */
+public class CheckpointTest {
+    
+    private static final int VARIABLES = 3;
+    
+    @Rule
+    public TemporaryFolder   folder    = new TemporaryFolder();
+    
+    @Test
+    public void rereadSnapshotWritesEachMemCellOnce() throws IOException {
+        
+        StateManager manager = new StateManager();
+        Variable[] variables = new Variable[VARIABLES];
+        
+        for (int i = 0; i < VARIABLES; i++) {
+            
+            variables[i] = manager.make("v" + i);
+            
+            manager.write(variables[i], new Text("old"));
+        }
+        
+        AtomicInteger encodings = new AtomicInteger();
+        
+        Path file = this.folder.getRoot().toPath().resolve("checkpoint");
+        
+        int written = new Checkpoint(file, new TextCodec() {
+            
+            @Override
+            public byte[] encode(State state) {
+                
+                if (2 == encodings.incrementAndGet()) {
+                    
+                    // the first MemCell read changes under the checkpoint,
+                    // so do the ones still to be read
+                    commitConcurrently(manager, variables);
+                }
+                
+                return super.encode(state);
+            }
+        }).write(manager);
+        
+        assertEquals(VARIABLES, written);
+        
+        StateManager loaded = new StateManager();
+        
+        assertEquals(VARIABLES, new Checkpoint(file, new TextCodec()).load(loaded));
+        
+        for (int i = 0; i < VARIABLES; i++) {
+            
+            assertEquals("new", ((Text) loaded.readState("v" + i)).text);
+        }
+    }
+    
+    /**
+     * <p>
+     * Writes all the `MemCell`s from another thread, and waits for it.
+     */
+    private static void commitConcurrently(StateManager manager, Variable[] variables) {
+        
+        Thread writer = new Thread(() -> new Transactions().newTransaction("rewrite", manager)
+                .addWriteSetMembers(variables)
+                .addTransactionOperation(() -> {
+                    
+                    for (Variable variable : variables) {
+                        
+                        manager.write(variable, new Text("new"));
+                    }
+                    
+                    return true;
+                })
+                .get()
+                .run());
+        
+        writer.start();
+        
+        try {
+            
+            writer.join();
+        } catch (InterruptedException e) {
+            
+            Thread.currentThread().interrupt();
+        }
+    }
+    
+    private static final class Text extends State {
+        
+        private final String text;
+        
+        private Text(String text) {
+            
+            this.text = text;
+        }
+    }
+    
+    private static class TextCodec implements StateCodec {
+        
+        @Override
+        public byte[] encode(State state) {
+            
+            return ((Text) state).text.getBytes(StandardCharsets.UTF_8);
+        }
+        
+        @Override
+        public State decode(byte[] bytes) {
+            
+            return new Text(new String(bytes, StandardCharsets.UTF_8));
+        }
+    }
+}
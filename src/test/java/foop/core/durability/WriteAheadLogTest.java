@@ -0,0 +1,372 @@
+/**
+ * Project: Foops_1
+ * Package: foop.core.durability
+ * File: WriteAheadLogTest.java
+ * 
+ * @author sidmishraw
+ *         Last modified: Oct 19, 2026 3:41:06 PM
+ */
+package foop.core.durability;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import foop.core.PrimitiveState;
+import foop.core.State;
+import foop.core.StateManager;
+import foop.core.TLong;
+import foop.core.Variable;
+import foop.utils.Transactions;
+
+/**
+ * <p>
+ * The <i>WriteAheadLog</i> replays the committed <i>State</i>s into a fresh
+ * <i>StateManager</i>, past a torn tail and a compaction, and forces the
+ * records to the disk as per its <i>SyncPolicy</i>.
+ * 
+ * @author sidmishraw
+ *
+ *         Qualified Name: foop.core.durability.WriteAheadLogTest
+ * 
+ */
+public class WriteAheadLogTest {
+    
+    private static final int COMMITS = 10;
+    
+    @Rule
+    public TemporaryFolder   folder  = new TemporaryFolder();
+    
+    @Test
+    public void replayAfterCloseRestoresTheCommittedStates() throws IOException {
+        
+        Path directory = this.folder.getRoot().toPath();
+        
+        StateManager manager = new StateManager();
+        WriteAheadLog log = new WriteAheadLog(directory, new TextCodec(), SyncPolicy.everyCommit());
+        
+        manager.setWriteAheadLog(log);
+        
+        TLong counter = new TLong(manager, "counter");
+        Variable text = manager.make("text");
+        
+        for (int i = 0; i < COMMITS; i++) {
+            
+            counter.add(1);
+        }
+        
+        new Transactions().newTransaction("both", manager)
+                .addWriteSetMembers(counter.getVariable(), text)
+                .addTransactionOperation(() -> {
+                    
+                    counter.add(1);
+                    manager.write(text, new Text("hello"));
+                    
+                    return true;
+                })
+                .get()
+                .run();
+        
+        long records = log.getDurableSequence();
+        
+        log.close();
+        
+        assertEquals(COMMITS + 1L, records);
+        
+        StateManager recovered = new StateManager();
+        
+        try (WriteAheadLog reopened = new WriteAheadLog(directory, new TextCodec(), SyncPolicy.everyCommit())) {
+            
+            assertEquals(records, reopened.recover(recovered));
+        }
+        
+        assertEquals(COMMITS + 1L, ((PrimitiveState) recovered.readState("counter")).longValue());
+        assertEquals("hello", ((Text) recovered.readState("text")).text);
+    }
+    
+    @Test
+    public void truncatedLastRecordIsIgnored() throws IOException {
+        
+        Path directory = this.folder.getRoot().toPath();
+        
+        this.writeCounter(directory);
+        
+        Path segment = segments(directory).get(0);
+        
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            
+            // the crash tore the last record
+            channel.truncate(channel.size() - 3L);
+        }
+        
+        assertRecovers(directory, COMMITS - 1L);
+    }
+    
+    @Test
+    public void corruptLastRecordIsIgnored() throws IOException {
+        
+        Path directory = this.folder.getRoot().toPath();
+        
+        this.writeCounter(directory);
+        
+        Path segment = segments(directory).get(0);
+        
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            
+            ByteBuffer last = ByteBuffer.allocate(1);
+            
+            channel.read(last, channel.size() - 1L);
+            
+            last.put(0, (byte) ~last.get(0));
+            last.rewind();
+            
+            // the checksum of the last record no longer matches
+            channel.write(last, channel.size() - 1L);
+        }
+        
+        assertRecovers(directory, COMMITS - 1L);
+    }
+    
+    @Test
+    public void compactedLogReplaysTheLatestStates() throws IOException {
+        
+        Path directory = this.folder.getRoot().toPath();
+        
+        StateManager manager = new StateManager();
+        WriteAheadLog log = new WriteAheadLog(directory, new TextCodec(), SyncPolicy.everyCommit());
+        
+        // every sync seals its segment, compacted on demand only
+        log.setSegmentSize(1L);
+        log.setCompactionThreshold(0);
+        
+        manager.setWriteAheadLog(log);
+        
+        TLong first = new TLong(manager, "first");
+        TLong counter = new TLong(manager, "counter");
+        
+        first.set(7L);
+        
+        for (int i = 1; i <= COMMITS; i++) {
+            
+            counter.set(i);
+        }
+        
+        assertEquals(COMMITS + 2, segments(directory).size());
+        
+        log.compact();
+        
+        // the compacted segment and the current one
+        assertEquals(2, segments(directory).size());
+        
+        log.close();
+        
+        StateManager recovered = new StateManager();
+        
+        try (WriteAheadLog reopened = new WriteAheadLog(directory, new TextCodec(), SyncPolicy.everyCommit())) {
+            
+            // a record per `MemCell`
+            assertEquals(2L, reopened.recover(recovered));
+        }
+        
+        assertEquals(7L, ((PrimitiveState) recovered.readState("first")).longValue());
+        assertEquals((long) COMMITS, ((PrimitiveState) recovered.readState("counter")).longValue());
+    }
+    
+    @Test
+    public void everyCommitSyncsEachRecord() throws IOException {
+        
+        StateManager manager = new StateManager();
+        
+        try (WriteAheadLog log = new WriteAheadLog(this.folder.getRoot().toPath(), new TextCodec(),
+                SyncPolicy.everyCommit())) {
+            
+            manager.setWriteAheadLog(log);
+            
+            TLong counter = new TLong(manager, "counter");
+            
+            for (int i = 1; i <= COMMITS; i++) {
+                
+                counter.set(i);
+                
+                assertEquals((long) i, log.getDurableSequence());
+            }
+        }
+    }
+    
+    @Test
+    public void everyCommitsSyncsEachNthRecord() throws IOException {
+        
+        StateManager manager = new StateManager();
+        
+        try (WriteAheadLog log = new WriteAheadLog(this.folder.getRoot().toPath(), new TextCodec(),
+                SyncPolicy.everyCommits(3))) {
+            
+            manager.setWriteAheadLog(log);
+            
+            TLong counter = new TLong(manager, "counter");
+            
+            for (int i = 1; i <= COMMITS; i++) {
+                
+                counter.set(i);
+                
+                // the records of the commits in between are synced along
+                assertEquals(i - i % 3L, log.getDurableSequence());
+            }
+        }
+    }
+    
+    @Test
+    public void everyMillisSyncsInTheBackground() throws IOException, InterruptedException {
+        
+        StateManager manager = new StateManager();
+        
+        try (WriteAheadLog log = new WriteAheadLog(this.folder.getRoot().toPath(), new TextCodec(),
+                SyncPolicy.everyMillis(10L))) {
+            
+            manager.setWriteAheadLog(log);
+            
+            TLong counter = new TLong(manager, "counter");
+            
+            for (int i = 1; i <= COMMITS; i++) {
+                
+                counter.set(i);
+            }
+            
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+            
+            while (log.getDurableSequence() < COMMITS && System.nanoTime() < deadline) {
+                
+                Thread.sleep(1L);
+            }
+            
+            assertEquals((long) COMMITS, log.getDurableSequence());
+        }
+    }
+    
+    @Test
+    public void policiesSyncAsConfigured() {
+        
+        assertTrue(SyncPolicy.everyCommit().syncs(0L, 1L));
+        assertFalse(SyncPolicy.everyCommits(2).syncs(0L, 1L));
+        assertTrue(SyncPolicy.everyCommits(2).syncs(1L, 2L));
+        assertFalse(SyncPolicy.everyMillis(1L).syncs(0L, 1L));
+        
+        for (Runnable policy : new Runnable[] { () -> SyncPolicy.everyCommits(0),
+                () -> SyncPolicy.everyMillis(0L) }) {
+            
+            try {
+                
+                policy.run();
+                
+                throw new AssertionError("A non-positive argument was accepted");
+            } catch (IllegalArgumentException e) {
+                
+                // expected
+            }
+        }
+    }
+    
+    /**
+     * <p>
+     * Logs the counter set to 1 through {@link #COMMITS}, and closes the log.
+     */
+    private void writeCounter(Path directory) throws IOException {
+        
+        StateManager manager = new StateManager();
+        
+        try (WriteAheadLog log = new WriteAheadLog(directory, new TextCodec(), SyncPolicy.everyCommit())) {
+            
+            manager.setWriteAheadLog(log);
+            
+            TLong counter = new TLong(manager, "counter");
+            
+            for (int i = 1; i <= COMMITS; i++) {
+                
+                counter.set(i);
+            }
+        }
+    }
+    
+    /**
+     * <p>
+     * Reopens the log, and checks that it replays the counter up to the given
+     * value and appends after it.
+     */
+    private static void assertRecovers(Path directory, long counter) throws IOException {
+        
+        StateManager recovered = new StateManager();
+        
+        try (WriteAheadLog reopened = new WriteAheadLog(directory, new TextCodec(), SyncPolicy.everyCommit())) {
+            
+            assertEquals(counter, reopened.recover(recovered));
+            assertEquals(counter, ((PrimitiveState) recovered.readState("counter")).longValue());
+            
+            // the appends carry on past the truncated tail
+            reopened.append(counter + 1L, new String[] { "counter" },
+                    new State[] { new PrimitiveState(PrimitiveState.Type.LONG, counter + 1L) });
+            reopened.sync();
+        }
+        
+        StateManager replayed = new StateManager();
+        
+        try (WriteAheadLog reopened = new WriteAheadLog(directory, new TextCodec(), SyncPolicy.everyCommit())) {
+            
+            assertEquals(counter + 1L, reopened.recover(replayed));
+            assertEquals(counter + 1L, ((PrimitiveState) replayed.readState("counter")).longValue());
+        }
+    }
+    
+    /**
+     * <p>
+     * Lists the segments of the log in order.
+     */
+    private static List<Path> segments(Path directory) throws IOException {
+        
+        try (Stream<Path> files = Files.list(directory)) {
+            
+            return files.filter(file -> file.getFileName().toString().endsWith(".log")).sorted()
+                    .collect(Collectors.toList());
+        }
+    }
+    
+    private static final class Text extends State {
+        
+        private final String text;
+        
+        private Text(String text) {
+            
+            this.text = text;
+        }
+    }
+    
+    private static class TextCodec implements StateCodec {
+        
+        @Override
+        public byte[] encode(State state) {
+            
+            return ((Text) state).text.getBytes(StandardCharsets.UTF_8);
+        }
+        
+        @Override
+        public State decode(byte[] bytes) {
+            
+            return new Text(new String(bytes, StandardCharsets.UTF_8));
+        }
+    }
+}
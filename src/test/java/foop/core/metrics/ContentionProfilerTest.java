@@ -0,0 +1,92 @@
+/**
+ * Project: Foops_1
+ * Package: foop.core.metrics
+ * File: ContentionProfilerTest.java
+ * 
+ * @author sidmishraw
+ *         Last modified: Oct 19, 2026 12:20:33 PM
+ */
+package foop.core.metrics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+
+import org.junit.Test;
+
+import foop.core.Races;
+import foop.core.metrics.ContentionProfiler.HotSpot;
+
+/**
+ * <p>
+ * The <i>ContentionProfiler</i> keeps the hottest `MemCell`s within its
+ * capacity, and loses no report on them under concurrency.
+ * 
+ * @author sidmishraw
+ *
+ *         Qualified Name: foop.core.metrics.ContentionProfilerTest
+ * 
+ */
+public class ContentionProfilerTest {
+    
+    @Test
+    public void keepsTheHottestWithinCapacity() {
+        
+        ContentionProfiler profiler = new ContentionProfiler(2);
+        
+        for (int i = 0; i < 10; i++) {
+            
+            profiler.validationFailed("hot");
+        }
+        
+        for (int i = 0; i < 5; i++) {
+            
+            profiler.ownershipFailed("warm", 0L);
+        }
+        
+        // a cold one evicts the warm one, and inherits its count
+        profiler.ownershipAwaited("cold", 3L);
+        
+        List<HotSpot> hotSpots = profiler.getHotSpots();
+        
+        assertEquals(2, hotSpots.size());
+        assertEquals("hot", hotSpots.get(0).getVariable());
+        assertEquals(10L, hotSpots.get(0).getConflicts());
+        assertEquals(10L, hotSpots.get(0).getValidationFailures());
+        assertEquals("cold", hotSpots.get(1).getVariable());
+        assertEquals(6L, hotSpots.get(1).getConflicts());
+        assertEquals(5L, hotSpots.get(1).getError());
+        assertEquals(1L, hotSpots.get(1).getOwnershipWaits());
+        assertEquals(3L, hotSpots.get(1).getWaitTime());
+    }
+    
+    @Test
+    public void concurrentReportsAreAllCounted() throws InterruptedException {
+        
+        ContentionProfiler profiler = new ContentionProfiler();
+        
+        int threads = 8;
+        int reports = 20000;
+        
+        Races.race(threads, index -> {
+            
+            for (int i = 0; i < reports; i++) {
+                
+                profiler.ownershipFailed("v" + i % 4, 1L);
+            }
+        });
+        
+        long conflicts = 0L;
+        
+        for (HotSpot hotSpot : profiler.getHotSpots()) {
+            
+            assertEquals(0L, hotSpot.getError());
+            assertTrue(hotSpot.getConflicts() > 0L);
+            
+            conflicts += hotSpot.getOwnershipFailures();
+        }
+        
+        assertEquals((long) threads * reports, conflicts);
+    }
+}
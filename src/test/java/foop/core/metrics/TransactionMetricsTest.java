@@ -0,0 +1,214 @@
+/**
+ * Project: Foops_1
+ * Package: foop.core.metrics
+ * File: TransactionMetricsTest.java
+ * 
+ * @author sidmishraw
+ *         Last modified: Oct 19, 2026 4:02:15 PM
+ */
+package foop.core.metrics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.junit.Test;
+
+import foop.core.AbortCause;
+import foop.core.StateManager;
+import foop.core.TLong;
+import foop.core.metrics.TransactionMetrics.Phase;
+import foop.utils.Transactions;
+
+/**
+ * <p>
+ * The <i>TransactionMetrics</i> count the commits, aborts and retries of the
+ * transactions of their <i>StateManager</i>, and expose them over JMX.
+ * 
+ * @author sidmishraw
+ *
+ *         Qualified Name: foop.core.metrics.TransactionMetricsTest
+ * 
+ */
+public class TransactionMetricsTest {
+    
+    @Test
+    public void countsTheOutcomesOfTheTransactions() {
+        
+        StateManager manager = new StateManager();
+        TransactionMetrics metrics = manager.getMetrics();
+        TLong a = new TLong(manager, "a");
+        TLong b = new TLong(manager, "b");
+        
+        metrics.setSampleRate(1);
+        
+        a.set(1L);
+        
+        // bails out
+        new Transactions().newTransaction("faulty", manager)
+                .addWriteSetMembers(a.getVariable())
+                .addTransactionOperation(() -> false)
+                .get()
+                .run();
+        
+        AtomicInteger runs = new AtomicInteger();
+        
+        // aborts once, a changes after it was read
+        new Transactions().newTransaction("copy", manager)
+                .addTransactionOperation(context -> {
+                    
+                    long value = a.get();
+                    
+                    if (1 == runs.incrementAndGet()) {
+                        
+                        commitConcurrently(a);
+                    }
+                    
+                    b.set(value);
+                    
+                    return true;
+                })
+                .get()
+                .run();
+        
+        assertEquals(2, runs.get());
+        assertEquals(5L, b.get());
+        
+        // the plain write, the concurrent one and the copy
+        assertEquals(3L, metrics.getCommits());
+        assertEquals(1L, metrics.getOperationAborts());
+        assertEquals(1L, metrics.getValidationAborts());
+        assertEquals(0L, metrics.getOwnershipAborts());
+        assertEquals(0L, metrics.getRetryAborts());
+        assertEquals(4L, metrics.getRetries().getCount());
+        assertEquals(1L, metrics.getRetriesMax());
+        
+        // every attempt is sampled
+        assertEquals(5L, metrics.getLatency(Phase.OPERATION).getCount());
+        
+        metrics.reset();
+        
+        assertEquals(0L, metrics.getCommits());
+        assertEquals(0L, metrics.getValidationAborts());
+        assertEquals(0L, metrics.getRetries().getCount());
+        assertEquals(0L, metrics.getLatency(Phase.OPERATION).getCount());
+    }
+    
+    @Test
+    public void disabledMetricsRecordNothing() {
+        
+        TransactionMetrics metrics = new TransactionMetrics();
+        
+        metrics.setEnabled(false);
+        
+        assertEquals(0L, metrics.start());
+        
+        metrics.abort(AbortCause.VALIDATION);
+        metrics.complete(true, 2);
+        
+        assertEquals(0L, metrics.getCommits());
+        assertEquals(0L, metrics.getValidationAborts());
+        assertEquals(0L, metrics.getRetries().getCount());
+        
+        try {
+            
+            metrics.setSampleRate(0);
+            
+            throw new AssertionError("A sample rate of 0 was accepted");
+        } catch (IllegalArgumentException e) {
+            
+            // expected
+        }
+    }
+    
+    @Test
+    public void histogramApproximatesThePercentiles() {
+        
+        Histogram histogram = new Histogram();
+        
+        assertEquals(0L, histogram.getPercentile(50.0));
+        assertEquals(0.0, histogram.getMean(), 0.0);
+        
+        for (long value = 1L; value <= 100L; value++) {
+            
+            histogram.record(value);
+        }
+        
+        assertEquals(100L, histogram.getCount());
+        assertEquals(50.5, histogram.getMean(), 1e-9);
+        assertEquals(100L, histogram.getMax());
+        
+        // the upper bounds of [1, 2), [32, 64) and [64, 128) capped by the max
+        assertEquals(1L, histogram.getPercentile(0.0));
+        assertEquals(63L, histogram.getPercentile(50.0));
+        assertEquals(100L, histogram.getPercentile(99.0));
+        
+        histogram.record(-1L);
+        
+        // a negative value counts as 0
+        assertEquals(101L, histogram.getCount());
+        assertEquals(100L, histogram.getMax());
+        
+        histogram.reset();
+        
+        assertEquals(0L, histogram.getCount());
+        assertEquals(0L, histogram.getMax());
+    }
+    
+    @Test
+    public void mbeanExposesTheRegistry() throws JMException {
+        
+        TransactionMetrics metrics = new TransactionMetrics();
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        
+        metrics.complete(true, 0);
+        metrics.complete(true, 3);
+        metrics.abort(AbortCause.OWNERSHIP);
+        
+        ObjectName name = metrics.register("metrics-test");
+        
+        try {
+            
+            assertTrue(server.isRegistered(name));
+            assertEquals(2L, server.getAttribute(name, "Commits"));
+            assertEquals(1L, server.getAttribute(name, "OwnershipAborts"));
+            assertEquals(3L, server.getAttribute(name, "RetriesMax"));
+            assertEquals(1.5, (Double) server.getAttribute(name, "RetriesMean"), 1e-9);
+            
+            server.invoke(name, "reset", new Object[0], new String[0]);
+            
+            assertEquals(0L, metrics.getCommits());
+        } finally {
+            
+            metrics.unregister("metrics-test");
+        }
+        
+        assertFalse(server.isRegistered(name));
+    }
+    
+    /**
+     * <p>
+     * Sets the `MemCell` to 5 from another thread, and waits for it.
+     */
+    private static void commitConcurrently(TLong a) {
+        
+        Thread writer = new Thread(() -> a.set(5L));
+        
+        writer.start();
+        
+        try {
+            
+            writer.join();
+        } catch (InterruptedException e) {
+            
+            throw new IllegalStateException(e);
+        }
+    }
+}